@@ -0,0 +1,261 @@
+package org.camunda.bpm.modeler.test.core.di;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.eclipse.dd.dc.Bounds;
+import org.eclipse.dd.dc.DcFactory;
+import org.eclipse.dd.dc.DcPackage;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
+import org.eclipse.graphiti.mm.pictograms.PictogramLink;
+import org.eclipse.graphiti.mm.pictograms.PictogramsFactory;
+import org.eclipse.graphiti.services.Graphiti;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DISynchronizerTest {
+
+	private TransactionalEditingDomain editingDomain;
+
+	private Diagram diagram;
+
+	private ContainerShape shape;
+
+	private BPMNShape bpmnShape;
+
+	@Before
+	public void before() {
+		editingDomain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				Resource resource = new XMIResourceImpl(URI.createURI("DISynchronizerTest.diagram"));
+				editingDomain.getResourceSet().getResources().add(resource);
+
+				diagram = Graphiti.getPeCreateService().createDiagram("BPMN2", "DISynchronizerTest", true);
+				resource.getContents().add(diagram);
+
+				bpmnShape = BpmnDiFactory.eINSTANCE.createBPMNShape();
+				bpmnShape.setBounds(DcFactory.eINSTANCE.createBounds());
+				resource.getContents().add(bpmnShape);
+
+				shape = Graphiti.getPeCreateService().createContainerShape(diagram, true);
+				Graphiti.getGaService().setLocationAndSize(Graphiti.getGaService().createRectangle(shape), 10, 10, 100, 80);
+
+				PictogramLink link = PictogramsFactory.eINSTANCE.createPictogramLink();
+				link.getBusinessObjects().add(bpmnShape);
+				shape.setLink(link);
+				diagram.getPictogramLinks().add(link);
+
+				DISynchronizer.updateDI(shape);
+			}
+		});
+	}
+
+	@After
+	public void after() {
+		editingDomain.dispose();
+	}
+
+	@Test
+	public void testUpdateOnCommit() {
+
+		// given
+		final Bounds bounds = bpmnShape.getBounds();
+
+		final float[] boundsDuringTransaction = new float[1];
+
+		// when
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				shape.getGraphicsAlgorithm().setX(200);
+				shape.getGraphicsAlgorithm().setY(300);
+
+				DISynchronizer.updateDI(shape);
+
+				boundsDuringTransaction[0] = bounds.getX();
+			}
+		});
+
+		// then
+		assertThat(boundsDuringTransaction[0]).isEqualTo(10f);
+
+		assertThat(bounds.getX()).isEqualTo(200f);
+		assertThat(bounds.getY()).isEqualTo(300f);
+		assertThat(bounds.getWidth()).isEqualTo(100f);
+		assertThat(bounds.getHeight()).isEqualTo(80f);
+	}
+
+	@Test
+	public void testUpdateOncePerTransaction() {
+
+		// given
+		Bounds bounds = bpmnShape.getBounds();
+
+		final int[] updates = new int[1];
+
+		bounds.eAdapters().add(new AdapterImpl() {
+
+			@Override
+			public void notifyChanged(Notification msg) {
+				if (msg.getFeature() == DcPackage.eINSTANCE.getBounds_X()) {
+					updates[0]++;
+				}
+			}
+		});
+
+		// when
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				for (int i = 1; i <= 10; i++) {
+					shape.getGraphicsAlgorithm().setX(i * 10);
+
+					DISynchronizer.updateDI(shape);
+				}
+			}
+		});
+
+		// then
+		assertThat(updates[0]).isEqualTo(1);
+		assertThat(bounds.getX()).isEqualTo(100f);
+	}
+
+	@Test
+	public void testUndo() {
+
+		// given
+		Bounds bounds = bpmnShape.getBounds();
+
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				shape.getGraphicsAlgorithm().setX(200);
+
+				DISynchronizer.updateDI(shape);
+			}
+		});
+
+		// when
+		editingDomain.getCommandStack().undo();
+
+		// then
+		assertThat(shape.getGraphicsAlgorithm().getX()).isEqualTo(10);
+		assertThat(bounds.getX()).isEqualTo(10f);
+	}
+
+	@Test
+	public void testSkipRemovedElements() {
+
+		// given
+		Bounds bounds = bpmnShape.getBounds();
+
+		// when
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				shape.getGraphicsAlgorithm().setX(200);
+
+				DISynchronizer.updateDI(shape);
+
+				diagram.getChildren().remove(shape);
+			}
+		});
+
+		// then
+		assertThat(bounds.getX()).isEqualTo(10f);
+	}
+
+	@Test
+	public void testDiscardOnRollback() throws Exception {
+
+		// given
+		Bounds bounds = bpmnShape.getBounds();
+
+		Transaction transaction = ((InternalTransactionalEditingDomain) editingDomain).startTransaction(false, null);
+
+		shape.getGraphicsAlgorithm().setX(200);
+
+		DISynchronizer.updateDI(shape);
+
+		transaction.rollback();
+
+		// when
+		execute(new Runnable() {
+
+			@Override
+			public void run() {
+				// does not schedule a di update
+				shape.getGraphicsAlgorithm().setX(300);
+			}
+		});
+
+		// then
+		assertThat(bounds.getX()).isEqualTo(10f);
+	}
+
+	@Test
+	public void testEditingDomainCollectedAfterDispose() {
+
+		// given
+		TransactionalEditingDomain editingDomain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+
+		DISynchronizer.get(editingDomain);
+
+		WeakReference<TransactionalEditingDomain> reference = new WeakReference<TransactionalEditingDomain>(editingDomain);
+
+		// when
+		editingDomain.dispose();
+
+		editingDomain = null;
+
+		// then
+		assertThat(isCollected(reference)).isTrue();
+	}
+
+	private static boolean isCollected(WeakReference<?> reference) {
+		for (int i = 0; i < 20 && reference.get() != null; i++) {
+			System.gc();
+
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		return reference.get() == null;
+	}
+
+	private void execute(final Runnable runnable) {
+		editingDomain.getCommandStack().execute(new RecordingCommand(editingDomain) {
+
+			@Override
+			protected void doExecute() {
+				runnable.run();
+			}
+		});
+	}
+}
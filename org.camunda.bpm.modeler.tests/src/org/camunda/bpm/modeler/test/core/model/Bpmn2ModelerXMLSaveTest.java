@@ -0,0 +1,106 @@
+package org.camunda.bpm.modeler.test.core.model;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.eclipse.bpmn2.DocumentRoot;
+import org.eclipse.bpmn2.di.BPMNEdge;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.dd.dc.Bounds;
+import org.eclipse.dd.dc.Point;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.junit.Test;
+
+public class Bpmn2ModelerXMLSaveTest {
+
+	private static final String DOCUMENT =
+		"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+		"<bpmn2:definitions xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" " +
+		"xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\" xmlns:dc=\"http://www.omg.org/spec/DD/20100524/DC\" " +
+		"xmlns:di=\"http://www.omg.org/spec/DD/20100524/DI\" id=\"Definitions_1\" targetNamespace=\"http://sample.bpmn2.org/bpmn2/sample/process\">\n" +
+		"<bpmn2:process id=\"Process_1\">\n" +
+		"<bpmn2:task id=\"Task_1\"/>\n" +
+		"<bpmn2:task id=\"Task_2\"/>\n" +
+		"<bpmn2:sequenceFlow id=\"SequenceFlow_1\" sourceRef=\"Task_1\" targetRef=\"Task_2\"/>\n" +
+		"</bpmn2:process>\n" +
+		"<bpmndi:BPMNDiagram id=\"BPMNDiagram_1\"><bpmndi:BPMNPlane id=\"BPMNPlane_1\" bpmnElement=\"Process_1\">\n" +
+		"<bpmndi:BPMNShape id=\"BPMNShape_Task_1\" bpmnElement=\"Task_1\"><dc:Bounds height=\"50.0\" width=\"110.0\" x=\"-100.0\" y=\"-20.0\"/></bpmndi:BPMNShape>\n" +
+		"<bpmndi:BPMNShape id=\"BPMNShape_Task_2\" bpmnElement=\"Task_2\"><dc:Bounds height=\"50.0\" width=\"110.0\" x=\"100.0\" y=\"-20.0\"/></bpmndi:BPMNShape>\n" +
+		"<bpmndi:BPMNEdge id=\"BPMNEdge_SequenceFlow_1\" bpmnElement=\"SequenceFlow_1\" sourceElement=\"BPMNShape_Task_1\" targetElement=\"BPMNShape_Task_2\">" +
+		"<di:waypoint xsi:type=\"dc:Point\" x=\"10.0\" y=\"5.0\"/><di:waypoint xsi:type=\"dc:Point\" x=\"100.0\" y=\"5.0\"/></bpmndi:BPMNEdge>\n" +
+		"</bpmndi:BPMNPlane></bpmndi:BPMNDiagram>\n" +
+		"</bpmn2:definitions>\n";
+
+	@Test
+	public void testShiftNegativeCoordinatesWithoutModifyingModel() throws IOException {
+
+		// given
+		Resource resource = load(DOCUMENT);
+
+		ChangeRecorder recorder = new ChangeRecorder();
+		resource.eAdapters().add(recorder);
+
+		// when
+		Resource savedResource = load(save(resource));
+
+		// then
+		assertThat(recorder.changes).isEqualTo(0);
+
+		Bounds bounds = getShape(resource, "BPMNShape_Task_1").getBounds();
+		assertThat(bounds.getX()).isEqualTo(-100.0f);
+		assertThat(bounds.getY()).isEqualTo(-20.0f);
+
+		Bounds savedBounds = getShape(savedResource, "BPMNShape_Task_1").getBounds();
+		assertThat(savedBounds.getX()).isEqualTo(0.0f);
+		assertThat(savedBounds.getY()).isEqualTo(0.0f);
+
+		Bounds savedOtherBounds = getShape(savedResource, "BPMNShape_Task_2").getBounds();
+		assertThat(savedOtherBounds.getX()).isEqualTo(200.0f);
+
+		Point savedWaypoint = ((BPMNEdge) savedResource.getEObject("BPMNEdge_SequenceFlow_1")).getWaypoint().get(0);
+		assertThat(savedWaypoint.getX()).isEqualTo(110.0f);
+		assertThat(savedWaypoint.getY()).isEqualTo(25.0f);
+	}
+
+	private BPMNShape getShape(Resource resource, String id) {
+		return (BPMNShape) resource.getEObject(id);
+	}
+
+	private Resource load(String document) throws IOException {
+		Resource resource = new Bpmn2ModelerResourceFactoryImpl().createResource(URI.createURI("Bpmn2ModelerXMLSaveTest.bpmn"));
+		resource.load(new ByteArrayInputStream(document.getBytes("UTF-8")), null);
+
+		assertThat(resource.getContents().get(0)).isInstanceOf(DocumentRoot.class);
+
+		return resource;
+	}
+
+	private String save(Resource resource) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		resource.save(out, null);
+
+		return out.toString("UTF-8");
+	}
+
+	private static class ChangeRecorder extends EContentAdapter {
+
+		private int changes = 0;
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			super.notifyChanged(notification);
+
+			if (notification.getNotifier() instanceof EObject && !notification.isTouch()) {
+				changes++;
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package org.camunda.bpm.modeler.test.core.model;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.eclipse.bpmn2.DocumentRoot;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.Test;
+
+/**
+ * Measures the load time of generated models with 100 to 20.000 flow nodes
+ * to verify that id references resolve in linear time.
+ *
+ * Not part of the regular test suite (which only picks up *Test classes);
+ * run manually and compare the timings printed to the console.
+ */
+public class Bpmn2ModelerXmlHandlerBenchmark {
+
+	private static final int[] SIZES = { 100, 1000, 5000, 10000, 20000 };
+
+	private static final int WARMUP_ITERATIONS = 5;
+
+	@Test
+	public void benchmarkLoad() throws IOException {
+
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			load(generate(SIZES[1]));
+		}
+
+		for (int size : SIZES) {
+			byte[] document = generate(size);
+
+			long time = System.nanoTime();
+			Resource resource = load(document);
+			time = System.nanoTime() - time;
+
+			verifyResolved(resource, size);
+
+			System.out.println(String.format("load %s nodes: %.3fms, %.3fus/node",
+				size, time / 1e6, time / 1e3 / size));
+		}
+	}
+
+	private Resource load(byte[] document) throws IOException {
+		Resource resource = new Bpmn2ModelerResourceFactoryImpl().createResource(URI.createURI("Bpmn2ModelerXmlHandlerBenchmark.bpmn"));
+		resource.load(new ByteArrayInputStream(document), null);
+
+		return resource;
+	}
+
+	private void verifyResolved(Resource resource, int size) {
+		DocumentRoot documentRoot = (DocumentRoot) resource.getContents().get(0);
+		Process process = (Process) documentRoot.getDefinitions().getRootElements().get(0);
+
+		int flows = 0;
+
+		for (Object element : process.getFlowElements()) {
+			if (element instanceof SequenceFlow) {
+				SequenceFlow flow = (SequenceFlow) element;
+
+				assertThat(flow.getSourceRef()).isNotNull();
+				assertThat(flow.getTargetRef()).isNotNull();
+
+				flows++;
+			}
+		}
+
+		assertThat(flows).isEqualTo(size - 1);
+	}
+
+	/**
+	 * Generates a process with a chain of tasks connected by sequence flows,
+	 * including the di for all elements.
+	 */
+	private static byte[] generate(int size) {
+		StringBuilder process = new StringBuilder();
+		StringBuilder plane = new StringBuilder();
+
+		for (int i = 0; i < size; i++) {
+			process.append(String.format("<bpmn2:task id=\"Task_%s\" name=\"Task %s\"/>\n", i, i));
+			plane.append(String.format(
+				"<bpmndi:BPMNShape id=\"BPMNShape_Task_%s\" bpmnElement=\"Task_%s\"><dc:Bounds height=\"50.0\" width=\"110.0\" x=\"%s\" y=\"100.0\"/></bpmndi:BPMNShape>\n",
+				i, i, i * 150));
+
+			if (i > 0) {
+				process.append(String.format("<bpmn2:sequenceFlow id=\"SequenceFlow_%s\" sourceRef=\"Task_%s\" targetRef=\"Task_%s\"/>\n", i, i - 1, i));
+				plane.append(String.format(
+					"<bpmndi:BPMNEdge id=\"BPMNEdge_SequenceFlow_%s\" bpmnElement=\"SequenceFlow_%s\" sourceElement=\"BPMNShape_Task_%s\" targetElement=\"BPMNShape_Task_%s\">" +
+					"<di:waypoint xsi:type=\"dc:Point\" x=\"%s\" y=\"125.0\"/><di:waypoint xsi:type=\"dc:Point\" x=\"%s\" y=\"125.0\"/></bpmndi:BPMNEdge>\n",
+					i, i, i - 1, i, (i - 1) * 150 + 110, i * 150));
+			}
+		}
+
+		String document =
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+			"<bpmn2:definitions xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" " +
+			"xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\" xmlns:dc=\"http://www.omg.org/spec/DD/20100524/DC\" " +
+			"xmlns:di=\"http://www.omg.org/spec/DD/20100524/DI\" id=\"Definitions_1\" targetNamespace=\"http://sample.bpmn2.org/bpmn2/sample/process\">\n" +
+			"<bpmn2:process id=\"Process_1\">\n" + process + "</bpmn2:process>\n" +
+			"<bpmndi:BPMNDiagram id=\"BPMNDiagram_1\"><bpmndi:BPMNPlane id=\"BPMNPlane_1\" bpmnElement=\"Process_1\">\n" + plane +
+			"</bpmndi:BPMNPlane></bpmndi:BPMNDiagram>\n" +
+			"</bpmn2:definitions>\n";
+
+		try {
+			return document.getBytes("UTF-8");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
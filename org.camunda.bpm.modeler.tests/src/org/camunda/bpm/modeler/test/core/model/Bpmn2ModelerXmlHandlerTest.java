@@ -0,0 +1,140 @@
+package org.camunda.bpm.modeler.test.core.model;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceImpl;
+import org.eclipse.bpmn2.DocumentRoot;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.junit.Test;
+
+public class Bpmn2ModelerXmlHandlerTest {
+
+	@Test
+	public void testResolveReferences() throws IOException {
+
+		// when
+		Resource resource = load(generate(100));
+
+		// then
+		verifyResolved(resource, 100);
+	}
+
+	@Test
+	public void testResolveReferencesFromIdTable() throws IOException {
+
+		// given
+		CountingResource resource = new CountingResource();
+
+		// when
+		resource.load(new ByteArrayInputStream(generate(2000)), null);
+
+		// then
+		verifyResolved(resource, 2000);
+
+		// no reference falls back to a lookup in the resource
+		assertThat(resource.lookups).isEqualTo(0);
+	}
+
+	private Resource load(byte[] document) throws IOException {
+		Resource resource = new Bpmn2ModelerResourceFactoryImpl().createResource(URI.createURI("Bpmn2ModelerXmlHandlerTest.bpmn"));
+		resource.load(new ByteArrayInputStream(document), null);
+
+		return resource;
+	}
+
+	/**
+	 * Resource counting the lookups of objects by their uri fragment or id
+	 */
+	private static class CountingResource extends Bpmn2ModelerResourceImpl {
+
+		private int lookups = 0;
+
+		public CountingResource() {
+			super(URI.createURI("Bpmn2ModelerXmlHandlerTest.bpmn"));
+
+			// use the load options of the factory, but keep our own uri handler
+			Resource template = new Bpmn2ModelerResourceFactoryImpl().createResource(getURI());
+
+			Object uriHandler = getDefaultLoadOptions().get(XMLResource.OPTION_URI_HANDLER);
+
+			getDefaultLoadOptions().putAll(((XMLResource) template).getDefaultLoadOptions());
+			getDefaultLoadOptions().put(XMLResource.OPTION_URI_HANDLER, uriHandler);
+		}
+
+		@Override
+		public EObject getEObject(String uriFragment) {
+			lookups++;
+
+			return super.getEObject(uriFragment);
+		}
+	}
+
+	private void verifyResolved(Resource resource, int size) {
+		DocumentRoot documentRoot = (DocumentRoot) resource.getContents().get(0);
+		Process process = (Process) documentRoot.getDefinitions().getRootElements().get(0);
+
+		int flows = 0;
+
+		for (Object element : process.getFlowElements()) {
+			if (element instanceof SequenceFlow) {
+				SequenceFlow flow = (SequenceFlow) element;
+
+				assertThat(flow.getSourceRef()).isNotNull();
+				assertThat(flow.getTargetRef()).isNotNull();
+
+				flows++;
+			}
+		}
+
+		assertThat(flows).isEqualTo(size - 1);
+	}
+
+	/**
+	 * Generates a process with a chain of tasks connected by sequence flows,
+	 * including the di for all elements.
+	 */
+	private static byte[] generate(int size) {
+		StringBuilder process = new StringBuilder();
+		StringBuilder plane = new StringBuilder();
+
+		for (int i = 0; i < size; i++) {
+			process.append(String.format("<bpmn2:task id=\"Task_%s\" name=\"Task %s\"/>\n", i, i));
+			plane.append(String.format(
+				"<bpmndi:BPMNShape id=\"BPMNShape_Task_%s\" bpmnElement=\"Task_%s\"><dc:Bounds height=\"50.0\" width=\"110.0\" x=\"%s\" y=\"100.0\"/></bpmndi:BPMNShape>\n",
+				i, i, i * 150));
+
+			if (i > 0) {
+				process.append(String.format("<bpmn2:sequenceFlow id=\"SequenceFlow_%s\" sourceRef=\"Task_%s\" targetRef=\"Task_%s\"/>\n", i, i - 1, i));
+				plane.append(String.format(
+					"<bpmndi:BPMNEdge id=\"BPMNEdge_SequenceFlow_%s\" bpmnElement=\"SequenceFlow_%s\" sourceElement=\"BPMNShape_Task_%s\" targetElement=\"BPMNShape_Task_%s\">" +
+					"<di:waypoint xsi:type=\"dc:Point\" x=\"%s\" y=\"125.0\"/><di:waypoint xsi:type=\"dc:Point\" x=\"%s\" y=\"125.0\"/></bpmndi:BPMNEdge>\n",
+					i, i, i - 1, i, (i - 1) * 150 + 110, i * 150));
+			}
+		}
+
+		String document =
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+			"<bpmn2:definitions xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" " +
+			"xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\" xmlns:dc=\"http://www.omg.org/spec/DD/20100524/DC\" " +
+			"xmlns:di=\"http://www.omg.org/spec/DD/20100524/DI\" id=\"Definitions_1\" targetNamespace=\"http://sample.bpmn2.org/bpmn2/sample/process\">\n" +
+			"<bpmn2:process id=\"Process_1\">\n" + process + "</bpmn2:process>\n" +
+			"<bpmndi:BPMNDiagram id=\"BPMNDiagram_1\"><bpmndi:BPMNPlane id=\"BPMNPlane_1\" bpmnElement=\"Process_1\">\n" + plane +
+			"</bpmndi:BPMNPlane></bpmndi:BPMNDiagram>\n" +
+			"</bpmn2:definitions>\n";
+
+		try {
+			return document.getBytes("UTF-8");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package org.camunda.bpm.modeler.test.core.model;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceSetImpl;
+import org.camunda.bpm.modeler.core.model.ImportedResourceCache;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.junit.After;
+import org.junit.Test;
+
+public class ImportedResourceCacheTest {
+
+	private static final String DOCUMENT =
+		"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+		"<bpmn2:definitions xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" id=\"Definitions_1\" " +
+		"targetNamespace=\"http://sample.bpmn2.org/bpmn2/sample/process\">\n" +
+		"<bpmn2:process id=\"Process_1\" name=\"%s\"/>\n" +
+		"</bpmn2:definitions>\n";
+
+	private File file1;
+	private File file2;
+	private File file3;
+
+	@After
+	public void after() {
+		delete(file1);
+		delete(file2);
+		delete(file3);
+	}
+
+	@Test
+	public void testCacheResource() throws Exception {
+
+		// given
+		file1 = createFile("Order");
+
+		ImportedResourceCache cache = new ImportedResourceCache(10, Long.MAX_VALUE);
+
+		// when
+		Resource resource1 = cache.getResource(uri(file1));
+		Resource resource2 = cache.getResource(uri(file1));
+
+		// then
+		assertThat(resource1).isNotNull();
+		assertThat(resource2).isSameAs(resource1);
+
+		assertThat(cache.contains(uri(file1))).isTrue();
+	}
+
+	@Test
+	public void testReloadModifiedResource() throws Exception {
+
+		// given
+		file1 = createFile("Order");
+
+		ImportedResourceCache cache = new ImportedResourceCache(10, Long.MAX_VALUE);
+
+		Resource resource = cache.getResource(uri(file1));
+
+		// when
+		write(file1, "Invoice");
+		file1.setLastModified(file1.lastModified() + 10000);
+
+		Resource reloadedResource = cache.getResource(uri(file1));
+
+		// then
+		assertThat(reloadedResource).isNotSameAs(resource);
+
+		Process process = (Process) reloadedResource.getEObject("Process_1");
+		assertThat(process.getName()).isEqualTo("Invoice");
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws Exception {
+
+		// given
+		file1 = createFile("Order");
+		file2 = createFile("Invoice");
+		file3 = createFile("Shipment");
+
+		ImportedResourceCache cache = new ImportedResourceCache(2, Long.MAX_VALUE);
+
+		cache.getResource(uri(file1));
+		cache.getResource(uri(file2));
+
+		// when
+		cache.getResource(uri(file1));
+		cache.getResource(uri(file3));
+
+		// then
+		assertThat(cache.size()).isEqualTo(2);
+
+		assertThat(cache.contains(uri(file1))).isTrue();
+		assertThat(cache.contains(uri(file2))).isFalse();
+		assertThat(cache.contains(uri(file3))).isTrue();
+	}
+
+	@Test
+	public void testEvictExceedingSize() throws Exception {
+
+		// given
+		file1 = createFile("Order");
+		file2 = createFile("Invoice");
+
+		ImportedResourceCache cache = new ImportedResourceCache(10, file1.length() + 1);
+
+		cache.getResource(uri(file1));
+
+		// when
+		cache.getResource(uri(file2));
+
+		// then
+		assertThat(cache.contains(uri(file1))).isFalse();
+		assertThat(cache.contains(uri(file2))).isTrue();
+	}
+
+	@Test
+	public void testShareAcrossResourceSets() throws Exception {
+
+		// given
+		file1 = createFile("Order");
+
+		Bpmn2ModelerResourceSetImpl resourceSet1 = new Bpmn2ModelerResourceSetImpl();
+		Bpmn2ModelerResourceSetImpl resourceSet2 = new Bpmn2ModelerResourceSetImpl();
+
+		URI processUri = uri(file1).appendFragment("Process_1");
+
+		// when
+		EObject process1 = resourceSet1.getEObject(processUri, true);
+		EObject process2 = resourceSet2.getEObject(processUri, true);
+
+		// then
+		assertThat(process1).isInstanceOf(Process.class);
+		assertThat(process2).isSameAs(process1);
+
+		assertThat(resourceSet1.getResources()).isEmpty();
+		assertThat(resourceSet2.getResources()).isEmpty();
+
+		ImportedResourceCache.getInstance().evict(uri(file1));
+	}
+
+	@Test
+	public void testReadOnly() throws Exception {
+
+		// given
+		file1 = createFile("Order");
+
+		ImportedResourceCache cache = new ImportedResourceCache(10, Long.MAX_VALUE);
+
+		final Process process = (Process) cache.getEObject(uri(file1).appendFragment("Process_1"));
+
+		TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(process);
+
+		// when
+		editingDomain.getCommandStack().execute(new RecordingCommand(editingDomain) {
+
+			@Override
+			protected void doExecute() {
+				process.setName("Invoice");
+			}
+		});
+
+		// then
+		assertThat(editingDomain).isSameAs(cache.getEditingDomain());
+		assertThat(editingDomain.isReadOnly(process.eResource())).isTrue();
+
+		assertThat(process.getName()).isEqualTo("Order");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFailOnWriteOutsideTransaction() throws Exception {
+
+		// given
+		file1 = createFile("Order");
+
+		ImportedResourceCache cache = new ImportedResourceCache(10, Long.MAX_VALUE);
+
+		Process process = (Process) cache.getEObject(uri(file1).appendFragment("Process_1"));
+
+		// when
+		process.setName("Invoice");
+	}
+
+	@Test
+	public void testNormalizeWorkspaceFileUri() throws Exception {
+
+		// given
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject("ImportedResourceCacheTest");
+
+		try {
+			project.create(null);
+			project.open(null);
+
+			IFile file = project.getFile("order.bpmn");
+			file.create(new ByteArrayInputStream(String.format(DOCUMENT, "Order").getBytes("UTF-8")), true, null);
+
+			URI platformUri = URI.createPlatformResourceURI(file.getFullPath().toString(), true);
+			URI fileUri = URI.createFileURI(file.getLocation().toOSString());
+
+			ImportedResourceCache cache = new ImportedResourceCache(10, Long.MAX_VALUE);
+
+			// when
+			Resource resource1 = cache.getResource(platformUri);
+			Resource resource2 = cache.getResource(fileUri);
+
+			// then
+			assertThat(resource2).isSameAs(resource1);
+
+			assertThat(cache.size()).isEqualTo(1);
+			assertThat(cache.contains(fileUri)).isTrue();
+		} finally {
+			project.delete(true, true, null);
+		}
+	}
+
+	@Test
+	public void testCacheable() {
+		assertThat(ImportedResourceCache.isCacheable(URI.createURI("platform:/resource/project/service.wsdl"))).isTrue();
+		assertThat(ImportedResourceCache.isCacheable(URI.createURI("http://example.org/types.XSD"))).isTrue();
+		assertThat(ImportedResourceCache.isCacheable(URI.createURI("platform:/resource/project/other.bpmn"))).isTrue();
+
+		assertThat(ImportedResourceCache.isCacheable(URI.createURI("platform:/resource/project/process.diagram"))).isFalse();
+		assertThat(ImportedResourceCache.isCacheable(URI.createURI("http://example.org/service"))).isFalse();
+	}
+
+	private static File createFile(String processName) throws IOException {
+		File file = File.createTempFile("ImportedResourceCacheTest", ".bpmn");
+		write(file, processName);
+
+		return file;
+	}
+
+	private static void write(File file, String processName) throws IOException {
+		OutputStream os = new FileOutputStream(file);
+		try {
+			os.write(String.format(DOCUMENT, processName).getBytes("UTF-8"));
+		} finally {
+			os.close();
+		}
+	}
+
+	private static URI uri(File file) {
+		return URI.createFileURI(file.getAbsolutePath());
+	}
+
+	private static void delete(File file) {
+		if (file != null) {
+			file.delete();
+		}
+	}
+}
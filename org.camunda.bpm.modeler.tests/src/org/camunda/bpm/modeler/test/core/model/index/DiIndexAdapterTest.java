@@ -0,0 +1,149 @@
+package org.camunda.bpm.modeler.test.core.model.index;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.camunda.bpm.modeler.core.model.index.DiIndexAdapter;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.bpmn2.di.BPMNDiagram;
+import org.eclipse.bpmn2.di.BPMNEdge;
+import org.eclipse.bpmn2.di.BPMNPlane;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DiIndexAdapterTest {
+
+	private Definitions definitions;
+	private Resource resource;
+	private Process process;
+	private BPMNDiagram diagram;
+
+	@Before
+	public void before() {
+		definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("DiIndexAdapterTest.bpmn"));
+		resource = definitions.eResource();
+
+		process = Bpmn2Factory.eINSTANCE.createProcess();
+		definitions.getRootElements().add(process);
+
+		diagram = createDiagram(process);
+	}
+
+	@Test
+	public void testIndexExistingElements() {
+
+		// given
+		Task task = createTask();
+		BPMNShape shape = createShape(task, diagram);
+
+		// when
+		DiIndexAdapter index = DiIndexAdapter.get(resource);
+
+		// then
+		assertThat(index.getDiagramElement(task, diagram)).isSameAs(shape);
+		assertThat(index.getDiagramElement(process, diagram)).isSameAs(diagram.getPlane());
+	}
+
+	@Test
+	public void testTrackAddAndRemove() {
+
+		// given
+		DiIndexAdapter index = DiIndexAdapter.get(resource);
+
+		Task task = createTask();
+		SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+		process.getFlowElements().add(flow);
+
+		// when
+		BPMNShape shape = createShape(task, diagram);
+
+		BPMNEdge edge = BpmnDiFactory.eINSTANCE.createBPMNEdge();
+		edge.setBpmnElement(flow);
+		diagram.getPlane().getPlaneElement().add(edge);
+
+		// then
+		assertThat(index.getDiagramElement(task, diagram)).isSameAs(shape);
+		assertThat(index.getDiagramElement(flow, diagram)).isSameAs(edge);
+
+		// when
+		EcoreUtil.remove(shape);
+
+		// then
+		assertThat(index.getDiagramElement(task, diagram)).isNull();
+		assertThat(index.getDiagramElements(task)).isEmpty();
+	}
+
+	@Test
+	public void testTrackBpmnElementChange() {
+
+		// given
+		DiIndexAdapter index = DiIndexAdapter.get(resource);
+
+		Task task1 = createTask();
+		Task task2 = createTask();
+
+		BPMNShape shape = createShape(task1, diagram);
+
+		// when
+		shape.setBpmnElement(task2);
+
+		// then
+		assertThat(index.getDiagramElement(task1, diagram)).isNull();
+		assertThat(index.getDiagramElement(task2, diagram)).isSameAs(shape);
+	}
+
+	@Test
+	public void testRestrictToDiagram() {
+
+		// given
+		DiIndexAdapter index = DiIndexAdapter.get(resource);
+
+		Task task = createTask();
+		BPMNDiagram otherDiagram = createDiagram(process);
+
+		// when
+		BPMNShape shape = createShape(task, otherDiagram);
+
+		// then
+		assertThat(index.getDiagramElement(task, diagram)).isNull();
+		assertThat(index.getDiagramElement(task, otherDiagram)).isSameAs(shape);
+		assertThat(index.getDiagramElement(task, null)).isSameAs(shape);
+	}
+
+	private Task createTask() {
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		process.getFlowElements().add(task);
+
+		return task;
+	}
+
+	private BPMNDiagram createDiagram(Process process) {
+		BPMNPlane plane = BpmnDiFactory.eINSTANCE.createBPMNPlane();
+		plane.setBpmnElement(process);
+
+		BPMNDiagram diagram = BpmnDiFactory.eINSTANCE.createBPMNDiagram();
+		diagram.setPlane(plane);
+
+		definitions.getDiagrams().add(diagram);
+
+		return diagram;
+	}
+
+	private BPMNShape createShape(Task task, BPMNDiagram diagram) {
+		BPMNShape shape = BpmnDiFactory.eINSTANCE.createBPMNShape();
+		shape.setBpmnElement(task);
+
+		diagram.getPlane().getPlaneElement().add(shape);
+
+		return shape;
+	}
+}
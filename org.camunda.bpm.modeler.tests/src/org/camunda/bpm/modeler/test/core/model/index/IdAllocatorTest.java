@@ -0,0 +1,133 @@
+package org.camunda.bpm.modeler.test.core.model.index;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.camunda.bpm.modeler.core.model.index.IdAllocator;
+import org.camunda.bpm.modeler.core.utils.ModelUtil;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdAllocatorTest {
+
+	private Resource resource;
+	private Process process;
+
+	@Before
+	public void before() {
+		Definitions definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("IdAllocatorTest.bpmn"));
+		resource = definitions.eResource();
+
+		process = Bpmn2Factory.eINSTANCE.createProcess();
+		definitions.getRootElements().add(process);
+	}
+
+	@Test
+	public void testSkipExistingIds() {
+
+		// given
+		for (int i = 1; i <= 3; i++) {
+			Task task = Bpmn2Factory.eINSTANCE.createTask();
+			task.setId("Task_" + i);
+			process.getFlowElements().add(task);
+		}
+
+		// when
+		String id = ModelUtil.setID(Bpmn2Factory.eINSTANCE.createTask(), resource);
+
+		// then
+		assertThat(id).isEqualTo("Task_4");
+	}
+
+	@Test
+	public void testNotReusePendingIds() {
+
+		// given
+		Task task1 = Bpmn2Factory.eINSTANCE.createTask();
+		Task task2 = Bpmn2Factory.eINSTANCE.createTask();
+
+		// when
+		String id1 = ModelUtil.setID(task1, resource);
+		String id2 = ModelUtil.setID(task2, resource);
+
+		// then
+		assertThat(id1).isNotEqualTo(id2);
+	}
+
+	@Test
+	public void testReleaseIdOfDeletedElement() {
+
+		// given
+		IdAllocator allocator = IdAllocator.get(resource);
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		String id = ModelUtil.setID(task, resource);
+		process.getFlowElements().add(task);
+
+		assertThat(allocator.isTaken(id)).isTrue();
+
+		// when
+		EcoreUtil.remove(task);
+
+		// then
+		assertThat(allocator.isTaken(id)).isFalse();
+	}
+
+	@Test
+	public void testPreferPlainName() {
+
+		// given
+		IdAllocator allocator = IdAllocator.get(resource);
+
+		// when
+		String first = allocator.allocate(Bpmn2Factory.eINSTANCE.createProcess(), "invoice", true);
+		String second = allocator.allocate(Bpmn2Factory.eINSTANCE.createProcess(), "invoice", true);
+
+		// then
+		assertThat(first).isEqualTo("invoice");
+		assertThat(second).isEqualTo("invoice_1");
+	}
+
+	@Test
+	public void testConcurrentAllocation() throws Exception {
+
+		// given
+		final IdAllocator allocator = IdAllocator.get(resource);
+		final Set<String> ids = Collections.synchronizedSet(new HashSet<String>());
+
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 500; j++) {
+						ids.add(allocator.allocate(Bpmn2Factory.eINSTANCE.createTask(), "Task", false));
+					}
+				}
+			};
+		}
+
+		// when
+		for (Thread thread : threads) {
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// then
+		assertThat(ids).hasSize(2000);
+	}
+}
@@ -0,0 +1,137 @@
+package org.camunda.bpm.modeler.test.core.model.index;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.camunda.bpm.modeler.core.model.index.IdIndexAdapter;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdIndexAdapterTest {
+
+	private Definitions definitions;
+	private Resource resource;
+	private Process process;
+
+	@Before
+	public void before() {
+		definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("IdIndexAdapterTest.bpmn"));
+		resource = definitions.eResource();
+
+		process = Bpmn2Factory.eINSTANCE.createProcess();
+		process.setId("Process_1");
+		definitions.getRootElements().add(process);
+	}
+
+	@Test
+	public void testIndexExistingElements() {
+
+		// given
+		Task task = createTask("Task_1");
+		process.getFlowElements().add(task);
+
+		// when
+		IdIndexAdapter index = IdIndexAdapter.get(resource);
+
+		// then
+		assertThat(index.getElement("Task_1")).isSameAs(task);
+		assertThat(index.getElement("Process_1")).isSameAs(process);
+		assertThat(index.getElement("Task_2")).isNull();
+	}
+
+	@Test
+	public void testTrackAddAndRemove() {
+
+		// given
+		IdIndexAdapter index = IdIndexAdapter.get(resource);
+		Task task = createTask("Task_1");
+
+		// when
+		process.getFlowElements().add(task);
+
+		// then
+		assertThat(index.contains("Task_1")).isTrue();
+
+		// when
+		EcoreUtil.remove(task);
+
+		// then
+		assertThat(index.contains("Task_1")).isFalse();
+	}
+
+	@Test
+	public void testTrackNestedRemove() {
+
+		// given
+		IdIndexAdapter index = IdIndexAdapter.get(resource);
+		process.getFlowElements().add(createTask("Task_1"));
+
+		// when
+		definitions.getRootElements().remove(process);
+
+		// then
+		assertThat(index.contains("Process_1")).isFalse();
+		assertThat(index.contains("Task_1")).isFalse();
+	}
+
+	@Test
+	public void testTrackIdChange() {
+
+		// given
+		IdIndexAdapter index = IdIndexAdapter.get(resource);
+		Task task = createTask("Task_1");
+		process.getFlowElements().add(task);
+
+		// when
+		task.setId("myTask");
+
+		// then
+		assertThat(index.getElement("Task_1")).isNull();
+		assertThat(index.getElement("myTask")).isSameAs(task);
+	}
+
+	@Test
+	public void testLookupByType() {
+
+		// given
+		IdIndexAdapter index = IdIndexAdapter.get(resource);
+
+		BPMNShape shape = BpmnDiFactory.eINSTANCE.createBPMNShape();
+		shape.setId("Task_1");
+
+		Task task = createTask("Task_1");
+
+		definitions.getDiagrams().add(BpmnDiFactory.eINSTANCE.createBPMNDiagram());
+		definitions.getDiagrams().get(0).setPlane(BpmnDiFactory.eINSTANCE.createBPMNPlane());
+		definitions.getDiagrams().get(0).getPlane().getPlaneElement().add(shape);
+
+		// when
+		process.getFlowElements().add(task);
+
+		// then
+		assertThat(index.getElement("Task_1", Task.class)).isSameAs(task);
+		assertThat(index.getElement("Task_1", BPMNShape.class)).isSameAs(shape);
+
+		// when
+		EcoreUtil.remove(shape);
+
+		// then
+		assertThat(index.getElement("Task_1")).isSameAs(task);
+	}
+
+	private Task createTask(String id) {
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		task.setId(id);
+
+		return task;
+	}
+}
@@ -0,0 +1,153 @@
+package org.camunda.bpm.modeler.test.core.model.index;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.camunda.bpm.modeler.core.model.index.PictogramLinkIndexAdapter;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
+import org.eclipse.graphiti.mm.pictograms.PictogramElement;
+import org.eclipse.graphiti.mm.pictograms.PictogramLink;
+import org.eclipse.graphiti.mm.pictograms.PictogramsFactory;
+import org.eclipse.graphiti.services.Graphiti;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PictogramLinkIndexAdapterTest {
+
+	private Diagram diagram;
+
+	@Before
+	public void before() {
+		diagram = Graphiti.getPeCreateService().createDiagram("BPMN2", "PictogramLinkIndexAdapterTest", true);
+	}
+
+	@Test
+	public void testIndexExistingLinks() {
+
+		// given
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		ContainerShape shape = createShape();
+		ContainerShape label = createShape();
+
+		link(shape, task);
+		link(label, task);
+
+		// when
+		PictogramLinkIndexAdapter index = PictogramLinkIndexAdapter.get(diagram);
+
+		// then
+		assertThat(index.getPictogramElements(task)).containsExactly(shape, label);
+	}
+
+	@Test
+	public void testIndexAddedLinks() {
+
+		// given
+		PictogramLinkIndexAdapter index = PictogramLinkIndexAdapter.get(diagram);
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		ContainerShape shape = createShape();
+
+		// when
+		link(shape, task);
+
+		// then
+		assertThat(index.getPictogramElements(task)).containsOnly(shape);
+	}
+
+	@Test
+	public void testUnindexRemovedLinks() {
+
+		// given
+		PictogramLinkIndexAdapter index = PictogramLinkIndexAdapter.get(diagram);
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		ContainerShape shape = createShape();
+
+		PictogramLink link = link(shape, task);
+
+		// when
+		diagram.getPictogramLinks().remove(link);
+
+		// then
+		assertThat(index.getPictogramElements(task)).isEmpty();
+	}
+
+	@Test
+	public void testUpdateChangedBusinessObjects() {
+
+		// given
+		PictogramLinkIndexAdapter index = PictogramLinkIndexAdapter.get(diagram);
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		Task otherTask = Bpmn2Factory.eINSTANCE.createTask();
+		ContainerShape shape = createShape();
+
+		PictogramLink link = link(shape, task);
+
+		// when
+		link.getBusinessObjects().set(0, otherTask);
+
+		// then
+		assertThat(index.getPictogramElements(task)).isEmpty();
+		assertThat(index.getPictogramElements(otherTask)).containsOnly(shape);
+	}
+
+	@Test
+	public void testUpdateChangedPictogramElement() {
+
+		// given
+		PictogramLinkIndexAdapter index = PictogramLinkIndexAdapter.get(diagram);
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		ContainerShape shape = createShape();
+		ContainerShape otherShape = createShape();
+
+		PictogramLink link = link(shape, task);
+
+		// when
+		link.setPictogramElement(otherShape);
+
+		// then
+		assertThat(index.getPictogramElements(task)).containsOnly(otherShape);
+	}
+
+	@Test
+	public void testMatchLinkService() {
+
+		// given
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		Task otherTask = Bpmn2Factory.eINSTANCE.createTask();
+
+		link(createShape(), task);
+		link(createShape(), otherTask);
+		link(createShape(), task, otherTask);
+
+		// when
+		PictogramLinkIndexAdapter index = PictogramLinkIndexAdapter.get(diagram);
+
+		// then
+		assertThat(index.getPictogramElements(task)).isEqualTo(Graphiti.getLinkService().getPictogramElements(diagram, task));
+		assertThat(index.getPictogramElements(otherTask)).isEqualTo(Graphiti.getLinkService().getPictogramElements(diagram, otherTask));
+	}
+
+	private ContainerShape createShape() {
+		return Graphiti.getPeCreateService().createContainerShape(diagram, true);
+	}
+
+	private PictogramLink link(PictogramElement pictogramElement, EObject ... businessObjects) {
+		PictogramLink link = PictogramsFactory.eINSTANCE.createPictogramLink();
+
+		for (EObject businessObject : businessObjects) {
+			link.getBusinessObjects().add(businessObject);
+		}
+
+		link.setPictogramElement(pictogramElement);
+		diagram.getPictogramLinks().add(link);
+
+		return link;
+	}
+}
@@ -0,0 +1,119 @@
+package org.camunda.bpm.modeler.test.core.model.index;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.camunda.bpm.modeler.core.model.index.TypeIndexAdapter;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.Property;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares type queries served by the {@link TypeIndexAdapter} with 
+ * a full containment tree scan on a model with 10.000 elements.
+ * 
+ * Not part of the regular test suite (which only picks up *Test classes);
+ * run manually and compare the timings printed to the console.
+ */
+public class TypeIndexAdapterBenchmark {
+
+	private static final int ELEMENTS = 10000;
+	
+	private static final int WARMUP_ITERATIONS = 50;
+	private static final int ITERATIONS = 200;
+	
+	private Resource resource;
+
+	@Before
+	public void before() {
+		Definitions definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("TypeIndexAdapterBenchmark.bpmn"));
+		resource = definitions.eResource();
+
+		Process process = Bpmn2Factory.eINSTANCE.createProcess();
+		definitions.getRootElements().add(process);
+		
+		// 10 properties, the remaining elements split among tasks and sequence flows
+		for (int i = 0; i < 10; i++) {
+			process.getProperties().add(Bpmn2Factory.eINSTANCE.createProperty());
+		}
+		
+		Task previous = null;
+		
+		for (int i = 0; i < (ELEMENTS - 10) / 2; i++) {
+			Task task = Bpmn2Factory.eINSTANCE.createTask();
+			process.getFlowElements().add(task);
+			
+			if (previous != null) {
+				SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+				flow.setSourceRef(previous);
+				flow.setTargetRef(task);
+				process.getFlowElements().add(flow);
+			}
+			
+			previous = task;
+		}
+	}
+	
+	@Test
+	public void benchmarkGetAllProperties() {
+		benchmark(Property.class);
+	}
+
+	@Test
+	public void benchmarkGetAllSequenceFlows() {
+		benchmark(SequenceFlow.class);
+	}
+	
+	private void benchmark(Class<?> cls) {
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+		
+		assertThat(index.getAll(cls)).hasSize(scan(resource, cls).size());
+		
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			scan(resource, cls);
+			index.getAll(cls);
+		}
+		
+		long scanTime = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			scan(resource, cls);
+		}
+		scanTime = System.nanoTime() - scanTime;
+		
+		long indexTime = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			index.getAll(cls);
+		}
+		indexTime = System.nanoTime() - indexTime;
+		
+		System.out.println(String.format("getAll(%s) on %s elements: scan %.3fms/op, index %.3fms/op", 
+			cls.getSimpleName(), ELEMENTS, scanTime / 1e6 / ITERATIONS, indexTime / 1e6 / ITERATIONS));
+	}
+	
+	/**
+	 * The containment tree scan previously performed by ModelHandler#getAll
+	 */
+	private static <T> List<T> scan(Resource resource, Class<T> cls) {
+		List<T> result = new ArrayList<T>();
+		TreeIterator<EObject> contents = resource.getAllContents();
+		while (contents.hasNext()) {
+			EObject next = contents.next();
+			if (cls.isInstance(next)) {
+				result.add(cls.cast(next));
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,281 @@
+package org.camunda.bpm.modeler.test.core.model.index;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.camunda.bpm.modeler.core.model.index.TypeIndexAdapter;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Bpmn2Package;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.EndEvent;
+import org.eclipse.bpmn2.FlowElement;
+import org.eclipse.bpmn2.FlowNode;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.Property;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.bpmn2.StartEvent;
+import org.eclipse.bpmn2.SubProcess;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypeIndexAdapterTest {
+
+	private Definitions definitions;
+	private Resource resource;
+	private Process process;
+
+	@Before
+	public void before() {
+		definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("TypeIndexAdapterTest.bpmn"));
+		resource = definitions.eResource();
+
+		process = Bpmn2Factory.eINSTANCE.createProcess();
+		definitions.getRootElements().add(process);
+	}
+
+	@Test
+	public void testIndexExistingElements() {
+
+		// given
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+
+		process.getFlowElements().add(task);
+		process.getFlowElements().add(flow);
+
+		// when
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		// then
+		assertThat(index.getAll(Task.class)).containsOnly(task);
+		assertThat(index.getAll(SequenceFlow.class)).containsOnly(flow);
+		assertThat(index.getAll(Process.class)).containsOnly(process);
+	}
+
+	@Test
+	public void testQuerySuperTypes() {
+
+		// given
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		SubProcess subProcess = Bpmn2Factory.eINSTANCE.createSubProcess();
+		SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+
+		// when
+		process.getFlowElements().add(task);
+		process.getFlowElements().add(subProcess);
+		subProcess.getFlowElements().add(flow);
+
+		// then
+		assertThat(index.getAll(FlowNode.class)).containsOnly(task, subProcess);
+		assertThat(index.getAll(FlowElement.class)).containsOnly(task, subProcess, flow);
+		assertThat(index.count(FlowElement.class)).isEqualTo(3);
+
+		List<EObject> flowNodes = index.getAll(Bpmn2Package.eINSTANCE.getFlowNode());
+		assertThat(flowNodes).containsOnly(task, subProcess);
+	}
+
+	@Test
+	public void testTrackRemove() {
+
+		// given
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		SubProcess subProcess = Bpmn2Factory.eINSTANCE.createSubProcess();
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+
+		process.getFlowElements().add(subProcess);
+		subProcess.getFlowElements().add(task);
+
+		// when
+		EcoreUtil.remove(subProcess);
+
+		// then
+		assertThat(index.getAll(FlowElement.class)).isEmpty();
+		assertThat(index.getAll(Process.class)).containsOnly(process);
+	}
+
+	@Test
+	public void testTrackMove() {
+
+		// given
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		SubProcess subProcess = Bpmn2Factory.eINSTANCE.createSubProcess();
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+
+		process.getFlowElements().add(subProcess);
+		process.getFlowElements().add(task);
+
+		// when
+		subProcess.getFlowElements().add(task);
+
+		// then
+		assertThat(index.getAll(Task.class)).containsOnly(task);
+	}
+
+	@Test
+	public void testDocumentOrder() {
+
+		// given
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		StartEvent startEvent = Bpmn2Factory.eINSTANCE.createStartEvent();
+		Task task1 = Bpmn2Factory.eINSTANCE.createTask();
+		SubProcess subProcess = Bpmn2Factory.eINSTANCE.createSubProcess();
+		Task nestedTask = Bpmn2Factory.eINSTANCE.createTask();
+		Task task2 = Bpmn2Factory.eINSTANCE.createTask();
+		EndEvent endEvent = Bpmn2Factory.eINSTANCE.createEndEvent();
+
+		process.getFlowElements().add(task1);
+		process.getFlowElements().add(subProcess);
+		subProcess.getFlowElements().add(nestedTask);
+		process.getFlowElements().add(endEvent);
+
+		// when
+		process.getFlowElements().add(0, startEvent);
+		process.getFlowElements().add(3, task2);
+
+		// then
+		assertThat(index.getAll(FlowNode.class)).containsExactly(startEvent, task1, subProcess, nestedTask, task2, endEvent);
+		assertThat(index.getAll(Task.class)).containsExactly(task1, nestedTask, task2);
+
+		List<EObject> flowNodes = index.getAll(Bpmn2Package.eINSTANCE.getFlowNode());
+		assertThat(flowNodes).containsExactly(startEvent, task1, subProcess, nestedTask, task2, endEvent);
+	}
+
+	@Test
+	public void testLargeModel() {
+
+		// given
+		createLargeModel(10000);
+
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		// then
+		assertThat(index.getAll(Property.class)).isEqualTo(scan(Property.class));
+		assertThat(index.getAll(SequenceFlow.class)).isEqualTo(scan(SequenceFlow.class));
+		assertThat(index.getAll(FlowElement.class)).isEqualTo(scan(FlowElement.class));
+	}
+
+	@Test
+	public void testLargeModelQueryDoesNotWalkModel() {
+
+		// given
+		CountingResource countingResource = new CountingResource();
+		countingResource.getContents().add(definitions);
+
+		resource = countingResource;
+
+		createLargeModel(10000);
+
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		List<Property> properties = scan(Property.class);
+
+		countingResource.walks = 0;
+
+		// when
+		for (int i = 0; i < 100; i++) {
+			assertThat(index.getAll(Property.class)).isEqualTo(properties);
+		}
+
+		// then
+		// querying 10 out of 10.000 elements must not cost a walk over the model
+		assertThat(countingResource.walks).isEqualTo(0);
+	}
+
+	@Test
+	public void testDocumentOrderAfterMove() {
+
+		// given
+		TypeIndexAdapter index = TypeIndexAdapter.get(resource);
+
+		Task task1 = Bpmn2Factory.eINSTANCE.createTask();
+		Task task2 = Bpmn2Factory.eINSTANCE.createTask();
+
+		process.getFlowElements().add(task1);
+		process.getFlowElements().add(task2);
+
+		assertThat(index.getAll(Task.class)).containsExactly(task1, task2);
+
+		// when
+		process.getFlowElements().move(0, task2);
+
+		// then
+		assertThat(index.getAll(Task.class)).containsExactly(task2, task1);
+	}
+
+	/**
+	 * Creates a process with 10 properties and the given number of
+	 * elements split among tasks and sequence flows
+	 */
+	private void createLargeModel(int elements) {
+		for (int i = 0; i < 10; i++) {
+			process.getProperties().add(Bpmn2Factory.eINSTANCE.createProperty());
+		}
+
+		Task previous = null;
+
+		for (int i = 0; i < elements / 2; i++) {
+			Task task = Bpmn2Factory.eINSTANCE.createTask();
+			process.getFlowElements().add(task);
+
+			if (previous != null) {
+				SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+				flow.setSourceRef(previous);
+				flow.setTargetRef(task);
+				process.getFlowElements().add(flow);
+			}
+
+			previous = task;
+		}
+	}
+
+	/**
+	 * Resource counting the walks over its contents
+	 */
+	private static class CountingResource extends XMIResourceImpl {
+
+		private int walks = 0;
+
+		public CountingResource() {
+			super(URI.createURI("TypeIndexAdapterTest.bpmn"));
+		}
+
+		@Override
+		public TreeIterator<EObject> getAllContents() {
+			walks++;
+
+			return super.getAllContents();
+		}
+	}
+
+	/**
+	 * The containment tree walk formerly performed by ModelHandler#getAll
+	 */
+	private <T> List<T> scan(Class<T> cls) {
+		List<T> result = new ArrayList<T>();
+
+		TreeIterator<EObject> contents = resource.getAllContents();
+		while (contents.hasNext()) {
+			EObject next = contents.next();
+			if (cls.isInstance(next)) {
+				result.add(cls.cast(next));
+			}
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,80 @@
+package org.camunda.bpm.modeler.test.core.preferences;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.camunda.bpm.modeler.core.preferences.BPMNDIDefaults;
+import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences.BPMNDIAttributeDefault;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.ExclusiveGateway;
+import org.eclipse.bpmn2.Lane;
+import org.eclipse.bpmn2.SubProcess;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.junit.Test;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class BPMNDIDefaultsTest {
+
+	private BPMNDIDefaults defaults = new BPMNDIDefaults(
+		BPMNDIAttributeDefault.DEFAULT_TRUE, 
+		BPMNDIAttributeDefault.ALWAYS_TRUE, 
+		BPMNDIAttributeDefault.ALWAYS_TRUE, 
+		BPMNDIAttributeDefault.DEFAULT_TRUE);
+
+	@Test
+	public void testApplyDefaultsToUnsetAttributes() {
+
+		// given
+		Lane lane = Bpmn2Factory.eINSTANCE.createLane();
+		BPMNShape shape = createShape(lane);
+
+		// when
+		defaults.apply(shape, new AttributesImpl());
+
+		// then
+		assertThat(shape.isIsHorizontal()).isTrue();
+	}
+
+	@Test
+	public void testRetainSetAttributes() {
+
+		// given
+		ExclusiveGateway gateway = Bpmn2Factory.eINSTANCE.createExclusiveGateway();
+		BPMNShape shape = createShape(gateway);
+		shape.setIsMarkerVisible(false);
+
+		AttributesImpl attributes = new AttributesImpl();
+		attributes.addAttribute("", "isMarkerVisible", "isMarkerVisible", "CDATA", "false");
+
+		// when
+		defaults.apply(shape, attributes);
+
+		// then
+		assertThat(shape.isIsMarkerVisible()).isFalse();
+	}
+
+	@Test
+	public void testOverrideSetAttributes() {
+
+		// given
+		SubProcess subProcess = Bpmn2Factory.eINSTANCE.createSubProcess();
+		BPMNShape shape = createShape(subProcess);
+		shape.setIsExpanded(false);
+
+		AttributesImpl attributes = new AttributesImpl();
+		attributes.addAttribute("", "isExpanded", "isExpanded", "CDATA", "false");
+
+		// when
+		defaults.apply(shape, attributes);
+
+		// then
+		assertThat(shape.isIsExpanded()).isTrue();
+	}
+
+	private BPMNShape createShape(org.eclipse.bpmn2.BaseElement element) {
+		BPMNShape shape = BpmnDiFactory.eINSTANCE.createBPMNShape();
+		shape.setBpmnElement(element);
+
+		return shape;
+	}
+}
@@ -0,0 +1,117 @@
+package org.camunda.bpm.modeler.test.core.project;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.project.ProcessDefinitionIndex;
+import org.camunda.bpm.modeler.core.project.ProcessDefinitionIndex.ProcessDefinition;
+import org.junit.Test;
+
+public class ProcessDefinitionIndexTest {
+
+	private static final String DEFINITIONS_START =
+		"<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+		"<bpmn2:definitions xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" id=\"Definitions\">";
+
+	private static final String DEFINITIONS_END = "</bpmn2:definitions>";
+
+	@Test
+	public void testScanProcesses() throws Exception {
+
+		// given
+		InputStream is = stream(
+			DEFINITIONS_START +
+			"<bpmn2:process id=\"Process_1\" name=\"Order\" isExecutable=\"true\">" +
+				"<bpmn2:startEvent id=\"StartEvent_1\" />" +
+			"</bpmn2:process>" +
+			"<bpmn2:process id=\"Process_2\" isExecutable=\"false\" />" +
+			DEFINITIONS_END);
+
+		// when
+		List<ProcessDefinition> processDefinitions = ProcessDefinitionIndex.scan(is, "/project/order.bpmn");
+
+		// then
+		assertThat(processDefinitions).hasSize(2);
+
+		ProcessDefinition process1 = processDefinitions.get(0);
+		assertThat(process1.getId()).isEqualTo("Process_1");
+		assertThat(process1.getName()).isEqualTo("Order");
+		assertThat(process1.isExecutable()).isTrue();
+		assertThat(process1.getPath()).isEqualTo("/project/order.bpmn");
+
+		ProcessDefinition process2 = processDefinitions.get(1);
+		assertThat(process2.getId()).isEqualTo("Process_2");
+		assertThat(process2.getName()).isNull();
+		assertThat(process2.isExecutable()).isFalse();
+	}
+
+	@Test
+	public void testScanIgnoresOtherNamespaces() throws Exception {
+
+		// given
+		InputStream is = stream(
+			DEFINITIONS_START +
+			"<bpmn2:extensionElements>" +
+				"<process xmlns=\"http://example.org/other\" id=\"Other\" />" +
+			"</bpmn2:extensionElements>" +
+			DEFINITIONS_END);
+
+		// when
+		List<ProcessDefinition> processDefinitions = ProcessDefinitionIndex.scan(is, "/project/other.bpmn");
+
+		// then
+		assertThat(processDefinitions).isEmpty();
+	}
+
+	@Test
+	public void testScanMalformedDocument() throws Exception {
+
+		// given
+		InputStream is = stream(DEFINITIONS_START + "<bpmn2:process");
+
+		// when
+		List<ProcessDefinition> processDefinitions = ProcessDefinitionIndex.scan(is, "/project/broken.bpmn");
+
+		// then
+		assertThat(processDefinitions).isNull();
+	}
+
+	@Test
+	public void testNothingUndefinedBeforeIndexing() {
+
+		// given
+		ProcessDefinitionIndex index = new ProcessDefinitionIndex(null) { };
+
+		// then
+		assertThat(index.isUndefined("invoice")).isFalse();
+	}
+
+	@Test
+	public void testExpressionsNeverUndefined() {
+
+		// given
+		ProcessDefinitionIndex index = new ProcessDefinitionIndex(null) {
+
+			@Override
+			public synchronized boolean isEmpty() {
+				return false;
+			}
+		};
+
+		// then
+		assertThat(index.isUndefined("${calledProcess}")).isFalse();
+		assertThat(index.isUndefined("#{calledProcess}")).isFalse();
+		assertThat(index.isUndefined("")).isFalse();
+		assertThat(index.isUndefined(null)).isFalse();
+
+		assertThat(index.isUndefined("invoice")).isTrue();
+	}
+
+	private static InputStream stream(String xml) throws UnsupportedEncodingException {
+		return new ByteArrayInputStream(xml.getBytes("UTF-8"));
+	}
+}
@@ -0,0 +1,53 @@
+package org.camunda.bpm.modeler.test.core.validation;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.camunda.bpm.modeler.core.validation.BpmnValidationStatusLoader;
+import org.camunda.bpm.modeler.core.validation.ValidationStatusAdapter;
+import org.camunda.bpm.modeler.core.validation.ValidationStatusAdapterFactory;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.junit.Test;
+
+public class BpmnValidationStatusLoaderTest {
+
+	@Test
+	public void testRegisterAdapterFactoryOnce() {
+
+		// given
+		ResourceSet resourceSet = new ResourceSetImpl();
+
+		// when
+		BpmnValidationStatusLoader.ensureAdapterFactory(resourceSet);
+		BpmnValidationStatusLoader.ensureAdapterFactory(resourceSet);
+
+		// then
+		assertThat(resourceSet.getAdapterFactories()).hasSize(1);
+		assertThat(resourceSet.getAdapterFactories().get(0)).isInstanceOf(ValidationStatusAdapterFactory.class);
+	}
+
+	@Test
+	public void testAdaptContainedObjects() {
+
+		// given
+		ResourceSet resourceSet = new ResourceSetImpl();
+
+		Resource resource = new XMIResourceImpl(URI.createURI("BpmnValidationStatusLoaderTest.xmi"));
+		resourceSet.getResources().add(resource);
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		resource.getContents().add(task);
+
+		// when
+		BpmnValidationStatusLoader.ensureAdapterFactory(resourceSet);
+
+		// then
+		assertThat(EcoreUtil.getRegisteredAdapter(task, ValidationStatusAdapter.class)).isInstanceOf(ValidationStatusAdapter.class);
+	}
+}
@@ -0,0 +1,105 @@
+package org.camunda.bpm.modeler.test.core.validation;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.camunda.bpm.modeler.core.validation.IncrementalValidationAdapter;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.StartEvent;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.validation.model.IConstraintStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalValidationAdapterTest {
+
+	private Resource resource;
+	private Process process;
+
+	@Before
+	public void before() {
+		Definitions definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("IncrementalValidationAdapterTest.bpmn"));
+		resource = definitions.eResource();
+
+		process = Bpmn2Factory.eINSTANCE.createProcess();
+		process.setName("Process");
+		definitions.getRootElements().add(process);
+	}
+
+	@Test
+	public void testReuseResultsOfUnchangedElements() {
+
+		// given
+		StartEvent startEvent = Bpmn2Factory.eINSTANCE.createStartEvent();
+		process.getFlowElements().add(startEvent);
+
+		IncrementalValidationAdapter adapter = IncrementalValidationAdapter.get(resource);
+
+		// assume
+		assertThat(getTargets(adapter.validate(new NullProgressMonitor()))).contains(startEvent);
+
+		// when
+		IStatus status = adapter.validate(new NullProgressMonitor());
+
+		// then
+		assertThat(getTargets(status)).contains(startEvent);
+	}
+
+	@Test
+	public void testDropResultsOfRemovedElements() {
+
+		// given
+		StartEvent startEvent = Bpmn2Factory.eINSTANCE.createStartEvent();
+		process.getFlowElements().add(startEvent);
+
+		IncrementalValidationAdapter adapter = IncrementalValidationAdapter.get(resource);
+		adapter.validate(new NullProgressMonitor());
+
+		// when
+		EcoreUtil.remove(startEvent);
+
+		IStatus status = adapter.validate(new NullProgressMonitor());
+
+		// then
+		assertThat(getTargets(status)).excludes(startEvent);
+	}
+
+	@Test
+	public void testValidateAddedElements() {
+
+		// given
+		IncrementalValidationAdapter adapter = IncrementalValidationAdapter.get(resource);
+		adapter.validate(new NullProgressMonitor());
+
+		// when
+		StartEvent startEvent = Bpmn2Factory.eINSTANCE.createStartEvent();
+		process.getFlowElements().add(startEvent);
+
+		IStatus status = adapter.validate(new NullProgressMonitor());
+
+		// then
+		assertThat(getTargets(status)).contains(startEvent);
+	}
+
+	private List<EObject> getTargets(IStatus status) {
+		List<EObject> targets = new ArrayList<EObject>();
+
+		for (IStatus child : status.getChildren()) {
+			if (child instanceof IConstraintStatus) {
+				targets.add(((IConstraintStatus) child).getTarget());
+			}
+		}
+
+		return targets;
+	}
+}
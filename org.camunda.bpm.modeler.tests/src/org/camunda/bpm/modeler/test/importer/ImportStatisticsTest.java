@@ -0,0 +1,56 @@
+package org.camunda.bpm.modeler.test.importer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.camunda.bpm.modeler.core.importer.ImportStatistics;
+import org.camunda.bpm.modeler.core.importer.ModelImport;
+import org.camunda.bpm.modeler.core.importer.handlers.ArtifactShapeHandler;
+import org.camunda.bpm.modeler.core.importer.handlers.AssociationShapeHandler;
+import org.camunda.bpm.modeler.core.importer.handlers.TaskShapeHandler;
+import org.camunda.bpm.modeler.test.util.DiagramResource;
+import org.eclipse.core.runtime.IStatus;
+import org.junit.Test;
+
+public class ImportStatisticsTest extends AbstractImportBpmnModelTest {
+
+	@Test
+	@DiagramResource("org/camunda/bpm/modeler/test/importer/other/ImportTextAnnotationTest.testAnnotateActivity.bpmn")
+	public void testRecordImport() {
+
+		// when
+		ModelImport importer = importDiagram();
+
+		// then
+		ImportStatistics statistics = importer.getStatistics();
+
+		assertThat(statistics.getPhases()).contains(
+			ImportStatistics.PHASE_DI,
+			ImportStatistics.PHASE_DIAGRAM,
+			ImportStatistics.PHASE_ELEMENTS,
+			ImportStatistics.PHASE_DEFERRED_ACTIONS,
+			ImportStatistics.PHASE_LAYOUT);
+
+		assertThat(statistics.getHandledElementCount(TaskShapeHandler.class)).isEqualTo(1);
+		assertThat(statistics.getHandledElementCount(ArtifactShapeHandler.class)).isEqualTo(1);
+		assertThat(statistics.getHandledElementCount(AssociationShapeHandler.class)).isEqualTo(1);
+		assertThat(statistics.getHandledElementCount()).isEqualTo(3);
+
+		assertThat(statistics.getDeferredActionCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DiagramResource("org/camunda/bpm/modeler/test/importer/other/ImportTextAnnotationTest.testAnnotateActivity.bpmn")
+	public void testReportAsStatus() {
+
+		// given
+		ModelImport importer = importDiagram();
+
+		// when
+		IStatus status = importer.getStatistics().toStatus();
+
+		// then
+		assertThat(status.getSeverity()).isEqualTo(IStatus.INFO);
+		assertThat(status.getMessage()).contains("Imported 3 elements");
+		assertThat(status.getChildren()).isNotEmpty();
+	}
+}
@@ -0,0 +1,52 @@
+package org.camunda.bpm.modeler.test.importer.ids;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.camunda.bpm.modeler.core.model.index.IdIndexAdapter;
+import org.camunda.bpm.modeler.core.utils.ModelUtil;
+import org.camunda.bpm.modeler.test.importer.AbstractImportBpmnModelTest;
+import org.camunda.bpm.modeler.test.util.DiagramResource;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.junit.Test;
+
+public class ImportIdsTest extends AbstractImportBpmnModelTest {
+
+	@Test
+	@DiagramResource
+	public void testCreateAfterReopen() {
+
+		// given
+		// forget about ids generated by previous editor sessions
+		ModelUtil.clearIDs(bpmnResource, true);
+
+		importDiagram();
+
+		IdIndexAdapter index = IdIndexAdapter.get(bpmnResource);
+
+		// when
+		// elements are assigned an id before they are added to the resource
+		Set<String> ids = new HashSet<String>();
+		for (int i = 0; i < 3; i++) {
+			ids.add(ModelUtil.setID(Bpmn2Factory.eINSTANCE.createTask()));
+		}
+
+		BPMNShape shape = BpmnDiFactory.eINSTANCE.createBPMNShape();
+		shape.setBpmnElement(Bpmn2Factory.eINSTANCE.createTask());
+
+		String shapeId = ModelUtil.setID(shape);
+
+		// then
+		assertThat(ids).hasSize(3);
+
+		for (String id : ids) {
+			assertThat(index.contains(id)).as(id).isFalse();
+		}
+
+		assertThat(index.contains(shapeId)).as(shapeId).isFalse();
+	}
+}
@@ -0,0 +1,126 @@
+package org.camunda.bpm.modeler.test.layout.auto;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.layout.auto.AutoLayout;
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.ExclusiveGateway;
+import org.eclipse.bpmn2.FlowNode;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.bpmn2.di.BPMNDiagram;
+import org.eclipse.bpmn2.di.BPMNPlane;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.eclipse.dd.di.DiagramElement;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Test;
+
+/**
+ * Measures the generation of the diagram interchange for DI-less processes
+ * of growing size, made up of gateway splits, parallel task branches and loops.
+ *
+ * Not part of the regular test suite (which only picks up *Test classes);
+ * run manually and compare the timings printed to the console.
+ */
+public class AutoLayoutBenchmark {
+
+	private static final int[] SIZES = { 1000, 5000, 10000 };
+
+	private static final int BRANCHES = 3;
+
+	private static final int WARMUP_ITERATIONS = 5;
+
+	@Test
+	public void benchmarkLayout() {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			layout(SIZES[0]);
+		}
+
+		for (int size : SIZES) {
+			long time = System.nanoTime();
+
+			List<DiagramElement> elements = layout(size);
+
+			time = System.nanoTime() - time;
+
+			assertThat(elements.size()).isGreaterThan(size);
+
+			System.out.println(String.format("layout of %s flow nodes: %.3fms", size, time / 1e6));
+		}
+	}
+
+	private List<DiagramElement> layout(int size) {
+		Definitions definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("AutoLayoutBenchmark.bpmn"));
+
+		Process process = createProcess(size);
+		definitions.getRootElements().add(process);
+
+		BPMNPlane plane = BpmnDiFactory.eINSTANCE.createBPMNPlane();
+		plane.setBpmnElement(process);
+
+		BPMNDiagram diagram = BpmnDiFactory.eINSTANCE.createBPMNDiagram();
+		diagram.setPlane(plane);
+
+		definitions.getDiagrams().add(diagram);
+
+		return new AutoLayout(plane).layout(null, Arrays.asList(process));
+	}
+
+	/**
+	 * Creates a process of split / join blocks with the given number of flow nodes,
+	 * every fourth block looping back to its predecessor
+	 */
+	private static Process createProcess(int size) {
+		Process process = Bpmn2Factory.eINSTANCE.createProcess();
+
+		FlowNode previous = add(process, Bpmn2Factory.eINSTANCE.createStartEvent());
+
+		int nodes = 1;
+		int blocks = 0;
+
+		while (nodes + BRANCHES + 2 < size) {
+			ExclusiveGateway split = add(process, Bpmn2Factory.eINSTANCE.createExclusiveGateway());
+			ExclusiveGateway join = add(process, Bpmn2Factory.eINSTANCE.createExclusiveGateway());
+
+			connect(process, previous, split);
+
+			for (int i = 0; i < BRANCHES; i++) {
+				Task task = add(process, Bpmn2Factory.eINSTANCE.createTask());
+
+				connect(process, split, task);
+				connect(process, task, join);
+			}
+
+			if (++blocks % 4 == 0) {
+				connect(process, join, previous);
+			}
+
+			previous = join;
+			nodes += BRANCHES + 2;
+		}
+
+		connect(process, previous, add(process, Bpmn2Factory.eINSTANCE.createEndEvent()));
+
+		return process;
+	}
+
+	private static <T extends FlowNode> T add(Process process, T flowNode) {
+		process.getFlowElements().add(flowNode);
+
+		return flowNode;
+	}
+
+	private static void connect(Process process, FlowNode source, FlowNode target) {
+		SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+		flow.setSourceRef(source);
+		flow.setTargetRef(target);
+
+		process.getFlowElements().add(flow);
+	}
+}
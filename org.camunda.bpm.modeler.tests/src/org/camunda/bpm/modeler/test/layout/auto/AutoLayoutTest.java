@@ -0,0 +1,323 @@
+package org.camunda.bpm.modeler.test.layout.auto;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.layout.auto.AutoLayout;
+import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceFactoryImpl;
+import org.eclipse.bpmn2.Association;
+import org.eclipse.bpmn2.BaseElement;
+import org.eclipse.bpmn2.BoundaryEvent;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Collaboration;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.EndEvent;
+import org.eclipse.bpmn2.ExclusiveGateway;
+import org.eclipse.bpmn2.FlowNode;
+import org.eclipse.bpmn2.Lane;
+import org.eclipse.bpmn2.LaneSet;
+import org.eclipse.bpmn2.Participant;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.bpmn2.StartEvent;
+import org.eclipse.bpmn2.SubProcess;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.bpmn2.TextAnnotation;
+import org.eclipse.bpmn2.di.BPMNDiagram;
+import org.eclipse.bpmn2.di.BPMNEdge;
+import org.eclipse.bpmn2.di.BPMNPlane;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.eclipse.dd.dc.Bounds;
+import org.eclipse.dd.dc.Point;
+import org.eclipse.dd.di.DiagramElement;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AutoLayoutTest {
+
+	private Definitions definitions;
+	private Process process;
+	private BPMNPlane plane;
+
+	@Before
+	public void before() {
+		definitions = new Bpmn2ModelerResourceFactoryImpl().createAndInitResource(URI.createURI("AutoLayoutTest.bpmn"));
+
+		process = Bpmn2Factory.eINSTANCE.createProcess();
+		definitions.getRootElements().add(process);
+
+		plane = BpmnDiFactory.eINSTANCE.createBPMNPlane();
+
+		BPMNDiagram diagram = BpmnDiFactory.eINSTANCE.createBPMNDiagram();
+		diagram.setPlane(plane);
+
+		definitions.getDiagrams().add(diagram);
+	}
+
+	@Test
+	public void testLayoutProcess() {
+
+		// given
+		StartEvent start = add(Bpmn2Factory.eINSTANCE.createStartEvent());
+		Task task = add(Bpmn2Factory.eINSTANCE.createTask());
+		EndEvent end = add(Bpmn2Factory.eINSTANCE.createEndEvent());
+
+		SequenceFlow flow1 = connect(start, task);
+		SequenceFlow flow2 = connect(task, end);
+
+		plane.setBpmnElement(process);
+
+		// when
+		List<DiagramElement> elements = new AutoLayout(plane).layout(null, Arrays.asList(process));
+
+		// then
+		assertThat(elements).hasSize(5);
+		assertThat(plane.getPlaneElement()).containsAll(elements);
+
+		Bounds startBounds = getShape(elements, start).getBounds();
+		Bounds taskBounds = getShape(elements, task).getBounds();
+		Bounds endBounds = getShape(elements, end).getBounds();
+
+		assertThat(startBounds.getX() + startBounds.getWidth()).isLessThan(taskBounds.getX());
+		assertThat(taskBounds.getX() + taskBounds.getWidth()).isLessThan(endBounds.getX());
+
+		BPMNEdge edge1 = getEdge(elements, flow1);
+		BPMNEdge edge2 = getEdge(elements, flow2);
+
+		assertThat(edge1.getSourceElement()).isEqualTo(getShape(elements, start));
+		assertThat(edge1.getTargetElement()).isEqualTo(getShape(elements, task));
+
+		assertThat(edge1.getWaypoint()).hasSize(2);
+		assertThat(edge2.getWaypoint()).hasSize(2);
+
+		for (DiagramElement element : elements) {
+			assertThat(element.getId()).isNotNull();
+		}
+	}
+
+	@Test
+	public void testLayoutBoundaryEvent() {
+
+		// given
+		Task task = add(Bpmn2Factory.eINSTANCE.createTask());
+		Task escalation = add(Bpmn2Factory.eINSTANCE.createTask());
+
+		BoundaryEvent boundaryEvent = add(Bpmn2Factory.eINSTANCE.createBoundaryEvent());
+		boundaryEvent.setAttachedToRef(task);
+
+		SequenceFlow flow = connect(boundaryEvent, escalation);
+
+		plane.setBpmnElement(process);
+
+		// when
+		List<DiagramElement> elements = new AutoLayout(plane).layout(null, Arrays.asList(process));
+
+		// then
+		Bounds taskBounds = getShape(elements, task).getBounds();
+		Bounds boundaryEventBounds = getShape(elements, boundaryEvent).getBounds();
+		Bounds escalationBounds = getShape(elements, escalation).getBounds();
+
+		// attached to the bottom border of the host
+		assertThat(boundaryEventBounds.getY() + boundaryEventBounds.getHeight() / 2).isEqualTo(taskBounds.getY() + taskBounds.getHeight());
+		assertThat(boundaryEventBounds.getX()).isGreaterThanOrEqualTo(taskBounds.getX());
+		assertThat(boundaryEventBounds.getX() + boundaryEventBounds.getWidth()).isLessThanOrEqualTo(taskBounds.getX() + taskBounds.getWidth());
+
+		// target is placed below the host
+		assertThat(escalationBounds.getY()).isGreaterThan(taskBounds.getY() + taskBounds.getHeight());
+
+		BPMNEdge edge = getEdge(elements, flow);
+
+		Point first = edge.getWaypoint().get(0);
+		assertThat(first.getY()).isEqualTo(boundaryEventBounds.getY() + boundaryEventBounds.getHeight());
+	}
+
+	@Test
+	public void testLayoutLanes() {
+
+		// given
+		Task task1 = add(Bpmn2Factory.eINSTANCE.createTask());
+		Task task2 = add(Bpmn2Factory.eINSTANCE.createTask());
+
+		connect(task1, task2);
+
+		LaneSet laneSet = Bpmn2Factory.eINSTANCE.createLaneSet();
+		process.getLaneSets().add(laneSet);
+
+		Lane lane1 = Bpmn2Factory.eINSTANCE.createLane();
+		lane1.getFlowNodeRefs().add(task1);
+		laneSet.getLanes().add(lane1);
+
+		Lane lane2 = Bpmn2Factory.eINSTANCE.createLane();
+		lane2.getFlowNodeRefs().add(task2);
+		laneSet.getLanes().add(lane2);
+
+		Collaboration collaboration = Bpmn2Factory.eINSTANCE.createCollaboration();
+		definitions.getRootElements().add(collaboration);
+
+		Participant participant = Bpmn2Factory.eINSTANCE.createParticipant();
+		participant.setProcessRef(process);
+		collaboration.getParticipants().add(participant);
+
+		plane.setBpmnElement(collaboration);
+
+		// when
+		List<DiagramElement> elements = new AutoLayout(plane).layout(collaboration, Collections.<Process>emptyList());
+
+		// then
+		BPMNShape participantShape = getShape(elements, participant);
+		BPMNShape lane1Shape = getShape(elements, lane1);
+		BPMNShape lane2Shape = getShape(elements, lane2);
+
+		assertThat(participantShape.isIsHorizontal()).isTrue();
+		assertThat(lane1Shape.isIsHorizontal()).isTrue();
+
+		assertContains(participantShape.getBounds(), lane1Shape.getBounds());
+		assertContains(participantShape.getBounds(), lane2Shape.getBounds());
+
+		assertContains(lane1Shape.getBounds(), getShape(elements, task1).getBounds());
+		assertContains(lane2Shape.getBounds(), getShape(elements, task2).getBounds());
+
+		// participant is drawn before its contents
+		assertThat(elements.indexOf(participantShape)).isLessThan(elements.indexOf(lane1Shape));
+	}
+
+	@Test
+	public void testLayoutSubProcessArtifacts() {
+
+		// given
+		SubProcess subProcess = add(Bpmn2Factory.eINSTANCE.createSubProcess());
+
+		Task task = Bpmn2Factory.eINSTANCE.createTask();
+		subProcess.getFlowElements().add(task);
+
+		TextAnnotation annotation = Bpmn2Factory.eINSTANCE.createTextAnnotation();
+		subProcess.getArtifacts().add(annotation);
+
+		Association association = Bpmn2Factory.eINSTANCE.createAssociation();
+		association.setSourceRef(annotation);
+		association.setTargetRef(task);
+		subProcess.getArtifacts().add(association);
+
+		plane.setBpmnElement(process);
+
+		// when
+		List<DiagramElement> elements = new AutoLayout(plane).layout(null, Arrays.asList(process));
+
+		// then
+		Bounds subProcessBounds = getShape(elements, subProcess).getBounds();
+		Bounds taskBounds = getShape(elements, task).getBounds();
+		Bounds annotationBounds = getShape(elements, annotation).getBounds();
+
+		assertContains(subProcessBounds, taskBounds);
+		assertContains(subProcessBounds, annotationBounds);
+
+		// placed below the task it annotates
+		assertThat(annotationBounds.getY()).isGreaterThan(taskBounds.getY() + taskBounds.getHeight());
+
+		BPMNEdge edge = getEdge(elements, association);
+
+		assertThat(edge.getSourceElement()).isEqualTo(getShape(elements, annotation));
+		assertThat(edge.getTargetElement()).isEqualTo(getShape(elements, task));
+		assertThat(edge.getWaypoint()).hasSize(2);
+	}
+
+	@Test
+	public void testLayoutLargeProcess() {
+
+		// when
+		List<DiagramElement> elements = layoutGenerated(2000);
+
+		// then
+		// one shape per flow node and one edge per sequence flow
+		assertThat(elements).hasSize(process.getFlowElements().size());
+		assertThat(plane.getPlaneElement()).containsAll(elements);
+	}
+
+	/**
+	 * Lays out a process of split / join blocks with the given number of flow nodes,
+	 * every fourth block looping back to its predecessor
+	 */
+	private List<DiagramElement> layoutGenerated(int size) {
+		before();
+
+		FlowNode previous = add(Bpmn2Factory.eINSTANCE.createStartEvent());
+
+		int nodes = 1;
+		int blocks = 0;
+
+		while (nodes + 5 < size) {
+			ExclusiveGateway split = add(Bpmn2Factory.eINSTANCE.createExclusiveGateway());
+			ExclusiveGateway join = add(Bpmn2Factory.eINSTANCE.createExclusiveGateway());
+
+			connect(previous, split);
+
+			for (int i = 0; i < 3; i++) {
+				Task task = add(Bpmn2Factory.eINSTANCE.createTask());
+
+				connect(split, task);
+				connect(task, join);
+			}
+
+			if (++blocks % 4 == 0) {
+				connect(join, previous);
+			}
+
+			previous = join;
+			nodes += 5;
+		}
+
+		connect(previous, add(Bpmn2Factory.eINSTANCE.createEndEvent()));
+
+		plane.setBpmnElement(process);
+
+		return new AutoLayout(plane).layout(null, Arrays.asList(process));
+	}
+
+	private static void assertContains(Bounds outer, Bounds inner) {
+		assertThat(inner.getX()).isGreaterThanOrEqualTo(outer.getX());
+		assertThat(inner.getY()).isGreaterThanOrEqualTo(outer.getY());
+		assertThat(inner.getX() + inner.getWidth()).isLessThanOrEqualTo(outer.getX() + outer.getWidth());
+		assertThat(inner.getY() + inner.getHeight()).isLessThanOrEqualTo(outer.getY() + outer.getHeight());
+	}
+
+	private <T extends FlowNode> T add(T flowNode) {
+		process.getFlowElements().add(flowNode);
+
+		return flowNode;
+	}
+
+	private SequenceFlow connect(FlowNode source, FlowNode target) {
+		SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+		flow.setSourceRef(source);
+		flow.setTargetRef(target);
+
+		process.getFlowElements().add(flow);
+
+		return flow;
+	}
+
+	private static BPMNShape getShape(List<DiagramElement> elements, BaseElement element) {
+		for (DiagramElement diagramElement : elements) {
+			if (diagramElement instanceof BPMNShape && ((BPMNShape) diagramElement).getBpmnElement() == element) {
+				return (BPMNShape) diagramElement;
+			}
+		}
+
+		throw new AssertionError("No shape for " + element);
+	}
+
+	private static BPMNEdge getEdge(List<DiagramElement> elements, BaseElement element) {
+		for (DiagramElement diagramElement : elements) {
+			if (diagramElement instanceof BPMNEdge && ((BPMNEdge) diagramElement).getBpmnElement() == element) {
+				return (BPMNEdge) diagramElement;
+			}
+		}
+
+		throw new AssertionError("No edge for " + element);
+	}
+}
@@ -0,0 +1,252 @@
+package org.camunda.bpm.modeler.test.layout.auto;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.layout.auto.LayeredGraph;
+import org.camunda.bpm.modeler.core.layout.auto.LayeredGraph.Edge;
+import org.camunda.bpm.modeler.core.layout.auto.LayeredGraph.Node;
+import org.eclipse.graphiti.datatypes.ILocation;
+import org.junit.Test;
+
+public class LayeredGraphTest {
+
+	@Test
+	public void testLayoutChain() {
+
+		// given
+		LayeredGraph graph = new LayeredGraph();
+
+		Node start = graph.addNode("start", 36, 36);
+		Node task = graph.addNode("task", 100, 80);
+		Node end = graph.addNode("end", 36, 36);
+
+		Edge e1 = graph.addEdge("e1", start, task);
+		Edge e2 = graph.addEdge("e2", task, end);
+
+		// when
+		graph.layout();
+
+		// then
+		assertThat(graph.getLayerCount()).isEqualTo(3);
+
+		assertThat(start.getLayer()).isEqualTo(0);
+		assertThat(task.getLayer()).isEqualTo(1);
+		assertThat(end.getLayer()).isEqualTo(2);
+
+		assertThat(start.getX() + start.getWidth()).isLessThan(task.getX());
+		assertThat(task.getX() + task.getWidth()).isLessThan(end.getX());
+
+		// nodes of a chain are aligned
+		assertThat(centerY(start)).isEqualTo(centerY(task));
+		assertThat(centerY(task)).isEqualTo(centerY(end));
+
+		assertThat(e1.getWaypoints()).hasSize(2);
+		assertThat(e2.getWaypoints()).hasSize(2);
+	}
+
+	@Test
+	public void testLayoutSplitAndJoin() {
+
+		// given
+		LayeredGraph graph = new LayeredGraph();
+
+		Node split = graph.addNode("split", 50, 50);
+		Node a = graph.addNode("a", 100, 80);
+		Node b = graph.addNode("b", 100, 80);
+		Node c = graph.addNode("c", 100, 80);
+		Node join = graph.addNode("join", 50, 50);
+
+		graph.addEdge("s-a", split, a);
+		graph.addEdge("a-b", a, b);
+		graph.addEdge("s-c", split, c);
+		graph.addEdge("b-j", b, join);
+		graph.addEdge("c-j", c, join);
+
+		// when
+		graph.layout();
+
+		// then
+		assertThat(join.getLayer()).isEqualTo(3);
+
+		assertNoOverlaps(graph.getNodes());
+		assertOrthogonal(graph.getEdges());
+	}
+
+	@Test
+	public void testLayoutCycle() {
+
+		// given
+		LayeredGraph graph = new LayeredGraph();
+
+		Node a = graph.addNode("a", 100, 80);
+		Node b = graph.addNode("b", 100, 80);
+		Node c = graph.addNode("c", 100, 80);
+
+		graph.addEdge("a-b", a, b);
+		graph.addEdge("b-c", b, c);
+		Edge loop = graph.addEdge("c-a", c, a);
+
+		// when
+		graph.layout();
+
+		// then
+		assertThat(a.getLayer()).isEqualTo(0);
+		assertThat(b.getLayer()).isEqualTo(1);
+		assertThat(c.getLayer()).isEqualTo(2);
+
+		assertThat(loop.isReversed()).isTrue();
+
+		// back edge is routed below the nodes
+		List<ILocation> waypoints = loop.getWaypoints();
+
+		assertThat(waypoints).hasSize(4);
+		assertThat(waypoints.get(1).getY()).isGreaterThan(c.getY() + c.getHeight());
+
+		assertOrthogonal(graph.getEdges());
+	}
+
+	@Test
+	public void testLayoutSelfLoop() {
+
+		// given
+		LayeredGraph graph = new LayeredGraph();
+
+		Node a = graph.addNode("a", 100, 80);
+
+		Edge loop = graph.addEdge("a-a", a, a);
+
+		// when
+		graph.layout();
+
+		// then
+		assertThat(graph.getLayerCount()).isEqualTo(1);
+
+		assertThat(loop.getWaypoints()).hasSize(5);
+		assertOrthogonal(graph.getEdges());
+	}
+
+	@Test
+	public void testLayoutLongEdge() {
+
+		// given
+		LayeredGraph graph = new LayeredGraph();
+
+		Node a = graph.addNode("a", 100, 80);
+		Node b = graph.addNode("b", 100, 80);
+		Node c = graph.addNode("c", 100, 80);
+		Node d = graph.addNode("d", 100, 80);
+
+		graph.addEdge("a-b", a, b);
+		graph.addEdge("b-c", b, c);
+		graph.addEdge("c-d", c, d);
+		Edge skip = graph.addEdge("a-d", a, d);
+
+		// when
+		graph.layout();
+
+		// then
+		assertNoOverlaps(graph.getNodes());
+		assertOrthogonal(graph.getEdges());
+
+		// edge passes the nodes in between
+		for (ILocation waypoint : skip.getWaypoints()) {
+			assertThat(contains(b, waypoint)).isFalse();
+			assertThat(contains(c, waypoint)).isFalse();
+		}
+	}
+
+	@Test
+	public void testLayoutBands() {
+
+		// given
+		LayeredGraph graph = new LayeredGraph();
+		graph.setBandCount(2);
+		graph.setMinBandHeight(100);
+
+		Node a = graph.addNode("a", 100, 80, 1);
+		Node b = graph.addNode("b", 100, 80, 0);
+		Node c = graph.addNode("c", 100, 80, 1);
+
+		graph.addEdge("a-b", a, b);
+		graph.addEdge("b-c", b, c);
+
+		// when
+		graph.layout();
+
+		// then
+		assertThat(graph.getBandY(0)).isEqualTo(0);
+		assertThat(graph.getBandY(1)).isEqualTo(graph.getBandHeight(0));
+		assertThat(graph.getHeight()).isEqualTo(graph.getBandHeight(0) + graph.getBandHeight(1));
+
+		assertInBand(graph, a);
+		assertInBand(graph, b);
+		assertInBand(graph, c);
+
+		assertOrthogonal(graph.getEdges());
+	}
+
+	@Test
+	public void testLayoutEmpty() {
+
+		// given
+		LayeredGraph graph = new LayeredGraph();
+
+		// when
+		graph.layout();
+
+		// then
+		assertThat(graph.getWidth()).isEqualTo(0);
+		assertThat(graph.getLayerCount()).isEqualTo(0);
+	}
+
+	private static void assertInBand(LayeredGraph graph, Node node) {
+		int bandY = graph.getBandY(node.getBand());
+		int bandHeight = graph.getBandHeight(node.getBand());
+
+		assertThat(node.getY()).isGreaterThanOrEqualTo(bandY);
+		assertThat(node.getY() + node.getHeight()).isLessThanOrEqualTo(bandY + bandHeight);
+	}
+
+	private static void assertNoOverlaps(List<Node> nodes) {
+		for (Node n1 : nodes) {
+			for (Node n2 : nodes) {
+				if (n1 == n2) {
+					continue;
+				}
+
+				boolean overlaps =
+					n1.getX() < n2.getX() + n2.getWidth() && n2.getX() < n1.getX() + n1.getWidth() &&
+					n1.getY() < n2.getY() + n2.getHeight() && n2.getY() < n1.getY() + n1.getHeight();
+
+				assertThat(overlaps).as(n1 + " overlaps " + n2).isFalse();
+			}
+		}
+	}
+
+	private static void assertOrthogonal(List<Edge> edges) {
+		for (Edge edge : edges) {
+			List<ILocation> waypoints = edge.getWaypoints();
+
+			assertThat(waypoints.size()).isGreaterThanOrEqualTo(2);
+
+			for (int i = 1; i < waypoints.size(); i++) {
+				ILocation l1 = waypoints.get(i - 1);
+				ILocation l2 = waypoints.get(i);
+
+				assertThat(l1.getX() == l2.getX() || l1.getY() == l2.getY()).as(edge + " is orthogonal").isTrue();
+			}
+		}
+	}
+
+	private static boolean contains(Node node, ILocation location) {
+		return
+			node.getX() < location.getX() && location.getX() < node.getX() + node.getWidth() &&
+			node.getY() < location.getY() && location.getY() < node.getY() + node.getHeight();
+	}
+
+	private static int centerY(Node node) {
+		return node.getY() + node.getHeight() / 2;
+	}
+}
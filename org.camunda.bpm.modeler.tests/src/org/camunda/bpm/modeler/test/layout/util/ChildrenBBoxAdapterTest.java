@@ -0,0 +1,208 @@
+package org.camunda.bpm.modeler.test.layout.util;
+
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.rect;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.camunda.bpm.modeler.core.layout.util.ChildrenBBoxAdapter;
+import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
+import org.eclipse.graphiti.mm.pictograms.PictogramLink;
+import org.eclipse.graphiti.mm.pictograms.PictogramsFactory;
+import org.eclipse.graphiti.services.Graphiti;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChildrenBBoxAdapterTest {
+
+	private Diagram diagram;
+
+	@Before
+	public void before() {
+		diagram = Graphiti.getPeCreateService().createDiagram("BPMN2", "ChildrenBBoxAdapterTest", true);
+	}
+
+	@Test
+	public void testBoundsOfExistingChildren() {
+
+		// given
+		createShape(10, 10, 100, 80);
+		createShape(200, 150, 100, 80);
+
+		// when
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 290, 220));
+		assertThat(adapter.getBounds()).isEqualTo(LayoutUtil.getBBox(diagram.getChildren(), null, 0, 0));
+	}
+
+	@Test
+	public void testBoundsAfterAdd() {
+
+		// given
+		createShape(10, 10, 100, 80);
+
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+		adapter.getBounds();
+
+		// when
+		createShape(400, 300, 100, 80);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 490, 370));
+	}
+
+	@Test
+	public void testBoundsAfterGrowingMove() {
+
+		// given
+		createShape(10, 10, 100, 80);
+		ContainerShape shape = createShape(200, 150, 100, 80);
+
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+		adapter.getBounds();
+
+		// when
+		shape.getGraphicsAlgorithm().setX(500);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 590, 220));
+	}
+
+	@Test
+	public void testBoundsAfterShrinkingMove() {
+
+		// given
+		createShape(10, 10, 100, 80);
+		ContainerShape shape = createShape(200, 150, 100, 80);
+
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+		adapter.getBounds();
+
+		// when
+		shape.getGraphicsAlgorithm().setX(50);
+		shape.getGraphicsAlgorithm().setY(50);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 140, 120));
+		assertThat(adapter.getBounds()).isEqualTo(LayoutUtil.getBBox(diagram.getChildren(), null, 0, 0));
+	}
+
+	@Test
+	public void testBoundsAfterResize() {
+
+		// given
+		ContainerShape shape = createShape(10, 10, 100, 80);
+		createShape(20, 20, 50, 50);
+
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+		adapter.getBounds();
+
+		// when
+		shape.getGraphicsAlgorithm().setWidth(40);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 60, 80));
+		assertThat(adapter.getBounds()).isEqualTo(LayoutUtil.getBBox(diagram.getChildren(), null, 0, 0));
+	}
+
+	@Test
+	public void testBoundsAfterRemove() {
+
+		// given
+		createShape(10, 10, 100, 80);
+		ContainerShape shape = createShape(200, 150, 100, 80);
+
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+		adapter.getBounds();
+
+		// when
+		diagram.getChildren().remove(shape);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 100, 80));
+	}
+
+	@Test
+	public void testIgnoreUnlinkedChildren() {
+
+		// given
+		createShape(10, 10, 100, 80);
+
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+		adapter.getBounds();
+
+		// when
+		ContainerShape unlinked = Graphiti.getPeCreateService().createContainerShape(diagram, true);
+		Graphiti.getGaService().createRectangle(unlinked).setWidth(1000);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 100, 80));
+	}
+
+	@Test
+	public void testNoBoundsWithoutChildren() {
+
+		// when
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(diagram);
+
+		// then
+		assertThat(adapter.getBounds()).isNull();
+	}
+
+	@Test
+	public void testChildrenBBoxOfNestedContainer() {
+
+		// given
+		ContainerShape container = createShape(diagram, 0, 0, 800, 600);
+		createShape(container, 10, 10, 100, 80);
+		ContainerShape shape = createShape(container, 200, 150, 100, 80);
+
+		LayoutUtil.getChildrenBBox(container, null, 10, 20);
+
+		// when
+		shape.getGraphicsAlgorithm().setX(400);
+
+		// then
+		assertThat(LayoutUtil.getChildrenBBox(container, null, 10, 20)).isEqualTo(rect(0, -10, 510, 260));
+		assertThat(LayoutUtil.getChildrenBBox(container, null, 10, 20)).isEqualTo(LayoutUtil.getBBox(container.getChildren(), null, 10, 20));
+	}
+
+	@Test
+	public void testIgnoreContainerChanges() {
+
+		// given
+		ContainerShape container = createShape(diagram, 0, 0, 800, 600);
+		createShape(container, 10, 10, 100, 80);
+
+		ChildrenBBoxAdapter adapter = ChildrenBBoxAdapter.get(container);
+		adapter.getBounds();
+
+		// when
+		Graphiti.getPeService().setPropertyValue(container, "ChildrenBBoxAdapterTest", "changed");
+		Graphiti.getGaService().setLocationAndSize(Graphiti.getGaService().createRectangle(container), 0, 0, 1000, 800);
+
+		// then
+		assertThat(adapter.getBounds()).isEqualTo(rect(10, 10, 100, 80));
+	}
+
+	private ContainerShape createShape(int x, int y, int width, int height) {
+		return createShape(diagram, x, y, width, height);
+	}
+
+	private ContainerShape createShape(ContainerShape parent, int x, int y, int width, int height) {
+		ContainerShape shape = Graphiti.getPeCreateService().createContainerShape(parent, true);
+
+		Graphiti.getGaService().setLocationAndSize(Graphiti.getGaService().createRectangle(shape), x, y, width, height);
+
+		PictogramLink link = PictogramsFactory.eINSTANCE.createPictogramLink();
+		link.getBusinessObjects().add(Bpmn2Factory.eINSTANCE.createTask());
+		link.setPictogramElement(shape);
+
+		diagram.getPictogramLinks().add(link);
+
+		return shape;
+	}
+}
@@ -0,0 +1,111 @@
+package org.camunda.bpm.modeler.test.layout.util;
+
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.rect;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.layout.util.ChildrenSpatialIndex;
+import org.camunda.bpm.modeler.core.utils.GraphicsUtil;
+import org.eclipse.graphiti.datatypes.IRectangle;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
+import org.eclipse.graphiti.mm.pictograms.Shape;
+import org.eclipse.graphiti.services.Graphiti;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares intersection queries served by the {@link ChildrenSpatialIndex} with
+ * a scan over all children of a container holding 5.000 shapes, as done by the
+ * free slot search when appending elements.
+ *
+ * Not part of the regular test suite (which only picks up *Test classes);
+ * run manually and compare the timings printed to the console.
+ */
+public class ChildrenSpatialIndexBenchmark {
+
+	private static final int SHAPES = 5000;
+
+	private static final int COLUMNS = 100;
+
+	private static final int WARMUP_ITERATIONS = 50;
+	private static final int ITERATIONS = 200;
+
+	private Diagram diagram;
+
+	@Before
+	public void before() {
+		diagram = Graphiti.getPeCreateService().createDiagram("BPMN2", "ChildrenSpatialIndexBenchmark", true);
+
+		for (int i = 0; i < SHAPES; i++) {
+			ContainerShape shape = Graphiti.getPeCreateService().createContainerShape(diagram, true);
+
+			int x = (i % COLUMNS) * 150;
+			int y = (i / COLUMNS) * 130;
+
+			Graphiti.getGaService().setLocationAndSize(Graphiti.getGaService().createRectangle(shape), x, y, 100, 80);
+		}
+	}
+
+	@Test
+	public void benchmarkIntersecting() {
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		IRectangle bounds = rect(7000, 3000, 100, 80);
+
+		assertThat(index.getIntersecting(bounds)).hasSize(scan(diagram, bounds).size());
+
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			scan(diagram, bounds);
+			index.getIntersecting(bounds);
+		}
+
+		long scanTime = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			scan(diagram, bounds);
+		}
+		scanTime = System.nanoTime() - scanTime;
+
+		long indexTime = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			index.getIntersecting(bounds);
+		}
+		indexTime = System.nanoTime() - indexTime;
+
+		System.out.println(String.format("getIntersecting on %s shapes: scan %.3fms/op, index %.3fms/op",
+			SHAPES, scanTime / 1e6 / ITERATIONS, indexTime / 1e6 / ITERATIONS));
+	}
+
+	@Test
+	public void benchmarkMove() {
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		Shape shape = diagram.getChildren().get(SHAPES / 2);
+
+		long time = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			shape.getGraphicsAlgorithm().setX(i * 10);
+		}
+		time = System.nanoTime() - time;
+
+		assertThat(index.size()).isEqualTo(SHAPES);
+
+		System.out.println(String.format("index update on move with %s shapes: %.3fms/op",
+			SHAPES, time / 1e6 / ITERATIONS));
+	}
+
+	/**
+	 * The children scan previously performed by the free slot search
+	 */
+	private static List<Shape> scan(Diagram diagram, IRectangle bounds) {
+		List<Shape> result = new ArrayList<Shape>();
+		for (Shape shape : diagram.getChildren()) {
+			if (GraphicsUtil.intersects(shape, bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight())) {
+				result.add(shape);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,222 @@
+package org.camunda.bpm.modeler.test.layout.util;
+
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.location;
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.rect;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.camunda.bpm.modeler.core.layout.util.ChildrenSpatialIndex;
+import org.camunda.bpm.modeler.core.utils.GraphicsUtil;
+import org.eclipse.graphiti.datatypes.IRectangle;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
+import org.eclipse.graphiti.mm.pictograms.Shape;
+import org.eclipse.graphiti.services.Graphiti;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChildrenSpatialIndexTest {
+
+	private Diagram diagram;
+
+	@Before
+	public void before() {
+		diagram = Graphiti.getPeCreateService().createDiagram("BPMN2", "ChildrenSpatialIndexTest", true);
+	}
+
+	@Test
+	public void testIntersectingExistingChildren() {
+
+		// given
+		ContainerShape shape1 = createShape(diagram, 10, 10, 100, 80);
+		ContainerShape shape2 = createShape(diagram, 200, 150, 100, 80);
+		createShape(diagram, 1000, 1000, 100, 80);
+
+		// when
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// then
+		assertThat(index.size()).isEqualTo(3);
+
+		assertThat(index.getIntersecting(rect(50, 50, 200, 200))).containsOnly(shape1, shape2);
+		assertThat(index.getIntersecting(rect(500, 500, 100, 100))).isEmpty();
+	}
+
+	@Test
+	public void testIntersectingTouchingChild() {
+
+		// given
+		ContainerShape shape = createShape(diagram, 10, 10, 100, 80);
+
+		// when
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// then
+		assertThat(index.getIntersecting(rect(110, 90, 50, 50))).containsOnly(shape);
+	}
+
+	@Test
+	public void testContained() {
+
+		// given
+		ContainerShape shape1 = createShape(diagram, 10, 10, 100, 80);
+		createShape(diagram, 200, 150, 100, 80);
+
+		// when
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// then
+		assertThat(index.getContained(rect(0, 0, 250, 250))).containsOnly(shape1);
+	}
+
+	@Test
+	public void testAt() {
+
+		// given
+		ContainerShape outer = createShape(diagram, 0, 0, 500, 300);
+		ContainerShape inner = createShape(diagram, 100, 100, 100, 80);
+
+		// when
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// then
+		assertThat(index.getAt(location(150, 150))).containsOnly(outer, inner);
+		assertThat(index.getAt(location(400, 50))).containsOnly(outer);
+		assertThat(index.getAt(location(600, 50))).isEmpty();
+	}
+
+	@Test
+	public void testAfterAdd() {
+
+		// given
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// when
+		ContainerShape shape = createShape(diagram, 400, 300, 100, 80);
+
+		// then
+		assertThat(index.getIntersecting(rect(450, 350, 10, 10))).containsOnly(shape);
+	}
+
+	@Test
+	public void testAfterMove() {
+
+		// given
+		ContainerShape shape = createShape(diagram, 10, 10, 100, 80);
+
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// when
+		shape.getGraphicsAlgorithm().setX(1000);
+		shape.getGraphicsAlgorithm().setY(-500);
+
+		// then
+		assertThat(index.getIntersecting(rect(10, 10, 100, 80))).isEmpty();
+		assertThat(index.getIntersecting(rect(1050, -450, 10, 10))).containsOnly(shape);
+	}
+
+	@Test
+	public void testAfterResize() {
+
+		// given
+		ContainerShape shape = createShape(diagram, 10, 10, 100, 80);
+
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// when
+		shape.getGraphicsAlgorithm().setWidth(1000);
+
+		// then
+		assertThat(index.getAt(location(900, 50))).containsOnly(shape);
+	}
+
+	@Test
+	public void testAfterRemove() {
+
+		// given
+		ContainerShape shape = createShape(diagram, 10, 10, 100, 80);
+
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		// when
+		diagram.getChildren().remove(shape);
+
+		// then
+		assertThat(index.size()).isEqualTo(0);
+		assertThat(index.getIntersecting(rect(10, 10, 100, 80))).isEmpty();
+	}
+
+	@Test
+	public void testIndexPerContainer() {
+
+		// given
+		ContainerShape container = createShape(diagram, 0, 0, 500, 300);
+		ContainerShape child = createShape(container, 10, 10, 100, 80);
+
+		// when
+		ChildrenSpatialIndex diagramIndex = ChildrenSpatialIndex.get(diagram);
+		ChildrenSpatialIndex containerIndex = ChildrenSpatialIndex.get(container);
+
+		// then
+		assertThat(diagramIndex.getIntersecting(rect(10, 10, 10, 10))).containsOnly(container);
+		assertThat(containerIndex.getIntersecting(rect(10, 10, 10, 10))).containsOnly(child);
+	}
+
+	@Test
+	public void testLargeContainer() {
+
+		// given
+		for (int i = 0; i < 5000; i++) {
+			createShape(diagram, (i % 100) * 150, (i / 100) * 130, 100, 80);
+		}
+
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(diagram);
+
+		Shape shape = diagram.getChildren().get(2500);
+
+		// when
+		for (int i = 0; i < 200; i++) {
+			shape.getGraphicsAlgorithm().setX(i * 10);
+		}
+
+		// then
+		assertThat(index.size()).isEqualTo(5000);
+
+		IRectangle[] queries = {
+			rect(7000, 3000, 100, 80),
+			rect(0, 3250, 2000, 200),
+			rect(-100, -100, 50, 50),
+			rect(0, 0, 20000, 10000)
+		};
+
+		for (IRectangle bounds : queries) {
+			assertThat(new HashSet<Shape>(index.getIntersecting(bounds))).isEqualTo(new HashSet<Shape>(scan(diagram, bounds)));
+		}
+	}
+
+	/**
+	 * Returns the children intersecting with the given bounds by checking each of them
+	 */
+	private static List<Shape> scan(ContainerShape container, IRectangle bounds) {
+		List<Shape> result = new ArrayList<Shape>();
+
+		for (Shape shape : container.getChildren()) {
+			if (GraphicsUtil.intersects(shape, bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight())) {
+				result.add(shape);
+			}
+		}
+
+		return result;
+	}
+
+	private ContainerShape createShape(ContainerShape parent, int x, int y, int width, int height) {
+		ContainerShape shape = Graphiti.getPeCreateService().createContainerShape(parent, true);
+
+		Graphiti.getGaService().setLocationAndSize(Graphiti.getGaService().createRectangle(shape), x, y, width, height);
+
+		return shape;
+	}
+}
@@ -0,0 +1,114 @@
+package org.camunda.bpm.modeler.test.runtime.engine.util;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.camunda.bpm.modeler.runtime.engine.util.PngWriter;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Test;
+
+public class PngWriterTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+
+		// given
+		int width = 70;
+		int height = 50;
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// when
+		PngWriter writer = new PngWriter(out, width, height);
+
+		for (int y = 0; y < height; y++) {
+			byte[] row = new byte[width * 3];
+
+			for (int x = 0; x < width; x++) {
+				RGB rgb = pixel(x, y);
+
+				row[x * 3] = (byte) rgb.red;
+				row[x * 3 + 1] = (byte) rgb.green;
+				row[x * 3 + 2] = (byte) rgb.blue;
+			}
+
+			writer.writeRow(row);
+		}
+
+		writer.finish();
+
+		// then
+		ImageData[] images = new ImageLoader().load(new ByteArrayInputStream(out.toByteArray()));
+
+		assertThat(images).hasSize(1);
+
+		ImageData image = images[0];
+
+		assertThat(image.width).isEqualTo(width);
+		assertThat(image.height).isEqualTo(height);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				RGB rgb = image.palette.getRGB(image.getPixel(x, y));
+
+				assertThat(rgb).as("pixel " + x + "," + y).isEqualTo(pixel(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testLargeImage() throws IOException {
+
+		// given
+		int width = 4000;
+		int height = 300;
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		byte[] row = new byte[width * 3];
+
+		// when
+		PngWriter writer = new PngWriter(out, width, height);
+
+		for (int y = 0; y < height; y++) {
+			// white with a black line every 100 rows
+			byte value = (byte) (y % 100 == 0 ? 0 : 255);
+			Arrays.fill(row, value);
+
+			writer.writeRow(row);
+		}
+
+		writer.finish();
+
+		// then
+		ImageData image = new ImageLoader().load(new ByteArrayInputStream(out.toByteArray()))[0];
+
+		assertThat(image.width).isEqualTo(width);
+		assertThat(image.height).isEqualTo(height);
+
+		assertThat(image.palette.getRGB(image.getPixel(width - 1, 200))).isEqualTo(new RGB(0, 0, 0));
+		assertThat(image.palette.getRGB(image.getPixel(width - 1, 201))).isEqualTo(new RGB(255, 255, 255));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFailOnMissingRows() throws IOException {
+
+		// given
+		PngWriter writer = new PngWriter(new ByteArrayOutputStream(), 10, 10);
+
+		writer.writeRow(new byte[30]);
+
+		// when
+		writer.finish();
+	}
+
+	private static RGB pixel(int x, int y) {
+		return new RGB((x * 7) % 256, (y * 13) % 256, (x * y) % 256);
+	}
+}
@@ -993,6 +993,56 @@ public class ChangeSupportTest extends AbstractNonTransactionalFeatureTest {
 		assertThat(listener.getCapturedEvents()).hasSize(1);
 	}	
 
+	// dispatching tests ///////////////////////////////////////////////////
+
+	@Test
+	@DiagramResource("org/camunda/bpm/modeler/test/ui/change/ChangeSupportTest.testBase.bpmn")
+	public void testNotificationsBatchedPerCommit() {
+		final Process process1 = findBusinessObjectById(diagram, "Process_1", Process.class);
+
+		final Task task2 = bpmn2factory.createTask();
+		final Task task3 = bpmn2factory.createTask();
+
+		FeatureChangeFilter filter = new FeatureChangeFilter(process1, FLOW_ELEMENTS_FEATURE);
+		CustomResourceSetListener listener = new CustomResourceSetListener(process1, filter);
+		listener.register();
+
+		transactionalExecute(new RecordingCommand(editingDomain) {
+
+			@Override
+			protected void doExecute() {
+				process1.getFlowElements().add(task2);
+				process1.getFlowElements().add(task3);
+			}
+		});
+
+		assertThat(listener.getCapturedEvents()).hasSize(1);
+		assertThat(listener.getCapturedEvents().get(0).getNotifications()).hasSize(2);
+	}
+
+	@Test
+	@DiagramResource("org/camunda/bpm/modeler/test/ui/change/ChangeSupportTest.testBase.bpmn")
+	public void testNoNotificationAfterUnregister() {
+		final Process process1 = findBusinessObjectById(diagram, "Process_1", Process.class);
+
+		final Task task2 = bpmn2factory.createTask();
+
+		FeatureChangeFilter filter = new FeatureChangeFilter(process1, FLOW_ELEMENTS_FEATURE);
+		CustomResourceSetListener listener = new CustomResourceSetListener(process1, filter);
+		listener.register();
+		listener.unregister();
+
+		transactionalExecute(new RecordingCommand(editingDomain) {
+
+			@Override
+			protected void doExecute() {
+				process1.getFlowElements().add(task2);
+			}
+		});
+
+		assertThat(listener.getCapturedEvents()).isEmpty();
+	}
+
 	// utility classes ////////////////////////////////////////////////////
 	
 	private class CustomResourceSetListener extends AbstractEObjectChangeSupport {
@@ -0,0 +1,124 @@
+package org.camunda.bpm.modeler.test.ui.change;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.modeler.ui.change.AbstractEObjectChangeSupport;
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.junit.Test;
+
+public class EObjectChangeDispatcherTest {
+
+	@Test
+	public void testDispatchChanges() {
+
+		// given
+		TransactionalEditingDomain editingDomain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+
+		final Task task = createTask(editingDomain);
+
+		RecordingChangeSupport changeSupport = new RecordingChangeSupport(task);
+		changeSupport.register();
+
+		// when
+		execute(editingDomain, new Runnable() {
+
+			@Override
+			public void run() {
+				task.setName("Task");
+			}
+		});
+
+		// then
+		assertThat(changeSupport.events).hasSize(1);
+
+		editingDomain.dispose();
+	}
+
+	@Test
+	public void testEditingDomainCollectedAfterDispose() {
+
+		// given
+		TransactionalEditingDomain editingDomain = TransactionalEditingDomain.Factory.INSTANCE.createEditingDomain();
+
+		Task task = createTask(editingDomain);
+
+		new RecordingChangeSupport(task).register();
+
+		WeakReference<TransactionalEditingDomain> reference = new WeakReference<TransactionalEditingDomain>(editingDomain);
+
+		// when
+		editingDomain.dispose();
+
+		editingDomain = null;
+		task = null;
+
+		// then
+		assertThat(isCollected(reference)).isTrue();
+	}
+
+	private static boolean isCollected(WeakReference<?> reference) {
+		for (int i = 0; i < 20 && reference.get() != null; i++) {
+			System.gc();
+
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		return reference.get() == null;
+	}
+
+	private static Task createTask(TransactionalEditingDomain editingDomain) {
+		final Resource resource = new XMIResourceImpl(URI.createURI("EObjectChangeDispatcherTest.bpmn"));
+		final Task task = Bpmn2Factory.eINSTANCE.createTask();
+
+		editingDomain.getResourceSet().getResources().add(resource);
+
+		execute(editingDomain, new Runnable() {
+
+			@Override
+			public void run() {
+				resource.getContents().add(task);
+			}
+		});
+
+		return task;
+	}
+
+	private static void execute(TransactionalEditingDomain editingDomain, final Runnable runnable) {
+		editingDomain.getCommandStack().execute(new RecordingCommand(editingDomain) {
+
+			@Override
+			protected void doExecute() {
+				runnable.run();
+			}
+		});
+	}
+
+	private static class RecordingChangeSupport extends AbstractEObjectChangeSupport {
+
+		private final List<ResourceSetChangeEvent> events = new ArrayList<ResourceSetChangeEvent>();
+
+		public RecordingChangeSupport(Task task) {
+			super(task);
+		}
+
+		@Override
+		public void resourceSetChanged(ResourceSetChangeEvent event) {
+			events.add(event);
+		}
+	}
+}
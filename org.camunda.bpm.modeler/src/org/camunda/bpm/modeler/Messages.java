@@ -63,12 +63,15 @@ public class Messages extends NLS {
 	public static String Bpmn2BatchValidationConstraint_35;
 	public static String Bpmn2BatchValidationConstraint_36;
 	public static String Bpmn2BatchValidationConstraint_37;
+	public static String Bpmn2BatchValidationConstraint_38;
 	public static String Bpmn2BatchValidationConstraint_4;
 	public static String Bpmn2BatchValidationConstraint_5;
 	public static String Bpmn2BatchValidationConstraint_6;
 	public static String Bpmn2BatchValidationConstraint_7;
 	public static String Bpmn2BatchValidationConstraint_8;
 	public static String Bpmn2BatchValidationConstraint_9;
+	public static String Bpmn2Builder_0;
+	public static String Bpmn2Builder_1;
 	public static String Bpmn2DiagramWizardPage_1;
 	public static String Bpmn2DiagramWizardPage_11;
 	public static String Bpmn2DiagramWizardPage_12;
@@ -89,6 +92,8 @@ public class Messages extends NLS {
 	public static String Bpmn2Editor_5;
 	public static String Bpmn2Editor_6;
 	public static String Bpmn2Editor_7;
+	public static String Bpmn2PersistencyBehavior_0;
+	public static String Bpmn2PersistencyBehavior_1;
 	public static String Bpmn2Preferences_0;
 	public static String Bpmn2Preferences_1;
 	public static String Bpmn2Preferences_10;
@@ -145,6 +150,7 @@ public class Messages extends NLS {
 	public static String Bpmn2Preferences_9;
 	public static String Bpmn2ProjectValidator_1;
 	public static String Bpmn2ProjectValidator_10;
+	public static String Bpmn2ProjectValidator_11;
 	public static String Bpmn2ProjectValidator_2;
 	public static String Bpmn2ProjectValidator_3;
 	public static String Bpmn2ProjectValidator_4;
@@ -192,6 +198,7 @@ public class Messages extends NLS {
 	public static String DiagramExport_1;
 	public static String DiagramExport_11;
 	public static String DiagramExport_12;
+	public static String DiagramExport_13;
 	public static String DiagramExport_5;
 	public static String DiagramExport_6;
 	public static String EndEventFeatureContainer_0;
@@ -13,10 +13,12 @@
 package org.camunda.bpm.modeler.core;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.camunda.bpm.modeler.core.model.Bpmn2ModelerFactory;
+import org.camunda.bpm.modeler.core.model.index.DiIndexAdapter;
+import org.camunda.bpm.modeler.core.model.index.IdIndexAdapter;
+import org.camunda.bpm.modeler.core.model.index.TypeIndexAdapter;
 import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.camunda.bpm.modeler.core.utils.GraphicsUtil;
@@ -72,7 +74,6 @@ import org.eclipse.dd.dc.DcFactory;
 import org.eclipse.dd.dc.Point;
 import org.eclipse.dd.di.DiagramElement;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EFactory;
@@ -975,23 +976,38 @@ public class ModelHandler {
 		return getAll(this.resource, class1);
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Returns all elements of the given type contained in the resource.
+	 * 
+	 * Served from the {@link TypeIndexAdapter} of the resource; elements are 
+	 * returned in containment order.
+	 * 
+	 * @param resource
+	 * @param class1
+	 * @return
+	 */
 	public static <T> List<T> getAll(Resource resource, final Class<T> class1) {
-		ArrayList<T> l = new ArrayList<T>();
-		TreeIterator<EObject> contents = resource.getAllContents();
-		for (; contents.hasNext();) {
-			Object t = contents.next();
-			if (class1.isInstance(t)) {
-				l.add((T) t);
-			}
-		}
-		return l;
+		return TypeIndexAdapter.get(resource).getAll(class1);
 	}
 
+	/**
+	 * Returns the di element of the given bpmn element in the given diagram.
+	 * 
+	 * Served from the {@link DiIndexAdapter} of the diagrams resource.
+	 * 
+	 * @param diagram
+	 * @param element
+	 * @return
+	 */
 	public static DiagramElement findDIElement(Diagram diagram, BaseElement element) {
 		BPMNDiagram bpmnDiagram = BusinessObjectUtil.getFirstElementOfType(diagram, BPMNDiagram.class);
 		Assert.isNotNull(bpmnDiagram);
 		
+		Resource resource = bpmnDiagram.eResource();
+		if (resource != null) {
+			return DiIndexAdapter.get(resource).getDiagramElement(element, bpmnDiagram);
+		}
+		
 		// Process elements correspond to BPMNPlane DI elements
 		BPMNPlane bpmnPlane = bpmnDiagram.getPlane();
 		
@@ -1023,15 +1039,7 @@ public class ModelHandler {
 		if (id==null || id.isEmpty())
 			return null;
 		
-		List<BaseElement> baseElements = getAll(BaseElement.class);
-
-		for (BaseElement be : baseElements) {
-			if (id.equals(be.getId())) {
-				return be;
-			}
-		}
-
-		return null;
+		return IdIndexAdapter.get(resource).getElement(id, BaseElement.class);
 	}
 	
 	/**
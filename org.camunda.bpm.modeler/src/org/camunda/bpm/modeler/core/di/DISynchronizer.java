@@ -0,0 +1,351 @@
+package org.camunda.bpm.modeler.core.di;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.bpmn2.di.BPMNEdge;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.dd.di.DiagramElement;
+import org.eclipse.emf.common.command.Command;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.transaction.NotificationFilter;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.TransactionalEditingDomain.Lifecycle;
+import org.eclipse.emf.transaction.TransactionalEditingDomainEvent;
+import org.eclipse.emf.transaction.TransactionalEditingDomainListenerImpl;
+import org.eclipse.emf.transaction.impl.InternalTransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.eclipse.graphiti.mm.pictograms.Anchor;
+import org.eclipse.graphiti.mm.pictograms.Connection;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.PictogramElement;
+import org.eclipse.graphiti.mm.pictograms.Shape;
+import org.eclipse.graphiti.services.Graphiti;
+
+/**
+ * Synchronizes the diagram interchange (BPMNShape, BPMNEdge and BPMNLabel bounds and waypoints)
+ * with the pictogram model once per transaction.
+ *
+ * Features schedule the pictogram elements whose di is outdated via {@link #updateDI(PictogramElement)}
+ * and {@link #updateDILabel(Shape, DiagramElement)} instead of writing the di right away. The synchronizer
+ * is registered as a pre commit listener with the editing domain and writes the di of each scheduled
+ * element (along with its children and attached connections) exactly once, right before the transaction
+ * commits. Moving a shape with many attached connections several times within one command therefore
+ * does not rewrite the connection waypoints over and over again.
+ *
+ * Outside of a write transaction the di is updated immediately, as done by {@link DIUtils}.
+ *
+ * Scheduled elements are discarded if the transaction is rolled back. The synchronizer is
+ * removed from its editing domain once the editing domain gets disposed.
+ */
+public class DISynchronizer extends ResourceSetListenerImpl {
+
+	/**
+	 * Synchronizers by editing domain; entries are removed when their editing domain gets disposed
+	 */
+	private static final Map<TransactionalEditingDomain, DISynchronizer> SYNCHRONIZERS = new HashMap<TransactionalEditingDomain, DISynchronizer>();
+
+	/**
+	 * Shapes and connections whose di needs to be updated
+	 */
+	private Set<PictogramElement> elements = new LinkedHashSet<PictogramElement>();
+
+	/**
+	 * Label shapes whose di needs to be updated, along with the diagram element owning the label
+	 */
+	private Map<Shape, DiagramElement> labels = new LinkedHashMap<Shape, DiagramElement>();
+
+	private DISynchronizer() {
+		super(NotificationFilter.NOT_TOUCH);
+	}
+
+	/**
+	 * Schedules the di update of the given shape or connection
+	 *
+	 * @param pictogramElement
+	 */
+	public synchronized void add(PictogramElement pictogramElement) {
+		elements.add(pictogramElement);
+	}
+
+	/**
+	 * Schedules the di update of the given label of a {@link BPMNShape} or {@link BPMNEdge}
+	 *
+	 * @param label
+	 * @param owner
+	 */
+	public synchronized void addLabel(Shape label, DiagramElement owner) {
+		labels.put(label, owner);
+	}
+
+	@Override
+	public boolean isPrecommitOnly() {
+		return true;
+	}
+
+	@Override
+	public boolean isAggregatePrecommitListener() {
+		return true;
+	}
+
+	@Override
+	public Command transactionAboutToCommit(ResourceSetChangeEvent event) {
+
+		final Set<PictogramElement> dirtyElements;
+		final Map<Shape, DiagramElement> dirtyLabels;
+
+		synchronized (this) {
+			if (elements.isEmpty() && labels.isEmpty()) {
+				return null;
+			}
+
+			dirtyElements = elements;
+			dirtyLabels = labels;
+
+			elements = new LinkedHashSet<PictogramElement>();
+			labels = new LinkedHashMap<Shape, DiagramElement>();
+		}
+
+		return new RecordingCommand(event.getEditingDomain(), "Synchronize DI") {
+
+			@Override
+			protected void doExecute() {
+				synchronize(dirtyElements, dirtyLabels);
+			}
+		};
+	}
+
+	/**
+	 * Discards the scheduled elements. Called once a root transaction closed; elements
+	 * still scheduled at that point belong to a transaction that got rolled back.
+	 */
+	private synchronized void clear() {
+		if (elements.isEmpty() && labels.isEmpty()) {
+			return;
+		}
+
+		elements = new LinkedHashSet<PictogramElement>();
+		labels = new LinkedHashMap<Shape, DiagramElement>();
+	}
+
+	/**
+	 * Updates the di of the given elements and labels, writing the
+	 * bounds of each shape and the waypoints of each connection only once
+	 *
+	 * @param elements
+	 * @param labels
+	 */
+	public static void synchronize(Collection<PictogramElement> elements, Map<Shape, DiagramElement> labels) {
+
+		Set<Shape> shapes = new HashSet<Shape>();
+		Set<Connection> connections = new LinkedHashSet<Connection>();
+
+		for (PictogramElement element : elements) {
+			if (isRemoved(element)) {
+				continue;
+			}
+
+			if (element instanceof Shape) {
+				synchronizeShape((Shape) element, shapes, connections);
+			} else
+			if (element instanceof Connection) {
+				connections.add((Connection) element);
+			}
+		}
+
+		for (Map.Entry<Shape, DiagramElement> entry : labels.entrySet()) {
+			Shape label = entry.getKey();
+			DiagramElement owner = entry.getValue();
+
+			if (isRemoved(label) || owner == null) {
+				continue;
+			}
+
+			if (owner instanceof BPMNEdge) {
+				DIUtils.updateDILabel(label, (BPMNEdge) owner);
+			} else
+			if (owner instanceof BPMNShape) {
+				DIUtils.updateDILabel(label, (BPMNShape) owner);
+			}
+		}
+
+		for (Connection connection : connections) {
+			if (isRemoved(connection)) {
+				continue;
+			}
+
+			DIUtils.updateDIEdge(connection);
+		}
+	}
+
+	/**
+	 * Updates the bounds of the given shape and its children,
+	 * collecting the connections attached to them
+	 */
+	private static void synchronizeShape(Shape shape, Set<Shape> shapes, Set<Connection> connections) {
+		if (!shapes.add(shape)) {
+			return;
+		}
+
+		if (!DIUtils.updateDIShapeBounds(shape, DIUtils.getShape(shape))) {
+			return;
+		}
+
+		if (shape instanceof ContainerShape) {
+			for (Shape child : ((ContainerShape) shape).getChildren()) {
+				if (child instanceof ContainerShape) {
+					synchronizeShape(child, shapes, connections);
+				}
+			}
+		}
+
+		for (Anchor anchor : shape.getAnchors()) {
+			connections.addAll(Graphiti.getPeService().getAllConnections(anchor));
+		}
+	}
+
+	private static boolean isRemoved(PictogramElement element) {
+		return element.eResource() == null;
+	}
+
+	/**
+	 * Schedules the di update of the given shape or connection for the end of the
+	 * active transaction or updates it immediately if no transaction is active.
+	 *
+	 * @param pictogramElement
+	 */
+	public static void updateDI(PictogramElement pictogramElement) {
+		DISynchronizer synchronizer = getActive(pictogramElement);
+
+		if (synchronizer == null) {
+			DIUtils.updateDI(pictogramElement);
+		} else {
+			synchronizer.add(pictogramElement);
+		}
+	}
+
+	/**
+	 * Schedules the di update of the given label for the end of the active
+	 * transaction or updates it immediately if no transaction is active.
+	 *
+	 * @param label
+	 * @param owner the {@link BPMNShape} or {@link BPMNEdge} owning the label
+	 */
+	public static void updateDILabel(Shape label, DiagramElement owner) {
+		DISynchronizer synchronizer = getActive(label);
+
+		if (synchronizer == null) {
+			Map<Shape, DiagramElement> labels = new LinkedHashMap<Shape, DiagramElement>();
+			labels.put(label, owner);
+
+			synchronize(Collections.<PictogramElement> emptyList(), labels);
+		} else {
+			synchronizer.addLabel(label, owner);
+		}
+	}
+
+	/**
+	 * Returns the synchronizer of the editing domain the given object belongs to,
+	 * if it is modified within a write transaction
+	 *
+	 * @param object
+	 * @return
+	 */
+	private static DISynchronizer getActive(EObject object) {
+		TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(object);
+		if (!(editingDomain instanceof InternalTransactionalEditingDomain)) {
+			return null;
+		}
+
+		Transaction transaction = ((InternalTransactionalEditingDomain) editingDomain).getActiveTransaction();
+		if (transaction == null || transaction.isReadOnly()) {
+			return null;
+		}
+
+		return get(editingDomain);
+	}
+
+	/**
+	 * Returns the synchronizer for the given editing domain, registering
+	 * a new one if it does not exist yet.
+	 *
+	 * @param editingDomain
+	 * @return
+	 */
+	public static DISynchronizer get(TransactionalEditingDomain editingDomain) {
+		synchronized (SYNCHRONIZERS) {
+			DISynchronizer synchronizer = SYNCHRONIZERS.get(editingDomain);
+			if (synchronizer == null) {
+				synchronizer = new DISynchronizer();
+
+				editingDomain.addResourceSetListener(synchronizer);
+				SYNCHRONIZERS.put(editingDomain, synchronizer);
+
+				Lifecycle lifecycle = TransactionUtil.getAdapter(editingDomain, Lifecycle.class);
+				if (lifecycle != null) {
+					lifecycle.addTransactionalEditingDomainListener(new LifecycleListener(synchronizer));
+				}
+			}
+
+			return synchronizer;
+		}
+	}
+
+	/**
+	 * Removes the synchronizer of the given editing domain, if any
+	 *
+	 * @param editingDomain
+	 */
+	public static void remove(TransactionalEditingDomain editingDomain) {
+		DISynchronizer synchronizer;
+
+		synchronized (SYNCHRONIZERS) {
+			synchronizer = SYNCHRONIZERS.remove(editingDomain);
+		}
+
+		if (synchronizer == null) {
+			return;
+		}
+
+		editingDomain.removeResourceSetListener(synchronizer);
+
+		synchronizer.clear();
+	}
+
+	/**
+	 * Discards the elements scheduled by rolled back transactions and
+	 * removes the synchronizer once its editing domain gets disposed
+	 */
+	private static class LifecycleListener extends TransactionalEditingDomainListenerImpl {
+
+		private final DISynchronizer synchronizer;
+
+		public LifecycleListener(DISynchronizer synchronizer) {
+			this.synchronizer = synchronizer;
+		}
+
+		@Override
+		public void transactionClosed(TransactionalEditingDomainEvent event) {
+			Transaction transaction = event.getTransaction();
+
+			if (transaction != null && transaction.getParent() == null) {
+				synchronizer.clear();
+			}
+		}
+
+		@Override
+		public void editingDomainDisposing(TransactionalEditingDomainEvent event) {
+			remove(event.getSource());
+		}
+	}
+}
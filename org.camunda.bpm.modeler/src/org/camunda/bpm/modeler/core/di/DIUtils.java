@@ -18,13 +18,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
+import org.camunda.bpm.modeler.core.model.index.DiIndexAdapter;
 import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.camunda.bpm.modeler.core.utils.LabelUtil;
 import org.camunda.bpm.modeler.core.utils.ModelUtil;
 import org.eclipse.bpmn2.BaseElement;
 import org.eclipse.bpmn2.Definitions;
-import org.eclipse.bpmn2.DocumentRoot;
 import org.eclipse.bpmn2.di.BPMNDiagram;
 import org.eclipse.bpmn2.di.BPMNEdge;
 import org.eclipse.bpmn2.di.BPMNLabel;
@@ -89,14 +89,43 @@ public class DIUtils {
 	}
 	
 	public static BPMNShape updateDIShape(PictogramElement element, BPMNShape bpmnShape) {
+		
+		if (!updateDIShapeBounds(element, bpmnShape)) {
+			return null;
+		}
+		
+		if (element instanceof ContainerShape) {
+			EList<Shape> children = ((ContainerShape) element).getChildren();
+			for (Shape shape : children) {
+				if (shape instanceof ContainerShape) {
+					updateDIShape(shape);
+				}
+			}
+		}
+
+		updateConnections(element);
+		
+		return bpmnShape;
+	}
+
+	/**
+	 * Updates the bounds of the given bpmn shape only, 
+	 * leaving children and connections of the element untouched
+	 * 
+	 * @param element
+	 * @param bpmnShape
+	 * 
+	 * @return true if the bounds got updated
+	 */
+	static boolean updateDIShapeBounds(PictogramElement element, BPMNShape bpmnShape) {
 		PictogramLink link = element.getLink();
 		
 		if (link == null) {
-			return null;
+			return false;
 		}
 
 		if (bpmnShape == null) {
-			return null;
+			return false;
 		}
 		
 		Bounds bounds; 
@@ -115,18 +144,7 @@ public class DIUtils {
 		bounds.setHeight(rect.getHeight());
 		bounds.setWidth(rect.getWidth());
 		
-		if (element instanceof ContainerShape) {
-			EList<Shape> children = ((ContainerShape) element).getChildren();
-			for (Shape shape : children) {
-				if (shape instanceof ContainerShape) {
-					updateDIShape(shape);
-				}
-			}
-		}
-
-		updateConnections(element);
-		
-		return bpmnShape;
+		return true;
 	}
 
 	private static Bounds getDiLabelBounds(BPMNShape bpmnShape) {
@@ -310,15 +328,40 @@ public class DIUtils {
 		elements.add(elem);
 	}
 	
+	/**
+	 * Returns the di element of the given bpmn element contained in one of the given diagrams.
+	 * 
+	 * @param diagrams
+	 * @param bpmnElement
+	 * @return
+	 */
 	public static DiagramElement findDiagramElement(List<BPMNDiagram> diagrams, BaseElement bpmnElement) {
 		for (BPMNDiagram d : diagrams) {
-			BPMNPlane plane = d.getPlane();
-			List<DiagramElement> planeElements = plane.getPlaneElement();
-			return findPlaneElement(planeElements, bpmnElement);
+			Resource resource = d.eResource();
+			if (resource == null) {
+				BPMNPlane plane = d.getPlane();
+				List<DiagramElement> planeElements = plane.getPlaneElement();
+				return findPlaneElement(planeElements, bpmnElement);
+			}
+			
+			DiagramElement diagramElement = DiIndexAdapter.get(resource).getDiagramElement(bpmnElement, d);
+			if (diagramElement != null) {
+				return diagramElement;
+			}
 		}
 		return null;
 	}
 
+	/**
+	 * Scans the given plane elements for the di element of the given bpmn element.
+	 * 
+	 * Use {@link #findDiagramElement(List, BaseElement)} for elements contained in a 
+	 * resource to get the di element from the di index instead.
+	 * 
+	 * @param planeElements
+	 * @param bpmnElement
+	 * @return
+	 */
 	public static DiagramElement findPlaneElement(List<DiagramElement> planeElements, BaseElement bpmnElement) {
 		for (DiagramElement de : planeElements) {
 			if (de instanceof BPMNShape) {
@@ -445,28 +488,19 @@ public class DIUtils {
 			if (resourceSet!=null) {
 				for (Resource r : resourceSet.getResources()) {
 					if (r instanceof Bpmn2Resource) {
-						for (EObject o : r.getContents()) {
-							if (o instanceof DocumentRoot) {
-								DocumentRoot root = (DocumentRoot)o;
-								Definitions defs = root.getDefinitions();
-								for (BPMNDiagram d : defs.getDiagrams()) {
-									BPMNDiagram bpmnDiagram = d;
-									BaseElement bpmnElement = bpmnDiagram.getPlane().getBpmnElement();
-									if (bpmnElement == baseElement)
-										return bpmnDiagram;
-									if (deep) {
-										for (DiagramElement de : bpmnDiagram.getPlane().getPlaneElement()) {
-											if (de instanceof BPMNShape)
-												bpmnElement = ((BPMNShape)de).getBpmnElement();
-											else if (de instanceof BPMNEdge)
-												bpmnElement = ((BPMNEdge)de).getBpmnElement();
-											else
-												continue;
-											if (bpmnElement == baseElement)
-												return bpmnDiagram;
-										}
-									}
-								}
+						List<DiagramElement> diagramElements = DiIndexAdapter.get(r).getDiagramElements(baseElement);
+						
+						// diagrams whose plane shows the element take precedence
+						for (DiagramElement de : diagramElements) {
+							if (de instanceof BPMNPlane && de.eContainer() instanceof BPMNDiagram)
+								return (BPMNDiagram) de.eContainer();
+						}
+						
+						if (deep) {
+							for (DiagramElement de : diagramElements) {
+								EObject container = de.eContainer();
+								if (container instanceof BPMNPlane && container.eContainer() instanceof BPMNDiagram)
+									return (BPMNDiagram) container.eContainer();
 							}
 						}
 					}
@@ -5,7 +5,7 @@ import static org.camunda.bpm.modeler.core.utils.ContextUtil.is;
 import java.util.Arrays;
 import java.util.List;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.camunda.bpm.modeler.core.utils.LabelUtil;
 import org.eclipse.bpmn2.BaseElement;
@@ -91,7 +91,7 @@ public abstract class AbstractBpmn2LayoutElementFeature<T extends PictogramEleme
 	}
 	
 	protected void updateDi(PictogramElement pictogramElement) {
-		DIUtils.updateDI(pictogramElement);
+		DISynchronizer.updateDI(pictogramElement);
 	}
 	
 	@SuppressWarnings("unchecked")
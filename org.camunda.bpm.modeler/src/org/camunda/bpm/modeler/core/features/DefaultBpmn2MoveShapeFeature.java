@@ -20,7 +20,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
 import org.camunda.bpm.modeler.core.layout.util.Layouter;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
@@ -239,7 +239,7 @@ public class DefaultBpmn2MoveShapeFeature extends DefaultMoveShapeFeature {
 	 * @param shape
 	 */
 	protected void updateDi(Shape shape) {
-		DIUtils.updateDI(shape);
+		DISynchronizer.updateDI(shape);
 	}
 
 	/**
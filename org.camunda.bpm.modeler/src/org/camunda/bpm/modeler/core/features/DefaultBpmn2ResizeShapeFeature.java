@@ -23,7 +23,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
 import org.camunda.bpm.modeler.core.layout.util.Layouter;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil.Sector;
@@ -322,7 +322,7 @@ public class DefaultBpmn2ResizeShapeFeature extends DefaultResizeShapeFeature {
 	 * @param shape
 	 */
 	protected void updateDi(Shape shape) {
-		DIUtils.updateDIShape(shape);
+		DISynchronizer.updateDI(shape);
 	}
 	
 	/**
@@ -14,7 +14,7 @@ package org.camunda.bpm.modeler.core.features.artifact;
 
 import java.util.Iterator;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.features.DefaultBpmn2LayoutShapeFeature;
 import org.eclipse.bpmn2.TextAnnotation;
 import org.eclipse.graphiti.datatypes.IDimension;
@@ -67,7 +67,7 @@ public class LayoutTextAnnotationFeature extends DefaultBpmn2LayoutShapeFeature
 		int containerWidth = ga.getWidth();
 		int containerHeight = ga.getHeight();
 
-		DIUtils.updateDIShape(containerShape);
+		DISynchronizer.updateDI(containerShape);
 
 		Iterator<Shape> iterator = containerShape.getChildren().iterator();
 		while (iterator.hasNext()) {
@@ -12,7 +12,7 @@
  ******************************************************************************/
 package org.camunda.bpm.modeler.core.features.artifact;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.features.AbstractUpdateBaseElementFeature;
 import org.eclipse.bpmn2.TextAnnotation;
 import org.eclipse.graphiti.features.IFeatureProvider;
@@ -32,7 +32,7 @@ public class UpdateTextAnnotationFeature extends AbstractUpdateBaseElementFeatur
 	@Override
 	public boolean update(IUpdateContext context) {
 		boolean ret = super.update(context);
-		DIUtils.updateDIShape(context.getPictogramElement());
+		DISynchronizer.updateDI(context.getPictogramElement());
 		return ret;
 	}
 
@@ -12,7 +12,7 @@
  ******************************************************************************/
 package org.camunda.bpm.modeler.core.features.bendpoint;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.eclipse.graphiti.features.IFeatureProvider;
 import org.eclipse.graphiti.features.context.IAddBendpointContext;
 import org.eclipse.graphiti.features.impl.DefaultAddBendpointFeature;
@@ -29,6 +29,6 @@ public class AddBendpointFeature extends DefaultAddBendpointFeature {
 		super.addBendpoint(context);
 	
 		FreeFormConnection connection = context.getConnection();
-		DIUtils.updateDIEdge(connection);
+		DISynchronizer.updateDI(connection);
 	}
 }
\ No newline at end of file
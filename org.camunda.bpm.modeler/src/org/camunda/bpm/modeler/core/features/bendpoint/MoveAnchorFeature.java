@@ -12,7 +12,7 @@
  ******************************************************************************/
 package org.camunda.bpm.modeler.core.features.bendpoint;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.eclipse.graphiti.features.IFeatureProvider;
 import org.eclipse.graphiti.features.context.IMoveAnchorContext;
 import org.eclipse.graphiti.features.impl.DefaultMoveAnchorFeature;
@@ -37,6 +37,6 @@ public class MoveAnchorFeature extends DefaultMoveAnchorFeature {
 	}
 
 	private void updateConnectionDi(IMoveAnchorContext context, Connection connection, final boolean last) {
-		DIUtils.updateDIEdge(connection);
+		DISynchronizer.updateDI(connection);
 	}
 }
\ No newline at end of file
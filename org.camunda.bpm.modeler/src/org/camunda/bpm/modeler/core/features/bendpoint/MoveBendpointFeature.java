@@ -12,7 +12,7 @@
  ******************************************************************************/
 package org.camunda.bpm.modeler.core.features.bendpoint;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.utils.AnchorUtil;
 import org.camunda.bpm.modeler.core.utils.LabelUtil;
 import org.eclipse.graphiti.features.IFeatureProvider;
@@ -51,6 +51,6 @@ public class MoveBendpointFeature extends DefaultMoveBendpointFeature {
 	}
 
 	protected void updateDi(FreeFormConnection connection) {
-		DIUtils.updateDI(connection);
+		DISynchronizer.updateDI(connection);
 	}
 }
\ No newline at end of file
@@ -12,7 +12,7 @@
  ******************************************************************************/
 package org.camunda.bpm.modeler.core.features.bendpoint;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.utils.AnchorUtil;
 import org.camunda.bpm.modeler.core.utils.ConnectionLabelUtil;
 import org.camunda.bpm.modeler.core.utils.LabelUtil;
@@ -53,6 +53,6 @@ public class RemoveBendpointFeature extends DefaultRemoveBendpointFeature {
 	}
 
 	protected void updateDi(FreeFormConnection connection) {
-		DIUtils.updateDI(connection);
+		DISynchronizer.updateDI(connection);
 	}
 }
\ No newline at end of file
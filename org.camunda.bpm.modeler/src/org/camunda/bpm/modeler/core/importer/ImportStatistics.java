@@ -0,0 +1,215 @@
+package org.camunda.bpm.modeler.core.importer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.modeler.core.Activator;
+import org.camunda.bpm.modeler.core.importer.handlers.AbstractDiagramElementHandler;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Timings and counters collected during a {@link ModelImport}.
+ *
+ * Records the time spent in each phase of the import as well as the number of
+ * elements handled and the time spent per {@link AbstractDiagramElementHandler} class.
+ *
+ * Use {@link #toStatus()} to write the statistics to the error log.
+ */
+public class ImportStatistics {
+
+	public static final String PHASE_PARSE = "parse"; //$NON-NLS-1$
+	public static final String PHASE_DI = "di"; //$NON-NLS-1$
+	public static final String PHASE_DIAGRAM = "diagram"; //$NON-NLS-1$
+	public static final String PHASE_ELEMENTS = "elements"; //$NON-NLS-1$
+	public static final String PHASE_DEFERRED_ACTIONS = "deferredActions"; //$NON-NLS-1$
+	public static final String PHASE_LAYOUT = "layout"; //$NON-NLS-1$
+	public static final String PHASE_SCROLL_SHAPE = "scrollShape"; //$NON-NLS-1$
+
+	/**
+	 * Time spent per phase in nano seconds, in the order the phases got recorded
+	 */
+	private final Map<String, Long> phaseTimes = new LinkedHashMap<String, Long>();
+
+	private final Map<Class<?>, HandlerStatistics> handlerStatistics = new LinkedHashMap<Class<?>, HandlerStatistics>();
+
+	private int deferredActionCount = 0;
+
+	/**
+	 * Adds the given time to the given phase
+	 *
+	 * @param phase
+	 * @param nanos
+	 */
+	public void recordPhase(String phase, long nanos) {
+		Long time = phaseTimes.get(phase);
+		phaseTimes.put(phase, time == null ? nanos : time + nanos);
+	}
+
+	/**
+	 * Records the handling of an element by the given handler
+	 *
+	 * @param handlerClass
+	 * @param nanos the time it took to handle the element
+	 */
+	public void recordHandler(Class<?> handlerClass, long nanos) {
+		HandlerStatistics statistics = handlerStatistics.get(handlerClass);
+		if (statistics == null) {
+			statistics = new HandlerStatistics();
+			handlerStatistics.put(handlerClass, statistics);
+		}
+
+		statistics.count++;
+		statistics.time += nanos;
+	}
+
+	/**
+	 * Records the execution of a deferred action
+	 */
+	public void recordDeferredAction() {
+		deferredActionCount++;
+	}
+
+	/**
+	 * Returns the recorded phases in the order they got recorded
+	 *
+	 * @return
+	 */
+	public Set<String> getPhases() {
+		return Collections.unmodifiableSet(phaseTimes.keySet());
+	}
+
+	/**
+	 * Returns the time spent in the given phase in milliseconds
+	 *
+	 * @param phase
+	 * @return the time or -1 if the phase was not recorded
+	 */
+	public long getPhaseTime(String phase) {
+		Long time = phaseTimes.get(phase);
+		return time == null ? -1 : toMillis(time);
+	}
+
+	/**
+	 * Returns the time spent in all recorded phases in milliseconds
+	 *
+	 * @return
+	 */
+	public long getTotalTime() {
+		long total = 0;
+		for (long time : phaseTimes.values()) {
+			total += time;
+		}
+
+		return toMillis(total);
+	}
+
+	/**
+	 * Returns the handler classes which have been used during the import
+	 *
+	 * @return
+	 */
+	public Set<Class<?>> getHandlerClasses() {
+		return Collections.unmodifiableSet(handlerStatistics.keySet());
+	}
+
+	/**
+	 * Returns the number of elements handled by the given handler class
+	 *
+	 * @param handlerClass
+	 * @return
+	 */
+	public int getHandledElementCount(Class<?> handlerClass) {
+		HandlerStatistics statistics = handlerStatistics.get(handlerClass);
+		return statistics == null ? 0 : statistics.count;
+	}
+
+	/**
+	 * Returns the number of elements handled by all handlers
+	 *
+	 * @return
+	 */
+	public int getHandledElementCount() {
+		int count = 0;
+		for (HandlerStatistics statistics : handlerStatistics.values()) {
+			count += statistics.count;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the time spent in the given handler class in milliseconds
+	 *
+	 * @param handlerClass
+	 * @return
+	 */
+	public long getHandlerTime(Class<?> handlerClass) {
+		HandlerStatistics statistics = handlerStatistics.get(handlerClass);
+		return statistics == null ? 0 : toMillis(statistics.time);
+	}
+
+	/**
+	 * Returns the number of deferred actions executed
+	 *
+	 * @return
+	 */
+	public int getDeferredActionCount() {
+		return deferredActionCount;
+	}
+
+	/**
+	 * Returns the statistics as a status suitable for the error log
+	 *
+	 * @return
+	 */
+	public IStatus toStatus() {
+		String message = String.format("Imported %s elements in %sms", getHandledElementCount(), getTotalTime()); //$NON-NLS-1$
+
+		MultiStatus status = new MultiStatus(Activator.PLUGIN_ID, 0, message, null);
+
+		for (String phase : phaseTimes.keySet()) {
+			status.add(info(String.format("Phase %s: %sms", phase, getPhaseTime(phase)))); //$NON-NLS-1$
+		}
+
+		for (Class<?> handlerClass : handlerStatistics.keySet()) {
+			status.add(info(String.format("Handler %s: %s elements in %sms", //$NON-NLS-1$
+				handlerClass.getSimpleName(), getHandledElementCount(handlerClass), getHandlerTime(handlerClass))));
+		}
+
+		status.add(info(String.format("Deferred actions: %s", deferredActionCount))); //$NON-NLS-1$
+
+		return status;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+
+		IStatus status = toStatus();
+
+		builder.append(status.getMessage());
+		for (IStatus child : status.getChildren()) {
+			builder.append("\n  ").append(child.getMessage()); //$NON-NLS-1$
+		}
+
+		return builder.toString();
+	}
+
+	private static IStatus info(String message) {
+		return new Status(IStatus.INFO, Activator.PLUGIN_ID, message);
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	private static class HandlerStatistics {
+		private int count;
+		private long time;
+	}
+}
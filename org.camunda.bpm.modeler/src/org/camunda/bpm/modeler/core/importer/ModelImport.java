@@ -10,6 +10,7 @@
 package org.camunda.bpm.modeler.core.importer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,7 +38,10 @@ import org.camunda.bpm.modeler.core.importer.handlers.SubProcessShapeHandler;
 import org.camunda.bpm.modeler.core.importer.handlers.TaskShapeHandler;
 import org.camunda.bpm.modeler.core.importer.util.ErrorLogger;
 import org.camunda.bpm.modeler.core.importer.util.ModelHelper;
+import org.camunda.bpm.modeler.core.layout.auto.AutoLayout;
 import org.camunda.bpm.modeler.core.layout.util.ConversionUtil;
+import org.camunda.bpm.modeler.core.model.index.DiIndexAdapter;
+import org.camunda.bpm.modeler.core.model.index.PictogramLinkIndexAdapter;
 import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
 import org.camunda.bpm.modeler.core.utils.ModelUtil;
 import org.camunda.bpm.modeler.core.utils.ScrollUtil;
@@ -67,6 +71,7 @@ import org.eclipse.bpmn2.FlowElementsContainer;
 import org.eclipse.bpmn2.FlowNode;
 import org.eclipse.bpmn2.Gateway;
 import org.eclipse.bpmn2.InputOutputSpecification;
+import org.eclipse.bpmn2.ItemAwareElement;
 import org.eclipse.bpmn2.Lane;
 import org.eclipse.bpmn2.LaneSet;
 import org.eclipse.bpmn2.MessageFlow;
@@ -85,7 +90,6 @@ import org.eclipse.bpmn2.util.Bpmn2Resource;
 import org.eclipse.dd.dc.Bounds;
 import org.eclipse.dd.di.DiagramElement;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
 import org.eclipse.emf.ecore.xmi.XMIException;
@@ -126,6 +130,9 @@ public class ModelImport {
 	// list of deferred actions
 	protected List<DeferredAction<?>> deferredActions = new ArrayList<DeferredAction<?>>();
 	
+	// deferred actions waiting for the pictogram element of a bpmn element to be created
+	protected Map<BaseElement, List<DeferredAction<?>>> pendingActions = new HashMap<BaseElement, List<DeferredAction<?>>>();
+	
 	// the collarboration element  if present in current definitions
 	protected Collaboration collaboration = null;
 	
@@ -141,6 +148,9 @@ public class ModelImport {
 	// flag to decide if the import should add a scroll shape
 	protected boolean withScrollShape = true;
 	
+	// timings and counters of the import
+	protected ImportStatistics statistics = new ImportStatistics();
+	
 	public ModelImport(final IDiagramTypeProvider diagramTypeProvider, final Bpmn2Resource resource, final boolean withScrollShape) {
 		this(diagramTypeProvider, resource);
 		this.withScrollShape = withScrollShape;
@@ -211,20 +221,24 @@ public class ModelImport {
 			}
 		}
 	 
+		long start = System.nanoTime();
+		
 		// next we process the DI diagrams and associate them with the process elements
 		List<BPMNDiagram> diagrams = definitions.getDiagrams();
 		for (BPMNDiagram bpmnDiagram : diagrams) {
 			handleDIBpmnDiagram(bpmnDiagram);
 		}
 		
-		// iterates over all elements in the diagram -> may be bad but is there another solution?
+		// build the di index in one pass over the loaded model; it is kept up to date
+		// afterwards and serves all subsequent di lookups (e.g. during shape moves)
+		DiIndexAdapter.get(resource);
 		
-		// add all ids to the mapping table so that they won't be used when 
-		// new ids are generated later
-		TreeIterator<EObject> iter = definitions.eAllContents();
-		while (iter.hasNext()) {
-			ModelUtil.addID(iter.next());
-		}
+		// ids of the imported elements are tracked by the id allocator of the resource
+		// so that they won't be used when new ids are generated later; default ids
+		// handed out to elements not yet added to the resource must skip them, too
+		ModelUtil.addDefaultIDs(resource);
+		
+		start = recordPhase(ImportStatistics.PHASE_DI, start);
 
 		// we create the bpmn diagram to work on
 		BPMNDiagram bpmnDiagram = getOrCreateDiagram(diagrams);
@@ -241,9 +255,22 @@ public class ModelImport {
 		
 		ensureDiagramLinked(bpmnDiagram, collaboration, processes);
 		
+		// lay out models which come without any diagram interchange
+		if (diagramElementMap.isEmpty()) {
+			performLayout(bpmnDiagram);
+		}
+		
+		start = recordPhase(ImportStatistics.PHASE_LAYOUT, start);
+		
 		// and create the graphiti diagram
 		this.rootDiagram = createEditorRootDiagram(bpmnDiagram, collaboration, processes, definitions);
 		
+		// attach the pictogram link index before any element is drawn so that it is 
+		// filled as the links get created rather than by a scan of the diagram later on
+		PictogramLinkIndexAdapter.get(rootDiagram);
+		
+		start = recordPhase(ImportStatistics.PHASE_DIAGRAM, start);
+		
 		// next, process the BPMN model elements and start building the Graphiti diagram
 		// first check if we display a single process or collaboration
 
@@ -257,25 +284,51 @@ public class ModelImport {
 			}
 		}
 		
+		// includes the deferred actions handled as soon as their elements got drawn
+		start = recordPhase(ImportStatistics.PHASE_ELEMENTS, start);
+		
 		// handle deferred rendering of, e.g. associations and data associations
 		handleDeferredActions();
 		
-		// finally layout all elements
-		performLayout();
+		start = recordPhase(ImportStatistics.PHASE_DEFERRED_ACTIONS, start);
 		
 		if (withScrollShape) {
 			addScrollShape();			
+			
+			recordPhase(ImportStatistics.PHASE_SCROLL_SHAPE, start);
 		}
 	}
 	
+	/**
+	 * Records the time since the given start for the given phase 
+	 * and returns the start of the next phase.
+	 * 
+	 * @param phase
+	 * @param start
+	 * @return
+	 */
+	private long recordPhase(final String phase, final long start) {
+		long now = System.nanoTime();
+		statistics.recordPhase(phase, now - start);
+		
+		return now;
+	}
+	
 	protected Shape addScrollShape() {
 		return ScrollUtil.addScrollShape(rootDiagram, importBounds, false, 0, 0);
 	}
 	
 	protected void handleDeferredActions() {
-		for (DeferredAction<?> action: deferredActions) {
-			action.handle();
+		// handle all actions whose elements did not show up during the import;
+		// the handlers take care of logging the unmapped elements
+		for (DeferredAction<?> action: new ArrayList<DeferredAction<?>>(deferredActions)) {
+			if (!action.isHandled()) {
+				action.handle();
+			}
 		}
+		
+		deferredActions.clear();
+		pendingActions.clear();
 	}
 
 	/**
@@ -348,8 +401,18 @@ public class ModelImport {
 		return diagram;
 	}
 
-	protected void performLayout() {
-		// do nothing
+	/**
+	 * Generates the diagram interchange for the collaboration or processes
+	 * to be imported and registers it for the import.
+	 * 
+	 * @param bpmnDiagram
+	 */
+	protected void performLayout(final BPMNDiagram bpmnDiagram) {
+		AutoLayout layout = new AutoLayout(bpmnDiagram.getPlane());
+		
+		for (DiagramElement diagramElement : layout.layout(collaboration, processes)) {
+			handleDIDiagramElement(diagramElement);
+		}
 	}
 	
 	// handling of BPMN Model Elements ///////////////////////////////////////////////////////////////
@@ -475,7 +538,8 @@ public class ModelImport {
 	}
 
 	private void handleDataOutputAssociation(final DataOutputAssociation flowElement, final ContainerShape container) {
-		handleLater(new DeferredAction<DataOutputAssociation>(flowElement, container, new DataOutputAssociationShapeHandler(this)));
+		handleLater(new DeferredAction<DataOutputAssociation>(flowElement, container, new DataOutputAssociationShapeHandler(this), 
+				flowElement.eContainer(), flowElement.getTargetRef()));
 	}
 
 	protected void handleDataInputAssociations(final List<DataInputAssociation> dataInputAssociations, final ContainerShape container) {
@@ -485,7 +549,11 @@ public class ModelImport {
 	}
 	
 	private void handleDataInputAssociation(final DataInputAssociation flowElement, final ContainerShape container) {
-		handleLater(new DeferredAction<DataInputAssociation>(flowElement, container, new DataInputAssociationShapeHandler(this)));
+		List<ItemAwareElement> sourceRefs = flowElement.getSourceRef();
+		ItemAwareElement sourceRef = sourceRefs.isEmpty() ? null : sourceRefs.get(0);
+		
+		handleLater(new DeferredAction<DataInputAssociation>(flowElement, container, new DataInputAssociationShapeHandler(this), 
+				sourceRef, flowElement.eContainer()));
 	}
 
 	protected void handleLaneSet(final LaneSet laneSet, final FlowElementsContainer scope, final ContainerShape container) {
@@ -509,8 +577,13 @@ public class ModelImport {
 			return;
 		}
 		
+		long start = System.nanoTime();
+		
 		ContainerShape thisContainer = (ContainerShape) shapeHandler.handleDiagramElement(lane, diagramElement, container);
-		pictogramElements.put(lane, thisContainer);
+		
+		statistics.recordHandler(shapeHandler.getClass(), System.nanoTime() - start);
+		
+		putPictogramElement(lane, thisContainer);
 		
 		LaneSet childLaneSet = lane.getChildLaneSet();
 		if (childLaneSet != null) {
@@ -602,7 +675,8 @@ public class ModelImport {
 	
 	protected void handleAssociation(final Association association, final ContainerShape container) {
 		
-		handleLater(new DeferredAction<Association>(association, container, new AssociationShapeHandler(this)));
+		handleLater(new DeferredAction<Association>(association, container, new AssociationShapeHandler(this), 
+				association.getSourceRef(), association.getTargetRef()));
 	}
 
 	/**
@@ -780,17 +854,84 @@ public class ModelImport {
 			return null;
 		}
 		
+		long start = System.nanoTime();
+		
 		PictogramElement pictogramElement = flowNodeShapeHandler.handleDiagramElement(flowElement, diagramElement, container);
 		
+		statistics.recordHandler(flowNodeShapeHandler.getClass(), System.nanoTime() - start);
+		
 		if (pictogramElement != null) {
-			pictogramElements.put(flowElement, pictogramElement);
+			putPictogramElement(flowElement, pictogramElement);
 		}
 		
 		return pictogramElement;
 	}
+	
+	/**
+	 * Registers the pictogram element created for the given bpmn element and
+	 * handles the deferred actions which have been waiting for it.
+	 * 
+	 * @param bpmnElement
+	 * @param pictogramElement
+	 */
+	protected void putPictogramElement(final BaseElement bpmnElement, final PictogramElement pictogramElement) {
+		pictogramElements.put(bpmnElement, pictogramElement);
+		
+		List<DeferredAction<?>> waitingActions = pendingActions.remove(bpmnElement);
+		if (waitingActions != null) {
+			for (DeferredAction<?> action : waitingActions) {
+				handleWhenReady(action);
+			}
+		}
+	}
 
+	/**
+	 * Defers the given action until the pictogram elements of 
+	 * all elements it connects have been created.
+	 * 
+	 * Actions whose elements never show up are handled 
+	 * at the end of the import.
+	 * 
+	 * @param deferredAction
+	 */
 	protected void handleLater(final DeferredAction<?> deferredAction) {
 		deferredActions.add(deferredAction);
+		
+		handleWhenReady(deferredAction);
+	}
+	
+	private void handleWhenReady(final DeferredAction<?> deferredAction) {
+		
+		List<EObject> dependencies = deferredAction.getDependencies();
+		
+		// nothing to wait for, leave it to the final handling
+		if (deferredAction.isHandled() || dependencies.isEmpty()) {
+			return;
+		}
+		
+		for (EObject dependency : dependencies) {
+			
+			// cannot be resolved during the import, 
+			// leave it to the final handling
+			if (!(dependency instanceof BaseElement) || dependency.eIsProxy()) {
+				return;
+			}
+			
+			BaseElement element = (BaseElement) dependency;
+			
+			if (getPictogramElementOrNull(element) == null) {
+				List<DeferredAction<?>> waitingActions = pendingActions.get(element);
+				if (waitingActions == null) {
+					waitingActions = new ArrayList<DeferredAction<?>>();
+					pendingActions.put(element, waitingActions);
+				}
+				
+				waitingActions.add(deferredAction);
+				return;
+			}
+		}
+		
+		deferredAction.handle();
 	}
 	
 	// handling of DI Elements ///////////////////////////////////////////////////////////////
@@ -958,6 +1099,15 @@ public class ModelImport {
 		return warnings;
 	}
 	
+	/**
+	 * Returns timings and counters of the import
+	 * 
+	 * @return
+	 */
+	public ImportStatistics getStatistics() {
+		return statistics;
+	}
+	
 	public PictogramElement getPictogramElementOrNull(final BaseElement node) {
 		return pictogramElements.get(node);
 	}
@@ -980,19 +1130,56 @@ public class ModelImport {
 		private final T flowElement;
 		private final ContainerShape container;
 		private final AbstractDiagramElementHandler<T> handler;
+		
+		private final List<EObject> dependencies;
+		
+		private boolean handled = false;
 
 		public DeferredAction(final T flowElement, final ContainerShape container, final AbstractDiagramElementHandler<T> handler) {
+			this(flowElement, container, handler, new EObject[0]);
+		}
+
+		/**
+		 * Creates a deferred action which may be handled as soon as the 
+		 * pictogram elements for all the given dependencies exist.
+		 * 
+		 * @param flowElement
+		 * @param container
+		 * @param handler
+		 * @param dependencies
+		 */
+		public DeferredAction(final T flowElement, final ContainerShape container, final AbstractDiagramElementHandler<T> handler, final EObject ... dependencies) {
 			
 			this.flowElement = flowElement;
 			this.container = container;
 			this.handler = handler;
+			
+			this.dependencies = Arrays.asList(dependencies);
 		}
 		
 		/**
 		 * Handle the deferred diagram action
 		 */
 		public void handle() {
+			handled = true;
+			
+			statistics.recordDeferredAction();
+			
 			handleDiagramElement(flowElement, container, handler);
 		}
+		
+		public boolean isHandled() {
+			return handled;
+		}
+		
+		/**
+		 * Returns the elements whose pictogram elements need to 
+		 * exist before this action may be handled.
+		 * 
+		 * @return
+		 */
+		public List<EObject> getDependencies() {
+			return dependencies;
+		}
 	}
 }
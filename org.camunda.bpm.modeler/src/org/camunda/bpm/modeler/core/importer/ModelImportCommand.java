@@ -65,6 +65,19 @@ public class ModelImportCommand extends RecordingCommand {
 	}
 	
 
+	/**
+	 * Return the statistics of the import or null if it did not run
+	 * 
+	 * @return
+	 */
+	public ImportStatistics getStatistics() {
+		if (modelImport != null) {
+			return modelImport.getStatistics();
+		} else {
+			return null;
+		}
+	}
+
 	/**
 	 * Return import warnings if any
 	 * 
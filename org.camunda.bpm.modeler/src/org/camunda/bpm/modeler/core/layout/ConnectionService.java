@@ -1,6 +1,6 @@
 package org.camunda.bpm.modeler.core.layout;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.eclipse.graphiti.mm.pictograms.AnchorContainer;
 import org.eclipse.graphiti.mm.pictograms.Connection;
 import org.eclipse.graphiti.mm.pictograms.ContainerShape;
@@ -42,7 +42,7 @@ public class ConnectionService {
 			throw new LayoutingException("Cannot handle connection: " + connection);
 		}
 		
-		DIUtils.updateDIEdge(connection);
+		DISynchronizer.updateDI(connection);
 	}
 
 	public static void reconnectContainerAfterMove(ContainerShape container) {
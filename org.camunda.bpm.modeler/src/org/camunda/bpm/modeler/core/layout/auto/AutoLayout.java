@@ -0,0 +1,913 @@
+package org.camunda.bpm.modeler.core.layout.auto;
+
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.diPoint;
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.location;
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.rect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.modeler.core.features.lane.AddLaneFeature;
+import org.camunda.bpm.modeler.core.layout.auto.LayeredGraph.Edge;
+import org.camunda.bpm.modeler.core.layout.auto.LayeredGraph.Node;
+import org.camunda.bpm.modeler.core.utils.GraphicsUtil;
+import org.camunda.bpm.modeler.core.utils.ModelUtil;
+import org.eclipse.bpmn2.Activity;
+import org.eclipse.bpmn2.Artifact;
+import org.eclipse.bpmn2.Association;
+import org.eclipse.bpmn2.BaseElement;
+import org.eclipse.bpmn2.BoundaryEvent;
+import org.eclipse.bpmn2.CatchEvent;
+import org.eclipse.bpmn2.Collaboration;
+import org.eclipse.bpmn2.DataAssociation;
+import org.eclipse.bpmn2.DataInputAssociation;
+import org.eclipse.bpmn2.DataObjectReference;
+import org.eclipse.bpmn2.DataOutputAssociation;
+import org.eclipse.bpmn2.DataStoreReference;
+import org.eclipse.bpmn2.Event;
+import org.eclipse.bpmn2.FlowElement;
+import org.eclipse.bpmn2.FlowElementsContainer;
+import org.eclipse.bpmn2.FlowNode;
+import org.eclipse.bpmn2.Gateway;
+import org.eclipse.bpmn2.InputOutputSpecification;
+import org.eclipse.bpmn2.ItemAwareElement;
+import org.eclipse.bpmn2.Lane;
+import org.eclipse.bpmn2.LaneSet;
+import org.eclipse.bpmn2.MessageFlow;
+import org.eclipse.bpmn2.Participant;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.bpmn2.SubProcess;
+import org.eclipse.bpmn2.TextAnnotation;
+import org.eclipse.bpmn2.ThrowEvent;
+import org.eclipse.bpmn2.di.BPMNEdge;
+import org.eclipse.bpmn2.di.BPMNPlane;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiFactory;
+import org.eclipse.dd.dc.Bounds;
+import org.eclipse.dd.dc.DcFactory;
+import org.eclipse.dd.di.DiagramElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.graphiti.datatypes.ILocation;
+import org.eclipse.graphiti.datatypes.IRectangle;
+
+/**
+ * Generates the diagram interchange (BPMN DI) of a model which comes without it.
+ *
+ * The flow nodes of each process, sub process and participant are laid out as a {@link LayeredGraph},
+ * using the lanes of a participant as the bands of the graph. Boundary events are attached to the bottom
+ * of their hosts; data objects, data stores and text annotations are placed in a row below the elements
+ * they are associated with. Participants are stacked one below the other.
+ *
+ * @see LayeredGraph
+ */
+public class AutoLayout {
+
+	/**
+	 * Position of the top left corner of the laid out diagram
+	 */
+	private static final int ORIGIN = 50;
+
+	/**
+	 * Horizontal padding of the contents of a process, participant or sub process
+	 */
+	private static final int PADDING = 30;
+
+	private static final int POOL_GAP = 30;
+
+	private static final int HEADER_WIDTH = 30;
+
+	private static final int MIN_POOL_HEIGHT = AddLaneFeature.DEFAULT_LANE_HEIGHT;
+
+	private static final int BOUNDARY_EVENT_SPACING = 10;
+
+	private static final int TEXT_ANNOTATION_WIDTH = 100;
+	private static final int TEXT_ANNOTATION_HEIGHT = 50;
+
+	private static final int DATA_STORE_SIZE = 50;
+
+	private final BPMNPlane plane;
+	private final Resource resource;
+
+	private final Map<BaseElement, BPMNShape> shapes = new HashMap<BaseElement, BPMNShape>();
+
+	private final List<DiagramElement> diagramElements = new ArrayList<DiagramElement>();
+
+	/**
+	 * Creates an auto layout which adds the diagram elements it generates to the given plane
+	 *
+	 * @param plane
+	 */
+	public AutoLayout(BPMNPlane plane) {
+		this.plane = plane;
+		this.resource = plane.eResource();
+	}
+
+	/**
+	 * Lays out the given collaboration or, if there is none, the given processes
+	 * and generates the diagram interchange for them.
+	 *
+	 * @param collaboration the collaboration to lay out, may be null
+	 * @param processes the processes to lay out if there is no collaboration
+	 *
+	 * @return the generated diagram elements
+	 */
+	public List<DiagramElement> layout(Collaboration collaboration, List<Process> processes) {
+
+		Block diagram;
+
+		if (collaboration != null) {
+			diagram = layoutCollaboration(collaboration);
+		} else {
+			diagram = layoutProcesses(processes);
+		}
+
+		createDiagramElements(diagram);
+
+		return diagramElements;
+	}
+
+	// layout ////////////////////////////////////////////////////////
+
+	private Block layoutProcesses(List<Process> processes) {
+		Block diagram = new Block();
+
+		int y = ORIGIN;
+
+		for (Process process : processes) {
+			Block block = layoutProcess(process, Collections.<Lane>emptyList());
+
+			diagram.addAll(block, ORIGIN, y);
+
+			y += block.height + POOL_GAP;
+		}
+
+		return diagram;
+	}
+
+	private Block layoutCollaboration(Collaboration collaboration) {
+
+		Block diagram = new Block();
+
+		List<Participant> participants = collaboration.getParticipants();
+
+		Map<Participant, Block> blocks = new LinkedHashMap<Participant, Block>();
+		Map<Participant, Integer> headerWidths = new HashMap<Participant, Integer>();
+
+		int poolWidth = 0;
+
+		for (Participant participant : participants) {
+			Process process = participant.getProcessRef();
+			if (process != null && process.eIsProxy()) {
+				continue;
+			}
+
+			int headerWidth = HEADER_WIDTH;
+			Block block = null;
+
+			if (process != null) {
+				List<Lane> leafLanes = new ArrayList<Lane>();
+				int laneDepth = collectLeafLanes(getLanes(process.getLaneSets()), leafLanes, 0);
+
+				block = layoutProcess(process, leafLanes);
+
+				headerWidth += laneDepth * HEADER_WIDTH;
+				poolWidth = Math.max(poolWidth, headerWidth + block.width);
+			}
+
+			blocks.put(participant, block);
+			headerWidths.put(participant, headerWidth);
+		}
+
+		poolWidth = Math.max(poolWidth, AddLaneFeature.DEFAULT_LANE_WIDTH);
+
+		int x = ORIGIN;
+		int y = ORIGIN;
+
+		for (Map.Entry<Participant, Block> entry : blocks.entrySet()) {
+			Participant participant = entry.getKey();
+			Block block = entry.getValue();
+
+			int height = MIN_POOL_HEIGHT;
+
+			if (block != null) {
+				height = Math.max(height, block.height);
+			}
+
+			diagram.put(participant, rect(x, y, poolWidth, height));
+
+			if (block != null) {
+				Process process = participant.getProcessRef();
+
+				placeLanes(getLanes(process.getLaneSets()), x + HEADER_WIDTH, y, poolWidth - HEADER_WIDTH, block, diagram, 0);
+
+				diagram.addAll(block, x + headerWidths.get(participant), y);
+			}
+
+			y += height + POOL_GAP;
+		}
+
+		for (MessageFlow messageFlow : collaboration.getMessageFlows()) {
+			layoutMessageFlow(messageFlow, diagram);
+		}
+
+		return diagram;
+	}
+
+	private void layoutMessageFlow(MessageFlow messageFlow, Block diagram) {
+		BaseElement source = asBaseElement(messageFlow.getSourceRef());
+		BaseElement target = asBaseElement(messageFlow.getTargetRef());
+
+		IRectangle sourceBounds = diagram.get(source);
+		IRectangle targetBounds = diagram.get(target);
+
+		if (sourceBounds == null || targetBounds == null) {
+			return;
+		}
+
+		int sourceX = getCenterX(sourceBounds);
+		int targetX = getCenterX(targetBounds);
+
+		// prefer straight vertical lines, e.g. to a collapsed pool
+		if (containsX(targetBounds, sourceX)) {
+			targetX = sourceX;
+		} else
+		if (containsX(sourceBounds, targetX)) {
+			sourceX = targetX;
+		}
+
+		int sourceY;
+		int targetY;
+
+		if (getBottom(sourceBounds) <= targetBounds.getY()) {
+			sourceY = getBottom(sourceBounds);
+			targetY = targetBounds.getY();
+		} else
+		if (getBottom(targetBounds) <= sourceBounds.getY()) {
+			sourceY = sourceBounds.getY();
+			targetY = getBottom(targetBounds);
+		} else {
+			diagram.route(messageFlow, source, target, straight(sourceBounds, targetBounds));
+			return;
+		}
+
+		int middleY = (sourceY + targetY) / 2;
+
+		List<ILocation> waypoints = new ArrayList<ILocation>();
+
+		waypoints.add(location(sourceX, sourceY));
+		waypoints.add(location(sourceX, middleY));
+		waypoints.add(location(targetX, middleY));
+		waypoints.add(location(targetX, targetY));
+
+		diagram.route(messageFlow, source, target, LayeredGraph.simplify(waypoints));
+	}
+
+	/**
+	 * Places the given lanes and their child lanes according to the bands of the given block
+	 *
+	 * @return the index of the band following the placed lanes
+	 */
+	private int placeLanes(List<Lane> lanes, int x, int y, int width, Block block, Block diagram, int band) {
+		for (Lane lane : lanes) {
+			int first = band;
+
+			List<Lane> childLanes = getChildLanes(lane);
+			if (childLanes.isEmpty()) {
+				band++;
+			} else {
+				band = placeLanes(childLanes, x + HEADER_WIDTH, y, width - HEADER_WIDTH, block, diagram, band);
+			}
+
+			int top = block.bandY[first];
+			int bottom = block.bandY[band - 1] + block.bandHeight[band - 1];
+
+			diagram.put(lane, rect(x, y + top, width, bottom - top));
+		}
+
+		return band;
+	}
+
+	private Block layoutProcess(Process process, List<Lane> leafLanes) {
+
+		List<BaseElement> dataElements = new ArrayList<BaseElement>();
+
+		InputOutputSpecification ioSpecification = process.getIoSpecification();
+		if (ioSpecification != null) {
+			dataElements.addAll(ioSpecification.getDataInputs());
+			dataElements.addAll(ioSpecification.getDataOutputs());
+		}
+
+		return layoutFlowElements(process, leafLanes, dataElements, process.getArtifacts());
+	}
+
+	/**
+	 * Lays out the flow elements of the given container, relative to the top left corner of its contents
+	 *
+	 * @param container
+	 * @param leafLanes the lanes to use as bands
+	 * @param dataElements additional data elements to place
+	 * @param artifacts artifacts to place
+	 *
+	 * @return
+	 */
+	private Block layoutFlowElements(FlowElementsContainer container, List<Lane> leafLanes, List<BaseElement> dataElements, List<Artifact> artifacts) {
+
+		Block block = new Block();
+
+		LayeredGraph graph = new LayeredGraph();
+
+		Map<FlowNode, Integer> bands = new HashMap<FlowNode, Integer>();
+
+		if (!leafLanes.isEmpty()) {
+			graph.setBandCount(leafLanes.size());
+			graph.setMinBandHeight(MIN_POOL_HEIGHT);
+
+			for (int i = leafLanes.size() - 1; i >= 0; i--) {
+				for (FlowNode flowNode : leafLanes.get(i).getFlowNodeRefs()) {
+					bands.put(flowNode, i);
+				}
+			}
+		}
+
+		Map<BaseElement, Node> nodes = new HashMap<BaseElement, Node>();
+		Map<SubProcess, Block> subProcesses = new HashMap<SubProcess, Block>();
+
+		Set<BoundaryEvent> boundaryEvents = new LinkedHashSet<BoundaryEvent>();
+		List<SequenceFlow> sequenceFlows = new ArrayList<SequenceFlow>();
+
+		dataElements = new ArrayList<BaseElement>(dataElements);
+
+		List<FlowElement> flowElements = container.getFlowElements();
+
+		for (FlowElement flowElement : flowElements) {
+			if (flowElement instanceof SequenceFlow) {
+				sequenceFlows.add((SequenceFlow) flowElement);
+			} else
+			if (flowElement instanceof DataObjectReference || flowElement instanceof DataStoreReference) {
+				dataElements.add(flowElement);
+			} else
+			if (flowElement instanceof BoundaryEvent && ((BoundaryEvent) flowElement).getAttachedToRef() != null) {
+				boundaryEvents.add((BoundaryEvent) flowElement);
+			} else
+			if (flowElement instanceof FlowNode) {
+				int width;
+				int height;
+
+				if (flowElement instanceof SubProcess) {
+					SubProcess subProcess = (SubProcess) flowElement;
+
+					List<BaseElement> noDataElements = Collections.emptyList();
+
+					Block subProcessBlock = layoutFlowElements(subProcess, Collections.<Lane>emptyList(), noDataElements, subProcess.getArtifacts());
+					subProcesses.put(subProcess, subProcessBlock);
+
+					width = Math.max(GraphicsUtil.SUB_PROCEESS_DEFAULT_WIDTH, subProcessBlock.width);
+					height = Math.max(GraphicsUtil.SUB_PROCESS_DEFAULT_HEIGHT, subProcessBlock.height);
+				} else {
+					int[] size = getSize(flowElement);
+
+					width = size[0];
+					height = size[1];
+				}
+
+				Integer band = bands.get(flowElement);
+
+				nodes.put(flowElement, graph.addNode(flowElement, width, height, band != null ? band : 0));
+			}
+		}
+
+		// boundary events are laid out as part of the activities they are attached to
+		for (BoundaryEvent boundaryEvent : new ArrayList<BoundaryEvent>(boundaryEvents)) {
+			Node host = nodes.get(boundaryEvent.getAttachedToRef());
+
+			if (host == null) {
+				boundaryEvents.remove(boundaryEvent);
+
+				Integer band = bands.get(boundaryEvent);
+
+				nodes.put(boundaryEvent, graph.addNode(boundaryEvent, GraphicsUtil.EVENT_SIZE, GraphicsUtil.EVENT_SIZE, band != null ? band : 0));
+			} else {
+				nodes.put(boundaryEvent, host);
+			}
+		}
+
+		for (SequenceFlow sequenceFlow : sequenceFlows) {
+			Node source = nodes.get(sequenceFlow.getSourceRef());
+			Node target = nodes.get(sequenceFlow.getTargetRef());
+
+			if (source == null || target == null) {
+				continue;
+			}
+
+			Edge edge = graph.addEdge(sequenceFlow, source, target);
+
+			// move the targets of boundary events below their hosts
+			if (boundaryEvents.contains(sequenceFlow.getSourceRef())) {
+				edge.setOffset(source.getHeight() + LayeredGraph.NODE_GAP);
+			}
+		}
+
+		graph.layout();
+
+		block.width = graph.getWidth() + 2 * PADDING;
+		block.height = graph.getHeight();
+
+		block.bandY = new int[graph.getBandCount()];
+		block.bandHeight = new int[graph.getBandCount()];
+
+		for (int i = 0; i < graph.getBandCount(); i++) {
+			block.bandY[i] = graph.getBandY(i);
+			block.bandHeight[i] = graph.getBandHeight(i);
+		}
+
+		for (Node node : graph.getNodes()) {
+			BaseElement element = (BaseElement) node.getElement();
+
+			IRectangle bounds = rect(node.getX() + PADDING, node.getY(), node.getWidth(), node.getHeight());
+
+			block.put(element, bounds);
+
+			Block subProcessBlock = subProcesses.get(element);
+			if (subProcessBlock != null) {
+				block.addAll(subProcessBlock, bounds.getX(), bounds.getY());
+			}
+		}
+
+		placeBoundaryEvents(boundaryEvents, block);
+
+		for (Edge edge : graph.getEdges()) {
+			SequenceFlow sequenceFlow = (SequenceFlow) edge.getElement();
+
+			FlowNode source = sequenceFlow.getSourceRef();
+			FlowNode target = sequenceFlow.getTargetRef();
+
+			List<ILocation> waypoints;
+
+			if (boundaryEvents.contains(source)) {
+				waypoints = routeFromBoundaryEvent(block.get(source), block.get(target));
+			} else {
+				waypoints = translate(edge.getWaypoints(), PADDING, 0);
+			}
+
+			block.route(sequenceFlow, source, target, waypoints);
+		}
+
+		placeDataElements(flowElements, dataElements, artifacts, block);
+
+		return block;
+	}
+
+	private void placeBoundaryEvents(Collection<BoundaryEvent> boundaryEvents, Block block) {
+		Map<Activity, Integer> attached = new HashMap<Activity, Integer>();
+
+		for (BoundaryEvent boundaryEvent : boundaryEvents) {
+			Activity host = boundaryEvent.getAttachedToRef();
+			IRectangle hostBounds = block.get(host);
+
+			Integer index = attached.get(host);
+			if (index == null) {
+				index = 0;
+			}
+
+			attached.put(host, index + 1);
+
+			int size = GraphicsUtil.EVENT_SIZE;
+
+			// attach from right to left to the bottom of the host
+			int x = hostBounds.getX() + hostBounds.getWidth() - (index + 1) * (size + BOUNDARY_EVENT_SPACING);
+			int y = getBottom(hostBounds) - size / 2;
+
+			block.put(boundaryEvent, rect(Math.max(x, hostBounds.getX()), y, size, size));
+		}
+	}
+
+	private List<ILocation> routeFromBoundaryEvent(IRectangle source, IRectangle target) {
+		List<ILocation> waypoints = new ArrayList<ILocation>();
+
+		int sourceX = getCenterX(source);
+		int sourceY = getBottom(source);
+
+		int targetY = getCenterY(target);
+
+		waypoints.add(location(sourceX, sourceY));
+
+		if (target.getX() > sourceX) {
+			if (targetY > sourceY) {
+				waypoints.add(location(sourceX, targetY));
+			} else {
+				int loopY = sourceY + LayeredGraph.LOOP_GAP;
+				int bendX = target.getX() - LayeredGraph.LAYER_GAP / 2;
+
+				waypoints.add(location(sourceX, loopY));
+				waypoints.add(location(bendX, loopY));
+				waypoints.add(location(bendX, targetY));
+			}
+
+			waypoints.add(location(target.getX(), targetY));
+		} else {
+			int loopY = Math.max(sourceY, getBottom(target)) + LayeredGraph.LOOP_GAP;
+
+			waypoints.add(location(sourceX, loopY));
+			waypoints.add(location(getCenterX(target), loopY));
+			waypoints.add(location(getCenterX(target), getBottom(target)));
+		}
+
+		return LayeredGraph.simplify(waypoints);
+	}
+
+	/**
+	 * Places the given data elements and text annotations in a row below the
+	 * flow elements of the block, close to the elements they are associated with.
+	 */
+	private void placeDataElements(List<FlowElement> flowElements, List<BaseElement> dataElements, List<Artifact> artifacts, final Block block) {
+
+		List<BaseElement> elements = new ArrayList<BaseElement>(dataElements);
+
+		// associations of the placed elements as [association, source, target]
+		List<BaseElement[]> associations = new ArrayList<BaseElement[]>();
+
+		for (FlowElement flowElement : flowElements) {
+			if (flowElement instanceof Activity) {
+				Activity activity = (Activity) flowElement;
+
+				addDataAssociations(activity, activity.getDataInputAssociations(), associations);
+				addDataAssociations(activity, activity.getDataOutputAssociations(), associations);
+			} else
+			if (flowElement instanceof CatchEvent) {
+				addDataAssociations(flowElement, ((CatchEvent) flowElement).getDataOutputAssociation(), associations);
+			} else
+			if (flowElement instanceof ThrowEvent) {
+				addDataAssociations(flowElement, ((ThrowEvent) flowElement).getDataInputAssociation(), associations);
+			}
+		}
+
+		for (Artifact artifact : artifacts) {
+			if (artifact instanceof TextAnnotation) {
+				elements.add(artifact);
+			} else
+			if (artifact instanceof Association) {
+				Association association = (Association) artifact;
+
+				associations.add(new BaseElement[] { association, association.getSourceRef(), association.getTargetRef() });
+			}
+		}
+
+		if (elements.isEmpty()) {
+			return;
+		}
+
+		// the elements are placed below the elements they are associated with
+		final Map<BaseElement, Integer> anchors = new HashMap<BaseElement, Integer>();
+
+		for (BaseElement[] association : associations) {
+			anchor(association[1], association[2], block, anchors);
+			anchor(association[2], association[1], block, anchors);
+		}
+
+		Collections.sort(elements, new Comparator<BaseElement>() {
+
+			@Override
+			public int compare(BaseElement e1, BaseElement e2) {
+				Integer x1 = anchors.get(e1);
+				Integer x2 = anchors.get(e2);
+
+				// elements without an anchor go last
+				if (x1 == null) {
+					return x2 == null ? 0 : 1;
+				} else
+				if (x2 == null) {
+					return -1;
+				}
+
+				return x1.compareTo(x2);
+			}
+		});
+
+		int y = block.height;
+		int x = PADDING;
+
+		int rowHeight = 0;
+
+		for (BaseElement element : elements) {
+			int[] size = getSize(element);
+
+			Integer anchor = anchors.get(element);
+			if (anchor != null) {
+				x = Math.max(x, anchor - size[0] / 2);
+			}
+
+			block.put(element, rect(x, y, size[0], size[1]));
+
+			x += size[0] + LayeredGraph.NODE_GAP;
+
+			rowHeight = Math.max(rowHeight, size[1]);
+		}
+
+		block.width = Math.max(block.width, x - LayeredGraph.NODE_GAP + PADDING);
+
+		int extension = rowHeight + LayeredGraph.BAND_PADDING;
+
+		block.height += extension;
+		block.bandHeight[block.bandHeight.length - 1] += extension;
+
+		for (BaseElement[] association : associations) {
+			IRectangle source = block.get(association[1]);
+			IRectangle target = block.get(association[2]);
+
+			if (source != null && target != null) {
+				block.route(association[0], association[1], association[2], straight(source, target));
+			}
+		}
+	}
+
+	private void addDataAssociations(BaseElement flowElement, List<? extends DataAssociation> dataAssociations, List<BaseElement[]> associations) {
+		for (DataAssociation dataAssociation : dataAssociations) {
+			if (dataAssociation instanceof DataInputAssociation) {
+				List<ItemAwareElement> sourceRefs = dataAssociation.getSourceRef();
+				if (!sourceRefs.isEmpty()) {
+					associations.add(new BaseElement[] { dataAssociation, sourceRefs.get(0), flowElement });
+				}
+			} else
+			if (dataAssociation instanceof DataOutputAssociation) {
+				ItemAwareElement targetRef = dataAssociation.getTargetRef();
+				if (targetRef != null) {
+					associations.add(new BaseElement[] { dataAssociation, flowElement, targetRef });
+				}
+			}
+		}
+	}
+
+	private void anchor(BaseElement element, BaseElement anchor, Block block, Map<BaseElement, Integer> anchors) {
+		if (element == null || anchors.containsKey(element) || block.get(element) != null) {
+			return;
+		}
+
+		IRectangle anchorBounds = block.get(anchor);
+		if (anchorBounds != null) {
+			anchors.put(element, getCenterX(anchorBounds));
+		}
+	}
+
+	// diagram interchange ////////////////////////////////////////////////////////
+
+	private void createDiagramElements(Block diagram) {
+		for (Map.Entry<BaseElement, IRectangle> entry : diagram.shapes.entrySet()) {
+			createShape(entry.getKey(), entry.getValue());
+		}
+
+		for (Route route : diagram.routes) {
+			createEdge(route);
+		}
+	}
+
+	private void createShape(BaseElement element, IRectangle bounds) {
+		BPMNShape shape = BpmnDiFactory.eINSTANCE.createBPMNShape();
+
+		Bounds diBounds = DcFactory.eINSTANCE.createBounds();
+		diBounds.setX(bounds.getX());
+		diBounds.setY(bounds.getY());
+		diBounds.setWidth(bounds.getWidth());
+		diBounds.setHeight(bounds.getHeight());
+
+		shape.setBounds(diBounds);
+		shape.setBpmnElement(element);
+
+		if (element instanceof Participant || element instanceof Lane) {
+			shape.setIsHorizontal(true);
+		}
+
+		if (element instanceof SubProcess) {
+			shape.setIsExpanded(true);
+		}
+
+		addDiagramElement(shape);
+
+		shapes.put(element, shape);
+	}
+
+	private void createEdge(Route route) {
+		BPMNEdge edge = BpmnDiFactory.eINSTANCE.createBPMNEdge();
+
+		edge.setBpmnElement(route.element);
+
+		edge.setSourceElement(shapes.get(route.source));
+		edge.setTargetElement(shapes.get(route.target));
+
+		for (ILocation waypoint : route.waypoints) {
+			edge.getWaypoint().add(diPoint(waypoint));
+		}
+
+		addDiagramElement(edge);
+	}
+
+	private void addDiagramElement(DiagramElement diagramElement) {
+		ModelUtil.setID(diagramElement, resource);
+
+		plane.getPlaneElement().add(diagramElement);
+
+		diagramElements.add(diagramElement);
+	}
+
+	// utilities ////////////////////////////////////////////////////////
+
+	private static int[] getSize(BaseElement element) {
+		if (element instanceof Event) {
+			return new int[] { GraphicsUtil.EVENT_SIZE, GraphicsUtil.EVENT_SIZE };
+		} else
+		if (element instanceof Gateway) {
+			return new int[] { GraphicsUtil.GATEWAY_RADIUS * 2, GraphicsUtil.GATEWAY_RADIUS * 2 };
+		} else
+		if (element instanceof Activity) {
+			return new int[] { GraphicsUtil.TASK_DEFAULT_WIDTH, GraphicsUtil.TASK_DEFAULT_HEIGHT };
+		} else
+		if (element instanceof DataStoreReference) {
+			return new int[] { DATA_STORE_SIZE, DATA_STORE_SIZE };
+		} else
+		if (element instanceof TextAnnotation) {
+			return new int[] { TEXT_ANNOTATION_WIDTH, TEXT_ANNOTATION_HEIGHT };
+		} else
+		if (element instanceof ItemAwareElement) {
+			return new int[] { GraphicsUtil.DATA_WIDTH, GraphicsUtil.DATA_HEIGHT };
+		} else {
+			return new int[] { GraphicsUtil.TASK_DEFAULT_WIDTH, GraphicsUtil.TASK_DEFAULT_HEIGHT };
+		}
+	}
+
+	private static List<Lane> getLanes(List<LaneSet> laneSets) {
+		List<Lane> lanes = new ArrayList<Lane>();
+
+		for (LaneSet laneSet : laneSets) {
+			lanes.addAll(laneSet.getLanes());
+		}
+
+		return lanes;
+	}
+
+	private static List<Lane> getChildLanes(Lane lane) {
+		LaneSet childLaneSet = lane.getChildLaneSet();
+		if (childLaneSet == null) {
+			return Collections.emptyList();
+		}
+
+		return childLaneSet.getLanes();
+	}
+
+	/**
+	 * Collects the leaf lanes among the given lanes in document order
+	 *
+	 * @return the depth of the lane hierarchy
+	 */
+	private static int collectLeafLanes(List<Lane> lanes, List<Lane> leafLanes, int depth) {
+		if (lanes.isEmpty()) {
+			return depth;
+		}
+
+		int maxDepth = depth + 1;
+
+		for (Lane lane : lanes) {
+			List<Lane> childLanes = getChildLanes(lane);
+
+			if (childLanes.isEmpty()) {
+				leafLanes.add(lane);
+			} else {
+				maxDepth = Math.max(maxDepth, collectLeafLanes(childLanes, leafLanes, depth + 1));
+			}
+		}
+
+		return maxDepth;
+	}
+
+	private static BaseElement asBaseElement(EObject object) {
+		if (object instanceof BaseElement && !object.eIsProxy()) {
+			return (BaseElement) object;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the waypoints of a straight connection between the given bounds
+	 */
+	private static List<ILocation> straight(IRectangle source, IRectangle target) {
+		List<ILocation> waypoints = new ArrayList<ILocation>();
+
+		if (getBottom(source) <= target.getY()) {
+			waypoints.add(location(getCenterX(source), getBottom(source)));
+			waypoints.add(location(getCenterX(target), target.getY()));
+		} else
+		if (getBottom(target) <= source.getY()) {
+			waypoints.add(location(getCenterX(source), source.getY()));
+			waypoints.add(location(getCenterX(target), getBottom(target)));
+		} else
+		if (source.getX() + source.getWidth() <= target.getX()) {
+			waypoints.add(location(source.getX() + source.getWidth(), getCenterY(source)));
+			waypoints.add(location(target.getX(), getCenterY(target)));
+		} else {
+			waypoints.add(location(source.getX(), getCenterY(source)));
+			waypoints.add(location(target.getX() + target.getWidth(), getCenterY(target)));
+		}
+
+		return waypoints;
+	}
+
+	private static List<ILocation> translate(List<ILocation> waypoints, int dx, int dy) {
+		List<ILocation> translated = new ArrayList<ILocation>(waypoints.size());
+
+		for (ILocation waypoint : waypoints) {
+			translated.add(location(waypoint.getX() + dx, waypoint.getY() + dy));
+		}
+
+		return translated;
+	}
+
+	private static boolean containsX(IRectangle bounds, int x) {
+		return bounds.getX() <= x && x <= bounds.getX() + bounds.getWidth();
+	}
+
+	private static int getCenterX(IRectangle bounds) {
+		return bounds.getX() + bounds.getWidth() / 2;
+	}
+
+	private static int getCenterY(IRectangle bounds) {
+		return bounds.getY() + bounds.getHeight() / 2;
+	}
+
+	private static int getBottom(IRectangle bounds) {
+		return bounds.getY() + bounds.getHeight();
+	}
+
+	/**
+	 * Laid out elements, relative to the top left corner of the block
+	 */
+	private static class Block {
+
+		private int width;
+		private int height;
+
+		/**
+		 * Offsets and heights of the bands (lanes) of the block
+		 */
+		private int[] bandY;
+		private int[] bandHeight;
+
+		private final Map<BaseElement, IRectangle> shapes = new LinkedHashMap<BaseElement, IRectangle>();
+		private final List<Route> routes = new ArrayList<Route>();
+
+		public IRectangle get(BaseElement element) {
+			return shapes.get(element);
+		}
+
+		public void put(BaseElement element, IRectangle bounds) {
+			shapes.put(element, bounds);
+		}
+
+		public void route(BaseElement element, BaseElement source, BaseElement target, List<ILocation> waypoints) {
+			routes.add(new Route(element, source, target, waypoints));
+		}
+
+		/**
+		 * Adds the elements of the given block, translated by the given offset
+		 */
+		public void addAll(Block block, int dx, int dy) {
+			for (Map.Entry<BaseElement, IRectangle> entry : block.shapes.entrySet()) {
+				IRectangle bounds = entry.getValue();
+
+				shapes.put(entry.getKey(), rect(bounds.getX() + dx, bounds.getY() + dy, bounds.getWidth(), bounds.getHeight()));
+			}
+
+			for (Route route : block.routes) {
+				routes.add(new Route(route.element, route.source, route.target, translate(route.waypoints, dx, dy)));
+			}
+		}
+	}
+
+	/**
+	 * A laid out connection
+	 */
+	private static class Route {
+
+		private final BaseElement element;
+
+		private final BaseElement source;
+		private final BaseElement target;
+
+		private final List<ILocation> waypoints;
+
+		public Route(BaseElement element, BaseElement source, BaseElement target, List<ILocation> waypoints) {
+			this.element = element;
+			this.source = source;
+			this.target = target;
+			this.waypoints = waypoints;
+		}
+	}
+}
@@ -0,0 +1,869 @@
+package org.camunda.bpm.modeler.core.layout.auto;
+
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.location;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+import org.eclipse.graphiti.datatypes.ILocation;
+
+/**
+ * A directed graph which is laid out in layers from left to right,
+ * following the approach of Sugiyama et al.:
+ *
+ * <ol>
+ *   <li>cycles are broken by reversing the back edges found by a depth first search</li>
+ *   <li>nodes are assigned to layers by the longest path leading to them</li>
+ *   <li>edges spanning multiple layers are split up by dummy nodes</li>
+ *   <li>crossings are reduced by sorting the layers by the barycenter of their neighbors</li>
+ *   <li>nodes are positioned in their layer as close as possible to their predecessors</li>
+ *   <li>edges are routed orthogonally between the layers, back edges below the nodes</li>
+ * </ol>
+ *
+ * Nodes may be assigned to horizontal bands (i.e. lanes) which are laid out one below the other.
+ *
+ * Apart from the crossing reduction, which sorts each layer a constant number of times,
+ * all steps take linear time in the size of the graph.
+ */
+public class LayeredGraph {
+
+	/**
+	 * Horizontal gap between two layers
+	 */
+	public static final int LAYER_GAP = 50;
+
+	/**
+	 * Vertical gap between two nodes of a layer
+	 */
+	public static final int NODE_GAP = 30;
+
+	/**
+	 * Padding at the top and the bottom of a band
+	 */
+	public static final int BAND_PADDING = 30;
+
+	/**
+	 * Distance of back edges to the nodes they pass below
+	 */
+	public static final int LOOP_GAP = 20;
+
+	private static final int LOOP_SPACING = 10;
+
+	private static final int ORDERING_SWEEPS = 4;
+
+	private static final Comparator<Node> BY_BAND_AND_BARYCENTER = new Comparator<Node>() {
+
+		@Override
+		public int compare(Node n1, Node n2) {
+			if (n1.band != n2.band) {
+				return n1.band < n2.band ? -1 : 1;
+			}
+
+			return Double.compare(n1.barycenter, n2.barycenter);
+		}
+	};
+
+	private final List<Node> nodes = new ArrayList<Node>();
+	private final List<Edge> edges = new ArrayList<Edge>();
+
+	private int bandCount = 1;
+	private int minBandHeight = 0;
+
+	private List<List<Node>> layers;
+
+	private int[] layerX;
+	private int[] layerWidth;
+
+	private int[] bandY;
+	private int[] bandHeight;
+
+	private int width;
+	private int height;
+
+	/**
+	 * Adds a node to the first band of the graph
+	 *
+	 * @param element the element represented by the node
+	 * @param width
+	 * @param height
+	 *
+	 * @return the added node
+	 */
+	public Node addNode(Object element, int width, int height) {
+		return addNode(element, width, height, 0);
+	}
+
+	/**
+	 * Adds a node to the given band of the graph
+	 *
+	 * @param element the element represented by the node
+	 * @param width
+	 * @param height
+	 * @param band
+	 *
+	 * @return the added node
+	 */
+	public Node addNode(Object element, int width, int height, int band) {
+		if (band < 0 || band >= bandCount) {
+			throw new IllegalArgumentException("No such band: " + band);
+		}
+
+		Node node = new Node(element, width, height, band, false);
+		nodes.add(node);
+
+		return node;
+	}
+
+	/**
+	 * Adds an edge between the given nodes
+	 *
+	 * @param element the element represented by the edge
+	 * @param source
+	 * @param target
+	 *
+	 * @return the added edge
+	 */
+	public Edge addEdge(Object element, Node source, Node target) {
+		Edge edge = new Edge(element, source, target);
+
+		source.outgoing.add(edge);
+		target.incoming.add(edge);
+
+		edges.add(edge);
+
+		return edge;
+	}
+
+	/**
+	 * Sets the number of bands of the graph. Must be called before nodes are added.
+	 *
+	 * @param bandCount
+	 */
+	public void setBandCount(int bandCount) {
+		if (!nodes.isEmpty()) {
+			throw new IllegalStateException("Band count must be set before adding nodes");
+		}
+
+		this.bandCount = Math.max(1, bandCount);
+	}
+
+	public int getBandCount() {
+		return bandCount;
+	}
+
+	public void setMinBandHeight(int minBandHeight) {
+		this.minBandHeight = minBandHeight;
+	}
+
+	public List<Node> getNodes() {
+		return nodes;
+	}
+
+	public List<Edge> getEdges() {
+		return edges;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getBandY(int band) {
+		return bandY[band];
+	}
+
+	public int getBandHeight(int band) {
+		return bandHeight[band];
+	}
+
+	/**
+	 * Returns the number of layers the nodes have been assigned to
+	 *
+	 * @return
+	 */
+	public int getLayerCount() {
+		return layers.size();
+	}
+
+	/**
+	 * Lays out the graph, positioning all nodes relative to
+	 * the top left corner of the graph and routing all edges.
+	 */
+	public void layout() {
+		removeCycles();
+
+		assignLayers();
+
+		orderLayers();
+
+		assignCoordinates();
+
+		routeEdges();
+	}
+
+	// cycle removal ////////////////////////////////////////////
+
+	private void removeCycles() {
+
+		// start at the sources so that back edges
+		// are identified along the natural flow
+		for (Node node : nodes) {
+			if (node.state == Node.UNVISITED && !hasIncoming(node)) {
+				removeCycles(node);
+			}
+		}
+
+		for (Node node : nodes) {
+			if (node.state == Node.UNVISITED) {
+				removeCycles(node);
+			}
+		}
+	}
+
+	private boolean hasIncoming(Node node) {
+		for (Edge edge : node.incoming) {
+			if (!edge.isSelfLoop()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private void removeCycles(Node root) {
+		Deque<Node> stack = new ArrayDeque<Node>();
+
+		root.state = Node.ON_STACK;
+		stack.push(root);
+
+		while (!stack.isEmpty()) {
+			Node node = stack.peek();
+
+			if (node.nextEdge < node.outgoing.size()) {
+				Edge edge = node.outgoing.get(node.nextEdge++);
+				if (edge.isSelfLoop()) {
+					continue;
+				}
+
+				Node target = edge.target;
+
+				if (target.state == Node.ON_STACK) {
+					edge.reversed = true;
+				} else
+				if (target.state == Node.UNVISITED) {
+					target.state = Node.ON_STACK;
+					stack.push(target);
+				}
+			} else {
+				node.state = Node.VISITED;
+				stack.pop();
+			}
+		}
+	}
+
+	// layer assignment ////////////////////////////////////////////
+
+	private void assignLayers() {
+
+		List<Node> sorted = new ArrayList<Node>(nodes.size());
+
+		for (Edge edge : edges) {
+			if (!edge.isSelfLoop()) {
+				edge.getLayoutTarget().inDegree++;
+			}
+		}
+
+		for (Node node : nodes) {
+			if (node.inDegree == 0) {
+				sorted.add(node);
+			}
+		}
+
+		// topological sort, assigning each node the length
+		// of the longest path leading to it as its layer
+		for (int i = 0; i < sorted.size(); i++) {
+			Node node = sorted.get(i);
+
+			for (Edge edge : node.outgoing) {
+				if (!edge.isSelfLoop() && !edge.reversed) {
+					visitLayoutEdge(node, edge.target, sorted);
+				}
+			}
+
+			for (Edge edge : node.incoming) {
+				if (!edge.isSelfLoop() && edge.reversed) {
+					visitLayoutEdge(node, edge.source, sorted);
+				}
+			}
+		}
+
+		int layerCount = 0;
+		for (Node node : nodes) {
+			layerCount = Math.max(layerCount, node.layer + 1);
+		}
+
+		layers = new ArrayList<List<Node>>(layerCount);
+		for (int i = 0; i < layerCount; i++) {
+			layers.add(new ArrayList<Node>());
+		}
+
+		for (Node node : sorted) {
+			layers.get(node.layer).add(node);
+		}
+
+		for (Edge edge : edges) {
+			if (!edge.isSelfLoop() && !edge.reversed) {
+				insertDummies(edge);
+			}
+		}
+	}
+
+	private void visitLayoutEdge(Node source, Node target, List<Node> sorted) {
+		target.layer = Math.max(target.layer, source.layer + 1);
+
+		if (--target.inDegree == 0) {
+			sorted.add(target);
+		}
+	}
+
+	/**
+	 * Splits the given edge into segments between adjacent layers
+	 *
+	 * @param edge
+	 */
+	private void insertDummies(Edge edge) {
+		Node previous = edge.source;
+		int offset = edge.offset;
+
+		for (int layer = edge.source.layer + 1; layer < edge.target.layer; layer++) {
+			Node dummy = new Node(null, 0, 0, previous.band, true);
+			dummy.layer = layer;
+
+			layers.get(layer).add(dummy);
+			edge.dummies.add(dummy);
+
+			connect(previous, dummy, offset);
+
+			previous = dummy;
+			offset = 0;
+		}
+
+		connect(previous, edge.target, offset);
+	}
+
+	private void connect(Node predecessor, Node successor, int offset) {
+		Segment segment = new Segment(predecessor, successor, offset);
+
+		predecessor.successorSegments.add(segment);
+		successor.predecessorSegments.add(segment);
+	}
+
+	// crossing reduction ////////////////////////////////////////////
+
+	private void orderLayers() {
+
+		// keep the bands together
+		for (List<Node> layer : layers) {
+			for (int i = 0; i < layer.size(); i++) {
+				layer.get(i).barycenter = i;
+			}
+
+			sortLayer(layer);
+		}
+
+		for (int sweep = 0; sweep < ORDERING_SWEEPS; sweep++) {
+			for (int i = 1; i < layers.size(); i++) {
+				orderLayer(layers.get(i), true);
+			}
+
+			for (int i = layers.size() - 2; i >= 0; i--) {
+				orderLayer(layers.get(i), false);
+			}
+		}
+	}
+
+	private void orderLayer(List<Node> layer, boolean byPredecessors) {
+		for (Node node : layer) {
+			List<Segment> segments = byPredecessors ? node.predecessorSegments : node.successorSegments;
+
+			if (segments.isEmpty()) {
+				node.barycenter = node.order;
+			} else {
+				double sum = 0;
+
+				for (Segment segment : segments) {
+					sum += (byPredecessors ? segment.predecessor : segment.successor).order;
+				}
+
+				node.barycenter = sum / segments.size();
+			}
+		}
+
+		sortLayer(layer);
+	}
+
+	private void sortLayer(List<Node> layer) {
+		Collections.sort(layer, BY_BAND_AND_BARYCENTER);
+
+		for (int i = 0; i < layer.size(); i++) {
+			layer.get(i).order = i;
+		}
+	}
+
+	// coordinate assignment ////////////////////////////////////////////
+
+	private void assignCoordinates() {
+		int layerCount = layers.size();
+
+		layerX = new int[layerCount];
+		layerWidth = new int[layerCount];
+
+		int x = 0;
+
+		for (int i = 0; i < layerCount; i++) {
+			int maxWidth = 0;
+			for (Node node : layers.get(i)) {
+				maxWidth = Math.max(maxWidth, node.width);
+			}
+
+			layerX[i] = x;
+			layerWidth[i] = maxWidth;
+
+			for (Node node : layers.get(i)) {
+				node.x = x + (maxWidth - node.width) / 2;
+			}
+
+			x += maxWidth + LAYER_GAP;
+		}
+
+		width = layerCount > 0 ? x - LAYER_GAP : 0;
+
+		int[] cursor = new int[bandCount];
+
+		// position the nodes inside their bands, as close as possible to their predecessors
+		for (List<Node> layer : layers) {
+			Arrays.fill(cursor, BAND_PADDING);
+
+			for (Node node : layer) {
+				int y = cursor[node.band];
+
+				int predecessors = 0;
+				int centerSum = 0;
+
+				for (Segment segment : node.predecessorSegments) {
+					if (segment.predecessor.band == node.band) {
+						centerSum += segment.predecessor.getCenterY() + segment.offset;
+						predecessors++;
+					}
+				}
+
+				if (predecessors > 0) {
+					y = Math.max(y, centerSum / predecessors - node.height / 2);
+				}
+
+				node.y = y;
+				node.aligned = predecessors > 0;
+
+				cursor[node.band] = y + node.height + NODE_GAP;
+			}
+		}
+
+		// move the nodes without predecessors towards their successors
+		for (int i = layers.size() - 1; i >= 0; i--) {
+			Arrays.fill(cursor, BAND_PADDING);
+
+			for (Node node : layers.get(i)) {
+				int y = Math.max(cursor[node.band], node.y);
+
+				if (!node.aligned) {
+					int successors = 0;
+					int centerSum = 0;
+
+					for (Segment segment : node.successorSegments) {
+						if (segment.successor.band == node.band) {
+							centerSum += segment.successor.getCenterY() - segment.offset;
+							successors++;
+						}
+					}
+
+					if (successors > 0) {
+						y = Math.max(cursor[node.band], centerSum / successors - node.height / 2);
+					}
+				}
+
+				node.y = y;
+
+				cursor[node.band] = y + node.height + NODE_GAP;
+			}
+		}
+
+		int[] contentHeight = new int[bandCount];
+
+		for (List<Node> layer : layers) {
+			for (Node node : layer) {
+				contentHeight[node.band] = Math.max(contentHeight[node.band], node.y + node.height);
+			}
+		}
+
+		// reserve space for the back edges routed below the nodes of a band
+		int[] loops = new int[bandCount];
+
+		for (Edge edge : edges) {
+			if (edge.reversed) {
+				edge.loopIndex = loops[edge.source.band]++;
+			}
+		}
+
+		bandY = new int[bandCount];
+		bandHeight = new int[bandCount];
+
+		int y = 0;
+
+		for (int i = 0; i < bandCount; i++) {
+			int bandContentHeight = Math.max(contentHeight[i], BAND_PADDING);
+
+			if (loops[i] > 0) {
+				bandContentHeight += LOOP_GAP + (loops[i] - 1) * LOOP_SPACING;
+			}
+
+			bandY[i] = y;
+			bandHeight[i] = Math.max(minBandHeight, bandContentHeight + BAND_PADDING);
+
+			y += bandHeight[i];
+		}
+
+		height = y;
+
+		for (List<Node> layer : layers) {
+			for (Node node : layer) {
+				node.y += bandY[node.band];
+			}
+		}
+	}
+
+	// edge routing ////////////////////////////////////////////
+
+	private void routeEdges() {
+		for (Edge edge : edges) {
+			List<ILocation> waypoints;
+
+			if (edge.isSelfLoop()) {
+				waypoints = routeSelfLoop(edge);
+			} else
+			if (edge.reversed) {
+				waypoints = routeBackEdge(edge);
+			} else {
+				waypoints = routeForwardEdge(edge);
+			}
+
+			edge.waypoints = simplify(waypoints);
+		}
+	}
+
+	private List<ILocation> routeForwardEdge(Edge edge) {
+		List<ILocation> waypoints = new ArrayList<ILocation>();
+
+		Node source = edge.source;
+		Node target = edge.target;
+
+		int y = source.getCenterY();
+
+		waypoints.add(location(source.x + source.width, y));
+
+		Node previous = source;
+
+		List<Node> path = new ArrayList<Node>(edge.dummies);
+		path.add(target);
+
+		for (Node next : path) {
+			int nextY = next.getCenterY();
+
+			if (nextY != y) {
+				// bend in the middle of the gap between the layers
+				int bendX = layerX[previous.layer] + layerWidth[previous.layer] + LAYER_GAP / 2;
+
+				waypoints.add(location(bendX, y));
+				waypoints.add(location(bendX, nextY));
+
+				y = nextY;
+			}
+
+			previous = next;
+		}
+
+		waypoints.add(location(target.x, y));
+
+		return waypoints;
+	}
+
+	private List<ILocation> routeBackEdge(Edge edge) {
+		List<ILocation> waypoints = new ArrayList<ILocation>();
+
+		Node source = edge.source;
+		Node target = edge.target;
+
+		int band = source.band;
+
+		int loopY = bandY[band] + bandHeight[band] - BAND_PADDING - edge.loopIndex * LOOP_SPACING;
+
+		waypoints.add(location(source.getCenterX(), source.y + source.height));
+		waypoints.add(location(source.getCenterX(), loopY));
+		waypoints.add(location(target.getCenterX(), loopY));
+
+		if (loopY < target.y) {
+			waypoints.add(location(target.getCenterX(), target.y));
+		} else {
+			waypoints.add(location(target.getCenterX(), target.y + target.height));
+		}
+
+		return waypoints;
+	}
+
+	private List<ILocation> routeSelfLoop(Edge edge) {
+		List<ILocation> waypoints = new ArrayList<ILocation>();
+
+		Node node = edge.source;
+
+		int right = node.x + node.width + LOOP_GAP;
+		int bottom = node.y + node.height + LOOP_GAP;
+
+		waypoints.add(location(node.x + node.width, node.getCenterY()));
+		waypoints.add(location(right, node.getCenterY()));
+		waypoints.add(location(right, bottom));
+		waypoints.add(location(node.getCenterX(), bottom));
+		waypoints.add(location(node.getCenterX(), node.y + node.height));
+
+		return waypoints;
+	}
+
+	/**
+	 * Removes duplicate waypoints as well as waypoints
+	 * lying on a straight line between their neighbors.
+	 *
+	 * @param waypoints
+	 * @return
+	 */
+	static List<ILocation> simplify(List<ILocation> waypoints) {
+		List<ILocation> result = new ArrayList<ILocation>(waypoints.size());
+
+		for (ILocation waypoint : waypoints) {
+			int size = result.size();
+
+			if (size > 0 && equals(result.get(size - 1), waypoint)) {
+				continue;
+			}
+
+			if (size > 1 && isStraight(result.get(size - 2), result.get(size - 1), waypoint)) {
+				result.set(size - 1, waypoint);
+			} else {
+				result.add(waypoint);
+			}
+		}
+
+		return result;
+	}
+
+	private static boolean equals(ILocation l1, ILocation l2) {
+		return l1.getX() == l2.getX() && l1.getY() == l2.getY();
+	}
+
+	private static boolean isStraight(ILocation l1, ILocation l2, ILocation l3) {
+		return
+			(l1.getX() == l2.getX() && l2.getX() == l3.getX()) ||
+			(l1.getY() == l2.getY() && l2.getY() == l3.getY());
+	}
+
+	/**
+	 * A node of the graph
+	 */
+	public static class Node {
+
+		private static final int UNVISITED = 0;
+		private static final int ON_STACK = 1;
+		private static final int VISITED = 2;
+
+		private final Object element;
+
+		private final int width;
+		private final int height;
+		private final int band;
+
+		private final boolean dummy;
+
+		private final List<Edge> outgoing = new ArrayList<Edge>(2);
+		private final List<Edge> incoming = new ArrayList<Edge>(2);
+
+		private final List<Segment> predecessorSegments = new ArrayList<Segment>(2);
+		private final List<Segment> successorSegments = new ArrayList<Segment>(2);
+
+		private int x;
+		private int y;
+
+		private int layer;
+		private int order;
+		private double barycenter;
+
+		private boolean aligned;
+
+		private int state = UNVISITED;
+		private int nextEdge;
+		private int inDegree;
+
+		private Node(Object element, int width, int height, int band, boolean dummy) {
+			this.element = element;
+			this.width = width;
+			this.height = height;
+			this.band = band;
+			this.dummy = dummy;
+		}
+
+		public Object getElement() {
+			return element;
+		}
+
+		public int getX() {
+			return x;
+		}
+
+		public int getY() {
+			return y;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+
+		public int getBand() {
+			return band;
+		}
+
+		public int getLayer() {
+			return layer;
+		}
+
+		public boolean isDummy() {
+			return dummy;
+		}
+
+		private int getCenterX() {
+			return x + width / 2;
+		}
+
+		private int getCenterY() {
+			return y + height / 2;
+		}
+
+		@Override
+		public String toString() {
+			return "Node(" + element + ")";
+		}
+	}
+
+	/**
+	 * An edge of the graph
+	 */
+	public static class Edge {
+
+		private final Object element;
+
+		private final Node source;
+		private final Node target;
+
+		private final List<Node> dummies = new ArrayList<Node>(0);
+
+		private boolean reversed = false;
+
+		private int offset = 0;
+		private int loopIndex = 0;
+
+		private List<ILocation> waypoints = Collections.emptyList();
+
+		private Edge(Object element, Node source, Node target) {
+			this.element = element;
+			this.source = source;
+			this.target = target;
+		}
+
+		public Object getElement() {
+			return element;
+		}
+
+		public Node getSource() {
+			return source;
+		}
+
+		public Node getTarget() {
+			return target;
+		}
+
+		/**
+		 * Returns true if the edge has been reversed to break a cycle
+		 *
+		 * @return
+		 */
+		public boolean isReversed() {
+			return reversed;
+		}
+
+		/**
+		 * Sets the vertical offset of the target relative to the source
+		 * the layout should aim for.
+		 *
+		 * @param offset
+		 */
+		public void setOffset(int offset) {
+			this.offset = offset;
+		}
+
+		/**
+		 * Returns the waypoints of the edge, from source to target
+		 *
+		 * @return
+		 */
+		public List<ILocation> getWaypoints() {
+			return waypoints;
+		}
+
+		private boolean isSelfLoop() {
+			return source == target;
+		}
+
+		private Node getLayoutTarget() {
+			return reversed ? source : target;
+		}
+
+		@Override
+		public String toString() {
+			return "Edge(" + element + ": " + source + " -> " + target + ")";
+		}
+	}
+
+	/**
+	 * Connection of two nodes in adjacent layers
+	 */
+	private static class Segment {
+
+		private final Node predecessor;
+		private final Node successor;
+
+		private final int offset;
+
+		public Segment(Node predecessor, Node successor, int offset) {
+			this.predecessor = predecessor;
+			this.successor = successor;
+			this.offset = offset;
+		}
+	}
+}
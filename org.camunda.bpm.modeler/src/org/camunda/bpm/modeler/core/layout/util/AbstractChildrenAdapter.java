@@ -0,0 +1,107 @@
+package org.camunda.bpm.modeler.core.layout.util;
+
+import org.camunda.bpm.modeler.core.model.index.AbstractListAdapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.graphiti.mm.algorithms.AlgorithmsPackage;
+import org.eclipse.graphiti.mm.algorithms.GraphicsAlgorithm;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.PictogramElement;
+import org.eclipse.graphiti.mm.pictograms.PictogramsPackage;
+import org.eclipse.graphiti.mm.pictograms.Shape;
+
+/**
+ * Base class for adapters tracking the bounds of the children of a {@link ContainerShape}.
+ *
+ * Observes the children of the container along with their graphics algorithms and
+ * calls {@link #childChanged(Shape)} whenever a child is added or its bounds change
+ * and {@link #childRemoved(Shape)} once it is removed from the container.
+ */
+public abstract class AbstractChildrenAdapter extends AbstractListAdapter<Shape> {
+
+	protected static final PictogramsPackage PICTOGRAMS_PACKAGE = PictogramsPackage.eINSTANCE;
+	protected static final AlgorithmsPackage ALGORITHMS_PACKAGE = AlgorithmsPackage.eINSTANCE;
+
+	protected final ContainerShape container;
+
+	protected AbstractChildrenAdapter(ContainerShape container) {
+		super(container, PICTOGRAMS_PACKAGE.getContainerShape_Children());
+
+		this.container = container;
+	}
+
+	@Override
+	protected void elementAdded(Shape shape) {
+		observe(shape.getGraphicsAlgorithm());
+
+		childChanged(shape);
+	}
+
+	@Override
+	protected void elementRemoved(Shape shape) {
+		unobserve(shape.getGraphicsAlgorithm());
+
+		childRemoved(shape);
+	}
+
+	@Override
+	protected void elementChanged(Notification notification) {
+		Object notifier = notification.getNotifier();
+		Object feature = notification.getFeature();
+
+		if (notifier instanceof Shape) {
+			Shape shape = (Shape) notifier;
+
+			// the container itself is observed, too
+			if (shape == container || shape.eContainer() != container) {
+				return;
+			}
+
+			if (feature == PICTOGRAMS_PACKAGE.getPictogramElement_GraphicsAlgorithm()) {
+				unobserve((GraphicsAlgorithm) notification.getOldValue());
+				observe((GraphicsAlgorithm) notification.getNewValue());
+
+				childChanged(shape);
+			} else
+			if (isChildFeature(feature)) {
+				childChanged(shape);
+			}
+		} else
+		if (notifier instanceof GraphicsAlgorithm) {
+			if (feature == ALGORITHMS_PACKAGE.getGraphicsAlgorithm_X() ||
+				feature == ALGORITHMS_PACKAGE.getGraphicsAlgorithm_Y() ||
+				feature == ALGORITHMS_PACKAGE.getGraphicsAlgorithm_Width() ||
+				feature == ALGORITHMS_PACKAGE.getGraphicsAlgorithm_Height()) {
+
+				PictogramElement pictogramElement = ((GraphicsAlgorithm) notifier).getPictogramElement();
+				if (pictogramElement instanceof Shape && pictogramElement.eContainer() == container) {
+					childChanged((Shape) pictogramElement);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if changes of the given feature of a child
+	 * (other than its graphics algorithm) affect the adapter.
+	 *
+	 * @param feature
+	 * @return
+	 */
+	protected boolean isChildFeature(Object feature) {
+		return false;
+	}
+
+	/**
+	 * Called when the given child got added or its bounds changed
+	 *
+	 * @param shape
+	 */
+	protected abstract void childChanged(Shape shape);
+
+	/**
+	 * Called when the given child got removed from the container
+	 *
+	 * @param shape
+	 */
+	protected abstract void childRemoved(Shape shape);
+}
@@ -0,0 +1,204 @@
+package org.camunda.bpm.modeler.core.layout.util;
+
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.rectangle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.modeler.core.utils.ScrollUtil;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.graphiti.datatypes.IRectangle;
+import org.eclipse.graphiti.mm.MmPackage;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Shape;
+
+/**
+ * Keeps track of the bounding box of the children of a {@link ContainerShape},
+ * as computed by {@link LayoutUtil#getBBox(java.util.List, IRectangle, int, int)}.
+ *
+ * The adapter observes the children of the container along with their graphics algorithms
+ * and updates the bounding box with each change. The bounding box is only recomputed
+ * (from the tracked children bounds) if a child on its border shrinks, moves inwards
+ * or gets removed.
+ *
+ * Use {@link #get(ContainerShape)} to obtain the adapter for a container.
+ */
+public class ChildrenBBoxAdapter extends AbstractChildrenAdapter {
+
+	private static final MmPackage MM_PACKAGE = MmPackage.eINSTANCE;
+
+	/**
+	 * The bounds of the children contributing to the bounding box
+	 */
+	private final Map<Shape, IRectangle> childrenBounds = new HashMap<Shape, IRectangle>();
+
+	private boolean valid = false;
+
+	private int x1;
+	private int y1;
+	private int x2;
+	private int y2;
+
+	private ChildrenBBoxAdapter(ContainerShape container) {
+		super(container);
+	}
+
+	/**
+	 * Returns the bounding box of the containers children
+	 * or null if no child contributes to it.
+	 *
+	 * @return the bounding box, relative to the containers coordinate system
+	 */
+	public synchronized IRectangle getBounds() {
+		if (!valid) {
+			recompute();
+		}
+
+		if (childrenBounds.isEmpty()) {
+			return null;
+		}
+
+		return rectangle(x1, y1, x2 - x1, y2 - y1);
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == ChildrenBBoxAdapter.class;
+	}
+
+	@Override
+	protected boolean isChildFeature(Object feature) {
+		return
+			feature == PICTOGRAMS_PACKAGE.getPictogramElement_Link() ||
+			feature == MM_PACKAGE.getPropertyContainer_Properties();
+	}
+
+	@Override
+	protected void childChanged(Shape shape) {
+		update(shape);
+	}
+
+	@Override
+	protected void childRemoved(Shape shape) {
+		IRectangle oldBounds = childrenBounds.remove(shape);
+		if (oldBounds != null && isOnBorder(oldBounds)) {
+			valid = false;
+		}
+	}
+
+	/**
+	 * Updates the tracked bounds of the given child
+	 *
+	 * @param shape
+	 */
+	private void update(Shape shape) {
+		IRectangle oldBounds = childrenBounds.remove(shape);
+		IRectangle newBounds = null;
+
+		if (isIncluded(shape)) {
+			newBounds = LayoutUtil.getRelativeBounds(shape);
+			childrenBounds.put(shape, newBounds);
+		}
+
+		if (!valid) {
+			return;
+		}
+
+		// child on the border shrinks, moves inwards or is no longer included
+		if (oldBounds != null && isOnBorder(oldBounds) && (newBounds == null || !contains(newBounds, oldBounds))) {
+			valid = false;
+			return;
+		}
+
+		if (newBounds != null) {
+			add(newBounds, childrenBounds.size() == 1);
+		}
+	}
+
+	/**
+	 * Recomputes the bounding box from the tracked children bounds
+	 */
+	private void recompute() {
+		boolean first = true;
+
+		for (IRectangle bounds : childrenBounds.values()) {
+			add(bounds, first);
+
+			first = false;
+		}
+
+		valid = true;
+	}
+
+	private void add(IRectangle bounds, boolean first) {
+		int bx1 = bounds.getX();
+		int by1 = bounds.getY();
+		int bx2 = bx1 + bounds.getWidth();
+		int by2 = by1 + bounds.getHeight();
+
+		if (first) {
+			x1 = bx1;
+			y1 = by1;
+			x2 = bx2;
+			y2 = by2;
+		} else {
+			x1 = Math.min(x1, bx1);
+			y1 = Math.min(y1, by1);
+			x2 = Math.max(x2, bx2);
+			y2 = Math.max(y2, by2);
+		}
+	}
+
+	private boolean isOnBorder(IRectangle bounds) {
+		return
+			bounds.getX() == x1 ||
+			bounds.getY() == y1 ||
+			bounds.getX() + bounds.getWidth() == x2 ||
+			bounds.getY() + bounds.getHeight() == y2;
+	}
+
+	private static boolean contains(IRectangle outer, IRectangle inner) {
+		return
+			outer.getX() <= inner.getX() &&
+			outer.getY() <= inner.getY() &&
+			outer.getX() + outer.getWidth() >= inner.getX() + inner.getWidth() &&
+			outer.getY() + outer.getHeight() >= inner.getY() + inner.getHeight();
+	}
+
+	/**
+	 * Returns true if the given child contributes to the bounding box,
+	 * as defined by {@link LayoutUtil#getBBox(java.util.List, IRectangle, int, int)}
+	 *
+	 * @param shape
+	 * @return
+	 */
+	private static boolean isIncluded(Shape shape) {
+		return
+			shape instanceof ContainerShape &&
+			shape.getGraphicsAlgorithm() != null &&
+			shape.getLink() != null &&
+			!ScrollUtil.isScrollShape(shape);
+	}
+
+	/**
+	 * Returns the bounding box adapter for the given container,
+	 * attaching a new one if it does not exist yet.
+	 *
+	 * @param container
+	 * @return
+	 */
+	public static ChildrenBBoxAdapter get(ContainerShape container) {
+		synchronized (container) {
+			ChildrenBBoxAdapter adapter = (ChildrenBBoxAdapter) EcoreUtil.getExistingAdapter(container, ChildrenBBoxAdapter.class);
+			if (adapter == null) {
+				adapter = new ChildrenBBoxAdapter(container);
+
+				adapter.rescan();
+
+				container.eAdapters().add(adapter);
+			}
+
+			return adapter;
+		}
+	}
+}
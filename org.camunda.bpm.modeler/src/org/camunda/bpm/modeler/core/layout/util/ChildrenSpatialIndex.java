@@ -0,0 +1,276 @@
+package org.camunda.bpm.modeler.core.layout.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.graphiti.datatypes.ILocation;
+import org.eclipse.graphiti.datatypes.IRectangle;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Shape;
+
+/**
+ * Spatial index of the children of a {@link ContainerShape}.
+ *
+ * The children are kept in a uniform grid of cells, based on their bounds relative to the container
+ * (as returned by {@link LayoutUtil#getRelativeBounds(Shape)}). The adapter observes the children
+ * of the container along with their graphics algorithms and updates the grid with each change.
+ *
+ * Queries only visit the cells covered by the queried area instead of all children of the container.
+ *
+ * Use {@link #get(ContainerShape)} to obtain the index for a container.
+ */
+public class ChildrenSpatialIndex extends AbstractChildrenAdapter {
+
+	/**
+	 * Width and height of a grid cell
+	 */
+	private static final int CELL_SIZE = 128;
+
+	/**
+	 * The indexed bounds of the children
+	 */
+	private final Map<Shape, IRectangle> childrenBounds = new HashMap<Shape, IRectangle>();
+
+	/**
+	 * The children overlapping a cell, by cell key
+	 */
+	private final Map<Long, List<Shape>> cells = new HashMap<Long, List<Shape>>();
+
+	private ChildrenSpatialIndex(ContainerShape container) {
+		super(container);
+	}
+
+	/**
+	 * Returns the children which intersect with or touch the given bounds
+	 *
+	 * @param bounds relative to the containers coordinate system
+	 * @return
+	 */
+	public synchronized List<Shape> getIntersecting(IRectangle bounds) {
+		List<Shape> result = new ArrayList<Shape>();
+
+		for (Shape shape : getCandidates(bounds)) {
+			if (intersects(childrenBounds.get(shape), bounds)) {
+				result.add(shape);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the children which lie completely inside the given bounds
+	 *
+	 * @param bounds relative to the containers coordinate system
+	 * @return
+	 */
+	public synchronized List<Shape> getContained(IRectangle bounds) {
+		List<Shape> result = new ArrayList<Shape>();
+
+		for (Shape shape : getCandidates(bounds)) {
+			if (contains(bounds, childrenBounds.get(shape))) {
+				result.add(shape);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the children whose bounds contain the given point
+	 *
+	 * @param location relative to the containers coordinate system
+	 * @return
+	 */
+	public synchronized List<Shape> getAt(ILocation location) {
+		int x = location.getX();
+		int y = location.getY();
+
+		List<Shape> cell = cells.get(key(cell(x), cell(y)));
+		if (cell == null) {
+			return Collections.emptyList();
+		}
+
+		List<Shape> result = new ArrayList<Shape>();
+
+		for (Shape shape : cell) {
+			IRectangle bounds = childrenBounds.get(shape);
+
+			if (bounds.getX() <= x && x <= bounds.getX() + bounds.getWidth() &&
+				bounds.getY() <= y && y <= bounds.getY() + bounds.getHeight()) {
+
+				result.add(shape);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of indexed children
+	 *
+	 * @return
+	 */
+	public synchronized int size() {
+		return childrenBounds.size();
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == ChildrenSpatialIndex.class;
+	}
+
+	@Override
+	protected void childChanged(Shape shape) {
+		update(shape);
+	}
+
+	@Override
+	protected void childRemoved(Shape shape) {
+		remove(shape);
+	}
+
+	/**
+	 * Updates the indexed bounds of the given child
+	 *
+	 * @param shape
+	 */
+	private void update(Shape shape) {
+		remove(shape);
+
+		if (shape.getGraphicsAlgorithm() == null) {
+			return;
+		}
+
+		IRectangle bounds = LayoutUtil.getRelativeBounds(shape);
+		childrenBounds.put(shape, bounds);
+
+		int cx2 = cell(bounds.getX() + bounds.getWidth());
+		int cy2 = cell(bounds.getY() + bounds.getHeight());
+
+		for (int cx = cell(bounds.getX()); cx <= cx2; cx++) {
+			for (int cy = cell(bounds.getY()); cy <= cy2; cy++) {
+				Long key = key(cx, cy);
+
+				List<Shape> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<Shape>(4);
+					cells.put(key, cell);
+				}
+
+				cell.add(shape);
+			}
+		}
+	}
+
+	private void remove(Shape shape) {
+		IRectangle bounds = childrenBounds.remove(shape);
+		if (bounds == null) {
+			return;
+		}
+
+		int cx2 = cell(bounds.getX() + bounds.getWidth());
+		int cy2 = cell(bounds.getY() + bounds.getHeight());
+
+		for (int cx = cell(bounds.getX()); cx <= cx2; cx++) {
+			for (int cy = cell(bounds.getY()); cy <= cy2; cy++) {
+				Long key = key(cx, cy);
+
+				List<Shape> cell = cells.get(key);
+				if (cell == null) {
+					continue;
+				}
+
+				cell.remove(shape);
+				if (cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the children in the cells covered by the given bounds
+	 */
+	private Collection<Shape> getCandidates(IRectangle bounds) {
+		int cx1 = cell(bounds.getX());
+		int cy1 = cell(bounds.getY());
+		int cx2 = cell(bounds.getX() + bounds.getWidth());
+		int cy2 = cell(bounds.getY() + bounds.getHeight());
+
+		// large area, cheaper to check all children
+		if ((long) (cx2 - cx1 + 1) * (cy2 - cy1 + 1) > cells.size()) {
+			return childrenBounds.keySet();
+		}
+
+		Set<Shape> candidates = new HashSet<Shape>();
+
+		for (int cx = cx1; cx <= cx2; cx++) {
+			for (int cy = cy1; cy <= cy2; cy++) {
+				List<Shape> cell = cells.get(key(cx, cy));
+				if (cell != null) {
+					candidates.addAll(cell);
+				}
+			}
+		}
+
+		return candidates;
+	}
+
+	private static int cell(int coordinate) {
+		if (coordinate >= 0) {
+			return coordinate / CELL_SIZE;
+		} else {
+			return -((-coordinate - 1) / CELL_SIZE) - 1;
+		}
+	}
+
+	private static Long key(int cx, int cy) {
+		return ((long) cx << 32) | (cy & 0xffffffffL);
+	}
+
+	private static boolean intersects(IRectangle r1, IRectangle r2) {
+		return
+			r1.getX() <= r2.getX() + r2.getWidth() &&
+			r2.getX() <= r1.getX() + r1.getWidth() &&
+			r1.getY() <= r2.getY() + r2.getHeight() &&
+			r2.getY() <= r1.getY() + r1.getHeight();
+	}
+
+	private static boolean contains(IRectangle outer, IRectangle inner) {
+		return
+			outer.getX() <= inner.getX() &&
+			outer.getY() <= inner.getY() &&
+			outer.getX() + outer.getWidth() >= inner.getX() + inner.getWidth() &&
+			outer.getY() + outer.getHeight() >= inner.getY() + inner.getHeight();
+	}
+
+	/**
+	 * Returns the spatial index for the given container,
+	 * attaching a new one if it does not exist yet.
+	 *
+	 * @param container
+	 * @return
+	 */
+	public static ChildrenSpatialIndex get(ContainerShape container) {
+		synchronized (container) {
+			ChildrenSpatialIndex index = (ChildrenSpatialIndex) EcoreUtil.getExistingAdapter(container, ChildrenSpatialIndex.class);
+			if (index == null) {
+				index = new ChildrenSpatialIndex(container);
+
+				index.rescan();
+
+				container.eAdapters().add(index);
+			}
+
+			return index;
+		}
+	}
+}
@@ -771,7 +771,15 @@ public class LayoutUtil {
 	 * @return the bounding box, relative to the shapes coordinate system.
 	 */
 	public static IRectangle getChildrenBBox(ContainerShape container, IRectangle minBBox, int paddingX, int paddingY) {
-		return getBBox(container.getChildren(), minBBox, paddingX, paddingY);
+		BBox bbox = new BBox(minBBox, paddingX, paddingY);
+
+		// the bounding box of the children is tracked incrementally
+		IRectangle childrenBounds = ChildrenBBoxAdapter.get(container).getBounds();
+		if (childrenBounds != null) {
+			bbox.addBounds(childrenBounds);
+		}
+
+		return bbox.getBounds();
 	}
 
 	/**
@@ -26,14 +26,12 @@
  */
 package org.camunda.bpm.modeler.core.model;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.modeler.core.Activator;
+import org.camunda.bpm.modeler.core.preferences.BPMNDIDefaults;
 import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
 import org.camunda.bpm.modeler.core.runtime.TargetRuntime;
 import org.camunda.bpm.modeler.core.utils.ModelUtil;
@@ -43,7 +41,6 @@ import org.eclipse.bpmn2.Import;
 import org.eclipse.bpmn2.ItemDefinition;
 import org.eclipse.bpmn2.Lane;
 import org.eclipse.bpmn2.Participant;
-import org.eclipse.bpmn2.RootElement;
 import org.eclipse.bpmn2.di.BPMNDiagram;
 import org.eclipse.bpmn2.di.BPMNEdge;
 import org.eclipse.bpmn2.di.BPMNLabel;
@@ -55,13 +52,11 @@ import org.eclipse.bpmn2.util.QNameURIHandler;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.dd.dc.Bounds;
-import org.eclipse.dd.dc.DcFactory;
 import org.eclipse.dd.dc.DcPackage;
 import org.eclipse.dd.dc.Point;
 import org.eclipse.dd.di.DiPackage;
 import org.eclipse.dd.di.DiagramElement;
 import org.eclipse.emf.common.util.EList;
-import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
@@ -72,9 +67,11 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.ExtendedMetaData;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
 import org.eclipse.emf.ecore.xmi.XMLLoad;
+import org.eclipse.emf.ecore.xmi.XMLParserPool;
 import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.emf.ecore.xmi.XMLSave;
 import org.eclipse.emf.ecore.xmi.impl.XMLLoadImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMLParserPoolImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMLSaveImpl;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -87,6 +84,13 @@ import org.xml.sax.helpers.DefaultHandler;
 public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
 
 	public static final String BPMN2_CONTENT_TYPE_ID = "org.eclipse.bpmn2.content-type.xml";
+	
+	/**
+	 * Parsers shared among all resources; creating and configuring a 
+	 * parser is costly compared to loading a small document
+	 */
+	private static final XMLParserPool PARSER_POOL = new XMLParserPoolImpl();
+	
 	protected BpmnXmlHelper xmlHelper;
 	protected QNameURIHandler uriHandler;
 	public HashMap xmlNameToFeatureMap = new HashMap();
@@ -113,6 +117,7 @@ public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
 //        this.getDefaultLoadOptions().put(XMLResource.OPTION_RECORD_UNKNOWN_FEATURE, true);
 //        this.getDefaultLoadOptions().put(XMLResource.OPTION_ANY_TYPE, BpmnDiPackage.eINSTANCE.getBPMNPlane());
         this.getDefaultLoadOptions().put(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP, xmlNameToFeatureMap);
+        this.getDefaultLoadOptions().put(XMLResource.OPTION_USE_PARSER_POOL, PARSER_POOL);
 
         // only necessary if this resource will not be added to a ResourceSet instantly
         this.eAdapters().add(oppositeReferenceAdapter);
@@ -186,7 +191,16 @@ public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
 	 */
 	protected static class Bpmn2ModelerXmlHandler extends BpmnXmlHandler {
 
-		Bpmn2Preferences prefs = null;
+		/**
+		 * Defaults for BPMN DI attributes; captured once per load
+		 */
+		protected BPMNDIDefaults diDefaults = null;
+		
+		/**
+		 * The elements parsed so far by their ids; first come first serve
+		 * in case of duplicate ids
+		 */
+		protected Map<Object, EObject> idToEObjectMap = new HashMap<Object, EObject>();
 		
 		public Bpmn2ModelerXmlHandler(XMLResource xmiResource, XMLHelper helper, Map<?, ?> options) {
 			super(xmiResource, helper, options);
@@ -195,17 +209,14 @@ public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
 		@Override
 		protected void handleObjectAttribs(EObject obj) {
 			super.handleObjectAttribs(obj);
+			
+			registerId(obj);
+			
 			if (obj instanceof BPMNShape) {
 				BPMNShape bpmnShape = (BPMNShape)obj;
 
-				Hashtable<String,String> map = new Hashtable<String,String>();
 				if (attribs != null) {
-					for (int i = 0, size = attribs.getLength(); i < size; ++i) {
-						String key = attribs.getQName(i);
-						String value = attribs.getValue(i);
-						map.put(key, value);
-					}
-					Bpmn2Preferences.getInstance(this.resourceURI).applyBPMNDIDefaults(bpmnShape, map);
+					getDiDefaults().apply(bpmnShape, attribs);
 				}
 			}
 			else if (obj instanceof ItemDefinition) {
@@ -238,33 +249,24 @@ public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
 		@Override
 		protected void setValueFromId(EObject object, EReference eReference, String ids) {
 
-			for (EObject o : objects) {
-				TreeIterator<EObject> iter = o.eAllContents();
-				while (iter.hasNext()) {
-					EObject obj = iter.next();
-					EStructuralFeature feature = obj.eClass().getEIDAttribute();
-					if (feature != null && obj.eGet(feature) != null) {
-						Object id = obj.eGet(feature);
-						if (id != null && id.equals(ids)) {
-							try {
-								if (object.eGet(eReference) instanceof EList) {
-									((EList)object.eGet(eReference)).add(obj);
-								}
-								else {
-									object.eSet(eReference, obj);
-								}
-							} catch (Exception e) {
-								String msg = "Invalid or unknown reference from:\n  " +
-										object + "\nfeature:\n  " + eReference +
-										"\nto:\n  " + obj;
-								IStatus s = new Status(Status.ERROR, Activator.PLUGIN_ID,
-										msg, e);
-								Activator.getDefault().logStatus(s);
-							}
-							return;
-						}
+			EObject obj = idToEObjectMap.get(ids);
+			if (obj != null) {
+				try {
+					if (object.eGet(eReference) instanceof EList) {
+						((EList)object.eGet(eReference)).add(obj);
+					}
+					else {
+						object.eSet(eReference, obj);
 					}
+				} catch (Exception e) {
+					String msg = "Invalid or unknown reference from:\n  " +
+							object + "\nfeature:\n  " + eReference +
+							"\nto:\n  " + obj;
+					IStatus s = new Status(Status.ERROR, Activator.PLUGIN_ID,
+							msg, e);
+					Activator.getDefault().logStatus(s);
 				}
+				return;
 			}
 
 			// hack to handle QNames and arbitrary strings in structureRefs
@@ -275,9 +277,37 @@ public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
 
 			super.setValueFromId(object, eReference, ids);
 		}
+		
+		protected BPMNDIDefaults getDiDefaults() {
+			if (diDefaults == null) {
+				diDefaults = Bpmn2Preferences.getInstance(resourceURI).getBPMNDIDefaults();
+			}
+			
+			return diDefaults;
+		}
+		
+		/**
+		 * Registers the id of the given element, making it available 
+		 * for resolving id references in constant time.
+		 * 
+		 * @param obj
+		 */
+		protected void registerId(EObject obj) {
+			EStructuralFeature feature = obj.eClass().getEIDAttribute();
+			if (feature == null) {
+				return;
+			}
+			
+			Object id = obj.eGet(feature);
+			if (id != null && !idToEObjectMap.containsKey(id)) {
+				idToEObjectMap.put(id, obj);
+			}
+		}
 	}
 	
 	public static class Bpmn2ModelerXMLSave extends XMLSaveImpl {
+		private static final DcPackage DC_PACKAGE = DcPackage.eINSTANCE;
+		
 		protected float minX = Float.MAX_VALUE;
 		protected float minY = Float.MAX_VALUE;
 
@@ -291,11 +321,15 @@ public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
 			super.init(resource, options);
 			featureTable = new Bpmn2ModelerXMLSave.Bpmn2Lookup(map, extendedMetaData, elementHandler);
 			
-			final List<BPMNDiagram> diagrams = getAll(BPMNDiagram.class, resource);
-			for (BPMNDiagram bpmnDiagram : diagrams) {
-				findMinXY(bpmnDiagram);
-			}
+			minX = Float.MAX_VALUE;
+			minY = Float.MAX_VALUE;
 			
+			Definitions definitions = ImportHelper.getDefinitions(resource);
+			if (definitions != null) {
+				for (BPMNDiagram bpmnDiagram : definitions.getDiagrams()) {
+					findMinXY(bpmnDiagram);
+				}
+			}
 		}
 		
         @Override
@@ -319,152 +353,80 @@ public class Bpmn2ModelerResourceImpl extends Bpmn2ResourceImpl {
             	return true;
             }
             
+            // shifted coordinates are no default values anymore
+            if ((f == DC_PACKAGE.getPoint_X() && minX < 0) || (f == DC_PACKAGE.getPoint_Y() && minY < 0)) {
+            	return true;
+            }
+            
             return super.shouldSaveFeature(o, f);
         }
 		
-		protected <T> List<T> getAll(Class<T> class1, Resource resource) {
-			ArrayList<T> l = new ArrayList<T>();
-			TreeIterator<EObject> contents = resource.getAllContents();
-			for (; contents.hasNext();) {
-				Object t = contents.next();
-				if (class1.isInstance(t)) {
-					l.add((T) t);
-				}
-			}
-			return l;
-		}
-		
+		/**
+		 * Computes the minimal coordinates of the diagram elements of the
+		 * given diagram
+		 * 
+		 * @param bpmnDiagram
+		 */
 		protected void findMinXY(BPMNDiagram bpmnDiagram) {
-			EList<DiagramElement> elements = (EList<DiagramElement>) bpmnDiagram.getPlane().getPlaneElement();
-			for (DiagramElement e : elements) {
+			if (bpmnDiagram.getPlane() == null) {
+				return;
+			}
+			
+			for (DiagramElement e : bpmnDiagram.getPlane().getPlaneElement()) {
 				if (e instanceof BPMNShape) {
-					Bounds b = ((BPMNShape)e).getBounds();
-					minX = Math.min(minX, b.getX());
-					minY = Math.min(minY, b.getY());
+					updateMinXY(((BPMNShape) e).getBounds());
 				}
 				else if (e instanceof BPMNEdge) {
-					List<Point> points = ((BPMNEdge)e).getWaypoint();
-					for (Point p : points) {
+					for (Point p : ((BPMNEdge) e).getWaypoint()) {
 						minX = Math.min(minX, p.getX());
 						minY = Math.min(minY, p.getY());
 					}
-
 				}
 				else if (e instanceof BPMNLabel) {
-					Bounds b = ((BPMNLabel)e).getBounds();
-					minX = Math.min(minX, b.getX());
-					minY = Math.min(minY, b.getY());
+					updateMinXY(((BPMNLabel) e).getBounds());
 				}
 			}
 		}
 
+		private void updateMinXY(Bounds b) {
+			if (b != null) {
+				minX = Math.min(minX, b.getX());
+				minY = Math.min(minY, b.getY());
+			}
+		}
+		
+		/**
+		 * Shifts the coordinates of bounds and waypoints into the positive range 
+		 * as they are written. The model itself is not modified.
+		 */
 		@Override
-		protected void saveElement(EObject o, EStructuralFeature f) {
-			float oldX = 0, oldY = 0;
-			List<Point> oldPoints = null;
-			
-			if (minX<0 || minY<0) {
-				if (o instanceof BPMNShape) {
-					Bounds b = ((BPMNShape)o).getBounds();
-					b.eSetDeliver(false);
-					if (minX<0) {
-						oldX = b.getX();
-						b.setX(oldX - minX);
-					}
-					if (minY<0) {
-						oldY = b.getY();
-						b.setY(oldY - minY);
-					}
-				}
-				else if (o instanceof BPMNEdge) {
-					List<Point> points = ((BPMNEdge)o).getWaypoint();
-					oldPoints = new ArrayList<Point>();
-					for (Point p : points) {
-						p.eSetDeliver(false);
-						Point oldPoint = DcFactory.eINSTANCE.createPoint();
-						oldPoint.setX(p.getX());
-						oldPoint.setY(p.getY());
-						oldPoints.add(oldPoint);
-						if (minX<0)
-							p.setX( p.getX() - minX);
-						if (minY<0)
-							p.setY( p.getY() - minY);
-					}
-				}
-				else if (o instanceof BPMNLabel) {
-					Bounds b = ((BPMNLabel)o).getBounds();
-					if (b!=null) {
-						b.eSetDeliver(false);
-						if (minX<0) {
-							oldX = b.getX();
-							b.setX(oldX - minX);
-						}
-						if (minY<0) {
-							oldY = b.getY();
-							b.setY(oldY - minY);
-						}
-					}
+		protected String getDatatypeValue(Object value, EStructuralFeature f, boolean isAttribute) {
+			if (value instanceof Float) {
+				float offset = getOffset(f);
+				if (offset != 0) {
+					value = (Float) value - offset;
 				}
 			}
 			
-			super.saveElement(o, f);
-			
-			if (minX<0 || minY<0) {
-				if (o instanceof BPMNShape) {
-					Bounds b = ((BPMNShape)o).getBounds();
-					if (minX<0) {
-						b.setX(oldX);
-					}
-					if (minY<0) {
-						b.setY(oldY);
-					}
-					b.eSetDeliver(true);
-				}
-				else if (o instanceof BPMNEdge) {
-					List<Point> points = ((BPMNEdge)o).getWaypoint();
-					int index = 0;
-					for (Point p : points) {
-						if (minX<0)
-							p.setX(oldPoints.get(index).getX());
-						if (minY<0)
-							p.setY(oldPoints.get(index).getY());
-						p.eSetDeliver(true);
-						++index;
-					}
-				}
-				else if (o instanceof BPMNLabel) {
-					Bounds b = ((BPMNLabel)o).getBounds();
-					if (b!=null) {
-						if (minX<0) {
-							b.setX(oldX);
-						}
-						if (minY<0) {
-							b.setY(oldY);
-						}
-						b.eSetDeliver(true);
-					}
-				}
-			}
+			return super.getDatatypeValue(value, f, isAttribute);
 		}
 
-		@Override
-		public void traverse(List<? extends EObject> contents) {
-			for (EObject e : contents) {
-				if (e instanceof Definitions) {
-					List<RootElement> roots = ((Definitions) e).getRootElements();
-					Process p = null;
-					for (RootElement root : roots) {
-						if (root instanceof Process) {
-							p = (Process) root;
-						}
-					}
-					if (p != null) {
-						((Definitions) e).getRootElements().remove(p);
-						((Definitions) e).getRootElements().add((RootElement) p);
-					}
-				}
+		/**
+		 * Returns the offset to subtract from values of the given feature
+		 * 
+		 * @param f
+		 * @return
+		 */
+		protected float getOffset(EStructuralFeature f) {
+			if (minX < 0 && (f == DC_PACKAGE.getBounds_X() || f == DC_PACKAGE.getPoint_X())) {
+				return minX;
+			}
+			
+			if (minY < 0 && (f == DC_PACKAGE.getBounds_Y() || f == DC_PACKAGE.getPoint_Y())) {
+				return minY;
 			}
-			super.traverse(contents);
+			
+			return 0;
 		}
 
 		public static class Bpmn2Lookup extends XMLSaveImpl.Lookup {
@@ -46,10 +46,25 @@ public class Bpmn2ModelerResourceSetImpl extends ResourceSetImpl implements IRes
 	private String connectionTimeout;
 	private String readTimeout;
 
+	/**
+	 * Whether imported resources are obtained from the {@link ImportedResourceCache}
+	 */
+	private boolean shareImports = true;
+
 	public Bpmn2ModelerResourceSetImpl() {
 		super();
 	}
 
+	/**
+	 * Sets whether imported resources are obtained from the shared 
+	 * {@link ImportedResourceCache} or loaded into this resource set.
+	 * 
+	 * @param shareImports
+	 */
+	public void setShareImports(boolean shareImports) {
+		this.shareImports = shareImports;
+	}
+
 	/**
 	 * Used to force loading using the right resource loaders.
 	 */
@@ -70,6 +85,13 @@ public class Bpmn2ModelerResourceSetImpl extends ResourceSetImpl implements IRes
 		EObject o = null;
 		if (uri!=null) {
 			if (uri.fragment()!=null) {
+				if (loadOnDemand) {
+					o = getSharedEObject(uri);
+					if (o != null) {
+						return o;
+					}
+				}
+				
 				setDefaultTimeoutProperties();
 				o = super.getEObject(uri, loadOnDemand);
 				restoreTimeoutProperties();
@@ -80,6 +102,32 @@ public class Bpmn2ModelerResourceSetImpl extends ResourceSetImpl implements IRes
 		return o;
 	}
 
+	/**
+	 * Returns the object with the given uri from the shared imported resources 
+	 * if it is not part of a resource loaded into this resource set.
+	 * 
+	 * @param uri
+	 * @return
+	 */
+	private EObject getSharedEObject(URI uri) {
+		URI resourceURI = uri.trimFragment();
+		
+		if (!shareImports || !ImportedResourceCache.isCacheable(resourceURI)) {
+			return null;
+		}
+		
+		if (getResource(resourceURI, false) != null) {
+			return null;
+		}
+		
+		setDefaultTimeoutProperties();
+		try {
+			return ImportedResourceCache.getInstance().getEObject(uri);
+		} finally {
+			restoreTimeoutProperties();
+		}
+	}
+
 	private void saveTimeoutProperties() {
 		if (connectionTimeout==null) {
 			connectionTimeout = System.getProperty("sun.net.client.defaultConnectTimeout");
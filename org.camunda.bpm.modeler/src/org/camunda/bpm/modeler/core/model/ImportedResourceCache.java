@@ -0,0 +1,484 @@
+package org.camunda.bpm.modeler.core.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.modeler.core.Activator;
+import org.camunda.bpm.modeler.core.ProxyURIConverterImplExtension;
+import org.camunda.bpm.modeler.runtime.engine.model.util.ModelResourceFactoryImpl;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.command.Command;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
+import org.eclipse.emf.transaction.NotificationFilter;
+import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.RollbackException;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalCommandStack;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.impl.TransactionalEditingDomainImpl;
+
+/**
+ * Workspace wide cache of imported resources (WSDL, XSD and referenced BPMN files).
+ *
+ * The imported resources are parsed once into a resource set owned by the cache and shared
+ * by all {@link Bpmn2ModelerResourceSetImpl}s, i.e. the resource sets of open editors and
+ * of validation runs. Proxies pointing into an imported resource resolve to the objects
+ * of the shared resource.
+ *
+ * The shared resources are read only: they belong to an editing domain of the cache which
+ * rolls back every write transaction, while modifications outside of a transaction fail.
+ * As they are read concurrently, the cache changes them only while holding its lock, i.e.
+ * when loading a resource, looking up an object or evicting a resource. When loading a
+ * resource all of its references are resolved and its derived features are computed, so
+ * that reading it later on does not change it anymore.
+ *
+ * Entries are keyed by the normalized resource URI, files in the workspace by their platform
+ * resource URI, and reloaded once the modification stamp of the underlying file changes. The least recently used entries are evicted as soon as the
+ * number of cached resources or their accumulated file size exceed the configured limits.
+ * Evicted resources are removed from the shared resource set without being unloaded, so
+ * that objects still referenced by open editors remain valid.
+ *
+ * Use {@link #getInstance()} to obtain the cache.
+ */
+public class ImportedResourceCache {
+
+	private static final Set<String> CACHEABLE_EXTENSIONS = new HashSet<String>(Arrays.asList("wsdl", "xsd", "bpmn", "bpmn2")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	private static final int MAX_ENTRIES = 200;
+
+	/**
+	 * Maximum accumulated size of the cached files in bytes
+	 */
+	private static final long MAX_SIZE = 32 * 1024 * 1024;
+
+	/**
+	 * Size assumed for files whose size cannot be determined
+	 */
+	private static final long DEFAULT_SIZE = 64 * 1024;
+
+	private static final long NO_TIME_STAMP = -1;
+
+	private static ImportedResourceCache instance;
+
+	private final int maxEntries;
+
+	private final long maxSize;
+
+	private final Bpmn2ModelerResourceSetImpl resourceSet;
+
+	private final TransactionalEditingDomain editingDomain;
+
+	/**
+	 * The thread currently permitted to change the shared resources, if any
+	 */
+	private volatile Thread writer;
+
+	/**
+	 * Cached entries in access order, least recently used first
+	 */
+	private final LinkedHashMap<URI, Entry> entries = new LinkedHashMap<URI, Entry>(16, 0.75f, true);
+
+	private long size = 0;
+
+	public ImportedResourceCache(int maxEntries, long maxSize) {
+		this.maxEntries = maxEntries;
+		this.maxSize = maxSize;
+
+		resourceSet = new Bpmn2ModelerResourceSetImpl();
+		resourceSet.setShareImports(false);
+		resourceSet.setURIConverter(new ProxyURIConverterImplExtension());
+		resourceSet.getResourceFactoryRegistry().getContentTypeToFactoryMap()
+			.put(Bpmn2ModelerResourceImpl.BPMN2_CONTENT_TYPE_ID, new ModelResourceFactoryImpl());
+
+		editingDomain = new TransactionalEditingDomainImpl(new ComposedAdapterFactory(ComposedAdapterFactory.Descriptor.Registry.INSTANCE), resourceSet) {
+
+			@Override
+			public boolean isReadOnly(Resource resource) {
+				return true;
+			}
+		};
+
+		editingDomain.addResourceSetListener(new ReadOnlyListener());
+	}
+
+	/**
+	 * Returns the object identified by the given uri from the shared imported resource
+	 *
+	 * @param uri
+	 * @return the object or null if the resource could not be loaded or does not contain the object
+	 */
+	public EObject getEObject(URI uri) {
+		final Resource resource = getResource(uri.trimFragment());
+		if (resource == null) {
+			return null;
+		}
+
+		final String fragment = uri.fragment();
+		final EObject[] result = new EObject[1];
+
+		synchronized (this) {
+			// the lookup may create placeholders for unresolvable references, e.g. in XSD
+			modify(new Runnable() {
+
+				@Override
+				public void run() {
+					result[0] = resource.getEObject(fragment);
+				}
+			});
+		}
+
+		return result[0];
+	}
+
+	/**
+	 * Returns the shared resource with the given uri, loading it if it
+	 * is not cached yet or changed since it has been cached.
+	 *
+	 * @param uri
+	 * @return the resource or null if it could not be loaded
+	 */
+	public synchronized Resource getResource(URI uri) {
+
+		uri = normalize(uri);
+
+		Map<String, ?> attributes = getAttributes(uri);
+		long timeStamp = getTimeStamp(attributes);
+
+		Entry entry = entries.get(uri);
+		if (entry != null) {
+			if (entry.timeStamp == timeStamp) {
+				return entry.resource;
+			}
+
+			remove(uri);
+		}
+
+		entry = load(uri, timeStamp, getSize(attributes));
+		if (entry == null) {
+			return null;
+		}
+
+		entries.put(uri, entry);
+		size += entry.size;
+
+		evictLeastRecentlyUsed();
+
+		return entry.resource;
+	}
+
+	/**
+	 * Removes the resource with the given uri from the cache
+	 *
+	 * @param uri
+	 */
+	public synchronized void evict(URI uri) {
+		remove(normalize(uri));
+	}
+
+	/**
+	 * Removes all resources from the cache
+	 */
+	public synchronized void clear() {
+		for (URI uri : new ArrayList<URI>(entries.keySet())) {
+			remove(uri);
+		}
+	}
+
+	public synchronized boolean contains(URI uri) {
+		return entries.containsKey(normalize(uri));
+	}
+
+	/**
+	 * Returns the read only editing domain the shared resources belong to
+	 *
+	 * @return
+	 */
+	public TransactionalEditingDomain getEditingDomain() {
+		return editingDomain;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private void remove(URI uri) {
+		Entry entry = entries.remove(uri);
+		if (entry == null) {
+			return;
+		}
+
+		size -= entry.size;
+
+		removeResources(entry.resources);
+	}
+
+	private void evictLeastRecentlyUsed() {
+		Iterator<Entry> iterator = entries.values().iterator();
+
+		// always keep the most recently used entry
+		while ((entries.size() > maxEntries || size > maxSize) && entries.size() > 1) {
+			Entry entry = iterator.next();
+
+			iterator.remove();
+			size -= entry.size;
+
+			removeResources(entry.resources);
+		}
+	}
+
+	private void removeResources(final List<Resource> resources) {
+		modify(new Runnable() {
+
+			@Override
+			public void run() {
+				resourceSet.getResources().removeAll(resources);
+			}
+		});
+	}
+
+	/**
+	 * Loads the resource with the given uri, resolving all of its references and computing
+	 * its derived features so that it does not change anymore when being read by the
+	 * resource sets sharing it.
+	 */
+	private Entry load(final URI uri, long timeStamp, long size) {
+		final List<Resource> resources = resourceSet.getResources();
+
+		final int loadedIndex = resources.size();
+
+		final Resource[] resource = new Resource[1];
+
+		modify(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					resource[0] = resourceSet.getResource(uri, true);
+
+					EcoreUtil.resolveAll(resource[0]);
+
+					computeDerivedFeatures(resource[0]);
+
+					for (Resource loadedResource : new ArrayList<Resource>(resources.subList(loadedIndex, resources.size()))) {
+						if (loadedResource != resource[0]) {
+							computeDerivedFeatures(loadedResource);
+						}
+					}
+				} catch (RuntimeException e) {
+					Activator.logError(e);
+				}
+			}
+		});
+
+		// the resource along with the resources loaded while resolving its references
+		List<Resource> loaded = new ArrayList<Resource>(resources.subList(loadedIndex, resources.size()));
+
+		if (resource[0] == null) {
+			removeResources(loaded);
+			return null;
+		}
+
+		if (!loaded.contains(resource[0])) {
+			loaded.add(resource[0]);
+		}
+
+		return new Entry(resource[0], loaded, timeStamp, size);
+	}
+
+	/**
+	 * Reads all features of the objects in the given resource once, so that lazily
+	 * computed state (as maintained by XSD components) is initialized.
+	 */
+	private static void computeDerivedFeatures(Resource resource) {
+		List<EObject> objects = new ArrayList<EObject>();
+
+		for (Iterator<EObject> iterator = resource.getAllContents(); iterator.hasNext();) {
+			objects.add(iterator.next());
+		}
+
+		for (EObject object : objects) {
+			for (EStructuralFeature feature : object.eClass().getEAllStructuralFeatures()) {
+				if (!feature.isDerived() && !feature.isTransient()) {
+					continue;
+				}
+
+				try {
+					Object value = object.eGet(feature, true);
+					if (value instanceof Collection) {
+						((Collection<?>) value).size();
+					}
+				} catch (RuntimeException e) {
+					// not computable, ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the given runnable in a transaction which is permitted to change the
+	 * shared resources and is not recorded for undo. Must hold the lock of the cache.
+	 */
+	private void modify(final Runnable runnable) {
+		TransactionalCommandStack commandStack = (TransactionalCommandStack) editingDomain.getCommandStack();
+
+		writer = Thread.currentThread();
+
+		try {
+			commandStack.execute(new RecordingCommand(editingDomain) {
+
+				@Override
+				protected void doExecute() {
+					runnable.run();
+				}
+			}, Collections.singletonMap(Transaction.OPTION_NO_UNDO, Boolean.TRUE));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RollbackException e) {
+			Activator.logStatus(e.getStatus());
+		} finally {
+			writer = null;
+
+			commandStack.flush();
+		}
+	}
+
+	/**
+	 * Returns the key of the given uri, i.e. its normalized form; files in the
+	 * workspace are identified by their platform resource uri.
+	 */
+	private URI normalize(URI uri) {
+		URI normalized = resourceSet.getURIConverter().normalize(uri);
+
+		if (normalized.isFile()) {
+			try {
+				IFile file = ResourcesPlugin.getWorkspace().getRoot().getFileForLocation(new Path(normalized.toFileString()));
+				if (file != null) {
+					return URI.createPlatformResourceURI(file.getFullPath().toString(), true);
+				}
+			} catch (IllegalStateException e) {
+				// workspace is closed
+			}
+		}
+
+		return normalized;
+	}
+
+	private Map<String, ?> getAttributes(URI uri) {
+
+		// remote resources are not checked for modifications
+		if (!uri.isFile() && !uri.isPlatformResource()) {
+			return Collections.emptyMap();
+		}
+
+		Set<String> requestedAttributes = new HashSet<String>(Arrays.asList(URIConverter.ATTRIBUTE_TIME_STAMP, URIConverter.ATTRIBUTE_LENGTH));
+
+		try {
+			return resourceSet.getURIConverter().getAttributes(uri, Collections.singletonMap(URIConverter.OPTION_REQUESTED_ATTRIBUTES, requestedAttributes));
+		} catch (RuntimeException e) {
+			return Collections.emptyMap();
+		}
+	}
+
+	private static long getTimeStamp(Map<String, ?> attributes) {
+		Object timeStamp = attributes.get(URIConverter.ATTRIBUTE_TIME_STAMP);
+		if (timeStamp instanceof Long) {
+			return (Long) timeStamp;
+		} else {
+			return NO_TIME_STAMP;
+		}
+	}
+
+	private static long getSize(Map<String, ?> attributes) {
+		Object length = attributes.get(URIConverter.ATTRIBUTE_LENGTH);
+		if (length instanceof Long && (Long) length > 0) {
+			return (Long) length;
+		} else {
+			return DEFAULT_SIZE;
+		}
+	}
+
+	/**
+	 * Returns true if resources with the given uri may be shared via the cache
+	 *
+	 * @param uri
+	 * @return
+	 */
+	public static boolean isCacheable(URI uri) {
+		String extension = uri.fileExtension();
+
+		return extension != null && CACHEABLE_EXTENSIONS.contains(extension.toLowerCase());
+	}
+
+	public static synchronized ImportedResourceCache getInstance() {
+		if (instance == null) {
+			instance = new ImportedResourceCache(MAX_ENTRIES, MAX_SIZE);
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Rolls back all transactions changing the shared resources, except for those of the cache
+	 */
+	private class ReadOnlyListener extends ResourceSetListenerImpl {
+
+		public ReadOnlyListener() {
+			super(NotificationFilter.NOT_TOUCH);
+		}
+
+		@Override
+		public boolean isPrecommitOnly() {
+			return true;
+		}
+
+		@Override
+		public Command transactionAboutToCommit(ResourceSetChangeEvent event) throws RollbackException {
+			if (writer == Thread.currentThread()) {
+				return null;
+			}
+
+			throw new RollbackException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Imported resources are read only")); //$NON-NLS-1$
+		}
+	}
+
+	private static class Entry {
+
+		private final Resource resource;
+
+		/**
+		 * The resources added to the shared resource set when loading the entry
+		 */
+		private final List<Resource> resources;
+
+		private final long timeStamp;
+
+		private final long size;
+
+		public Entry(Resource resource, List<Resource> resources, long timeStamp, long size) {
+			this.resource = resource;
+			this.resources = resources;
+			this.timeStamp = timeStamp;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package org.camunda.bpm.modeler.core.model.index;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Base class for indexes which are attached to a {@link Resource} and kept
+ * in sync with its containment tree.
+ *
+ * Subclasses get notified whenever an element enters ({@link #indexElement(EObject)})
+ * or leaves ({@link #unindexElement(EObject)}) the resource, and may react on
+ * attribute changes via {@link #elementChanged(EObject, Notification)}.
+ *
+ * The index is populated once, when it gets attached to the resource. Afterwards
+ * it is maintained incrementally from model notifications.
+ */
+public abstract class AbstractIndexAdapter extends EContentAdapter {
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+
+		Object notifier = notification.getNotifier();
+		if (notifier instanceof EObject && !notification.isTouch()) {
+			elementChanged((EObject) notifier, notification);
+		}
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		// index parents before their children to retain document order
+		indexElement(target);
+		super.setTarget(target);
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		unindexElement(target);
+	}
+
+	/**
+	 * Do not resolve containment proxies; we index the
+	 * loaded contents of the resource only.
+	 */
+	@Override
+	protected boolean resolve() {
+		return false;
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == getClass();
+	}
+
+	/**
+	 * Called when an element got added to the indexed resource
+	 *
+	 * @param element
+	 */
+	protected abstract void indexElement(EObject element);
+
+	/**
+	 * Called when an element got removed from the indexed resource
+	 *
+	 * @param element
+	 */
+	protected abstract void unindexElement(EObject element);
+
+	/**
+	 * Called when an indexed element changed
+	 *
+	 * @param element
+	 * @param notification
+	 */
+	protected void elementChanged(EObject element, Notification notification) {
+		// do nothing by default
+	}
+
+	/**
+	 * Returns the index of the given type attached to the resource,
+	 * or null if there is none.
+	 *
+	 * @param resource
+	 * @param type
+	 *
+	 * @return
+	 */
+	protected static <T extends AbstractIndexAdapter> T getExisting(Notifier resource, Class<T> type) {
+		return type.cast(EcoreUtil.getExistingAdapter(resource, type));
+	}
+}
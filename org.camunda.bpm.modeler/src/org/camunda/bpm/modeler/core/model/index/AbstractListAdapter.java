@@ -0,0 +1,154 @@
+package org.camunda.bpm.modeler.core.model.index;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Base class for adapters which observe the elements of a multi-valued feature
+ * of an object rather than its whole containment tree.
+ *
+ * The adapter attaches itself to the owner and to each element of the feature.
+ * Subclasses get notified whenever an element is added ({@link #elementAdded(EObject)})
+ * or removed ({@link #elementRemoved(EObject)}), and receive all other notifications
+ * of the observed objects via {@link #elementChanged(Notification)}.
+ *
+ * Notifications are processed while holding the lock of the adapter.
+ *
+ * @param <T> the type of the observed elements
+ */
+public abstract class AbstractListAdapter<T extends EObject> extends AdapterImpl {
+
+	private final EObject owner;
+
+	private final EStructuralFeature feature;
+
+	protected AbstractListAdapter(EObject owner, EStructuralFeature feature) {
+		this.owner = owner;
+		this.feature = feature;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized void notifyChanged(Notification notification) {
+		if (notification.isTouch()) {
+			return;
+		}
+
+		if (notification.getNotifier() != owner || notification.getFeature() != feature) {
+			elementChanged(notification);
+			return;
+		}
+
+		switch (notification.getEventType()) {
+		case Notification.ADD:
+			addElement((T) notification.getNewValue());
+			break;
+		case Notification.ADD_MANY:
+			for (Object element : (Collection<?>) notification.getNewValue()) {
+				addElement((T) element);
+			}
+			break;
+		case Notification.REMOVE:
+			removeElement((T) notification.getOldValue());
+			break;
+		case Notification.REMOVE_MANY:
+			for (Object element : (Collection<?>) notification.getOldValue()) {
+				removeElement((T) element);
+			}
+			break;
+		case Notification.SET:
+			removeElement((T) notification.getOldValue());
+			addElement((T) notification.getNewValue());
+			break;
+		default:
+			// ignore move
+		}
+	}
+
+	@Override
+	public void setTarget(Notifier newTarget) {
+		// observes the owner and the elements of the feature; the owner is the target
+	}
+
+	@Override
+	public Notifier getTarget() {
+		return owner;
+	}
+
+	/**
+	 * Starts observing the current elements of the feature
+	 */
+	@SuppressWarnings("unchecked")
+	protected synchronized void rescan() {
+		for (Object element : (List<?>) owner.eGet(feature)) {
+			addElement((T) element);
+		}
+	}
+
+	/**
+	 * Attaches the adapter to the given notifier
+	 *
+	 * @param notifier
+	 */
+	protected void observe(Notifier notifier) {
+		if (notifier != null && !notifier.eAdapters().contains(this)) {
+			notifier.eAdapters().add(this);
+		}
+	}
+
+	/**
+	 * Detaches the adapter from the given notifier
+	 *
+	 * @param notifier
+	 */
+	protected void unobserve(Notifier notifier) {
+		if (notifier != null) {
+			notifier.eAdapters().remove(this);
+		}
+	}
+
+	/**
+	 * Called after an element got added to the feature and is being observed
+	 *
+	 * @param element
+	 */
+	protected abstract void elementAdded(T element);
+
+	/**
+	 * Called after an element got removed from the feature and is no longer observed
+	 *
+	 * @param element
+	 */
+	protected abstract void elementRemoved(T element);
+
+	/**
+	 * Called for all notifications but the changes of the observed feature
+	 *
+	 * @param notification
+	 */
+	protected abstract void elementChanged(Notification notification);
+
+	private void addElement(T element) {
+		if (element == null) {
+			return;
+		}
+
+		observe(element);
+		elementAdded(element);
+	}
+
+	private void removeElement(T element) {
+		if (element == null) {
+			return;
+		}
+
+		unobserve(element);
+		elementRemoved(element);
+	}
+}
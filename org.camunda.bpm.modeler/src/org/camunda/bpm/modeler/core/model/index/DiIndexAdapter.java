@@ -0,0 +1,179 @@
+package org.camunda.bpm.modeler.core.model.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.bpmn2.BaseElement;
+import org.eclipse.bpmn2.di.BPMNDiagram;
+import org.eclipse.bpmn2.di.BPMNEdge;
+import org.eclipse.bpmn2.di.BPMNPlane;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.bpmn2.di.BpmnDiPackage;
+import org.eclipse.dd.di.DiagramElement;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * Index mapping bpmn elements to the {@link DiagramElement}s ({@link BPMNShape}s,
+ * {@link BPMNEdge}s and {@link BPMNPlane}s) contained in a {@link Resource}
+ * which reference them.
+ *
+ * Allows constant time lookup of the di of an element without scanning the
+ * plane elements of a diagram. The opposite direction is answered by the di
+ * elements themselves (via <code>getBpmnElement()</code>).
+ *
+ * The index is kept in sync with additions and removals of di elements as well
+ * as with changes of the bpmn elements they reference.
+ *
+ * Use {@link #get(Resource)} to obtain the index for a resource.
+ */
+public class DiIndexAdapter extends AbstractIndexAdapter {
+
+	private final Map<BaseElement, List<DiagramElement>> elements = new HashMap<BaseElement, List<DiagramElement>>();
+
+	/**
+	 * Returns all diagram elements referencing the given bpmn element
+	 *
+	 * @param bpmnElement
+	 * @return
+	 */
+	public synchronized List<DiagramElement> getDiagramElements(BaseElement bpmnElement) {
+		List<DiagramElement> diagramElements = elements.get(bpmnElement);
+		if (diagramElements == null) {
+			return Collections.emptyList();
+		}
+
+		return new ArrayList<DiagramElement>(diagramElements);
+	}
+
+	/**
+	 * Returns the diagram element referencing the given bpmn element
+	 * which is contained in the given diagram or null if no such element exists.
+	 *
+	 * If no diagram is given, the first diagram element referencing the bpmn element is returned.
+	 *
+	 * @param bpmnElement
+	 * @param diagram
+	 *
+	 * @return
+	 */
+	public synchronized DiagramElement getDiagramElement(BaseElement bpmnElement, BPMNDiagram diagram) {
+		List<DiagramElement> diagramElements = elements.get(bpmnElement);
+		if (diagramElements == null) {
+			return null;
+		}
+
+		for (DiagramElement diagramElement : diagramElements) {
+			if (diagram == null || getDiagram(diagramElement) == diagram) {
+				return diagramElement;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	protected synchronized void indexElement(EObject element) {
+		BaseElement bpmnElement = getBpmnElement(element);
+		if (bpmnElement != null) {
+			add(bpmnElement, (DiagramElement) element);
+		}
+	}
+
+	@Override
+	protected synchronized void unindexElement(EObject element) {
+		BaseElement bpmnElement = getBpmnElement(element);
+		if (bpmnElement != null) {
+			remove(bpmnElement, (DiagramElement) element);
+		}
+	}
+
+	@Override
+	protected synchronized void elementChanged(EObject element, Notification notification) {
+		Object feature = notification.getFeature();
+		if (feature != BpmnDiPackage.Literals.BPMN_SHAPE__BPMN_ELEMENT &&
+			feature != BpmnDiPackage.Literals.BPMN_EDGE__BPMN_ELEMENT &&
+			feature != BpmnDiPackage.Literals.BPMN_PLANE__BPMN_ELEMENT) {
+			return;
+		}
+
+		Object oldElement = notification.getOldValue();
+		if (oldElement instanceof BaseElement) {
+			remove((BaseElement) oldElement, (DiagramElement) element);
+		}
+
+		Object newElement = notification.getNewValue();
+		if (newElement instanceof BaseElement) {
+			add((BaseElement) newElement, (DiagramElement) element);
+		}
+	}
+
+	private void add(BaseElement bpmnElement, DiagramElement diagramElement) {
+		List<DiagramElement> diagramElements = elements.get(bpmnElement);
+		if (diagramElements == null) {
+			// most elements are shown in a single diagram only
+			diagramElements = new ArrayList<DiagramElement>(1);
+			elements.put(bpmnElement, diagramElements);
+		}
+
+		if (!diagramElements.contains(diagramElement)) {
+			diagramElements.add(diagramElement);
+		}
+	}
+
+	private void remove(BaseElement bpmnElement, DiagramElement diagramElement) {
+		List<DiagramElement> diagramElements = elements.get(bpmnElement);
+		if (diagramElements != null) {
+			diagramElements.remove(diagramElement);
+			if (diagramElements.isEmpty()) {
+				elements.remove(bpmnElement);
+			}
+		}
+	}
+
+	private static BaseElement getBpmnElement(EObject element) {
+		if (element instanceof BPMNShape) {
+			return ((BPMNShape) element).getBpmnElement();
+		} else
+		if (element instanceof BPMNEdge) {
+			return ((BPMNEdge) element).getBpmnElement();
+		} else
+		if (element instanceof BPMNPlane) {
+			return ((BPMNPlane) element).getBpmnElement();
+		} else {
+			return null;
+		}
+	}
+
+	private static BPMNDiagram getDiagram(EObject element) {
+		EObject container = element.eContainer();
+		while (container != null && !(container instanceof BPMNDiagram)) {
+			container = container.eContainer();
+		}
+
+		return (BPMNDiagram) container;
+	}
+
+	/**
+	 * Returns the di index for the given resource, attaching
+	 * a new one if it does not exist yet.
+	 *
+	 * @param resource
+	 * @return
+	 */
+	public static DiIndexAdapter get(Resource resource) {
+		synchronized (resource) {
+			DiIndexAdapter index = getExisting(resource, DiIndexAdapter.class);
+			if (index == null) {
+				index = new DiIndexAdapter();
+				resource.eAdapters().add(index);
+			}
+
+			return index;
+		}
+	}
+}
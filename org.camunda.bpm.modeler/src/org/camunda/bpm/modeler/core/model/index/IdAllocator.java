@@ -0,0 +1,191 @@
+package org.camunda.bpm.modeler.core.model.index;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Allocates unique element ids within a {@link Resource}.
+ *
+ * Ids are composed of a prefix and a sequence number (<code>Task_1</code>, <code>Task_2</code>, ...).
+ * The allocator keeps a counter per prefix so that a new id is found without probing
+ * all previously allocated ones.
+ *
+ * An id is considered taken if an element with that id is contained in the resource
+ * (as tracked by the {@link IdIndexAdapter}) or if it has been handed out for an element
+ * which has not been added to the resource yet. Ids of deleted elements become available
+ * again once the element left the resource.
+ *
+ * All operations are synchronized (on the id index, which keeps the allocator informed
+ * about indexed elements), so the allocator may be used from background jobs (e.g.
+ * validation) as well as from the UI thread.
+ *
+ * Use {@link #get(Resource)} to obtain the allocator for a resource.
+ */
+public class IdAllocator extends AdapterImpl {
+
+	private final IdIndexAdapter index;
+
+	/**
+	 * The next sequence number to try per id prefix
+	 */
+	private final Map<String, Integer> counters = new HashMap<String, Integer>();
+
+	/**
+	 * Ids handed out for elements which have not (yet) been added to the resource
+	 */
+	private final Map<String, WeakReference<EObject>> reserved = new HashMap<String, WeakReference<EObject>>();
+
+	protected IdAllocator(IdIndexAdapter index) {
+		this.index = index;
+	}
+
+	/**
+	 * Called by the index (holding its lock) once an element with the given id 
+	 * entered the resource; the id is tracked by the index from then on.
+	 *
+	 * @param id
+	 * @param element
+	 */
+	void indexed(String id, EObject element) {
+		WeakReference<EObject> reference = reserved.get(id);
+		if (reference != null && reference.get() == element) {
+			reserved.remove(id);
+		}
+	}
+
+	/**
+	 * Allocates a new id with the given prefix for the given element.
+	 *
+	 * @param element the element to allocate the id for
+	 * @param prefix the prefix of the id
+	 * @param tryPlain whether the plain prefix should be tried as an id first
+	 *
+	 * @return the allocated id
+	 */
+	public String allocate(EObject element, String prefix, boolean tryPlain) {
+		synchronized (index) {
+			if (tryPlain && !isTaken(prefix)) {
+				reserve(prefix, element);
+				return prefix;
+			}
+
+			Integer counter = counters.get(prefix);
+
+			int i = counter == null ? 1 : counter;
+			String id = prefix + "_" + i; //$NON-NLS-1$
+
+			while (isTaken(id)) {
+				id = prefix + "_" + (++i); //$NON-NLS-1$
+			}
+
+			counters.put(prefix, i + 1);
+			reserve(id, element);
+
+			return id;
+		}
+	}
+
+	/**
+	 * Registers an id which is in use by the given element; the allocator will not hand it out
+	 * (again) as long as the element is not removed from the resource.
+	 *
+	 * @param element
+	 * @param id
+	 */
+	public void register(EObject element, String id) {
+		synchronized (index) {
+			if (!index.contains(id)) {
+				reserve(id, element);
+			}
+		}
+	}
+
+	/**
+	 * Releases an id, making it available for allocation again unless
+	 * it is used by an element contained in the resource.
+	 *
+	 * @param id
+	 */
+	public void release(String id) {
+		synchronized (index) {
+			reserved.remove(id);
+		}
+	}
+
+	/**
+	 * Returns true if the given id is used in the resource or has been handed out already
+	 *
+	 * @param id
+	 * @return
+	 */
+	public boolean isTaken(String id) {
+		synchronized (index) {
+			if (index.contains(id)) {
+				return true;
+			}
+
+			WeakReference<EObject> reference = reserved.get(id);
+			if (reference == null) {
+				return false;
+			}
+
+			// the reservation is obsolete if the element got garbage collected
+			if (reference.get() == null) {
+				reserved.remove(id);
+				return false;
+			}
+
+			return true;
+		}
+	}
+
+	private void reserve(String id, EObject element) {
+		reserved.put(id, new WeakReference<EObject>(element));
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == IdAllocator.class;
+	}
+
+	/**
+	 * Returns the id allocator for the given resource, attaching
+	 * a new one if it does not exist yet.
+	 *
+	 * @param resource
+	 * @return
+	 */
+	public static IdAllocator get(Resource resource) {
+		synchronized (resource) {
+			IdAllocator allocator = (IdAllocator) EcoreUtil.getExistingAdapter(resource, IdAllocator.class);
+			if (allocator == null) {
+				IdIndexAdapter index = IdIndexAdapter.get(resource);
+
+				allocator = new IdAllocator(index);
+				index.setAllocator(allocator);
+
+				resource.eAdapters().add(allocator);
+			}
+
+			return allocator;
+		}
+	}
+
+	/**
+	 * Detaches the id allocator and id index from the given resource.
+	 *
+	 * @param resource
+	 */
+	public static void dispose(Resource resource) {
+		synchronized (resource) {
+			resource.eAdapters().remove(EcoreUtil.getExistingAdapter(resource, IdAllocator.class));
+			resource.eAdapters().remove(EcoreUtil.getExistingAdapter(resource, IdIndexAdapter.class));
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package org.camunda.bpm.modeler.core.model.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * Index mapping the ids of all elements contained in a {@link Resource} to
+ * the respective elements.
+ *
+ * Allows constant time lookup of elements by id without walking the containment
+ * tree of the resource. The index is kept in sync with additions, removals and
+ * id changes of the contained elements.
+ *
+ * Use {@link #get(Resource)} to obtain the index for a resource.
+ */
+public class IdIndexAdapter extends AbstractIndexAdapter {
+
+	private final Map<String, EObject> elements = new HashMap<String, EObject>();
+
+	/**
+	 * Elements sharing an id with the element stored in {@link #elements};
+	 * only populated for (invalid) models with duplicate ids.
+	 */
+	private final Map<String, List<EObject>> duplicates = new HashMap<String, List<EObject>>();
+
+	/**
+	 * The allocator handing out ids for this resource, if any
+	 */
+	private IdAllocator allocator;
+
+	/**
+	 * Returns the element with the given id or null if no such element exists
+	 *
+	 * @param id
+	 * @return
+	 */
+	public synchronized EObject getElement(String id) {
+		if (id == null) {
+			return null;
+		}
+
+		return elements.get(id);
+	}
+
+	/**
+	 * Returns the element with the given id and type or null if no such element exists
+	 *
+	 * @param id
+	 * @param cls
+	 *
+	 * @return
+	 */
+	public synchronized <T> T getElement(String id, Class<T> cls) {
+		EObject element = getElement(id);
+		if (cls.isInstance(element)) {
+			return cls.cast(element);
+		}
+
+		List<EObject> shadowed = duplicates.get(id);
+		if (shadowed != null) {
+			for (EObject e : shadowed) {
+				if (cls.isInstance(e)) {
+					return cls.cast(e);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns true if an element with the given id is contained in the indexed resource
+	 *
+	 * @param id
+	 * @return
+	 */
+	public synchronized boolean contains(String id) {
+		return id != null && elements.containsKey(id);
+	}
+
+	/**
+	 * Returns the ids of all elements contained in the indexed resource
+	 *
+	 * @return
+	 */
+	public synchronized List<String> getIds() {
+		return new ArrayList<String>(elements.keySet());
+	}
+
+	@Override
+	protected synchronized void indexElement(EObject element) {
+		String id = getId(element);
+		if (id != null) {
+			add(id, element);
+		}
+	}
+
+	@Override
+	protected synchronized void unindexElement(EObject element) {
+		String id = getId(element);
+		if (id != null) {
+			remove(id, element);
+		}
+	}
+
+	@Override
+	protected synchronized void elementChanged(EObject element, Notification notification) {
+		EAttribute idAttribute = element.eClass().getEIDAttribute();
+		if (idAttribute == null || notification.getFeature() != idAttribute) {
+			return;
+		}
+
+		Object oldId = notification.getOldValue();
+		if (oldId != null) {
+			remove(oldId.toString(), element);
+		}
+
+		Object newId = notification.getNewValue();
+		if (newId != null) {
+			add(newId.toString(), element);
+		}
+	}
+
+	synchronized void setAllocator(IdAllocator allocator) {
+		this.allocator = allocator;
+	}
+
+	private void add(String id, EObject element) {
+		if (allocator != null) {
+			allocator.indexed(id, element);
+		}
+
+		EObject existing = elements.get(id);
+		if (existing == null) {
+			elements.put(id, element);
+		} else
+		if (existing != element) {
+			List<EObject> shadowed = duplicates.get(id);
+			if (shadowed == null) {
+				shadowed = new ArrayList<EObject>(1);
+				duplicates.put(id, shadowed);
+			}
+
+			if (!shadowed.contains(element)) {
+				shadowed.add(element);
+			}
+		}
+	}
+
+	private void remove(String id, EObject element) {
+		List<EObject> shadowed = duplicates.get(id);
+
+		if (elements.get(id) == element) {
+			if (shadowed == null) {
+				elements.remove(id);
+			} else {
+				// promote the next element registered with that id
+				elements.put(id, shadowed.remove(0));
+				if (shadowed.isEmpty()) {
+					duplicates.remove(id);
+				}
+			}
+		} else
+		if (shadowed != null) {
+			shadowed.remove(element);
+			if (shadowed.isEmpty()) {
+				duplicates.remove(id);
+			}
+		}
+	}
+
+	private static String getId(EObject element) {
+		EAttribute idAttribute = element.eClass().getEIDAttribute();
+		if (idAttribute == null) {
+			return null;
+		}
+
+		Object id = element.eGet(idAttribute);
+		return id == null ? null : id.toString();
+	}
+
+	/**
+	 * Returns the id index for the given resource, attaching
+	 * a new one if it does not exist yet.
+	 *
+	 * @param resource
+	 * @return
+	 */
+	public static IdIndexAdapter get(Resource resource) {
+		synchronized (resource) {
+			IdIndexAdapter index = getExisting(resource, IdIndexAdapter.class);
+			if (index == null) {
+				index = new IdIndexAdapter();
+				resource.eAdapters().add(index);
+			}
+
+			return index;
+		}
+	}
+}
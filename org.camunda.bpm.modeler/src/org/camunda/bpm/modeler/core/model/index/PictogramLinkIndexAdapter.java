@@ -0,0 +1,169 @@
+package org.camunda.bpm.modeler.core.model.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
+import org.eclipse.graphiti.mm.pictograms.PictogramElement;
+import org.eclipse.graphiti.mm.pictograms.PictogramLink;
+import org.eclipse.graphiti.mm.pictograms.PictogramsPackage;
+
+/**
+ * Index mapping business objects to the {@link PictogramElement}s of a {@link Diagram}
+ * which are linked to them.
+ *
+ * Answers the same question as <code>ILinkService#getPictogramElements(Diagram, EObject)</code>
+ * in constant time instead of scanning all pictogram links of the diagram.
+ *
+ * The index observes the pictogram links of the diagram only (not the whole
+ * diagram contents) and is kept in sync with additions and removals of links as
+ * well as with changes of their business objects and pictogram elements.
+ *
+ * Use {@link #get(Diagram)} to obtain the index for a diagram.
+ */
+public class PictogramLinkIndexAdapter extends AbstractListAdapter<PictogramLink> {
+
+	private static final PictogramsPackage PICTOGRAMS_PACKAGE = PictogramsPackage.eINSTANCE;
+
+	private final Map<EObject, List<PictogramElement>> elements = new HashMap<EObject, List<PictogramElement>>();
+
+	/**
+	 * The registrations of the observed links as they have been indexed
+	 */
+	private final Map<PictogramLink, LinkRegistration> registrations = new HashMap<PictogramLink, LinkRegistration>();
+
+	private PictogramLinkIndexAdapter(Diagram diagram) {
+		super(diagram, PICTOGRAMS_PACKAGE.getDiagram_PictogramLinks());
+	}
+
+	/**
+	 * Returns all pictogram elements linked to the given business object
+	 *
+	 * @param businessObject
+	 * @return
+	 */
+	public synchronized List<PictogramElement> getPictogramElements(EObject businessObject) {
+		List<PictogramElement> pictogramElements = elements.get(businessObject);
+		if (pictogramElements == null) {
+			return Collections.emptyList();
+		}
+
+		return new ArrayList<PictogramElement>(pictogramElements);
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == PictogramLinkIndexAdapter.class;
+	}
+
+	@Override
+	protected void elementAdded(PictogramLink link) {
+		if (!registrations.containsKey(link)) {
+			register(link);
+		}
+	}
+
+	@Override
+	protected void elementRemoved(PictogramLink link) {
+		unregister(link);
+	}
+
+	@Override
+	protected void elementChanged(Notification notification) {
+		Object notifier = notification.getNotifier();
+		Object feature = notification.getFeature();
+
+		if (notifier instanceof PictogramLink &&
+				(feature == PICTOGRAMS_PACKAGE.getPictogramLink_BusinessObjects() ||
+				 feature == PICTOGRAMS_PACKAGE.getPictogramLink_PictogramElement())) {
+
+			PictogramLink link = (PictogramLink) notifier;
+
+			unregister(link);
+			register(link);
+		}
+	}
+
+	private void register(PictogramLink link) {
+		PictogramElement pictogramElement = link.getPictogramElement();
+		List<EObject> businessObjects = new ArrayList<EObject>(link.getBusinessObjects());
+
+		registrations.put(link, new LinkRegistration(pictogramElement, businessObjects));
+
+		if (pictogramElement == null) {
+			return;
+		}
+
+		for (EObject businessObject : businessObjects) {
+			List<PictogramElement> pictogramElements = elements.get(businessObject);
+			if (pictogramElements == null) {
+				// most business objects are linked to a shape and possibly its label only
+				pictogramElements = new ArrayList<PictogramElement>(2);
+				elements.put(businessObject, pictogramElements);
+			}
+
+			if (!pictogramElements.contains(pictogramElement)) {
+				pictogramElements.add(pictogramElement);
+			}
+		}
+	}
+
+	private void unregister(PictogramLink link) {
+		LinkRegistration registration = registrations.remove(link);
+		if (registration == null || registration.pictogramElement == null) {
+			return;
+		}
+
+		for (EObject businessObject : registration.businessObjects) {
+			List<PictogramElement> pictogramElements = elements.get(businessObject);
+			if (pictogramElements != null) {
+				pictogramElements.remove(registration.pictogramElement);
+				if (pictogramElements.isEmpty()) {
+					elements.remove(businessObject);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the link index for the given diagram, attaching
+	 * a new one if it does not exist yet.
+	 *
+	 * @param diagram
+	 * @return
+	 */
+	public static PictogramLinkIndexAdapter get(Diagram diagram) {
+		synchronized (diagram) {
+			PictogramLinkIndexAdapter index = (PictogramLinkIndexAdapter) EcoreUtil.getExistingAdapter(diagram, PictogramLinkIndexAdapter.class);
+			if (index == null) {
+				index = new PictogramLinkIndexAdapter(diagram);
+
+				index.rescan();
+
+				diagram.eAdapters().add(index);
+			}
+
+			return index;
+		}
+	}
+
+	/**
+	 * The state of a link at the time it got indexed
+	 */
+	private static class LinkRegistration {
+
+		private final PictogramElement pictogramElement;
+		private final List<EObject> businessObjects;
+
+		public LinkRegistration(PictogramElement pictogramElement, List<EObject> businessObjects) {
+			this.pictogramElement = pictogramElement;
+			this.businessObjects = businessObjects;
+		}
+	}
+}
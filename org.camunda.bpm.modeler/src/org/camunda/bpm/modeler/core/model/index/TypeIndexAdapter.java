@@ -0,0 +1,304 @@
+package org.camunda.bpm.modeler.core.model.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * Registry of all elements contained in a {@link Resource}, partitioned by their {@link EClass}.
+ *
+ * Answers queries such as "all sequence flows" or "all properties" with costs
+ * proportional to the size of the result rather than to the size of the model.
+ *
+ * Query results are returned in document order, i.e. the order in which
+ * {@link Resource#getAllContents()} would visit the elements. Sorted results are cached
+ * per query until an element is added, removed or moved within the resource.
+ *
+ * Use {@link #get(Resource)} to obtain the registry for a resource.
+ */
+public class TypeIndexAdapter extends AbstractIndexAdapter {
+
+	private final Map<EClass, Set<EObject>> elements = new LinkedHashMap<EClass, Set<EObject>>();
+
+	/**
+	 * Cache of queried java types to the registered {@link EClass}es whose instances they match
+	 */
+	private final Map<Class<?>, List<EClass>> typeCache = new HashMap<Class<?>, List<EClass>>();
+
+	/**
+	 * Cache of query results in document order, by queried java type or {@link EClass}
+	 */
+	private final Map<Object, List<EObject>> resultCache = new HashMap<Object, List<EObject>>();
+
+	/**
+	 * Returns all elements of the indexed resource that are instances of the given type
+	 *
+	 * @param cls
+	 * @return
+	 */
+	public synchronized <T> List<T> getAll(Class<T> cls) {
+		List<EObject> cached = resultCache.get(cls);
+		if (cached == null) {
+			cached = new ArrayList<EObject>();
+
+			for (EClass eClass : getMatchingClasses(cls)) {
+				cached.addAll(elements.get(eClass));
+			}
+
+			sortInDocumentOrder(cached);
+
+			resultCache.put(cls, cached);
+		}
+
+		List<T> result = new ArrayList<T>(cached.size());
+
+		for (EObject element : cached) {
+			result.add(cls.cast(element));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns all elements of the indexed resource that are instances of the given {@link EClass}
+	 *
+	 * @param eClass
+	 * @return
+	 */
+	public synchronized List<EObject> getAll(EClass eClass) {
+		List<EObject> cached = resultCache.get(eClass);
+		if (cached == null) {
+			cached = new ArrayList<EObject>();
+
+			for (Map.Entry<EClass, Set<EObject>> entry : elements.entrySet()) {
+				if (eClass.isSuperTypeOf(entry.getKey())) {
+					cached.addAll(entry.getValue());
+				}
+			}
+
+			sortInDocumentOrder(cached);
+
+			resultCache.put(eClass, cached);
+		}
+
+		return new ArrayList<EObject>(cached);
+	}
+
+	/**
+	 * Returns the number of elements of the indexed resource that are instances of the given type
+	 *
+	 * @param cls
+	 * @return
+	 */
+	public synchronized int count(Class<?> cls) {
+		int count = 0;
+
+		for (EClass eClass : getMatchingClasses(cls)) {
+			count += elements.get(eClass).size();
+		}
+
+		return count;
+	}
+
+	private List<EClass> getMatchingClasses(Class<?> cls) {
+		List<EClass> matching = typeCache.get(cls);
+		if (matching == null) {
+			matching = new ArrayList<EClass>();
+
+			for (EClass eClass : elements.keySet()) {
+				Class<?> instanceClass = eClass.getInstanceClass();
+				if (instanceClass == null) {
+					// dynamic class
+					instanceClass = EObject.class;
+				}
+
+				if (cls.isAssignableFrom(instanceClass)) {
+					matching.add(eClass);
+				}
+			}
+
+			typeCache.put(cls, matching);
+		}
+
+		return matching;
+	}
+
+	@Override
+	protected synchronized void indexElement(EObject element) {
+		EClass eClass = element.eClass();
+
+		Set<EObject> partition = elements.get(eClass);
+		if (partition == null) {
+			partition = new LinkedHashSet<EObject>();
+			elements.put(eClass, partition);
+
+			// new type, cached query results are stale
+			typeCache.clear();
+		}
+
+		partition.add(element);
+
+		resultCache.clear();
+	}
+
+	@Override
+	protected synchronized void unindexElement(EObject element) {
+		Set<EObject> partition = elements.get(element.eClass());
+		if (partition != null) {
+			partition.remove(element);
+		}
+
+		resultCache.clear();
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+
+		// moving an element within a list changes the document order
+		if (notification.getEventType() == Notification.MOVE) {
+			synchronized (this) {
+				resultCache.clear();
+			}
+		}
+	}
+
+	/**
+	 * Sorts the given elements by their position in the containment tree
+	 *
+	 * @param elements
+	 */
+	private static <T> void sortInDocumentOrder(List<T> elements) {
+		if (elements.size() < 2) {
+			return;
+		}
+
+		Collections.sort(elements, new DocumentOrder<T>());
+	}
+
+	/**
+	 * Compares elements by their containment path. A path is made up of the containment
+	 * feature and the index within that feature for each level of the containment tree.
+	 *
+	 * Paths and the positions within the containing lists are computed once per sort.
+	 */
+	private static class DocumentOrder<T> implements Comparator<T> {
+
+		private static final int[] ROOT_PATH = new int[0];
+
+		private final Map<EObject, int[]> paths = new IdentityHashMap<EObject, int[]>();
+
+		/**
+		 * Position of the elements within a containing list, by list
+		 */
+		private final Map<List<?>, Map<Object, Integer>> positions = new IdentityHashMap<List<?>, Map<Object, Integer>>();
+
+		@Override
+		public int compare(T o1, T o2) {
+			int[] path1 = getPath((EObject) o1);
+			int[] path2 = getPath((EObject) o2);
+
+			int length = Math.min(path1.length, path2.length);
+
+			for (int i = 0; i < length; i++) {
+				if (path1[i] != path2[i]) {
+					return path1[i] < path2[i] ? -1 : 1;
+				}
+			}
+
+			// parents precede their children
+			return path1.length - path2.length;
+		}
+
+		private int[] getPath(EObject element) {
+			int[] path = paths.get(element);
+			if (path != null) {
+				return path;
+			}
+
+			EObject container = element.eContainer();
+
+			int[] parentPath;
+			int featureIndex;
+			int index;
+
+			if (container == null) {
+				parentPath = ROOT_PATH;
+				featureIndex = 0;
+
+				Resource resource = element.eResource();
+				index = resource != null ? getPosition(resource.getContents(), element) : 0;
+			} else {
+				parentPath = getPath(container);
+
+				EReference containmentFeature = element.eContainmentFeature();
+				featureIndex = container.eClass().getFeatureID(containmentFeature);
+
+				if (containmentFeature.isMany()) {
+					index = getPosition((List<?>) container.eGet(containmentFeature, false), element);
+				} else {
+					index = 0;
+				}
+			}
+
+			path = new int[parentPath.length + 2];
+			System.arraycopy(parentPath, 0, path, 0, parentPath.length);
+
+			path[parentPath.length] = featureIndex;
+			path[parentPath.length + 1] = index;
+
+			paths.put(element, path);
+
+			return path;
+		}
+
+		private int getPosition(List<?> list, Object element) {
+			Map<Object, Integer> listPositions = positions.get(list);
+			if (listPositions == null) {
+				listPositions = new IdentityHashMap<Object, Integer>(list.size());
+
+				int i = 0;
+				for (Object e : list) {
+					listPositions.put(e, i++);
+				}
+
+				positions.put(list, listPositions);
+			}
+
+			Integer position = listPositions.get(element);
+			return position != null ? position : 0;
+		}
+	}
+
+	/**
+	 * Returns the type registry for the given resource, attaching
+	 * a new one if it does not exist yet.
+	 *
+	 * @param resource
+	 * @return
+	 */
+	public static TypeIndexAdapter get(Resource resource) {
+		synchronized (resource) {
+			TypeIndexAdapter index = getExisting(resource, TypeIndexAdapter.class);
+			if (index == null) {
+				index = new TypeIndexAdapter();
+				resource.eAdapters().add(index);
+			}
+
+			return index;
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package org.camunda.bpm.modeler.core.preferences;
+
+import java.util.Map;
+
+import org.camunda.bpm.modeler.Messages;
+import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences.BPMNDIAttributeDefault;
+import org.eclipse.bpmn2.AdHocSubProcess;
+import org.eclipse.bpmn2.BaseElement;
+import org.eclipse.bpmn2.CallActivity;
+import org.eclipse.bpmn2.CallChoreography;
+import org.eclipse.bpmn2.ExclusiveGateway;
+import org.eclipse.bpmn2.Lane;
+import org.eclipse.bpmn2.Participant;
+import org.eclipse.bpmn2.SubChoreography;
+import org.eclipse.bpmn2.SubProcess;
+import org.eclipse.bpmn2.Transaction;
+import org.eclipse.bpmn2.di.BPMNShape;
+import org.xml.sax.Attributes;
+
+/**
+ * Immutable snapshot of the BPMN DI attribute defaults configured in {@link Bpmn2Preferences}.
+ *
+ * Obtain it once (e.g. per resource load) via {@link Bpmn2Preferences#getBPMNDIDefaults()}
+ * and apply it to any number of {@link BPMNShape}s without consulting the preferences again.
+ */
+public final class BPMNDIDefaults {
+
+	private static final int IS_HORIZONTAL_SET = 1;
+	private static final int IS_EXPANDED_SET = 1 << 1;
+	private static final int IS_MESSAGE_VISIBLE_SET = 1 << 2;
+	private static final int IS_MARKER_VISIBLE_SET = 1 << 3;
+	private static final int CHOREOGRAPHY_ACTIVITY_SHAPE_SET = 1 << 4;
+
+	private final BPMNDIAttributeDefault isHorizontal;
+	private final BPMNDIAttributeDefault isExpanded;
+	private final BPMNDIAttributeDefault isMessageVisible;
+	private final BPMNDIAttributeDefault isMarkerVisible;
+
+	public BPMNDIDefaults(BPMNDIAttributeDefault isHorizontal, BPMNDIAttributeDefault isExpanded,
+			BPMNDIAttributeDefault isMessageVisible, BPMNDIAttributeDefault isMarkerVisible) {
+
+		this.isHorizontal = isHorizontal;
+		this.isExpanded = isExpanded;
+		this.isMessageVisible = isMessageVisible;
+		this.isMarkerVisible = isMarkerVisible;
+	}
+
+	/**
+	 * Applies the defaults to the given shape, given the attributes
+	 * it has been read from.
+	 *
+	 * @param bpmnShape
+	 * @param attribs the xml attributes of the shape; may be null
+	 */
+	public void apply(BPMNShape bpmnShape, Attributes attribs) {
+		int setAttributes = 0;
+
+		if (attribs != null) {
+			for (int i = 0, size = attribs.getLength(); i < size; ++i) {
+				setAttributes |= getAttributeFlag(attribs.getQName(i));
+			}
+		}
+
+		apply(bpmnShape, setAttributes);
+	}
+
+	/**
+	 * Applies the defaults to the given shape, given the attributes
+	 * set on it.
+	 *
+	 * @param bpmnShape
+	 * @param attribs map of attributes set on the shape; may be null
+	 */
+	public void apply(BPMNShape bpmnShape, Map<String, String> attribs) {
+		int setAttributes = 0;
+
+		if (attribs != null) {
+			for (String name : attribs.keySet()) {
+				setAttributes |= getAttributeFlag(name);
+			}
+		}
+
+		apply(bpmnShape, setAttributes);
+	}
+
+	private int getAttributeFlag(String name) {
+		if (Messages.Bpmn2Preferences_49.equals(name)) {
+			return IS_HORIZONTAL_SET;
+		} else
+		if (Messages.Bpmn2Preferences_50.equals(name)) {
+			return IS_EXPANDED_SET;
+		} else
+		if (Messages.Bpmn2Preferences_51.equals(name)) {
+			return IS_MESSAGE_VISIBLE_SET;
+		} else
+		if (Messages.Bpmn2Preferences_52.equals(name)) {
+			return IS_MARKER_VISIBLE_SET;
+		} else
+		if (Messages.Bpmn2Preferences_53.equals(name)) {
+			return CHOREOGRAPHY_ACTIVITY_SHAPE_SET;
+		} else {
+			return 0;
+		}
+	}
+
+	private void apply(BPMNShape bpmnShape, int setAttributes) {
+		boolean isHorizontalSet = (setAttributes & IS_HORIZONTAL_SET) != 0;
+		boolean isExpandedSet = (setAttributes & IS_EXPANDED_SET) != 0;
+		boolean isMessageVisibleSet = (setAttributes & IS_MESSAGE_VISIBLE_SET) != 0;
+		boolean isMarkerVisibleSet = (setAttributes & IS_MARKER_VISIBLE_SET) != 0;
+		boolean choreographyActivityShapeSet = (setAttributes & CHOREOGRAPHY_ACTIVITY_SHAPE_SET) != 0;
+
+		BaseElement be = bpmnShape.getBpmnElement();
+
+		// isHorizontal only applies to Pools and Lanes, not Participant bands
+		if ((be instanceof Participant && !choreographyActivityShapeSet) || be instanceof Lane) {
+			if (!isHorizontalSet) {
+				bpmnShape.setIsHorizontal(isTrueByDefault(isHorizontal));
+			} else
+			// Assume horizontal to be the default
+			if (isHorizontal == null) {
+				bpmnShape.setIsHorizontal(true);
+			} else
+			if (isAlwaysSet(isHorizontal)) {
+				bpmnShape.setIsHorizontal(isHorizontal == BPMNDIAttributeDefault.ALWAYS_TRUE);
+			}
+		}
+
+		// isExpanded only applies to activity containers (SubProcess, AdHocSubProcess, etc.)
+		if (be instanceof CallActivity) {
+			// for the moment, call activities are always not expanded
+			bpmnShape.setIsExpanded(false);
+		} else
+		if (be instanceof SubProcess
+				|| be instanceof AdHocSubProcess
+				|| be instanceof Transaction
+				|| be instanceof SubChoreography
+				|| be instanceof CallChoreography) {
+
+			if (!isExpandedSet) {
+				bpmnShape.setIsExpanded(isTrueByDefault(isExpanded));
+			} else
+			if (isAlwaysSet(isExpanded)) {
+				bpmnShape.setIsExpanded(isExpanded == BPMNDIAttributeDefault.ALWAYS_TRUE);
+			}
+		}
+
+		// isMessageVisible only applies to Participant Bands
+		if (be instanceof Participant && choreographyActivityShapeSet) {
+			if (!isMessageVisibleSet) {
+				bpmnShape.setIsMessageVisible(isTrueByDefault(isMessageVisible));
+			} else
+			if (isAlwaysSet(isMessageVisible)) {
+				bpmnShape.setIsMessageVisible(isMessageVisible == BPMNDIAttributeDefault.ALWAYS_TRUE);
+			}
+		}
+
+		// isMarkerVisible only applies to ExclusiveGateway
+		if (be instanceof ExclusiveGateway) {
+			if (!isMarkerVisibleSet) {
+				bpmnShape.setIsMarkerVisible(isTrueByDefault(isMarkerVisible));
+			} else
+			if (isAlwaysSet(isMarkerVisible)) {
+				bpmnShape.setIsMarkerVisible(isMarkerVisible == BPMNDIAttributeDefault.ALWAYS_TRUE);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given default overrides the value read from the di
+	 */
+	private static boolean isAlwaysSet(BPMNDIAttributeDefault value) {
+		return value == BPMNDIAttributeDefault.ALWAYS_TRUE || value == BPMNDIAttributeDefault.ALWAYS_FALSE;
+	}
+
+	private static boolean isTrueByDefault(BPMNDIAttributeDefault value) {
+		return value == BPMNDIAttributeDefault.ALWAYS_TRUE || value == BPMNDIAttributeDefault.DEFAULT_TRUE;
+	}
+
+	public BPMNDIAttributeDefault getIsHorizontal() {
+		return isHorizontal;
+	}
+
+	public BPMNDIAttributeDefault getIsExpanded() {
+		return isExpanded;
+	}
+
+	public BPMNDIAttributeDefault getIsMessageVisible() {
+		return isMessageVisible;
+	}
+
+	public BPMNDIAttributeDefault getIsMarkerVisible() {
+		return isMarkerVisible;
+	}
+}
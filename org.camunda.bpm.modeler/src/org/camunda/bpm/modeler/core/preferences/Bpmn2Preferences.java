@@ -24,27 +24,18 @@ import org.camunda.bpm.modeler.Messages;
 import org.camunda.bpm.modeler.core.Activator;
 import org.camunda.bpm.modeler.core.runtime.TargetRuntime;
 import org.eclipse.bpmn2.Activity;
-import org.eclipse.bpmn2.AdHocSubProcess;
-import org.eclipse.bpmn2.BaseElement;
-import org.eclipse.bpmn2.CallActivity;
 import org.eclipse.bpmn2.CallChoreography;
 import org.eclipse.bpmn2.CancelEventDefinition;
 import org.eclipse.bpmn2.ChoreographyActivity;
 import org.eclipse.bpmn2.Event;
 import org.eclipse.bpmn2.EventDefinition;
-import org.eclipse.bpmn2.ExclusiveGateway;
 import org.eclipse.bpmn2.FlowElementsContainer;
 import org.eclipse.bpmn2.Gateway;
 import org.eclipse.bpmn2.InteractionNode;
 import org.eclipse.bpmn2.ItemAwareElement;
-import org.eclipse.bpmn2.Lane;
 import org.eclipse.bpmn2.Message;
-import org.eclipse.bpmn2.Participant;
-import org.eclipse.bpmn2.SubChoreography;
-import org.eclipse.bpmn2.SubProcess;
 import org.eclipse.bpmn2.Task;
 import org.eclipse.bpmn2.TerminateEventDefinition;
-import org.eclipse.bpmn2.Transaction;
 import org.eclipse.bpmn2.di.BPMNShape;
 import org.eclipse.core.internal.resources.ProjectPreferences;
 import org.eclipse.core.resources.IProject;
@@ -125,6 +116,11 @@ public class Bpmn2Preferences implements IPreferenceChangeListener, IPropertyCha
 	public final static String PREF_CHECK_PROJECT_NATURE_LABEL = Messages.Bpmn2Preferences_39;
 	
 	private static Hashtable<IProject,Bpmn2Preferences> instances = null;
+	
+	/**
+	 * Preferences used for resources outside of a project
+	 */
+	private static Bpmn2Preferences noProjectInstance = null;
 	private static IProject activeProject;
 
 	private IProject project;
@@ -216,8 +212,11 @@ public class Bpmn2Preferences implements IPreferenceChangeListener, IPropertyCha
 		if (filename==null) {
 			return getInstance();
 		}
-		IProject project = ResourcesPlugin.getWorkspace().getRoot().findMember(filename).getProject();
-		return getInstance(project);
+		IResource member = ResourcesPlugin.getWorkspace().getRoot().findMember(filename);
+		if (member==null) {
+			return getInstance();
+		}
+		return getInstance(member.getProject());
 	}
 	
 	/**
@@ -226,15 +225,19 @@ public class Bpmn2Preferences implements IPreferenceChangeListener, IPropertyCha
 	 * @param project
 	 * @return project preferences
 	 */
-	public static Bpmn2Preferences getInstance(IProject project) {
+	public static synchronized Bpmn2Preferences getInstance(IProject project) {
+		if (project==null) {
+			// share a single instance rather than creating (and registering listeners for)
+			// a new one on every request
+			if (noProjectInstance==null) {
+				noProjectInstance = new Bpmn2Preferences(null);
+			}
+			return noProjectInstance;
+		}
 		if (instances==null) {
 			instances = new Hashtable<IProject,Bpmn2Preferences>();
 		}
-		Bpmn2Preferences pref;
-		if (project==null)
-			pref = new Bpmn2Preferences(null);
-		else
-			pref = instances.get(project);
+		Bpmn2Preferences pref = instances.get(project);
 		if (pref==null) {
 			pref = new Bpmn2Preferences(project);
 			instances.put(project, pref);
@@ -361,9 +364,17 @@ public class Bpmn2Preferences implements IPreferenceChangeListener, IPropertyCha
 		globalPreferences.removePropertyChangeListener(this);
 		if (project!=null)
 			instances.remove(project);
+		else
+			clearNoProjectInstance(this);
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
 	}
 	
+	private static synchronized void clearNoProjectInstance(Bpmn2Preferences pref) {
+		if (noProjectInstance==pref) {
+			noProjectInstance = null;
+		}
+	}
+	
 	public synchronized void reload() {
 		loaded = false;
 		load();
@@ -855,166 +866,19 @@ public class Bpmn2Preferences implements IPreferenceChangeListener, IPropertyCha
 	 * @see getIsHorizontal(), getIsExpanded(), getIsMessageVisible() and getIsMarkerVisible()
 	 */
 	public void applyBPMNDIDefaults(BPMNShape bpmnShape, Map<String,String>attribs) {
-		boolean isHorizontalSet = false;
-		boolean isExpandedSet = false;
-		boolean isMessageVisibleSet = false;
-		boolean isMarkerVisibleSet = false;
-		boolean choreographyActivityShapeSet = false;
-		
-		if (attribs != null) {
-			for (Entry<String, String> entry : attribs.entrySet()) {
-				String name = entry.getKey();
-				if (Messages.Bpmn2Preferences_49.equals(name)) {
-					isHorizontalSet = true;
-				}
-				if (Messages.Bpmn2Preferences_50.equals(name)) {
-					isExpandedSet = true;
-				}
-				if (Messages.Bpmn2Preferences_51.equals(name)) {
-					isMessageVisibleSet = true;
-				}
-				if (Messages.Bpmn2Preferences_52.equals(name)) {
-					isMarkerVisibleSet = true;
-				}
-				if (Messages.Bpmn2Preferences_53.equals(name)) {
-					choreographyActivityShapeSet = true;
-				}
-			}
-		}
-		
-		BaseElement be = bpmnShape.getBpmnElement();
-		
-		// isHorizontal only applies to Pools and Lanes, not Participant bands
-		if (!isHorizontalSet) {
-			if ((be instanceof Participant && !choreographyActivityShapeSet) || be instanceof Lane) {
-				boolean horz = isHorizontalDefault();
-				bpmnShape.setIsHorizontal(horz);
-			}
-		}
-		else {
-			if ((be instanceof Participant && !choreographyActivityShapeSet) || be instanceof Lane) {
-				BPMNDIAttributeDefault df = getIsHorizontal();
-				// Assume horizontal to be the default
-				if (df == null) {
-					bpmnShape.setIsHorizontal(true);
-				} else {
-					switch(df) {
-					case ALWAYS_TRUE:
-						bpmnShape.setIsHorizontal(true);
-						break;
-					case ALWAYS_FALSE:
-						bpmnShape.setIsHorizontal(false);
-						break;
-					}
-				}
-			}
-		}
-		
-		// isExpanded only applies to activity containers (SubProcess, AdHocSubProcess, etc.)
-		if (!isExpandedSet) {
-			if (be instanceof CallActivity) {
-				bpmnShape.setIsExpanded(false);
-
-			} else if (be instanceof SubProcess
-					|| be instanceof AdHocSubProcess
-					|| be instanceof Transaction
-					|| be instanceof SubChoreography
-					|| be instanceof CallChoreography) {
-				boolean value = false;
-				BPMNDIAttributeDefault df = getIsExpanded();
-				switch (df) {
-				case ALWAYS_TRUE:
-				case DEFAULT_TRUE:
-					value = true;
-					break;
-				case ALWAYS_FALSE:
-				case USE_DI_VALUE:
-					value = false;
-				}
-				bpmnShape.setIsExpanded(value);
-			}
-		} else {
-			// for the moment, call activities are always not expanded
-			if (be instanceof CallActivity) {
-				bpmnShape.setIsExpanded(false);
-
-			} else if (be instanceof SubProcess
-					|| be instanceof AdHocSubProcess
-					|| be instanceof Transaction
-					|| be instanceof SubChoreography
-					|| be instanceof CallChoreography) {
-				BPMNDIAttributeDefault df = getIsExpanded();
-				switch (df) {
-				case ALWAYS_TRUE:
-					bpmnShape.setIsExpanded(true);
-					break;
-				case ALWAYS_FALSE:
-					bpmnShape.setIsExpanded(false);
-					break;
-				}
-			}
-		}
-		
-		// isMessageVisible only applies to Participant Bands
-		if (!isMessageVisibleSet) {
-			if (be instanceof Participant && choreographyActivityShapeSet) {
-				boolean value = false;
-				BPMNDIAttributeDefault df = getIsMessageVisible();
-				switch(df) {
-				case ALWAYS_TRUE:
-				case DEFAULT_TRUE:
-					value = true;
-					break;
-				case ALWAYS_FALSE:
-				case USE_DI_VALUE:
-					value = false;
-				}
-				bpmnShape.setIsMessageVisible(value);
-			}
-		}
-		else {
-			if (be instanceof Participant && choreographyActivityShapeSet) {
-				BPMNDIAttributeDefault df = getIsMessageVisible();
-				switch(df) {
-				case ALWAYS_TRUE:
-					bpmnShape.setIsMessageVisible(true);
-					break;
-				case ALWAYS_FALSE:
-					bpmnShape.setIsMessageVisible(false);
-					break;
-				}
-			}
-		}
-		
-		// isMarkerVisible only applies to ExclusiveGateway
-		if (!isMarkerVisibleSet) {
-			if (be instanceof ExclusiveGateway) {
-				BPMNDIAttributeDefault df = getIsMarkerVisible();
-				switch(df) {
-				case ALWAYS_TRUE:
-				case DEFAULT_TRUE:
-					bpmnShape.setIsMarkerVisible(true);
-					break;
-				case ALWAYS_FALSE:
-				case USE_DI_VALUE:
-					bpmnShape.setIsMarkerVisible(false);
-					break;
-				}
-			}
-		}
-		else {
-			if (be instanceof ExclusiveGateway) {
-				BPMNDIAttributeDefault df = getIsMarkerVisible();
-				switch(df) {
-				case ALWAYS_TRUE:
-					bpmnShape.setIsMarkerVisible(true);
-					break;
-				case ALWAYS_FALSE:
-					bpmnShape.setIsMarkerVisible(false);
-					break;
-				}
-			}
-		}
+		getBPMNDIDefaults().apply(bpmnShape, attribs);
+	}
+	
+	/**
+	 * Returns an immutable snapshot of the BPMN DI attribute defaults. Use it to apply the
+	 * defaults to many shapes (e.g. during a resource load) without consulting the preferences
+	 * for each of them.
+	 * 
+	 * @return
+	 */
+	public BPMNDIDefaults getBPMNDIDefaults() {
+		load();
+		return new BPMNDIDefaults(isHorizontal, isExpanded, isMessageVisible, isMarkerVisible);
 	}
 
 	// TODO: use CNF for indigo & future - keep ResourceNavigator for backward compatibility
@@ -1,12 +1,24 @@
 package org.camunda.bpm.modeler.core.project;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.camunda.bpm.modeler.Messages;
+import org.camunda.bpm.modeler.core.Activator;
 import org.camunda.bpm.modeler.core.validation.Bpmn2ProjectValidator;
+import org.camunda.bpm.modeler.core.validation.ValidationCache;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
@@ -14,9 +26,19 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.wst.validation.ValidationResult;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -45,14 +67,20 @@ public class Bpmn2Builder extends IncrementalProjectBuilder {
 			case IResourceDelta.ADDED:
 				// handle added resource
 //				checkXML(resource);
+				index(delta.getResource());
 				validate(delta, monitor);
 				break;
 			case IResourceDelta.REMOVED:
 				// handle removed resource
+				if (delta.getResource() instanceof IFile) {
+					ValidationCache.getInstance().remove((IFile) delta.getResource());
+					ProcessDefinitionIndex.getInstance().remove((IFile) delta.getResource());
+				}
 				break;
 			case IResourceDelta.CHANGED:
 				// handle changed resource
 //				checkXML(resource);
+				index(delta.getResource());
 				validate(delta, monitor);
 				break;
 			}
@@ -61,21 +89,6 @@ public class Bpmn2Builder extends IncrementalProjectBuilder {
 		}
 	}
 
-	class BPMN2ResourceVisitor implements IResourceVisitor {
-		IProgressMonitor monitor;
-		
-		public BPMN2ResourceVisitor(IProgressMonitor monitor) {
-			this.monitor = monitor;
-		}
-		
-		public boolean visit(IResource resource) {
-//			checkXML(resource);
-			validate(resource, monitor);
-			//return true to continue visiting children.
-			return true;
-		}
-	}
-
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -84,15 +97,24 @@ public class Bpmn2Builder extends IncrementalProjectBuilder {
 	 */
 	protected IProject[] build(int kind, Map args, IProgressMonitor monitor)
 			throws CoreException {
-		if (kind == FULL_BUILD) {
-			fullBuild(monitor);
-		} else {
-			IResourceDelta delta = getDelta(getProject());
-			if (delta == null) {
+		// discard cached validation results if the set of active constraints changed
+		ValidationCache.getInstance().checkFingerprint();
+		
+		try {
+			if (kind == FULL_BUILD) {
 				fullBuild(monitor);
 			} else {
-				incrementalBuild(delta, monitor);
+				IResourceDelta delta = getDelta(getProject());
+				if (delta == null) {
+					fullBuild(monitor);
+				} else {
+					incrementalBuild(delta, monitor);
+				}
 			}
+		} finally {
+			// persist validation results and process definitions for the next build / session
+			ValidationCache.getInstance().save();
+			ProcessDefinitionIndex.getInstance().save();
 		}
 		return null;
 	}
@@ -102,6 +124,12 @@ public class Bpmn2Builder extends IncrementalProjectBuilder {
 		delta.accept(new BPMN2DeltaVisitor(monitor));
 	}
 
+	void index(IResource resource) {
+		if (!resource.isDerived(IResource.CHECK_ANCESTORS) && Bpmn2ProjectValidator.isBPMN2File(resource)) {
+			ProcessDefinitionIndex.getInstance().update((IFile) resource);
+		}
+	}
+
 	void validate(IResourceDelta delta, IProgressMonitor monitor) {
 		Bpmn2ProjectValidator.validate(delta, monitor);
 	}
@@ -112,10 +140,132 @@ public class Bpmn2Builder extends IncrementalProjectBuilder {
 
 	protected void fullBuild(final IProgressMonitor monitor)
 			throws CoreException {
+		
+		final List<IFile> files = new ArrayList<IFile>();
+		
 		try {
-			getProject().accept(new BPMN2ResourceVisitor(monitor));
+			getProject().accept(new IResourceVisitor() {
+				
+				public boolean visit(IResource resource) {
+					if (!resource.isDerived(IResource.CHECK_ANCESTORS) && Bpmn2ProjectValidator.isBPMN2File(resource)) {
+						files.add((IFile) resource);
+					}
+					
+					//return true to continue visiting children.
+					return true;
+				}
+			});
 		} catch (CoreException e) {
 		}
+		
+		ProcessDefinitionIndex index = ProcessDefinitionIndex.getInstance();
+		
+		index.retain(getProject(), files);
+		for (IFile file : files) {
+			index.update(file);
+		}
+		
+		validateAll(files, monitor);
+	}
+
+	/**
+	 * Parses and validates the given files on a bounded pool of workers, 
+	 * each file in its own resource set, and updates the validation markers of 
+	 * all files in a single workspace operation afterwards.
+	 * 
+	 * @param files
+	 * @param monitor
+	 * 
+	 * @throws CoreException
+	 */
+	protected void validateAll(final List<IFile> files, final IProgressMonitor monitor) throws CoreException {
+		if (files.isEmpty()) {
+			return;
+		}
+		
+		SubMonitor progress = SubMonitor.convert(monitor, Messages.Bpmn2Builder_0, files.size());
+		
+		int workers = Math.min(Runtime.getRuntime().availableProcessors(), files.size());
+		
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		CompletionService<FileValidation> completionService = new ExecutorCompletionService<FileValidation>(executor);
+		
+		final Map<IFile, ValidationResult> results = new LinkedHashMap<IFile, ValidationResult>();
+		
+		try {
+			for (IFile file : files) {
+				completionService.submit(new FileValidation(file));
+			}
+			
+			for (int i = 0; i < files.size(); i++) {
+				if (progress.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				
+				FileValidation validation = completionService.take().get();
+				if (validation.result != null) {
+					results.put(validation.file, validation.result);
+				}
+				
+				String message = NLS.bind(Messages.Bpmn2Builder_1, validation.file.getFullPath(), validation.time);
+				
+				progress.subTask(message);
+				progress.worked(1);
+				
+				if (Activator.getDefault().isDebugging()) {
+					Activator.logStatus(new Status(IStatus.INFO, Activator.PLUGIN_ID, message));
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (ExecutionException e) {
+			// not expected, validation failures are handled per file
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, e.getMessage(), e.getCause()));
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		// create all markers in one go, resulting in a single resource change event
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (Map.Entry<IFile, ValidationResult> entry : results.entrySet()) {
+					Bpmn2ProjectValidator.updateMarkers(entry.getKey(), entry.getValue());
+				}
+			}
+		}, getProject(), IWorkspace.AVOID_UPDATE, null);
+	}
+	
+	/**
+	 * Validation of a single file, executed by a worker of a full build
+	 */
+	private static class FileValidation implements Callable<FileValidation> {
+		
+		private final IFile file;
+		
+		private ValidationResult result;
+		private long time;
+		
+		public FileValidation(IFile file) {
+			this.file = file;
+		}
+		
+		@Override
+		public FileValidation call() {
+			long start = System.currentTimeMillis();
+			
+			try {
+				result = Bpmn2ProjectValidator.validateFile(file, new NullProgressMonitor());
+			} catch (RuntimeException e) {
+				Activator.logStatus(new Status(IStatus.WARNING, Activator.PLUGIN_ID, e.getMessage(), e));
+			}
+			
+			time = System.currentTimeMillis() - start;
+			
+			return this;
+		}
 	}
 
 	/**
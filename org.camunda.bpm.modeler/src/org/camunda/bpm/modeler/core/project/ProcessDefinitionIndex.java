@@ -0,0 +1,513 @@
+package org.camunda.bpm.modeler.core.project;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.camunda.bpm.modeler.core.Activator;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Persistent index of the processes defined in the BPMN 2.0 files of the workspace.
+ *
+ * The index is maintained by the {@link Bpmn2Builder}, which updates it with the files
+ * added, changed or removed in a build. Files are scanned with a SAX parser for their
+ * process elements rather than loaded as models; a file is only scanned again once its
+ * modification stamp changes. The index is stored in the state location of the plugin.
+ *
+ * Use {@link #getInstance()} to obtain the index.
+ */
+public class ProcessDefinitionIndex {
+
+	private static final String INDEX_FILE_NAME = "process-definitions.index"; //$NON-NLS-1$
+
+	private static final String BPMN2_MODEL_NS = "http://www.omg.org/spec/BPMN/20100524/MODEL"; //$NON-NLS-1$
+
+	private static final String PROCESS_ELEMENT = "process"; //$NON-NLS-1$
+
+	private static ProcessDefinitionIndex instance;
+
+	private static SAXParserFactory parserFactory;
+
+	private final File indexFile;
+
+	/**
+	 * The indexed files, by their full path
+	 */
+	private Map<String, Entry> entries = new HashMap<String, Entry>();
+
+	/**
+	 * The indexed process definitions, by their id
+	 */
+	private final Map<String, List<ProcessDefinition>> definitions = new HashMap<String, List<ProcessDefinition>>();
+
+	private boolean dirty = false;
+
+	protected ProcessDefinitionIndex(File indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * Returns all indexed process definitions
+	 *
+	 * @return
+	 */
+	public synchronized List<ProcessDefinition> getProcessDefinitions() {
+		List<ProcessDefinition> result = new ArrayList<ProcessDefinition>();
+
+		for (List<ProcessDefinition> processDefinitions : definitions.values()) {
+			addExisting(processDefinitions, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the process definitions with the given id
+	 *
+	 * @param id
+	 * @return
+	 */
+	public synchronized List<ProcessDefinition> getProcessDefinitions(String id) {
+		List<ProcessDefinition> processDefinitions = definitions.get(id);
+		if (processDefinitions == null) {
+			return Collections.emptyList();
+		}
+
+		List<ProcessDefinition> result = new ArrayList<ProcessDefinition>();
+		addExisting(processDefinitions, result);
+
+		return result;
+	}
+
+	/**
+	 * Returns true if a process with the given id is defined in the workspace
+	 *
+	 * @param id
+	 * @return
+	 */
+	public boolean contains(String id) {
+		return !getProcessDefinitions(id).isEmpty();
+	}
+
+	/**
+	 * Returns true if the given called element refers to a process which is not defined
+	 * in the workspace.
+	 *
+	 * Empty called elements and expressions (which are resolved at runtime) are never
+	 * reported, nor is anything reported as long as no file has been indexed.
+	 *
+	 * @param calledElement
+	 * @return
+	 */
+	public boolean isUndefined(String calledElement) {
+		if (calledElement == null || calledElement.isEmpty() || calledElement.contains("${") || calledElement.contains("#{")) { //$NON-NLS-1$ //$NON-NLS-2$
+			return false;
+		}
+
+		return !isEmpty() && !contains(calledElement);
+	}
+
+	/**
+	 * Returns true if no file has been indexed yet
+	 *
+	 * @return
+	 */
+	public synchronized boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Updates the index with the processes defined in the given file,
+	 * unless the file did not change since it has last been indexed.
+	 *
+	 * @param file
+	 */
+	public void update(IFile file) {
+		String key = getKey(file);
+		long modificationStamp = file.getModificationStamp();
+
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.modificationStamp == modificationStamp) {
+				return;
+			}
+		}
+
+		List<ProcessDefinition> processDefinitions;
+
+		InputStream is = null;
+
+		try {
+			is = new BufferedInputStream(file.getContents(true));
+			processDefinitions = scan(is, key);
+		} catch (CoreException e) {
+			processDefinitions = null;
+		} finally {
+			close(is);
+		}
+
+		synchronized (this) {
+			removeEntry(key);
+
+			// unreadable files are indexed again on their next change
+			if (processDefinitions != null) {
+				addEntry(key, new Entry(modificationStamp, processDefinitions));
+			}
+		}
+	}
+
+	/**
+	 * Removes the processes defined in the given file from the index
+	 *
+	 * @param file
+	 */
+	public synchronized void remove(IFile file) {
+		removeEntry(getKey(file));
+	}
+
+	/**
+	 * Removes all files of the given project from the index,
+	 * except for the given ones.
+	 *
+	 * @param project
+	 * @param files the files to keep
+	 */
+	public synchronized void retain(IProject project, Collection<IFile> files) {
+		String prefix = project.getFullPath().addTrailingSeparator().toString();
+
+		Set<String> keep = new HashSet<String>();
+		for (IFile file : files) {
+			keep.add(getKey(file));
+		}
+
+		for (String key : new ArrayList<String>(entries.keySet())) {
+			if (key.startsWith(prefix) && !keep.contains(key)) {
+				removeEntry(key);
+			}
+		}
+	}
+
+	/**
+	 * Persists the index to the state location of the plugin, if it changed.
+	 *
+	 * The index is written to a temporary file which replaces the index file once
+	 * it is complete, so that an interrupted save does not leave a truncated index.
+	 */
+	public synchronized void save() {
+		if (!dirty) {
+			return;
+		}
+
+		File tempFile = null;
+		ObjectOutputStream os = null;
+
+		try {
+			tempFile = File.createTempFile(INDEX_FILE_NAME, ".tmp", indexFile.getParentFile()); //$NON-NLS-1$
+
+			os = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			os.writeObject(entries);
+			os.close();
+
+			replace(tempFile, indexFile);
+
+			dirty = false;
+		} catch (IOException e) {
+			Activator.logStatus(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Failed to save process definition index", e)); //$NON-NLS-1$
+		} finally {
+			close(os);
+
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected synchronized void load() {
+		if (!indexFile.exists()) {
+			return;
+		}
+
+		ObjectInputStream is = null;
+
+		try {
+			is = new ObjectInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+
+			Map<String, Entry> loadedEntries = (Map<String, Entry>) is.readObject();
+
+			for (Map.Entry<String, Entry> entry : loadedEntries.entrySet()) {
+				addEntry(entry.getKey(), entry.getValue());
+			}
+
+			dirty = false;
+		} catch (Exception e) {
+			// corrupt or outdated index, start over
+			entries = new HashMap<String, Entry>();
+			definitions.clear();
+		} finally {
+			close(is);
+		}
+	}
+
+	private void addEntry(String key, Entry entry) {
+		entries.put(key, entry);
+
+		for (ProcessDefinition processDefinition : entry.processDefinitions) {
+			List<ProcessDefinition> processDefinitions = definitions.get(processDefinition.id);
+			if (processDefinitions == null) {
+				processDefinitions = new ArrayList<ProcessDefinition>(1);
+				definitions.put(processDefinition.id, processDefinitions);
+			}
+
+			processDefinitions.add(processDefinition);
+		}
+
+		dirty = true;
+	}
+
+	private void removeEntry(String key) {
+		Entry entry = entries.remove(key);
+		if (entry == null) {
+			return;
+		}
+
+		for (ProcessDefinition processDefinition : entry.processDefinitions) {
+			List<ProcessDefinition> processDefinitions = definitions.get(processDefinition.id);
+			if (processDefinitions == null) {
+				continue;
+			}
+
+			processDefinitions.remove(processDefinition);
+			if (processDefinitions.isEmpty()) {
+				definitions.remove(processDefinition.id);
+			}
+		}
+
+		dirty = true;
+	}
+
+	/**
+	 * Adds the given process definitions to the result, skipping those of files
+	 * which no longer exist (e.g. because their project got deleted or closed)
+	 */
+	private static void addExisting(List<ProcessDefinition> processDefinitions, List<ProcessDefinition> result) {
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+
+		for (ProcessDefinition processDefinition : processDefinitions) {
+			if (root.getFile(new Path(processDefinition.path)).isAccessible()) {
+				result.add(processDefinition);
+			}
+		}
+	}
+
+	/**
+	 * Scans the given BPMN 2.0 document for the processes it defines
+	 *
+	 * @param is
+	 * @param path the full path of the scanned file
+	 *
+	 * @return the process definitions or null if the document could not be parsed
+	 */
+	public static List<ProcessDefinition> scan(InputStream is, String path) {
+		ProcessScanner scanner = new ProcessScanner(path);
+
+		try {
+			getParser().parse(is, scanner);
+		} catch (Exception e) {
+			// not well formed, keep what has been found so far
+			if (scanner.processDefinitions.isEmpty()) {
+				return null;
+			}
+		}
+
+		return scanner.processDefinitions;
+	}
+
+	private static synchronized SAXParser getParser() throws Exception {
+		if (parserFactory == null) {
+			SAXParserFactory factory = SAXParserFactory.newInstance();
+			factory.setNamespaceAware(true);
+			factory.setValidating(false);
+
+			// do not resolve external entities or DTDs
+			factory.setFeature("http://xml.org/sax/features/external-general-entities", false); //$NON-NLS-1$
+			factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false); //$NON-NLS-1$
+
+			parserFactory = factory;
+		}
+
+		return parserFactory.newSAXParser();
+	}
+
+	private static String getKey(IFile file) {
+		return file.getFullPath().toString();
+	}
+
+	/**
+	 * Moves the source file over the target file, atomically if supported by the file system
+	 */
+	private static void replace(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Returns the process definition index, loading it from the
+	 * state location of the plugin if necessary.
+	 *
+	 * @return
+	 */
+	public static synchronized ProcessDefinitionIndex getInstance() {
+		if (instance == null) {
+			File indexFile = Activator.getDefault().getStateLocation().append(INDEX_FILE_NAME).toFile();
+
+			instance = new ProcessDefinitionIndex(indexFile);
+			instance.load();
+		}
+
+		return instance;
+	}
+
+	/**
+	 * A process defined in a file of the workspace
+	 */
+	public static class ProcessDefinition implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String id;
+		private final String name;
+		private final boolean executable;
+		private final String path;
+
+		public ProcessDefinition(String id, String name, boolean executable, String path) {
+			this.id = id;
+			this.name = name;
+			this.executable = executable;
+			this.path = path;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isExecutable() {
+			return executable;
+		}
+
+		/**
+		 * Returns the full path of the file defining the process
+		 *
+		 * @return
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		public IFile getFile() {
+			return ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(path));
+		}
+
+		@Override
+		public String toString() {
+			return id + " (" + path + ")"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Indexed processes of a file
+	 */
+	private static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long modificationStamp;
+		private final List<ProcessDefinition> processDefinitions;
+
+		public Entry(long modificationStamp, List<ProcessDefinition> processDefinitions) {
+			this.modificationStamp = modificationStamp;
+			this.processDefinitions = processDefinitions;
+		}
+	}
+
+	/**
+	 * Collects the process elements of a BPMN 2.0 document
+	 */
+	private static class ProcessScanner extends DefaultHandler {
+
+		private final String path;
+
+		private final List<ProcessDefinition> processDefinitions = new ArrayList<ProcessDefinition>();
+
+		public ProcessScanner(String path) {
+			this.path = path;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+			if (!PROCESS_ELEMENT.equals(localName) || !BPMN2_MODEL_NS.equals(uri)) {
+				return;
+			}
+
+			String id = attributes.getValue("id"); //$NON-NLS-1$
+			if (id == null || id.isEmpty()) {
+				return;
+			}
+
+			String name = attributes.getValue("name"); //$NON-NLS-1$
+			boolean executable = !"false".equals(attributes.getValue("isExecutable")); //$NON-NLS-1$ //$NON-NLS-2$
+
+			processDefinitions.add(new ProcessDefinition(id, name, executable, path));
+		}
+	}
+}
@@ -91,10 +91,19 @@ public abstract class AbstractTabSection extends GFPropertySection implements IT
 	
 	@Override
 	public void refresh() {
-		resetParentComposite();
-		
-		createPropertiesComposite(parent, page);
-		
+		Composite propertiesContainer = parent.getParent();
+
+		// do not paint the widgets one by one while they are rebuilt
+		propertiesContainer.setRedraw(false);
+
+		try {
+			resetParentComposite();
+
+			createPropertiesComposite(parent, page);
+		} finally {
+			propertiesContainer.setRedraw(true);
+		}
+
 		redraw(); // otherwise the composite will not properly redrawn after saving some changes, SWT sucks
 	}
 	
@@ -14,6 +14,7 @@ package org.camunda.bpm.modeler.core.utils;
 
 import java.util.List;
 
+import org.camunda.bpm.modeler.core.model.index.PictogramLinkIndexAdapter;
 import org.camunda.bpm.modeler.ui.diagram.editor.Bpmn2Editor;
 import org.eclipse.bpmn2.Association;
 import org.eclipse.bpmn2.BaseElement;
@@ -186,7 +187,7 @@ public class BusinessObjectUtil {
 	 */
 	public static PictogramElement getLinkingPictogramElement(EObject businessObject, Diagram diagram) {
 		
-		List<PictogramElement> pictogramElements = Graphiti.getLinkService().getPictogramElements(diagram, businessObject);
+		List<PictogramElement> pictogramElements = PictogramLinkIndexAdapter.get(diagram).getPictogramElements(businessObject);
 		if (pictogramElements.isEmpty()) {
 			return null;
 		} else {
@@ -26,7 +26,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.modeler.core.ModelHandler;
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.features.DefaultBpmn2MoveShapeFeature;
 import org.camunda.bpm.modeler.core.features.PropertyNames;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
@@ -471,7 +471,7 @@ public class FeatureSupport {
 			
 			@Override
 			public void execute(final Shape lane) {
-				DIUtils.updateDIShape(lane);
+				DISynchronizer.updateDI(lane);
 			}
 		});
 	}
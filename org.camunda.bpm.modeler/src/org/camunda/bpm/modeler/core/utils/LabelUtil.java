@@ -12,6 +12,7 @@ import java.util.List;
 import org.camunda.bpm.modeler.Messages;
 import org.camunda.bpm.modeler.core.features.PropertyNames;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
+import org.camunda.bpm.modeler.core.model.index.PictogramLinkIndexAdapter;
 import org.camunda.bpm.modeler.ui.features.context.RepositionContext;
 import org.eclipse.bpmn2.BaseElement;
 import org.eclipse.graphiti.datatypes.IRectangle;
@@ -133,7 +134,7 @@ public class LabelUtil {
 			throw new IllegalArgumentException(Messages.LabelUtil_1);
 		}
 		
-		List<PictogramElement> linkedPictogramElements = Graphiti.getLinkService().getPictogramElements(diagram, bpmnElement);
+		List<PictogramElement> linkedPictogramElements = PictogramLinkIndexAdapter.get(diagram).getPictogramElements(bpmnElement);
 		
 		for (PictogramElement element : linkedPictogramElements) {
 			if (!isLabel(element)) {
@@ -158,7 +159,7 @@ public class LabelUtil {
 			throw new IllegalArgumentException(Messages.LabelUtil_2);
 		}
 		
-		List<PictogramElement> linkedPictogramElements = Graphiti.getLinkService().getPictogramElements(diagram, bpmnElement);
+		List<PictogramElement> linkedPictogramElements = PictogramLinkIndexAdapter.get(diagram).getPictogramElements(bpmnElement);
 		
 		for (PictogramElement element : linkedPictogramElements) {
 			if (isLabel(element)) {
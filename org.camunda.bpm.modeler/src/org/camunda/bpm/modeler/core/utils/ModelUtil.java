@@ -13,12 +13,15 @@
 package org.camunda.bpm.modeler.core.utils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.camunda.bpm.modeler.Messages;
+import org.camunda.bpm.modeler.core.model.index.IdAllocator;
+import org.camunda.bpm.modeler.core.model.index.IdIndexAdapter;
 import org.eclipse.bpmn2.BaseElement;
 import org.eclipse.bpmn2.Choreography;
 import org.eclipse.bpmn2.Collaboration;
@@ -56,33 +59,23 @@ import org.eclipse.graphiti.ui.editor.DiagramEditor;
 
 public class ModelUtil {
 
-	// TODO: need to determine whether IDs need to be unique within a Resource or
-	// ResourceSet - see getKey()
-
-	// Map of EMF resource sets to ID mapping tables. The ID mapping tables map a
-	// BPMN2 element ID string to the EObject.
-	// The EObject is not used anywhere (yet!) just a placeholder to allow use of
-	// a HashMap for fast lookups of the ID string.
-	// The ID strings are composed from the BPMN2 element description name and a
-	// sequence number (starting at 1).
-	// When a new ID is requested, generateID() simply increments the sequence
-	// number until an ID is found that isn't
-	// already in the table.
-	public static HashMap<Object, Hashtable<String, EObject>> ids = new HashMap<Object, Hashtable<String, EObject>>();
-	
-	// Map of ID strings and sequential counters for each BPMN2 element
-	// description.
-	public static HashMap<String, Integer> defaultIds = new HashMap<String, Integer>();
+	// Sequential counters for each BPMN2 element description, used to generate
+	// IDs for objects that have not been added to a Resource yet.
+	// IDs of objects contained in a Resource are allocated by the IdAllocator
+	// attached to that Resource.
+	private static final ConcurrentMap<String, AtomicInteger> defaultIds = new ConcurrentHashMap<String, AtomicInteger>();
 
 	/**
-	 * Clear the IDs hashmap for the given EMF Resource. This should be called
-	 * when the editor is disposed to avoid unnecessary growth of the IDs table.
+	 * Release the ID allocation state for the given EMF Resource. This should be called
+	 * when the editor is disposed.
 	 * 
 	 * @param res
 	 *          - the EMF Resource that was used to generate the ID strings.
+	 * @param all
+	 *          - whether the counters for objects not contained in a Resource should be reset, too
 	 */
 	public static void clearIDs(final Resource res, final boolean all) {
-		ids.remove(getKey(res));
+		IdAllocator.dispose(res);
 		if (all) {
 			defaultIds.clear();
 		}
@@ -110,20 +103,6 @@ public class ModelUtil {
 		return name;
 	}
 
-	private static Object getKey(final EObject obj) {
-		Resource resource = getResource(obj);
-		if (resource == null) {
-			return null;
-		}
-		assert (obj != null);
-		return getKey(resource);
-	}
-
-	private static Object getKey(final Resource res) {
-		assert (res != null);
-		return res.getResourceSet();
-	}
-
 	/**
 	 * If an EObject has not yet been added to a Resource (e.g. during
 	 * construction) generate an ID string using a different strategy (basically
@@ -137,20 +116,30 @@ public class ModelUtil {
 	private static String generateDefaultID(final EObject obj, String name) {
 		if (name == null)
 			name = getObjectName(obj);
-		Integer value = defaultIds.get(name);
-		if (value == null)
-			value = Integer.valueOf(1);
-		value = Integer.valueOf(value.intValue() + 1);
-		defaultIds.put(name, Integer.valueOf(value));
+		
+		int value = getDefaultIdCounter(name).incrementAndGet();
 
 		return "_" + name + "_" + value; //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
+	private static AtomicInteger getDefaultIdCounter(String name) {
+		AtomicInteger counter = defaultIds.get(name);
+		if (counter == null) {
+			AtomicInteger newCounter = new AtomicInteger(1);
+			counter = defaultIds.putIfAbsent(name, newCounter);
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+		
+		return counter;
+	}
+	
 	/**
 	 * Generate an ID string for a given BPMN2 object that will (eventually!) be
 	 * added to the given Resource.
 	 * 
-	 * CAUTION: IDs for objects that have already been deleted WILL be reused.
+	 * IDs of objects that have been removed from the Resource may be reused.
 	 * 
 	 * @param obj
 	 *          - the BPMN2 object
@@ -163,35 +152,21 @@ public class ModelUtil {
 	}
 
 	public static String generateID(final EObject obj, final Resource res, String name) {
-		Object key = (res == null ? getKey(obj) : getKey(res));
-		if (key != null) {
-			Hashtable<String, EObject> tab = ids.get(key);
-			if (tab == null) {
-				tab = new Hashtable<String, EObject>();
-				ids.put(key, tab);
-			}
-
-			String id = name;
+		Resource resource = (res == null ? getResource(obj) : res);
+		if (resource != null) {
+			IdAllocator allocator = IdAllocator.get(resource);
 			if (name == null) {
-				name = getObjectName(obj);
-				id = name + "_" + 1; //$NON-NLS-1$
-			}
-
-			for (int i = 1;; ++i) {
-				if (tab.get(id) == null) {
-					tab.put(id, obj);
-					return id;
-				}
-				id = name + "_" + i; //$NON-NLS-1$
+				return allocator.allocate(obj, getObjectName(obj), false);
+			} else {
+				return allocator.allocate(obj, name, true);
 			}
 		}
 		return generateDefaultID(obj, name);
 	}
 
 	/**
-	 * Add an ID string to the ID mapping table(s). This must be used during model
-	 * import to add existing BPMN2 element IDs to the table so we don't generate
-	 * duplicates.
+	 * Add an ID string to the ID mapping table(s). This ensures the ID
+	 * won't be generated for other objects.
 	 * 
 	 * @param obj the BPMN2 object
 	 */
@@ -211,9 +186,11 @@ public class ModelUtil {
 	}
 
 	/**
-	 * Add an ID string to the ID mapping table(s). This must be used during model
-	 * import to add existing BPMN2 element IDs to the table so we don't generate
-	 * duplicates.
+	 * Add an ID string to the ID mapping table(s). This ensures the ID
+	 * won't be generated for other objects.
+	 * 
+	 * IDs of objects contained in a Resource are tracked automatically; 
+	 * there is no need to add them during model import.
 	 * 
 	 * @param obj
 	 *          - the BPMN2 object
@@ -221,29 +198,61 @@ public class ModelUtil {
 	 *          - the object's ID string
 	 */
 	public static void addID(final EObject obj, final String id) {
-		Object key = getKey(obj);
+		Resource resource = getResource(obj);
 		String name = getObjectName(obj);
-		if (key == null || id.startsWith("_" + name + "_")) { //$NON-NLS-1$ //$NON-NLS-2$
-			int newValue = 0;
-			try {
-				int i = id.lastIndexOf('_') + 1;
-				if (i < id.length())
-					newValue = Integer.parseInt(id.substring(i));
-			} catch (Exception e) {
-			}
-			Integer oldValue = defaultIds.get(name);
-			if (oldValue == null || newValue > oldValue.intValue())
-				defaultIds.put(name, Integer.valueOf(newValue));
-		} else {
-			Hashtable<String, EObject> tab = ids.get(key);
-			if (tab == null) {
-				tab = new Hashtable<String, EObject>();
-				ids.put(key, tab);
+		if (resource == null || id.startsWith("_" + name + "_")) { //$NON-NLS-1$ //$NON-NLS-2$
+			addDefaultID(name, id);
+		}
+		
+		if (resource != null) {
+			IdAllocator.get(resource).register(obj, id);
+		}
+	}
+
+	/**
+	 * Add the IDs of all objects contained in the given Resource which have
+	 * the form of a default ID (<code>_Task_2</code>) to the default ID table.
+	 * 
+	 * This ensures that objects which are assigned an ID before they are
+	 * added to the Resource do not get an ID already used in it, e.g. after
+	 * a model has been reopened. Should be called once the Resource is loaded.
+	 * 
+	 * @param res
+	 *          - the EMF Resource
+	 */
+	public static void addDefaultIDs(final Resource res) {
+		for (String id : IdIndexAdapter.get(res).getIds()) {
+			int i = id.lastIndexOf('_');
+			if (id.startsWith("_") && i > 1) { //$NON-NLS-1$
+				addDefaultID(id.substring(1, i), id);
 			}
-			tab.put(id, obj);
 		}
 	}
 
+	/**
+	 * Bump the default ID counter for the given element description name so
+	 * that the sequential value of the given ID won't be generated again.
+	 */
+	private static void addDefaultID(final String name, final String id) {
+		int newValue = 0;
+		try {
+			int i = id.lastIndexOf('_') + 1;
+			if (i < id.length())
+				newValue = Integer.parseInt(id.substring(i));
+		} catch (Exception e) {
+		}
+		
+		if (newValue <= 0) {
+			return;
+		}
+		
+		AtomicInteger counter = getDefaultIdCounter(name);
+		int oldValue;
+		do {
+			oldValue = counter.get();
+		} while (newValue > oldValue && !counter.compareAndSet(oldValue, newValue));
+	}
+
 	/**
 	 * Generate a unique ID for the given BPMN2 element and set it. This should
 	 * only be used during object construction AFTER an object has already been
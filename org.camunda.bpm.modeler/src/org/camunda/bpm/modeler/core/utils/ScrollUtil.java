@@ -1,5 +1,6 @@
 package org.camunda.bpm.modeler.core.utils;
 
+import org.camunda.bpm.modeler.core.layout.util.ChildrenBBoxAdapter;
 import org.camunda.bpm.modeler.core.layout.util.ConversionUtil;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
 import org.eclipse.emf.common.util.URI;
@@ -69,7 +70,8 @@ public class ScrollUtil {
 	 * @return
 	 */
 	public static Shape updateScrollShape(Diagram diagram) {
-		Shape scrollShape = getScrollShape(diagram);
+		ScrollShapeHolder holder = getHolder(diagram);
+		Shape scrollShape = holder.getScrollShape();
 		
 		int xpos = 0;
 		int ypos = 0;
@@ -78,10 +80,11 @@ public class ScrollUtil {
 			xpos = scrollShape.getGraphicsAlgorithm().getX();
 			ypos = scrollShape.getGraphicsAlgorithm().getY();
 		} else {
-			scrollShape = createScrollShape(diagram, getHolder(diagram));
+			scrollShape = createScrollShape(diagram, holder);
 		}
 		
-		IRectangle bounds = LayoutUtil.getChildrenBBox(diagram);
+		// tracked incrementally rather than computed from all children
+		IRectangle bounds = ChildrenBBoxAdapter.get(diagram).getBounds();
 		
 		updateScrollRect(bounds, xpos, ypos, scrollShape, bounds.getX(), bounds.getY());
 		
@@ -106,7 +109,7 @@ public class ScrollUtil {
 		ScrollShapeHolder holder = getHolder(rootDiagram);
 		
 		if (bounds == null) {
-			bounds = LayoutUtil.getChildrenBBox(rootDiagram);
+			bounds = ChildrenBBoxAdapter.get(rootDiagram).getBounds();
 			if (bounds == null) {
 				bounds = ConversionUtil.rectangle(0, 0, 0, 0);
 			}
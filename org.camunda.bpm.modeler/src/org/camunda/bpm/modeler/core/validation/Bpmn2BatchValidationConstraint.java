@@ -3,6 +3,7 @@ package org.camunda.bpm.modeler.core.validation;
 import java.util.List;
 
 import org.camunda.bpm.modeler.Messages;
+import org.camunda.bpm.modeler.core.project.ProcessDefinitionIndex;
 import org.eclipse.bpmn2.BaseElement;
 import org.eclipse.bpmn2.CallActivity;
 import org.eclipse.bpmn2.CatchEvent;
@@ -39,14 +40,13 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.validation.AbstractModelConstraint;
 import org.eclipse.emf.validation.EMFEventType;
 import org.eclipse.emf.validation.IValidationContext;
+import org.eclipse.osgi.util.NLS;
 
 public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 
 	public final static String ERROR_ID = "org.camunda.bpm.modeler.validation.error"; //$NON-NLS-1$
 	public final static String WARNING_ID = "org.camunda.bpm.modeler.validation.warning"; //$NON-NLS-1$
 	
-	private boolean warnings = false;
-	
 	public Bpmn2BatchValidationConstraint() {
 	}
 
@@ -54,11 +54,6 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 	public IStatus validate(final IValidationContext ctx) {
 		EObject eObj = ctx.getTarget();
 		EMFEventType eType = ctx.getEventType();
-		String id = ctx.getCurrentConstraintId();
-		if (WARNING_ID.equals(id))
-			warnings = true;
-		else
-			warnings = false;
 		
 		// In the case of batch mode.
 		if (eType == EMFEventType.NULL) {
@@ -88,7 +83,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 			if (root instanceof Process) {
 				Process process = (Process) root;
 
-				if (warnings) {
+				if (isWarnings(ctx)) {
 					// report warnings only
 					boolean foundStartEvent = false;
 					boolean foundEndEvent = false;
@@ -119,7 +114,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 				}
 			}
 			else if (root instanceof Error) {
-				if (warnings) {
+				if (isWarnings(ctx)) {
 					if (((Error)root).getStructureRef()==null) {
 						ctx.addResult(root);
 						return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_5);
@@ -127,7 +122,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 				}
 			}
 			else if (root instanceof Escalation) {
-				if (warnings) {
+				if (isWarnings(ctx)) {
 					if (((Escalation)root).getStructureRef()==null) {
 						ctx.addResult(root);
 						return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_6);
@@ -135,7 +130,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 				}
 			}
 			else if (root instanceof Message) {
-				if (warnings) {
+				if (isWarnings(ctx)) {
 					if (((Message)root).getItemRef()==null) {
 						ctx.addResult(root);
 						return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_7);
@@ -143,7 +138,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 				}
 			}
 			else if (root instanceof Signal) {
-				if (warnings) {
+				if (isWarnings(ctx)) {
 					if (((Signal)root).getStructureRef()==null) {
 						ctx.addResult(root);
 						return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_8);
@@ -151,7 +146,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 				}
 			}
 			else if (root instanceof ItemDefinition) {
-				if (!warnings) {
+				if (!isWarnings(ctx)) {
 					if (((ItemDefinition)root).getStructureRef()==null) {
 						ctx.addResult(root);
 						return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_9);
@@ -167,7 +162,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		if (fe instanceof StartEvent) {
 			StartEvent se = (StartEvent) fe;
 			
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				if (se.getOutgoing() == null || se.getOutgoing().size() < 1) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_10);
 				}
@@ -176,7 +171,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof EndEvent) {
 			EndEvent ee = (EndEvent) fe;
 			
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				if (ee.getIncoming() == null || ee.getIncoming().size() < 1) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_11);
 				}
@@ -185,7 +180,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof ScriptTask) {
 			ScriptTask st = (ScriptTask) fe;
 			
-			if (warnings) {
+			if (isWarnings(ctx)) {
 				if (isEmpty(st.getScript())) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_12);
 				}
@@ -197,7 +192,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof SendTask) {
 			SendTask st = (SendTask) fe;
 
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				if (st.getOperationRef() == null) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_14);
 				}
@@ -209,7 +204,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof CatchEvent) {
 			CatchEvent event = (CatchEvent) fe;
 
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				List<EventDefinition> eventdefs = event.getEventDefinitions();
 				if (eventdefs.size()==0) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_16);
@@ -258,7 +253,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof ThrowEvent) {
 			ThrowEvent event = (ThrowEvent) fe;
 
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				List<EventDefinition> eventdefs = event.getEventDefinitions();
 				if (eventdefs.size()==0) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_24);
@@ -307,7 +302,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof SequenceFlow) {
 			SequenceFlow sf = (SequenceFlow) fe;
 
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				if (sf.getSourceRef() == null) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_32);
 				}
@@ -319,7 +314,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof Gateway) {
 			Gateway gw = (Gateway) fe;
 
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 //				if (gw.getGatewayDirection() == null
 //						|| gw.getGatewayDirection().getValue() == GatewayDirection.UNSPECIFIED.getValue()) {
 //					ctx.addResult(Bpmn2Package.eINSTANCE.getGateway_GatewayDirection());
@@ -364,17 +359,25 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		else if (fe instanceof CallActivity) {
 			CallActivity ca = (CallActivity) fe;
 
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				if (ca.getCalledElementRef() == null) {
 					return ctx.createFailureStatus(
 							Messages.Bpmn2BatchValidationConstraint_34);
 				}
+			} else
+			if (ca instanceof org.camunda.bpm.modeler.runtime.engine.model.CallActivity) {
+				String calledElement = ((org.camunda.bpm.modeler.runtime.engine.model.CallActivity) ca).getCalledElement();
+
+				if (ProcessDefinitionIndex.getInstance().isUndefined(calledElement)) {
+					return ctx.createFailureStatus(
+							NLS.bind(Messages.Bpmn2BatchValidationConstraint_38, calledElement));
+				}
 			}
 		}
 		else if (fe instanceof DataObject) {
 			DataObject dao = (DataObject) fe;
 
-			if (!warnings) {
+			if (!isWarnings(ctx)) {
 				if (dao.getName() == null || dao.getName().length() < 1) {
 					return ctx.createFailureStatus(Messages.Bpmn2BatchValidationConstraint_35);
 				}
@@ -390,7 +393,7 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 	}
 
 	private IStatus validateFlowNode(final IValidationContext ctx, final FlowNode fn) {
-		if (!warnings) {
+		if (!isWarnings(ctx)) {
 			boolean needIncoming = true;
 			boolean needOutgoing = true;
 			if (fn instanceof ThrowEvent)
@@ -413,6 +416,19 @@ public class Bpmn2BatchValidationConstraint extends AbstractModelConstraint {
 		return ctx.createSuccessStatus();
 	}
 
+	/**
+	 * Returns true if the currently evaluated constraint reports warnings only.
+	 * 
+	 * Derived from the context rather than stored in a field, as the constraint
+	 * instance may be evaluated by several validators concurrently.
+	 * 
+	 * @param ctx
+	 * @return
+	 */
+	private static boolean isWarnings(final IValidationContext ctx) {
+		return WARNING_ID.equals(ctx.getCurrentConstraintId());
+	}
+
 	private static boolean isEmpty(final String str) {
 		return str == null || str.isEmpty();
 	}
@@ -11,6 +11,9 @@
 package org.camunda.bpm.modeler.core.validation;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.camunda.bpm.modeler.Messages;
 import org.camunda.bpm.modeler.core.Activator;
@@ -27,6 +30,7 @@ import org.eclipse.core.resources.IProjectNature;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -34,12 +38,17 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.common.command.BasicCommandStack;
+import org.eclipse.emf.common.command.CommandStack;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EValidator;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
 import org.eclipse.emf.validation.marker.MarkerUtil;
 import org.eclipse.emf.validation.model.EvaluationMode;
 import org.eclipse.emf.validation.model.IConstraintStatus;
@@ -64,6 +73,12 @@ public class Bpmn2ProjectValidator extends AbstractValidator {
 	/** ID for BPMN2 specific problem markers. */
 	public static final String BPMN2_MARKER_ID = "org.camunda.bpm.modeler.problemMarker"; //$NON-NLS-1$
 
+	/**
+	 * Resources opened in an editor; looked up by their current uri, 
+	 * which changes if the editor saves the resource under a new name
+	 */
+	private static final Set<Resource> liveResources = Collections.newSetFromMap(new ConcurrentHashMap<Resource, Boolean>());
+
 	@Override
 	public ValidationResult validate(final ValidationEvent event, final ValidationState state, final IProgressMonitor monitor) {
 
@@ -78,6 +93,41 @@ public class Bpmn2ProjectValidator extends AbstractValidator {
 		
 		deleteValidationMarkers(file);
 
+		return validateFile(file, monitor);
+	}
+
+	/**
+	 * Validates the given file and returns the validation messages 
+	 * without creating or deleting any markers.
+	 * 
+	 * May be called concurrently for different files.
+	 * 
+	 * @param file
+	 * @param monitor
+	 * 
+	 * @return
+	 */
+	public static ValidationResult validateFile(final IFile file, final IProgressMonitor monitor) {
+
+		ValidationResult result = new ValidationResult();
+		
+		// validate the model opened in an editor, if any, rather than re-parsing the file;
+		// a model with unsaved changes does not reflect the file contents, though
+		Resource liveResource = getLiveResource(file);
+		if (liveResource != null && !isDirty(liveResource) && validateLive(liveResource, file, monitor, result)) {
+			return result;
+		}
+		
+		// reuse the results of a previous validation if the file did not change since
+		ValidationCache cache = ValidationCache.getInstance();
+		
+		String hash = cache.hash(file);
+		
+		ValidationResult cachedResult = cache.get(file, hash);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+
 		ResourceSet rs = new Bpmn2ModelerResourceSetImpl();
 		rs.setURIConverter(new ProxyURIConverterImplExtension());
 
@@ -93,6 +143,8 @@ public class Bpmn2ProjectValidator extends AbstractValidator {
 				IBatchValidator validator = ModelValidationService.getInstance().newValidator(EvaluationMode.BATCH);
 				processStatus(validator.validate(resource.getContents(), monitor), file, result);
 			}
+			
+			cache.put(file, hash, cache.getImportStamps(resource), result);
 		} catch (IOException e) {
 			result.add(createValidatorMessage(Messages.Bpmn2ProjectValidator_2, file));
 		}
@@ -100,12 +152,138 @@ public class Bpmn2ProjectValidator extends AbstractValidator {
 		return result;
 	}
 
-	private ValidatorMessage createValidatorMessage(final String message, final IFile file) {
+	/**
+	 * Returns the resource opened in an editor for the given file, if any
+	 * 
+	 * @param file
+	 * @return
+	 */
+	private static Resource getLiveResource(final IFile file) {
+		for (Resource resource : liveResources) {
+			if (resource.getURI().isPlatformResource() && file.getFullPath().equals(getFile(resource).getFullPath())) {
+				return resource;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Returns true if the given resource has been changed since it got loaded or saved
+	 * 
+	 * @param resource
+	 * @return
+	 */
+	private static boolean isDirty(final Resource resource) {
+		if (resource.isModified()) {
+			return true;
+		}
+		
+		TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(resource);
+		if (editingDomain != null) {
+			CommandStack commandStack = editingDomain.getCommandStack();
+			if (commandStack instanceof BasicCommandStack) {
+				return ((BasicCommandStack) commandStack).isSaveNeeded();
+			}
+		}
+		
+		return false;
+	}
+
+	/**
+	 * Incrementally validates the given live resource, re-checking
+	 * only the elements changed since the last validation.
+	 * 
+	 * @param resource
+	 * @param file
+	 * @param monitor
+	 * @param result
+	 * 
+	 * @return true if the resource got validated
+	 */
+	private static boolean validateLive(final Resource resource, final IFile file, final IProgressMonitor monitor, final ValidationResult result) {
+		final IncrementalValidationAdapter validationAdapter = IncrementalValidationAdapter.get(resource);
+		final IStatus[] status = new IStatus[1];
+		
+		Runnable validation = new Runnable() {
+			
+			@Override
+			public void run() {
+				status[0] = validationAdapter.validate(monitor);
+			}
+		};
+		
+		// make sure the model does not change while we validate it
+		TransactionalEditingDomain editingDomain = TransactionUtil.getEditingDomain(resource);
+		try {
+			if (editingDomain != null) {
+				editingDomain.runExclusive(validation);
+			} else {
+				validation.run();
+			}
+		} catch (InterruptedException e) {
+			return false;
+		}
+		
+		processStatus(status[0], file, result);
+		
+		return true;
+	}
+	
+	/**
+	 * Registers a resource opened in an editor; validation of the resource's
+	 * file is performed on the resource from then on, incrementally.
+	 * 
+	 * @param resource
+	 */
+	public static void connect(final Resource resource) {
+		if (!resource.getURI().isPlatformResource()) {
+			return;
+		}
+		
+		IncrementalValidationAdapter.get(resource);
+		liveResources.add(resource);
+	}
+	
+	/**
+	 * Unregisters a resource previously registered via {@link #connect(Resource)}
+	 * 
+	 * @param resource
+	 */
+	public static void disconnect(final Resource resource) {
+		if (!liveResources.remove(resource)) {
+			return;
+		}
+		
+		IncrementalValidationAdapter.dispose(resource);
+	}
+
+	private static ValidatorMessage createValidatorMessage(final String message, final IFile file) {
 		ValidatorMessage m = ValidatorMessage.create(message, file);
 		m.setType(BPMN2_MARKER_ID);
 		return m;
 	}
 
+	/**
+	 * Replaces the validation markers of the given file with the ones 
+	 * described by the given validation result.
+	 * 
+	 * @param file
+	 * @param result
+	 * 
+	 * @throws CoreException
+	 */
+	public static void updateMarkers(final IFile file, final ValidationResult result) throws CoreException {
+		file.deleteMarkers(BPMN2_MARKER_ID, false, IProject.DEPTH_INFINITE);
+		
+		for (ValidatorMessage message : result.getMessages()) {
+			String type = message.getType() != null ? message.getType() : BPMN2_MARKER_ID;
+			
+			IMarker marker = file.createMarker(type);
+			marker.setAttributes(message.getAttributes());
+		}
+	}
+
 	private void deleteValidationMarkers(final IFile file) {
 		try {
 			// delete validation markers
@@ -178,6 +356,32 @@ public class Bpmn2ProjectValidator extends AbstractValidator {
 		return validate(file, monitor);
 	}
 	
+	/**
+	 * Schedules the validation of the given resource in a background job
+	 * 
+	 * @param resource
+	 * 
+	 * @return the scheduled job
+	 */
+	public static Job validateResourceInBackground(final Resource resource) {
+		final IFile file = getFile(resource);
+		
+		Job job = new WorkspaceJob(Messages.Bpmn2ProjectValidator_11 + file.getName()) {
+			
+			@Override
+			public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
+				validate(file, monitor);
+				
+				return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+			}
+		};
+		
+		job.setRule(file);
+		job.schedule();
+		
+		return job;
+	}
+	
 	public static boolean validateAfterSave(final Resource resource, final IProgressMonitor monitor) {
 
 		boolean needValidation = false;
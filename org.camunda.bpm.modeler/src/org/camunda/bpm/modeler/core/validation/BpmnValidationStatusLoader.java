@@ -10,6 +10,7 @@ import org.camunda.bpm.modeler.core.Activator;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.notify.AdapterFactory;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EValidator;
@@ -31,10 +32,27 @@ public class BpmnValidationStatusLoader {
 		this.editor = editor;
 	}
 
+	/**
+	 * Registers the adapter factory for tracking validation errors
+	 * with the given resource set, unless it is registered already.
+	 *
+	 * @param resourceSet
+	 */
+	public static void ensureAdapterFactory(ResourceSet resourceSet) {
+		synchronized (resourceSet) {
+			List<AdapterFactory> adapterFactories = resourceSet.getAdapterFactories();
+			if (EcoreUtil.getAdapterFactory(adapterFactories, ValidationStatusAdapter.class) == null) {
+				adapterFactories.add(new ValidationStatusAdapterFactory());
+			}
+		}
+	}
+
 	public Set<EObject> load(List<IMarker> markers) {
 		if (markers == null) {
 			return Collections.emptySet();
 		}
+		ensureAdapterFactory(editor.getEditingDomain().getResourceSet());
+
 		Set<EObject> touched = new LinkedHashSet<EObject>();
 		for (IMarker marker : markers) {
 			final EObject markedObject = getTargetObject(marker);
@@ -44,12 +62,9 @@ public class BpmnValidationStatusLoader {
 			ValidationStatusAdapter statusAdapter = (ValidationStatusAdapter) EcoreUtil.getRegisteredAdapter(markedObject,
 					ValidationStatusAdapter.class);
 
-			// add the adapter factory for tracking validation errors
+			// object is not contained in the resource set
 			if (statusAdapter == null) {
-				ResourceSet resourceSet = editor.getEditingDomain().getResourceSet();
-				resourceSet.getAdapterFactories().add(new ValidationStatusAdapterFactory());
-				statusAdapter = (ValidationStatusAdapter) EcoreUtil.getRegisteredAdapter(markedObject,
-						ValidationStatusAdapter.class);
+				continue;
 			}
 
 			// convert the problem marker to an IStatus suitable for the validation
@@ -0,0 +1,232 @@
+package org.camunda.bpm.modeler.core.validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.modeler.core.Activator;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.di.BPMNDiagram;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.validation.model.EvaluationMode;
+import org.eclipse.emf.validation.model.IConstraintStatus;
+import org.eclipse.emf.validation.service.IBatchValidator;
+import org.eclipse.emf.validation.service.ITraversalStrategy;
+import org.eclipse.emf.validation.service.ModelValidationService;
+
+/**
+ * Validates a (live) {@link Resource} incrementally.
+ *
+ * The adapter records all elements which have been added to or changed in the
+ * resource since the last validation run. A run re-validates those elements along
+ * with their containers (which may be subject to constraints spanning their children)
+ * and reuses the results of the previous runs for all other elements.
+ *
+ * Elements which summarize their children in validation ({@link Definitions}, {@link BPMNDiagram})
+ * are re-validated on every run.
+ *
+ * Use {@link #get(Resource)} to obtain the adapter for a resource.
+ */
+public class IncrementalValidationAdapter extends EContentAdapter {
+
+	private final Resource resource;
+
+	/**
+	 * Elements added or changed since the last validation run
+	 */
+	private final Set<EObject> changed = new LinkedHashSet<EObject>();
+
+	/**
+	 * The (non ok) validation results of the last run(s), by validated element
+	 */
+	private final Map<EObject, List<IStatus>> results = new HashMap<EObject, List<IStatus>>();
+
+	protected IncrementalValidationAdapter(Resource resource) {
+		this.resource = resource;
+	}
+
+	/**
+	 * Validates all elements changed since the last run and returns
+	 * the validation results for the whole resource.
+	 *
+	 * @param monitor
+	 * @return
+	 */
+	public synchronized IStatus validate(IProgressMonitor monitor) {
+
+		Set<EObject> elements = new LinkedHashSet<EObject>();
+
+		for (EObject element : changed) {
+			// changed elements may have been moved to another resource in the meantime
+			if (element.eResource() != resource) {
+				continue;
+			}
+
+			// constraints on a container may depend on its children, e.g. on their ids
+			// or on the flows connecting them; stop at already collected containers
+			EObject current = element;
+			while (current != null && elements.add(current)) {
+				current = current.eContainer();
+			}
+		}
+
+		changed.clear();
+
+		for (EObject root : resource.getContents()) {
+			for (EObject child : root.eContents()) {
+				if (child instanceof Definitions) {
+					Definitions definitions = (Definitions) child;
+
+					elements.add(definitions);
+					elements.addAll(definitions.getDiagrams());
+				}
+			}
+		}
+
+		IBatchValidator validator = ModelValidationService.getInstance().newValidator(EvaluationMode.BATCH);
+
+		// validate the given elements only, their children
+		// are contained in the change set if needed
+		validator.setTraversalStrategy(new ITraversalStrategy.Flat());
+
+		IStatus status = validator.validate(elements, monitor);
+
+		for (EObject element : elements) {
+			results.remove(element);
+		}
+
+		collectResults(status);
+
+		MultiStatus result = new MultiStatus(Activator.PLUGIN_ID, 0, status.getMessage(), null);
+		for (List<IStatus> elementResults : results.values()) {
+			for (IStatus elementResult : elementResults) {
+				result.add(elementResult);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Marks all elements of the resource as changed, forcing
+	 * a full validation upon the next run.
+	 */
+	public synchronized void invalidate() {
+		changed.clear();
+		results.clear();
+
+		TreeIterator<EObject> contents = resource.getAllContents();
+		while (contents.hasNext()) {
+			changed.add(contents.next());
+		}
+	}
+
+	private void collectResults(IStatus status) {
+		if (status.isMultiStatus()) {
+			for (IStatus child : status.getChildren()) {
+				collectResults(child);
+			}
+		} else
+		if (!status.isOK() && status instanceof IConstraintStatus) {
+			EObject element = ((IConstraintStatus) status).getTarget();
+
+			List<IStatus> elementResults = results.get(element);
+			if (elementResults == null) {
+				elementResults = new ArrayList<IStatus>(1);
+				results.put(element, elementResults);
+			}
+
+			elementResults.add(status);
+		}
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+
+		Object notifier = notification.getNotifier();
+		if (notifier instanceof EObject && !notification.isTouch()) {
+			synchronized (this) {
+				changed.add((EObject) notifier);
+			}
+		}
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		synchronized (this) {
+			changed.add(target);
+		}
+
+		super.setTarget(target);
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+
+		synchronized (this) {
+			changed.remove(target);
+			results.remove(target);
+		}
+	}
+
+	@Override
+	protected boolean resolve() {
+		return false;
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type == IncrementalValidationAdapter.class;
+	}
+
+	/**
+	 * Returns the incremental validation adapter for the given resource,
+	 * attaching a new one if it does not exist yet.
+	 *
+	 * @param resource
+	 * @return
+	 */
+	public static IncrementalValidationAdapter get(Resource resource) {
+		synchronized (resource) {
+			IncrementalValidationAdapter adapter = getExisting(resource);
+			if (adapter == null) {
+				adapter = new IncrementalValidationAdapter(resource);
+				resource.eAdapters().add(adapter);
+			}
+
+			return adapter;
+		}
+	}
+
+	/**
+	 * Detaches the incremental validation adapter from the given resource.
+	 *
+	 * @param resource
+	 */
+	public static void dispose(Resource resource) {
+		synchronized (resource) {
+			IncrementalValidationAdapter adapter = getExisting(resource);
+			if (adapter != null) {
+				resource.eAdapters().remove(adapter);
+			}
+		}
+	}
+
+	private static IncrementalValidationAdapter getExisting(Notifier resource) {
+		return (IncrementalValidationAdapter) EcoreUtil.getExistingAdapter(resource, IncrementalValidationAdapter.class);
+	}
+}
@@ -0,0 +1,482 @@
+package org.camunda.bpm.modeler.core.validation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.camunda.bpm.modeler.core.Activator;
+import org.camunda.bpm.modeler.core.project.ProcessDefinitionIndex;
+import org.camunda.bpm.modeler.core.project.ProcessDefinitionIndex.ProcessDefinition;
+import org.camunda.bpm.modeler.core.runtime.TargetRuntime;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.DocumentRoot;
+import org.eclipse.bpmn2.Import;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.validation.preferences.EMFModelValidationPreferences;
+import org.eclipse.emf.validation.service.ConstraintRegistry;
+import org.eclipse.emf.validation.service.IConstraintDescriptor;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.ValidatorMessage;
+
+/**
+ * Persistent cache of validation results, keyed by the content hash of the validated files
+ * and the modification stamps of the files they import.
+ *
+ * Allows builds to skip parsing and validating files which did not change since they
+ * have last been validated, across workspace sessions. The cache is stored in the state
+ * location of the plugin.
+ *
+ * All cached results are discarded whenever the set of active constraints, the target
+ * runtime or the version of the plugin changes. This is checked once per build
+ * (see {@link #checkFingerprint()}).
+ *
+ * Use {@link #getInstance()} to obtain the cache.
+ */
+public class ValidationCache {
+
+	private static final String CACHE_FILE_NAME = "validation.cache"; //$NON-NLS-1$
+
+	private static final long NO_TIME_STAMP = -1;
+
+	private static ValidationCache instance;
+
+	private final File cacheFile;
+
+	/**
+	 * Identifies the validation setup the cached results have been computed with
+	 */
+	private String fingerprint;
+
+	/**
+	 * Whether the fingerprint has been compared against the current validation setup
+	 */
+	private boolean fingerprintChecked = false;
+
+	private Map<String, Entry> entries = new HashMap<String, Entry>();
+
+	private boolean dirty = false;
+
+	protected ValidationCache(File cacheFile) {
+		this.cacheFile = cacheFile;
+	}
+
+	/**
+	 * Returns the cached validation result for the given file,
+	 * or null if the file changed since it has last been validated.
+	 *
+	 * @param file
+	 * @param hash the content hash of the file
+	 *
+	 * @return
+	 */
+	public ValidationResult get(IFile file, String hash) {
+		if (hash == null) {
+			return null;
+		}
+
+		Entry entry;
+
+		synchronized (this) {
+			ensureFingerprint();
+
+			entry = entries.get(getKey(file));
+		}
+
+		if (entry == null || !entry.hash.equals(hash)) {
+			return null;
+		}
+
+		// the results are outdated if an imported file changed
+		for (Map.Entry<String, Long> importStamp : entry.imports.entrySet()) {
+			if (getTimeStamp(URI.createURI(importStamp.getKey())) != importStamp.getValue()) {
+				return null;
+			}
+		}
+
+		ValidationResult result = new ValidationResult();
+
+		for (CachedMessage cachedMessage : entry.messages) {
+			ValidatorMessage message = ValidatorMessage.create((String) cachedMessage.attributes.get(IMarker.MESSAGE), file);
+			message.setType(cachedMessage.type);
+			// the message may be modified by its consumers; keep the cached attributes intact
+			message.setAttributes(new HashMap<String, Object>(cachedMessage.attributes));
+
+			result.add(message);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Caches the validation result for the given file
+	 *
+	 * @param file
+	 * @param hash the content hash of the file
+	 * @param imports the modification stamps of the files imported by the file, as returned by {@link #getImportStamps(Resource)}
+	 * @param result
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized void put(IFile file, String hash, Map<String, Long> imports, ValidationResult result) {
+		if (hash == null) {
+			return;
+		}
+
+		ensureFingerprint();
+
+		List<CachedMessage> messages = new ArrayList<CachedMessage>();
+		for (ValidatorMessage message : result.getMessages()) {
+			messages.add(new CachedMessage(message.getType(), new HashMap<String, Object>(message.getAttributes())));
+		}
+
+		entries.put(getKey(file), new Entry(hash, new HashMap<String, Long>(imports), messages));
+		dirty = true;
+	}
+
+	/**
+	 * Returns the modification stamps of the files (WSDL, XSD, BPMN) imported
+	 * by the given resource, by their uri
+	 *
+	 * @param resource
+	 * @return
+	 */
+	public Map<String, Long> getImportStamps(Resource resource) {
+		Map<String, Long> stamps = new HashMap<String, Long>();
+
+		for (EObject root : resource.getContents()) {
+			if (!(root instanceof DocumentRoot)) {
+				continue;
+			}
+
+			Definitions definitions = ((DocumentRoot) root).getDefinitions();
+			if (definitions == null) {
+				continue;
+			}
+
+			for (Import imp : definitions.getImports()) {
+				if (imp.getLocation() == null) {
+					continue;
+				}
+
+				URI uri = URI.createURI(imp.getLocation());
+				if (uri.isRelative()) {
+					uri = uri.resolve(resource.getURI());
+				}
+
+				stamps.put(uri.toString(), getTimeStamp(uri));
+			}
+		}
+
+		return stamps;
+	}
+
+	/**
+	 * Removes the cached validation result for the given file
+	 *
+	 * @param file
+	 */
+	public synchronized void remove(IFile file) {
+		if (entries.remove(getKey(file)) != null) {
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Computes the content hash of the given file
+	 *
+	 * @param file
+	 * @return the hash or null if the file could not be read
+	 */
+	public String hash(IFile file) {
+		InputStream is = null;
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+
+			is = new BufferedInputStream(file.getContents(true));
+
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+
+			return toHex(digest.digest());
+		} catch (CoreException e) {
+			return null;
+		} catch (IOException e) {
+			return null;
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		} finally {
+			close(is);
+		}
+	}
+
+	/**
+	 * Persists the cache to the state location of the plugin, if it changed.
+	 *
+	 * The cache is written to a temporary file which replaces the cache file once
+	 * it is complete, so that an interrupted save does not leave a truncated cache.
+	 */
+	public synchronized void save() {
+		if (!dirty) {
+			return;
+		}
+
+		File tempFile = null;
+		ObjectOutputStream os = null;
+
+		try {
+			tempFile = File.createTempFile(CACHE_FILE_NAME, ".tmp", cacheFile.getParentFile()); //$NON-NLS-1$
+
+			os = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			os.writeObject(fingerprint);
+			os.writeObject(entries);
+			os.close();
+
+			replace(tempFile, cacheFile);
+
+			dirty = false;
+		} catch (IOException e) {
+			Activator.logStatus(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Failed to save validation cache", e)); //$NON-NLS-1$
+		} finally {
+			close(os);
+
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected synchronized void load() {
+		if (!cacheFile.exists()) {
+			return;
+		}
+
+		ObjectInputStream is = null;
+
+		try {
+			is = new ObjectInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+
+			fingerprint = (String) is.readObject();
+			entries = (Map<String, Entry>) is.readObject();
+		} catch (Exception e) {
+			// corrupt or outdated cache, start over
+			fingerprint = null;
+			entries = new HashMap<String, Entry>();
+		} finally {
+			close(is);
+		}
+	}
+
+	/**
+	 * Discards all cached results if the validation setup changed.
+	 *
+	 * Scans the constraint registry and is therefore called once
+	 * per build rather than for each validated file.
+	 */
+	public void checkFingerprint() {
+		String current = computeFingerprint();
+
+		synchronized (this) {
+			fingerprintChecked = true;
+
+			if (!current.equals(fingerprint)) {
+				fingerprint = current;
+				entries.clear();
+				dirty = true;
+			}
+		}
+	}
+
+	/**
+	 * Checks the fingerprint if that did not happen yet during this session
+	 */
+	private void ensureFingerprint() {
+		if (!fingerprintChecked) {
+			checkFingerprint();
+		}
+	}
+
+	/**
+	 * Computes a fingerprint of the plugin version, the current target runtime,
+	 * the constraints active in the validation service and the ids of the processes
+	 * defined in the workspace (which called elements are checked against)
+	 *
+	 * @return
+	 */
+	protected String computeFingerprint() {
+		List<String> constraintIds = new ArrayList<String>();
+
+		for (IConstraintDescriptor descriptor : ConstraintRegistry.getInstance().getAllDescriptors()) {
+			if (descriptor.isEnabled() && !EMFModelValidationPreferences.isConstraintDisabled(descriptor.getId())) {
+				constraintIds.add(descriptor.getId());
+			}
+		}
+
+		Collections.sort(constraintIds);
+
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(Activator.getDefault().getBundle().getVersion()).append(';');
+		builder.append(TargetRuntime.getCurrentRuntime().getId()).append(';');
+
+		for (String id : constraintIds) {
+			builder.append(id).append(',');
+		}
+
+		builder.append(';');
+
+		Set<String> processIds = new TreeSet<String>();
+		for (ProcessDefinition processDefinition : ProcessDefinitionIndex.getInstance().getProcessDefinitions()) {
+			processIds.add(processDefinition.getId());
+		}
+
+		for (String id : processIds) {
+			builder.append(id).append(',');
+		}
+
+		return builder.toString();
+	}
+
+	private static long getTimeStamp(URI uri) {
+
+		// remote resources are not checked for modifications
+		if (!uri.isFile() && !uri.isPlatformResource()) {
+			return NO_TIME_STAMP;
+		}
+
+		try {
+			Map<String, ?> attributes = URIConverter.INSTANCE.getAttributes(uri, 
+					Collections.singletonMap(URIConverter.OPTION_REQUESTED_ATTRIBUTES, Collections.singleton(URIConverter.ATTRIBUTE_TIME_STAMP)));
+
+			Object timeStamp = attributes.get(URIConverter.ATTRIBUTE_TIME_STAMP);
+			if (timeStamp instanceof Long) {
+				return (Long) timeStamp;
+			}
+		} catch (RuntimeException e) {
+			// treat as missing
+		}
+
+		return NO_TIME_STAMP;
+	}
+
+	private static String getKey(IFile file) {
+		return file.getFullPath().toString();
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			builder.append(String.format("%02x", b)); //$NON-NLS-1$
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Moves the source file over the target file, atomically if supported by the file system
+	 */
+	private static void replace(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Returns the validation cache, loading it from the
+	 * state location of the plugin if necessary.
+	 *
+	 * @return
+	 */
+	public static synchronized ValidationCache getInstance() {
+		if (instance == null) {
+			File cacheFile = Activator.getDefault().getStateLocation().append(CACHE_FILE_NAME).toFile();
+
+			instance = new ValidationCache(cacheFile);
+			instance.load();
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Cached validation result of a file
+	 */
+	private static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 2L;
+
+		private final String hash;
+
+		/**
+		 * Modification stamps of the imported files, by their uri
+		 */
+		private final HashMap<String, Long> imports;
+
+		private final List<CachedMessage> messages;
+
+		public Entry(String hash, HashMap<String, Long> imports, List<CachedMessage> messages) {
+			this.hash = hash;
+			this.imports = imports;
+			this.messages = messages;
+		}
+	}
+
+	/**
+	 * Serializable form of a {@link ValidatorMessage}
+	 */
+	private static class CachedMessage implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String type;
+		private final HashMap<String, Object> attributes;
+
+		public CachedMessage(String type, HashMap<String, Object> attributes) {
+			this.type = type;
+			this.attributes = attributes;
+		}
+	}
+}
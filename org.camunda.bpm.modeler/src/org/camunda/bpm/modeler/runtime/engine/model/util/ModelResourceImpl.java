@@ -22,13 +22,10 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.logging.Logger;
 
-import org.camunda.bpm.modeler.core.Activator;
 import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceImpl;
-import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
 import org.camunda.bpm.modeler.runtime.engine.model.ModelPackage;
 import org.camunda.bpm.modeler.runtime.engine.model.fox.FailedJobRetryTimeCycleType;
 import org.camunda.bpm.modeler.runtime.engine.model.fox.FoxPackage;
-import org.camunda.bpm.modeler.runtime.engine.util.DiagramExport;
 import org.eclipse.bpmn2.Bpmn2Factory;
 import org.eclipse.bpmn2.Bpmn2Package;
 import org.eclipse.bpmn2.Definitions;
@@ -36,8 +33,6 @@ import org.eclipse.bpmn2.DocumentRoot;
 import org.eclipse.bpmn2.Documentation;
 import org.eclipse.bpmn2.Error;
 import org.eclipse.bpmn2.FormalExpression;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
 import org.eclipse.dd.dc.Bounds;
 import org.eclipse.dd.dc.Point;
 import org.eclipse.emf.common.util.URI;
@@ -102,16 +97,13 @@ public class ModelResourceImpl extends Bpmn2ModelerResourceImpl {
 
 	@Override
 	protected XMLSave createXMLSave() {
-		try {
-			if (isGenerateDiagramImage()) {
-				new DiagramExport(null).execute(null);
+		return new Bpmn2ModelerXMLSave(createXMLHelper()) {
+			@Override
+			protected float getOffset(EStructuralFeature f) {
+				// coordinates are saved as they are
+				return 0;
 			}
-		} catch (Exception e) {
-			Activator.logStatus(new Status(IStatus.WARNING, Activator.PLUGIN_ID,
-					"Failed to generate diagram", e));
-		}
 
-		return new Bpmn2ModelerXMLSave(createXMLHelper()) {
 			@Override
 			protected void saveTypeAttribute(final EClass eClass) {
 				// DON'T add the casOpen namespace here, too!
@@ -329,11 +321,6 @@ public class ModelResourceImpl extends Bpmn2ModelerResourceImpl {
 		};
 	}
 
-	private boolean isGenerateDiagramImage() {
-		return Bpmn2Preferences.getInstance().getBoolean(
-				Bpmn2Preferences.PREF_TOGGLE_DIAGRAM_GENERATION, false);
-	}
-
 	/**
 	 * We need extend the standard SAXXMLHandler to hook into the handling of
 	 * attribute references which may be either simple ID Strings or QNames. We'll
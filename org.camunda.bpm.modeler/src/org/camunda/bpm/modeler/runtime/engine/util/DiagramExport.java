@@ -1,8 +1,18 @@
 package org.camunda.bpm.modeler.runtime.engine.util;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.camunda.bpm.modeler.Messages;
 import org.camunda.bpm.modeler.core.Activator;
@@ -18,12 +28,15 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.URIUtil;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.draw2d.Graphics;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.SWTGraphics;
+import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.emf.common.CommonPlugin;
 import org.eclipse.emf.common.util.URI;
@@ -39,23 +52,29 @@ import org.eclipse.graphiti.features.context.ICustomContext;
 import org.eclipse.graphiti.features.custom.AbstractCustomFeature;
 import org.eclipse.graphiti.ui.internal.editor.GFFigureCanvas;
 import org.eclipse.graphiti.ui.internal.fixed.FixedScaledGraphics;
-import org.eclipse.jface.dialogs.MessageDialog;
-import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
-import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Display;
-import org.eclipse.swt.widgets.Shell;
-import org.eclipse.ui.actions.WorkspaceModifyOperation;
 
 public class DiagramExport extends AbstractCustomFeature {
 	
 	// initial values
 	protected final double scale = 1.0;
 
+	/**
+	 * Size of the tiles the diagram is painted in
+	 */
+	private static final int TILE_SIZE = 256;
+
+	/**
+	 * Number of painted rows of tiles that may wait for being encoded
+	 */
+	private static final int MAX_PENDING_ROWS = 2;
+
 	protected boolean _insideInternalModify = false;
 
 	public DiagramExport(IFeatureProvider fp) {
@@ -110,14 +129,7 @@ public class DiagramExport extends AbstractCustomFeature {
 		
 		IFigure allFigure = determineRootFigure(graphicalViewer);
 		
-		// create the image
-		Image image = null;
-		try {
-			image = createScaledImage(scale, allFigure, graphicalViewer);
-			startSaveAsImageWithoutDialog(image, diagramImageFile);
-		} finally {
-			cleanUp(image);
-		}
+		exportImage(scale, allFigure, graphicalViewer, diagramImageFile);
 	}
 	
 	private Resource getDiagramResoure() {
@@ -232,148 +244,194 @@ public class DiagramExport extends AbstractCustomFeature {
 		return fileParent;
 	}
 
-	/*
-	 * copied from UiService and modified.
+	/**
+	 * Exports the image of the given figure to the destination file in a background job.
+	 * Must be called on the ui thread.
+	 * 
+	 * The job paints the figure in tiles, switching to the ui thread for each row of tiles only.
+	 * Each row of tiles is encoded on a separate thread while the next one is painted and is
+	 * streamed to a temporary file right away. Thus only a few rows of tiles are held
+	 * in memory at a time, regardless of the size of the diagram.
+	 * 
+	 * The destination is written through the workspace once the image is complete,
+	 * so that it is left untouched if the export fails or gets canceled.
+	 * 
+	 * @param scaleFactor
+	 * @param figure
+	 * @param graphicalViewer
+	 * @param destination
+	 * 
+	 * @return the scheduled job
 	 */
-	public byte[] createImage(Image image, int format) throws Exception {
-		ByteArrayOutputStream result = new ByteArrayOutputStream();
+	public Job exportImage(final double scaleFactor, final IFigure figure, GraphicalViewer graphicalViewer, final IFile destination) {
+		
+		Rectangle figureBounds = figure.getBounds();
+		
+		final int width = (int) (figureBounds.width * scaleFactor);
+		final int height = (int) (figureBounds.height * scaleFactor);
+		
+		/* move all figures into the positive region */
+		Point topLeft = new Point(0, 0);
+		
+		EditPart contents = graphicalViewer.getContents();
+		if (contents instanceof GraphicalEditPart) {
+			IFigure contentsFigure = ((GraphicalEditPart) contents).getFigure();
+			topLeft = contentsFigure.getBounds().getTopLeft();
+		}
+		
+		final Point origin = topLeft;
+		
+		Job job = new Job(Messages.DiagramExport_13 + destination.getName()) {
+			
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					exportImage(scaleFactor, figure, origin, width, height, destination, monitor);
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
+				} catch (CoreException e) {
+					return e.getStatus();
+				}
+				
+				return Status.OK_STATUS;
+			}
+		};
+		
+		job.schedule();
+		
+		return job;
+	}
+	
+	private void exportImage(double scaleFactor, IFigure figure, Point origin, int width, int height, IFile destination, IProgressMonitor monitor) throws CoreException {
+		
+		File tempFile = null;
+		
 		try {
-			ImageData imDat = image.getImageData();
-			ImageLoader imageLoader = new ImageLoader();
-			imageLoader.data = new ImageData[] { imDat };
+			tempFile = File.createTempFile("diagram-export", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+			
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile));
 			try {
-				imageLoader.save(result, format);
-			} catch (SWTException e) {
-				String error = "Depth: " + Integer.toString(image.getImageData().depth) + "\n" + "X: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-						+ Integer.toString(image.getImageData().x)
-						+ "\n" + "Y: " + Integer.toString(image.getImageData().y); //$NON-NLS-1$ //$NON-NLS-2$
-				throw new IllegalStateException(error, e);
+				writeImage(scaleFactor, figure, origin, width, height, out, monitor);
+			} finally {
+				out.close();
+			}
+			
+			InputStream source = new BufferedInputStream(new FileInputStream(tempFile));
+			try {
+				if (!destination.exists()) {
+					destination.create(source, IResource.FORCE, null);
+				} else {
+					destination.setContents(source, IResource.FORCE | IResource.KEEP_HISTORY, null);
+				}
+			} finally {
+				source.close();
 			}
+		} catch (CoreException e) {
+			throw e;
+		} catch (OperationCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, Messages.DiagramExport_12 + e.getMessage(), e));
 		} finally {
-			image.dispose();
+			if (tempFile != null) {
+				tempFile.delete();
+			}
 		}
-		return result.toByteArray();
 	}
-
-	/*
-	 * copied from UiService
-	 */
-	public void startSaveAsImageWithoutDialog(Image im, IFile destination) {
-		final Shell shell = Bpmn2Editor.getActiveEditor().getSite().getShell();
+	
+	private void writeImage(double scaleFactor, IFigure figure, Point origin, int width, int height, OutputStream out, IProgressMonitor monitor) throws Exception {
+		
+		PngWriter writer = new PngWriter(out, width, height);
+		
+		ExecutorService encoder = Executors.newSingleThreadExecutor();
+		
 		try {
-			int imageFormat = SWT.IMAGE_PNG;
-			byte image[] = createImage(im, imageFormat);
-			final WorkspaceModifyOperation operation = getSaveToFileOp(destination, image);
-			Display.getDefault().syncExec(new Runnable() {
+			LinkedList<Future<?>> pendingRows = new LinkedList<Future<?>>();
+			
+			monitor.beginTask(Messages.DiagramExport_0, (height + TILE_SIZE - 1) / TILE_SIZE);
+			
+			for (int y = 0; y < height; y += TILE_SIZE) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				
+				int tileHeight = Math.min(TILE_SIZE, height - y);
+				
+				ImageData[] tiles = paintTiles(scaleFactor, figure, origin, y, width, tileHeight);
 				
-				@Override
-				public void run() {
-					try {
-						new ProgressMonitorDialog(shell).run(false, false, operation);
-					} catch (Exception e) {
-						throw new RuntimeException(e);
-					} 
+				pendingRows.add(encoder.submit(new EncodeTiles(writer, tiles, tileHeight)));
+				
+				// bound the number of painted rows of tiles held in memory
+				while (pendingRows.size() > MAX_PENDING_ROWS) {
+					waitFor(pendingRows.removeFirst());
 				}
-			});
+				
+				monitor.worked(1);
+			}
 			
-		} catch (Exception e) {
-			String message = "Cannot save image: "; //$NON-NLS-1$
-			MessageDialog.openError(shell,
-					"Cannot save image", message + e.getMessage()); //$NON-NLS-1$
+			while (!pendingRows.isEmpty()) {
+				waitFor(pendingRows.removeFirst());
+			}
+			
+			writer.finish();
+		} finally {
+			encoder.shutdownNow();
+			
+			monitor.done();
+		}
+	}
+	
+	private void waitFor(Future<?> future) throws Exception {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			
+			throw e;
 		}
 	}
 
 	/**
-	 * Returns a WorkspeceModifyOperation, which saves the given contents to a
-	 * File with the given filename.
+	 * Paints a row of tiles of the given figure, switching to the ui thread
 	 * 
-	 * @param filename
-	 *            The name of the file, where to save the contents.
-	 * @param contents
-	 *            The contents to save into the file.
-	 * @throws Exception
-	 *             On any errors that occur. copied from UiService
+	 * @return the image data of the tiles, from left to right
 	 */
-	private WorkspaceModifyOperation getSaveToFileOp(final IFile destination,
-			final byte contents[]) throws Exception {
-		WorkspaceModifyOperation operation = new WorkspaceModifyOperation() {
-			
-			@Override
-			protected void execute(IProgressMonitor monitor)
-					throws CoreException {
-				try {
-				  destination.refreshLocal(1, monitor);
-					InputStream source = new ByteArrayInputStream(contents);
-					if (!destination.exists()) {
-						destination.create(source, IResource.NONE, null);
-					} else {
-						destination.setContents(source, IResource.NONE, null);
-					}
-				} catch (Exception e) {
-					// convert exceptions to CoreExceptions
-					Status status = new Status(
-							IStatus.ERROR,
-							"Diagram Export", IStatus.ERROR, Messages.DiagramExport_12 //$NON-NLS-1$
-									+ e.getMessage(), e);
-					throw new CoreException(status);
+	private ImageData[] paintTiles(final double scaleFactor, final IFigure figure, final Point origin, final int y, final int width, final int tileHeight) {
+		
+		final ImageData[] tiles = new ImageData[(width + TILE_SIZE - 1) / TILE_SIZE];
+		
+		Display.getDefault().syncExec(new Runnable() {
+			public void run() {
+				for (int i = 0; i < tiles.length; i++) {
+					int x = i * TILE_SIZE;
+					int tileWidth = Math.min(TILE_SIZE, width - x);
+					
+					tiles[i] = paintTile(scaleFactor, figure, origin, x, y, tileWidth, tileHeight);
 				}
 			}
-		};
-		return operation;
-	}
-
-	@SuppressWarnings("restriction")
-	private IFigure determineRootFigure(GraphicalViewer graphicalViewer) {
-		// Code snipped copied from AbstractFigureSelectionDialog
-		org.eclipse.swt.widgets.Control control = graphicalViewer.getControl();
-		if (control instanceof GFFigureCanvas) {
-			GFFigureCanvas canvas = (GFFigureCanvas) control;
-			canvas.regainSpace();
-		}
-		EditPart rootEditPart = graphicalViewer.getRootEditPart();
-		if (!(rootEditPart instanceof GraphicalEditPart))
-			return null;
-		// determine _allFigure
-		GraphicalEditPart graphicalRootEditPart = (GraphicalEditPart) rootEditPart;
-		IFigure rootFigure = ((LayerManager) graphicalRootEditPart)
-				.getLayer(LayerConstants.PRINTABLE_LAYERS);
-		if (rootFigure == null)
-			return null;
-		return rootFigure;
-	}
-
-	// Code snipped copied from AbstractFigureSelectionDialog
-	public Image createScaledImage(double scaleFactor, IFigure figure, GraphicalViewer graphicalViewer) {
-		double upperBoundPixels = 3000.0d;
-		return createScaledImage(scaleFactor, upperBoundPixels, figure, graphicalViewer);
+		});
+		
+		return tiles;
 	}
-
+	
 	@SuppressWarnings("restriction")
-	private Image createScaledImage(double scaleFactor, double maxPixels, final IFigure figure, GraphicalViewer graphicalViewer) {
-		
-		
-		// if the scale factor is too high, the operating system will
-		// not be able to provide a handle,
-		// because the Image would require too much space. "no more
-		// Handles"-Exception or "out of Memory" Error
-		// will be thrown
-		if (scaleFactor * figure.getBounds().width > maxPixels
-				|| scaleFactor * figure.getBounds().height > maxPixels) {
-			scaleFactor = Math.min(maxPixels
-					/ figure.getBounds().width, maxPixels
-					/ figure.getBounds().height);
-		}
+	private ImageData paintTile(double scaleFactor, IFigure figure, Point origin, int x, int y, int tileWidth, int tileHeight) {
+		
+		Display display = Display.getCurrent();
 		
 		Image image = null;
 		GC gc = null;
 		Graphics graphics = null;
 		
 		try {
-			image = new Image(Display.getDefault(),
-					(int) (figure.getBounds().width * scaleFactor),
-					(int) (scaleFactor * figure.getBounds().height));
+			image = new Image(display, tileWidth, tileHeight);
 			
 			gc = new GC(image);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+			gc.fillRectangle(0, 0, tileWidth, tileHeight);
 			
 			if (scaleFactor != 1.0) {
 				FixedScaledGraphics fsg = new FixedScaledGraphics(new SWTGraphics(gc));
@@ -383,48 +441,112 @@ public class DiagramExport extends AbstractCustomFeature {
 				graphics = new SWTGraphics(gc);
 			}
 			
-			/* move all figures into the positive region */
-			EditPart contents = graphicalViewer.getContents();
-			if (contents instanceof GraphicalEditPart) {
-				IFigure contentsFigure = ((GraphicalEditPart) contents).getFigure();
-				Rectangle contentBounds = contentsFigure.getBounds();
-				graphics.translate(-contentBounds.x, -contentBounds.y);
-			}
-			final Graphics syncGaphics = graphics;
+			// translate in figure coordinates to the tiles origin
+			graphics.translate((float) (-origin.x - x / scaleFactor), (float) (-origin.y - y / scaleFactor));
 			
-			Display.getDefault().syncExec(new Runnable() {
-				public void run() { 
-					figure.paint(syncGaphics);
-				}
-			});
+			figure.paint(graphics);
+			
+			graphics.dispose();
+			graphics = null;
+			
+			return image.getImageData();
 		} finally {
 			try {
-				if (gc != null) {
-					gc.dispose();
+				if (graphics != null) {
+					graphics.dispose();
 				}
 			} catch (Exception e) {
 				; // cannot handle
 			}
 			
 			try {
-				if (graphics != null) {
-					graphics.dispose();
+				if (gc != null) {
+					gc.dispose();
 				}
 			} catch (Exception e) {
 				; // cannot handle
 			}
+			
+			if (image != null) {
+				image.dispose();
+			}
 		}
-		
-		return image;
 	}
+	
+	/**
+	 * Converts a row of tiles into rgb rows and writes them to the image
+	 */
+	private static class EncodeTiles implements Callable<Void> {
+		
+		private final PngWriter writer;
+		private final ImageData[] tiles;
+		private final int tileHeight;
+		
+		public EncodeTiles(PngWriter writer, ImageData[] tiles, int tileHeight) {
+			this.writer = writer;
+			this.tiles = tiles;
+			this.tileHeight = tileHeight;
+		}
 
-	public void cleanUp(Image image) {
-		try {
-			if (image != null) {
-				image.dispose();
+		@Override
+		public Void call() throws Exception {
+			byte[] row = new byte[writer.getWidth() * 3];
+			int[] pixels = new int[TILE_SIZE];
+			
+			for (int y = 0; y < tileHeight; y++) {
+				int offset = 0;
+				
+				for (ImageData tile : tiles) {
+					PaletteData palette = tile.palette;
+					
+					tile.getPixels(0, y, tile.width, pixels, 0);
+					
+					for (int x = 0; x < tile.width; x++) {
+						int pixel = pixels[x];
+						
+						if (palette.isDirect) {
+							row[offset++] = (byte) shift(pixel & palette.redMask, palette.redShift);
+							row[offset++] = (byte) shift(pixel & palette.greenMask, palette.greenShift);
+							row[offset++] = (byte) shift(pixel & palette.blueMask, palette.blueShift);
+						} else {
+							RGB rgb = palette.colors[pixel];
+							
+							row[offset++] = (byte) rgb.red;
+							row[offset++] = (byte) rgb.green;
+							row[offset++] = (byte) rgb.blue;
+						}
+					}
+				}
+				
+				writer.writeRow(row);
 			}
-		} catch (Exception e) {
-			; // cannot handle
+			
+			return null;
+		}
+		
+		private static int shift(int value, int shift) {
+			return shift < 0 ? value >>> -shift : value << shift;
 		}
 	}
+
+	@SuppressWarnings("restriction")
+	private IFigure determineRootFigure(GraphicalViewer graphicalViewer) {
+		// Code snipped copied from AbstractFigureSelectionDialog
+		org.eclipse.swt.widgets.Control control = graphicalViewer.getControl();
+		if (control instanceof GFFigureCanvas) {
+			GFFigureCanvas canvas = (GFFigureCanvas) control;
+			canvas.regainSpace();
+		}
+		EditPart rootEditPart = graphicalViewer.getRootEditPart();
+		if (!(rootEditPart instanceof GraphicalEditPart))
+			return null;
+		// determine _allFigure
+		GraphicalEditPart graphicalRootEditPart = (GraphicalEditPart) rootEditPart;
+		IFigure rootFigure = ((LayerManager) graphicalRootEditPart)
+				.getLayer(LayerConstants.PRINTABLE_LAYERS);
+		if (rootFigure == null)
+			return null;
+		return rootFigure;
+	}
+
 }
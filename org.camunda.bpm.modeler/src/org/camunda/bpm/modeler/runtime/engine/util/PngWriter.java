@@ -0,0 +1,194 @@
+package org.camunda.bpm.modeler.runtime.engine.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a PNG image row by row to an output stream.
+ *
+ * The image is written as 8 bit RGB without interlacing. Rows are compressed
+ * as they are written and flushed to the stream in chunks of bounded size, so that
+ * the image never has to be held in memory as a whole.
+ */
+public class PngWriter {
+
+	private static final byte[] SIGNATURE = { (byte) 137, 80, 78, 71, 13, 10, 26, 10 };
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	private static final int BIT_DEPTH = 8;
+	private static final int COLOR_TYPE_RGB = 2;
+
+	private static final int FILTER_NONE = 0;
+
+	private final DataOutputStream out;
+
+	private final int width;
+	private final int height;
+
+	private final Deflater deflater;
+	private final DeflaterOutputStream imageData;
+
+	private int rows = 0;
+
+	/**
+	 * Creates a writer and writes the image header to the given stream.
+	 *
+	 * @param out
+	 * @param width
+	 * @param height
+	 *
+	 * @throws IOException
+	 */
+	public PngWriter(OutputStream out, int width, int height) throws IOException {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Invalid image dimensions: " + width + "x" + height);
+		}
+
+		this.out = new DataOutputStream(out);
+
+		this.width = width;
+		this.height = height;
+
+		this.deflater = new Deflater();
+		this.imageData = new DeflaterOutputStream(new ImageDataOutputStream(), deflater, CHUNK_SIZE);
+
+		writeHeader();
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Writes the next row of the image
+	 *
+	 * @param rgb the red, green and blue values of the rows pixels
+	 *
+	 * @throws IOException
+	 */
+	public void writeRow(byte[] rgb) throws IOException {
+		if (rgb.length != width * 3) {
+			throw new IllegalArgumentException("Expected " + width * 3 + " bytes per row, got " + rgb.length);
+		}
+
+		if (rows == height) {
+			throw new IllegalStateException("All rows have been written");
+		}
+
+		imageData.write(FILTER_NONE);
+		imageData.write(rgb);
+
+		rows++;
+	}
+
+	/**
+	 * Completes the image after all rows have been written.
+	 * Does not close the underlying stream.
+	 *
+	 * @throws IOException
+	 */
+	public void finish() throws IOException {
+		if (rows != height) {
+			throw new IllegalStateException("Expected " + height + " rows, got " + rows);
+		}
+
+		try {
+			imageData.close();
+		} finally {
+			deflater.end();
+		}
+
+		writeChunk("IEND", new byte[0], 0);
+
+		out.flush();
+	}
+
+	private void writeHeader() throws IOException {
+		out.write(SIGNATURE);
+
+		ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+		DataOutputStream headerOut = new DataOutputStream(header);
+
+		headerOut.writeInt(width);
+		headerOut.writeInt(height);
+		headerOut.writeByte(BIT_DEPTH);
+		headerOut.writeByte(COLOR_TYPE_RGB);
+		headerOut.writeByte(0); // compression method
+		headerOut.writeByte(0); // filter method
+		headerOut.writeByte(0); // no interlace
+
+		writeChunk("IHDR", header.toByteArray(), header.size());
+	}
+
+	private void writeChunk(String type, byte[] data, int length) throws IOException {
+		byte[] typeBytes = type.getBytes("US-ASCII");
+
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		out.writeInt((int) crc.getValue());
+	}
+
+	/**
+	 * Collects the compressed image data and writes it as IDAT chunks
+	 */
+	private class ImageDataOutputStream extends OutputStream {
+
+		private final byte[] buffer = new byte[CHUNK_SIZE];
+
+		private int count = 0;
+
+		@Override
+		public void write(int b) throws IOException {
+			buffer[count++] = (byte) b;
+
+			if (count == CHUNK_SIZE) {
+				flushChunk();
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				int n = Math.min(len, CHUNK_SIZE - count);
+
+				System.arraycopy(b, off, buffer, count, n);
+
+				count += n;
+				off += n;
+				len -= n;
+
+				if (count == CHUNK_SIZE) {
+					flushChunk();
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (count > 0) {
+				flushChunk();
+			}
+		}
+
+		private void flushChunk() throws IOException {
+			writeChunk("IDAT", buffer, count);
+
+			count = 0;
+		}
+	}
+}
@@ -12,7 +12,9 @@ import org.eclipse.emf.transaction.util.TransactionUtil;
 /**
  * Abstract change detection support for EObjects.
  * 
- * Works as a post commit resource set change listener.
+ * Works as a post commit resource set change listener that is notified
+ * through the {@link EObjectChangeDispatcher} of the objects editing domain
+ * about changes of the object and the objects contained in it.
  * 
  * @author nico.rehwaldt
  */
@@ -22,6 +24,11 @@ public abstract class AbstractEObjectChangeSupport implements ResourceSetListene
 	
 	private boolean registered = false;
 	
+	/**
+	 * The dispatcher this change support is registered with
+	 */
+	private EObjectChangeDispatcher dispatcher;
+	
 	protected NotificationFilter filter;
 
 	public AbstractEObjectChangeSupport(EObject object) {
@@ -34,6 +41,10 @@ public abstract class AbstractEObjectChangeSupport implements ResourceSetListene
 	public boolean isRegistered() {
 		return registered;
 	}
+	
+	public EObject getObject() {
+		return object;
+	}
 
 	public void unregister() {
 		unregisterEditingDomainListener();
@@ -48,13 +59,16 @@ public abstract class AbstractEObjectChangeSupport implements ResourceSetListene
 	}
 
 	protected void registerEditingDomainListener() {
-		getTransactionalEditingDomain().addResourceSetListener(this);
+		dispatcher = EObjectChangeDispatcher.get(getTransactionalEditingDomain());
+		dispatcher.register(this);
 	}
 	
 	protected void unregisterEditingDomainListener() {
-		TransactionalEditingDomain transactionalEditingDomain = getTransactionalEditingDomain();
-		if (transactionalEditingDomain != null) {
-			transactionalEditingDomain.removeResourceSetListener(this);
+		// the object may no longer be part of the editing domain
+		// so unregister from the dispatcher we registered with
+		if (dispatcher != null) {
+			dispatcher.unregister(this);
+			dispatcher = null;
 		}
 	}
 	
@@ -0,0 +1,224 @@
+package org.camunda.bpm.modeler.ui.change;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.modeler.core.Activator;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.transaction.NotificationFilter;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.TransactionalEditingDomain.Lifecycle;
+import org.eclipse.emf.transaction.TransactionalEditingDomainEvent;
+import org.eclipse.emf.transaction.TransactionalEditingDomainListenerImpl;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+
+/**
+ * Dispatches the changes committed in a {@link TransactionalEditingDomain}
+ * to the {@link AbstractEObjectChangeSupport}s registered with it.
+ *
+ * Registers a single post commit listener with the editing domain and indexes
+ * the change supports by the object they observe. A notification is routed to the
+ * change supports observing its notifier or one of the notifiers containers only
+ * and only their filters get evaluated against it.
+ *
+ * Each change support is notified once per commit with all
+ * notifications matched by its filter.
+ *
+ * The dispatcher is removed from its editing domain, along with all registered
+ * change supports, once the editing domain gets disposed.
+ *
+ * Use {@link #get(TransactionalEditingDomain)} to obtain the dispatcher of an editing domain.
+ */
+public class EObjectChangeDispatcher extends ResourceSetListenerImpl {
+
+	/**
+	 * Dispatchers by editing domain; entries are removed when their editing domain gets disposed
+	 */
+	private static final Map<TransactionalEditingDomain, EObjectChangeDispatcher> DISPATCHERS = new HashMap<TransactionalEditingDomain, EObjectChangeDispatcher>();
+
+	/**
+	 * Registered change supports by the object they observe
+	 */
+	private final Map<EObject, List<AbstractEObjectChangeSupport>> changeSupports = new HashMap<EObject, List<AbstractEObjectChangeSupport>>();
+
+	private EObjectChangeDispatcher() {
+		super(NotificationFilter.NOT_TOUCH);
+	}
+
+	/**
+	 * Registers the given change support
+	 *
+	 * @param changeSupport
+	 */
+	public void register(AbstractEObjectChangeSupport changeSupport) {
+		EObject object = changeSupport.getObject();
+
+		synchronized (this) {
+			List<AbstractEObjectChangeSupport> objectChangeSupports = changeSupports.get(object);
+			if (objectChangeSupports == null) {
+				objectChangeSupports = new ArrayList<AbstractEObjectChangeSupport>(2);
+				changeSupports.put(object, objectChangeSupports);
+			}
+
+			if (!objectChangeSupports.contains(changeSupport)) {
+				objectChangeSupports.add(changeSupport);
+			}
+		}
+	}
+
+	/**
+	 * Unregisters the given change support
+	 *
+	 * @param changeSupport
+	 */
+	public void unregister(AbstractEObjectChangeSupport changeSupport) {
+		EObject object = changeSupport.getObject();
+
+		synchronized (this) {
+			List<AbstractEObjectChangeSupport> objectChangeSupports = changeSupports.get(object);
+			if (objectChangeSupports == null) {
+				return;
+			}
+
+			objectChangeSupports.remove(changeSupport);
+
+			if (objectChangeSupports.isEmpty()) {
+				changeSupports.remove(object);
+			}
+		}
+	}
+
+	@Override
+	public boolean isPostcommitOnly() {
+		return true;
+	}
+
+	@Override
+	public void resourceSetChanged(ResourceSetChangeEvent event) {
+
+		Map<AbstractEObjectChangeSupport, List<Notification>> matches = match(event.getNotifications());
+
+		for (Map.Entry<AbstractEObjectChangeSupport, List<Notification>> entry : matches.entrySet()) {
+			AbstractEObjectChangeSupport changeSupport = entry.getKey();
+
+			// may have been unregistered while notifying others
+			if (!changeSupport.isRegistered()) {
+				continue;
+			}
+
+			try {
+				changeSupport.resourceSetChanged(new ResourceSetChangeEvent(event.getEditingDomain(), event.getTransaction(), entry.getValue()));
+			} catch (RuntimeException e) {
+				Activator.logError(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the notifications matched by each of the registered change supports
+	 *
+	 * @param notifications
+	 * @return
+	 */
+	private synchronized Map<AbstractEObjectChangeSupport, List<Notification>> match(List<Notification> notifications) {
+
+		Map<AbstractEObjectChangeSupport, List<Notification>> matches = new LinkedHashMap<AbstractEObjectChangeSupport, List<Notification>>();
+
+		if (changeSupports.isEmpty()) {
+			return matches;
+		}
+
+		for (Notification notification : notifications) {
+			Object notifier = notification.getNotifier();
+
+			while (notifier instanceof EObject) {
+				List<AbstractEObjectChangeSupport> objectChangeSupports = changeSupports.get(notifier);
+				if (objectChangeSupports != null) {
+					for (AbstractEObjectChangeSupport changeSupport : objectChangeSupports) {
+						NotificationFilter filter = changeSupport.getFilter();
+
+						if (filter == null || filter.matches(notification)) {
+							List<Notification> matched = matches.get(changeSupport);
+							if (matched == null) {
+								matched = new ArrayList<Notification>();
+								matches.put(changeSupport, matched);
+							}
+
+							matched.add(notification);
+						}
+					}
+				}
+
+				notifier = ((EObject) notifier).eContainer();
+			}
+		}
+
+		return matches;
+	}
+
+	/**
+	 * Returns the dispatcher for the given editing domain, registering
+	 * a new one if it does not exist yet.
+	 *
+	 * @param editingDomain
+	 * @return
+	 */
+	public static EObjectChangeDispatcher get(TransactionalEditingDomain editingDomain) {
+		synchronized (DISPATCHERS) {
+			EObjectChangeDispatcher dispatcher = DISPATCHERS.get(editingDomain);
+			if (dispatcher == null) {
+				dispatcher = new EObjectChangeDispatcher();
+
+				editingDomain.addResourceSetListener(dispatcher);
+				DISPATCHERS.put(editingDomain, dispatcher);
+
+				Lifecycle lifecycle = TransactionUtil.getAdapter(editingDomain, Lifecycle.class);
+				if (lifecycle != null) {
+					lifecycle.addTransactionalEditingDomainListener(new DisposeListener());
+				}
+			}
+
+			return dispatcher;
+		}
+	}
+
+	/**
+	 * Removes the dispatcher of the given editing domain, if any
+	 *
+	 * @param editingDomain
+	 */
+	public static void remove(TransactionalEditingDomain editingDomain) {
+		EObjectChangeDispatcher dispatcher;
+
+		synchronized (DISPATCHERS) {
+			dispatcher = DISPATCHERS.remove(editingDomain);
+		}
+
+		if (dispatcher == null) {
+			return;
+		}
+
+		editingDomain.removeResourceSetListener(dispatcher);
+
+		synchronized (dispatcher) {
+			dispatcher.changeSupports.clear();
+		}
+	}
+
+	/**
+	 * Removes the dispatcher once its editing domain gets disposed
+	 */
+	private static class DisposeListener extends TransactionalEditingDomainListenerImpl {
+
+		@Override
+		public void editingDomainDisposing(TransactionalEditingDomainEvent event) {
+			remove(event.getSource());
+		}
+	}
+}
@@ -16,7 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.features.AbstractBpmn2CreateFeature;
 import org.camunda.bpm.modeler.core.features.DefaultBpmn2DecorateFeature;
 import org.camunda.bpm.modeler.core.features.DefaultBpmn2DeleteShapeFeature;
@@ -141,6 +141,8 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 	private List<IFeatureContainer> featureContainers;
 	private List<IFeatureContainer> customFeatureContainers;
 
+	private FeatureContainerDispatcher featureContainerDispatcher;
+
 	private ICreateFeature[] createFeatures;
 	private ICreateConnectionFeature[] createConnectionFeatures;
 
@@ -154,6 +156,8 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 		featureContainers = createDefaultContainers();
 		customFeatureContainers = new ArrayList<IFeatureContainer>();
 		
+		featureContainerDispatcher = new FeatureContainerDispatcher(featureContainers, customFeatureContainers);
+		
 		updateFeatureLists();
 	}
 	
@@ -222,6 +226,8 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 		featureContainers.add(0, customFeatureContainer);
 		customFeatureContainers.add(customFeatureContainer);
 		
+		featureContainerDispatcher.clear();
+		
 		updateFeatureLists();
 	}
 	
@@ -290,13 +296,7 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 	}
 
 	public IFeatureContainer getFeatureContainer(IContext context) {
-		for (IFeatureContainer container : featureContainers) {
-			Object o = container.getApplyObject(context);
-			if (o != null && container.canApplyTo(o)) {
-				return container;
-			}
-		}
-		return null;
+		return featureContainerDispatcher.getFirst(context);
 	}
 
 	//  Copy and paste is not functional yet
@@ -423,16 +423,9 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 
 	@Override
 	public IReconnectionFeature getReconnectionFeature(IReconnectionContext context) {
-		for (IFeatureContainer container : featureContainers) {
-			
-			if (container instanceof ConnectionFeatureContainer) {
-				
-				ConnectionFeatureContainer connectionFeatureContainer = (ConnectionFeatureContainer) container;
-				if (canApplyFeatureContainer(connectionFeatureContainer, context)) {
-					
-					return connectionFeatureContainer.getReconnectionFeature(this);
-				}
-			}
+		ConnectionFeatureContainer connectionFeatureContainer = featureContainerDispatcher.getFirst(context, ConnectionFeatureContainer.class);
+		if (connectionFeatureContainer != null) {
+			return connectionFeatureContainer.getReconnectionFeature(this);
 		}
 		
 		return super.getReconnectionFeature(context);
@@ -468,22 +461,19 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 	public ICustomFeature[] getCustomFeatures(ICustomContext context) {
 		List<ICustomFeature> list = new ArrayList<ICustomFeature>();
 
-		for (IFeatureContainer fc : featureContainers) {
-			Object o = fc.getApplyObject(context);
-			if (o!=null && fc.canApplyTo(o)) {
-				ICustomFeature[] cfa = fc.getCustomFeatures(this);
-				if (cfa!=null) {
-					for (ICustomFeature cf : cfa) {
-						boolean found = false;
-						for (ICustomFeature cfl : list) {
-							if (cfl != null && cf != null && cfl.getClass() == cf.getClass()) {
-								found = true;
-								break;
-							}
+		for (IFeatureContainer fc : featureContainerDispatcher.getAll(context)) {
+			ICustomFeature[] cfa = fc.getCustomFeatures(this);
+			if (cfa!=null) {
+				for (ICustomFeature cf : cfa) {
+					boolean found = false;
+					for (ICustomFeature cfl : list) {
+						if (cfl != null && cf != null && cfl.getClass() == cf.getClass()) {
+							found = true;
+							break;
 						}
-						if (!found)
-							list.add(cf);
 					}
+					if (!found)
+						list.add(cf);
 				}
 			}
 		}
@@ -511,7 +501,7 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 				
 				BPMNEdge bpmnEdge = BusinessObjectUtil.getFirstElementOfType(labelShape, BPMNEdge.class);
 				
-				DIUtils.updateDILabel(labelShape, bpmnEdge);
+				DISynchronizer.updateDILabel(labelShape, bpmnEdge);
 			}
 		};
 	}
@@ -533,29 +523,18 @@ public class Bpmn2FeatureProvider extends DefaultFeatureProvider {
 	}
 	
 	// TODO: move this to the adapter registry
+	@SuppressWarnings("restriction")
 	public IFeature getCreateFeatureForPictogramElement(PictogramElement pictogramElement) {
 		
 		// try to find create feature based on matching 
 		// custom feature container
-		for (IFeatureContainer featureContainer : featureContainers) {
-			
-			if (canApplyFeatureContainer(featureContainer, pictogramElement)) {
-				return featureContainer.getCreateFeature(this);
-			}
+		IFeatureContainer featureContainer = featureContainerDispatcher.getFirst(new PictogramElementContext(pictogramElement));
+		if (featureContainer != null) {
+			return featureContainer.getCreateFeature(this);
 		}
 
 		return null;
 	}
-
-	@SuppressWarnings("restriction")
-	private boolean canApplyFeatureContainer(IFeatureContainer featureContainer, PictogramElement pictogramElement) {
-		return canApplyFeatureContainer(featureContainer, new PictogramElementContext(pictogramElement));
-	}
-	
-	private boolean canApplyFeatureContainer(IFeatureContainer featureContainer, IContext context) {
-		Object object = featureContainer.getApplyObject(context);
-		return object != null && featureContainer.canApplyTo(object);
-	}
 	
 	@Override
 	public Bpmn2DiagramTypeProvider getDiagramTypeProvider() {
@@ -0,0 +1,195 @@
+package org.camunda.bpm.modeler.ui.diagram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.modeler.core.features.PropertyNames;
+import org.camunda.bpm.modeler.core.features.api.container.IFeatureContainer;
+import org.camunda.bpm.modeler.core.features.container.PropertyBasedFeatureContainer;
+import org.camunda.bpm.modeler.core.utils.LabelUtil;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.graphiti.features.context.IAddContext;
+import org.eclipse.graphiti.features.context.IContext;
+import org.eclipse.graphiti.features.context.ICustomContext;
+import org.eclipse.graphiti.features.context.IPictogramElementContext;
+import org.eclipse.graphiti.features.context.IReconnectionContext;
+import org.eclipse.graphiti.mm.pictograms.PictogramElement;
+import org.eclipse.graphiti.mm.pictograms.PictogramLink;
+
+/**
+ * Resolves the {@link IFeatureContainer}s applicable to a context.
+ *
+ * Which of the built-in containers apply to a context is determined by the kind of the context
+ * and the (java) types of the elements it refers to. The dispatcher caches the applicable containers by
+ * these properties so that a lookup does not have to ask each registered container.
+ *
+ * Containers which decide based on the state of an element (custom containers and
+ * {@link PropertyBasedFeatureContainer}s) are asked on every lookup, in their
+ * registration order relative to the cached containers.
+ */
+public class FeatureContainerDispatcher {
+
+	private final List<IFeatureContainer> containers;
+	private final List<IFeatureContainer> customContainers;
+
+	/**
+	 * Candidate containers by dispatch key; contains the containers known to apply
+	 * as well as the ones that need to be asked on each lookup
+	 */
+	private final Map<List<Object>, List<IFeatureContainer>> candidatesCache = new HashMap<List<Object>, List<IFeatureContainer>>();
+
+	/**
+	 * Creates a dispatcher for the given containers
+	 *
+	 * @param containers all containers in the order they are asked
+	 * @param customContainers the subset of custom containers
+	 */
+	public FeatureContainerDispatcher(List<IFeatureContainer> containers, List<IFeatureContainer> customContainers) {
+		this.containers = containers;
+		this.customContainers = customContainers;
+	}
+
+	/**
+	 * Returns the first container applicable to the given context or null if none applies
+	 *
+	 * @param context
+	 * @return
+	 */
+	public IFeatureContainer getFirst(IContext context) {
+		return getFirst(context, IFeatureContainer.class);
+	}
+
+	/**
+	 * Returns the first container of the given type applicable to the given context
+	 * or null if none applies
+	 *
+	 * @param context
+	 * @param type
+	 *
+	 * @return
+	 */
+	public <T extends IFeatureContainer> T getFirst(IContext context, Class<T> type) {
+		for (IFeatureContainer container : getCandidates(context)) {
+			if (type.isInstance(container) && (!isDynamic(container) || canApply(container, context))) {
+				return type.cast(container);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns all containers applicable to the given context
+	 *
+	 * @param context
+	 * @return
+	 */
+	public List<IFeatureContainer> getAll(IContext context) {
+		List<IFeatureContainer> applicable = new ArrayList<IFeatureContainer>();
+
+		for (IFeatureContainer container : getCandidates(context)) {
+			if (!isDynamic(container) || canApply(container, context)) {
+				applicable.add(container);
+			}
+		}
+
+		return applicable;
+	}
+
+	/**
+	 * Discards all cached lookups; to be called whenever the registered containers change
+	 */
+	public void clear() {
+		candidatesCache.clear();
+	}
+
+	private List<IFeatureContainer> getCandidates(IContext context) {
+		List<Object> key = getKey(context);
+		if (key == null) {
+			// not cacheable, ask all containers
+			return containers;
+		}
+
+		List<IFeatureContainer> candidates = candidatesCache.get(key);
+		if (candidates == null) {
+			candidates = new ArrayList<IFeatureContainer>();
+
+			for (IFeatureContainer container : containers) {
+				if (isDynamic(container) || canApply(container, context)) {
+					candidates.add(container);
+				}
+			}
+
+			candidatesCache.put(key, candidates);
+		}
+
+		return candidates;
+	}
+
+	private boolean isDynamic(IFeatureContainer container) {
+		return container instanceof PropertyBasedFeatureContainer || customContainers.contains(container);
+	}
+
+	private boolean canApply(IFeatureContainer container, IContext context) {
+		Object object = container.getApplyObject(context);
+		return object != null && container.canApplyTo(object);
+	}
+
+	/**
+	 * Returns the key to cache the applicable containers for the given context with,
+	 * consisting of everything the built-in containers base their decision on.
+	 *
+	 * @param context
+	 * @return the key or null if the context is not cacheable
+	 */
+	private List<Object> getKey(IContext context) {
+		List<Object> key = new ArrayList<Object>();
+
+		key.add(context.getClass());
+		key.add(context.getProperty(PropertyNames.LABEL_CONTEXT));
+
+		if (context instanceof IAddContext) {
+			key.add(getType(((IAddContext) context).getNewObject()));
+		} else
+		if (context instanceof IPictogramElementContext) {
+			addTypes(key, ((IPictogramElementContext) context).getPictogramElement());
+		} else
+		if (context instanceof ICustomContext) {
+			PictogramElement[] pictogramElements = ((ICustomContext) context).getPictogramElements();
+			if (pictogramElements == null || pictogramElements.length != 1) {
+				return null;
+			}
+
+			addTypes(key, pictogramElements[0]);
+		} else
+		if (context instanceof IReconnectionContext) {
+			addTypes(key, ((IReconnectionContext) context).getConnection());
+		} else {
+			return null;
+		}
+
+		return key;
+	}
+
+	private void addTypes(List<Object> key, PictogramElement pictogramElement) {
+		if (pictogramElement == null) {
+			key.add(null);
+			return;
+		}
+
+		key.add(LabelUtil.isLabel(pictogramElement));
+
+		PictogramLink link = pictogramElement.getLink();
+		if (link != null) {
+			for (EObject businessObject : link.getBusinessObjects()) {
+				key.add(getType(businessObject));
+			}
+		}
+	}
+
+	private Class<?> getType(Object object) {
+		return object == null ? null : object.getClass();
+	}
+}
@@ -16,6 +16,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.camunda.bpm.modeler.Messages;
@@ -25,6 +26,7 @@ import org.camunda.bpm.modeler.core.ModelHandler;
 import org.camunda.bpm.modeler.core.ProxyURIConverterImplExtension;
 import org.camunda.bpm.modeler.core.di.DIUtils;
 import org.camunda.bpm.modeler.core.importer.ImportException;
+import org.camunda.bpm.modeler.core.importer.ImportStatistics;
 import org.camunda.bpm.modeler.core.importer.ModelImportCommand;
 import org.camunda.bpm.modeler.core.model.Bpmn2ModelerResourceImpl;
 import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
@@ -69,6 +71,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.common.command.BasicCommandStack;
+import org.eclipse.emf.common.command.CommandStack;
 import org.eclipse.emf.common.util.BasicDiagnostic;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
@@ -77,6 +80,9 @@ import org.eclipse.emf.ecore.EValidator;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.transaction.RecordingCommand;
+import org.eclipse.emf.transaction.RollbackException;
+import org.eclipse.emf.transaction.Transaction;
+import org.eclipse.emf.transaction.TransactionalCommandStack;
 import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.emf.transaction.TransactionalEditingDomain.Lifecycle;
 import org.eclipse.emf.transaction.impl.TransactionalEditingDomainImpl;
@@ -329,6 +335,8 @@ public class Bpmn2Editor extends DiagramEditor implements IPropertyChangeListene
 
 			setActiveEditor(this);
 
+			long parseStart = System.nanoTime();
+			
 			try {
 				if (getModelFile() == null || getModelFile().exists()) {
 					bpmnResource.load(null);
@@ -339,20 +347,53 @@ public class Bpmn2Editor extends DiagramEditor implements IPropertyChangeListene
 				Status status = new Status(IStatus.WARNING, Activator.PLUGIN_ID, e.getMessage(), e);
 				Activator.logStatus(status);
 			}
-			basicCommandStack.execute(new RecordingCommand(getEditingDomain()) {
+			
+			final long parseTime = System.nanoTime() - parseStart;
+			
+			executeWithoutUndo(new RecordingCommand(getEditingDomain()) {
 
 				@Override
 				protected void doExecute() {
-					importDiagram(bpmnResource);
+					importDiagram(bpmnResource, parseTime);
 				}
 			});
 		}
 		basicCommandStack.saveIsDone();
 		basicCommandStack.flush();
 		loadMarkers();
+		
+		if (bpmnResource != null) {
+			// validate the model in memory rather than the file on save
+			Bpmn2ProjectValidator.connect(bpmnResource);
+		}
 	}
 
-	private void importDiagram(final Bpmn2Resource resourceToImport) {
+	/**
+	 * Executes the given command without recording undo information.
+	 * 
+	 * The import is never undone (the command stack is flushed right after it), 
+	 * so recording all created diagram elements would only add to the memory 
+	 * required to open large models.
+	 * 
+	 * @param command
+	 */
+	private void executeWithoutUndo(final RecordingCommand command) {
+		CommandStack commandStack = getEditingDomain().getCommandStack();
+		
+		if (commandStack instanceof TransactionalCommandStack) {
+			try {
+				((TransactionalCommandStack) commandStack).execute(command, Collections.singletonMap(Transaction.OPTION_NO_UNDO, Boolean.TRUE));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (RollbackException e) {
+				Activator.logStatus(e.getStatus());
+			}
+		} else {
+			commandStack.execute(command);
+		}
+	}
+	
+	private void importDiagram(final Bpmn2Resource resourceToImport, final long parseTime) {
 
 		// make sure this guy is active, otherwise it's not selectable
 		Diagram diagram = getDiagramTypeProvider().getDiagram();
@@ -368,6 +409,12 @@ public class Bpmn2Editor extends DiagramEditor implements IPropertyChangeListene
 			if (!command.wasSuccessful() || !command.getRecordedWarnings().isEmpty()) {
 				handleImportErrorAndWarnings(command.getRecordedException(), command.getRecordedWarnings());
 			}
+			
+			ImportStatistics statistics = command.getStatistics();
+			if (statistics != null && Activator.getDefault().isDebugging()) {
+				statistics.recordPhase(ImportStatistics.PHASE_PARSE, parseTime);
+				Activator.logStatus(statistics.toStatus());
+			}
 		} catch (Exception e) {
 			// if we got here, there was an exception in the import on emf model level
 			// we dont want to die now because this will produce NPEs in the
@@ -565,6 +612,9 @@ public class Bpmn2Editor extends DiagramEditor implements IPropertyChangeListene
 			if (modelHandler != null) {
 				ModelUtil.clearIDs(modelHandler.getResource(), instances == 0);
 			}
+			if (bpmnResource != null) {
+				Bpmn2ProjectValidator.disconnect(bpmnResource);
+			}
 			getPreferences().getGlobalPreferences().removePropertyChangeListener(this);
 
 			getResourceSet().eAdapters().remove(getEditorAdapter());
@@ -680,7 +730,7 @@ public class Bpmn2Editor extends DiagramEditor implements IPropertyChangeListene
 		
 		super.doSave(monitor);
 
-		Bpmn2ProjectValidator.validateResource(resource, monitor);
+		Bpmn2ProjectValidator.validateResourceInBackground(resource);
 	}
 
 	private void cleanupProperties(final Resource resource) {
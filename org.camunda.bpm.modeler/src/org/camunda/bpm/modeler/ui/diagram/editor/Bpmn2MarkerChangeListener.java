@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.camunda.bpm.modeler.core.Bpmn2TabbedPropertySheetPage;
+import org.camunda.bpm.modeler.core.model.index.PictogramLinkIndexAdapter;
 import org.camunda.bpm.modeler.core.validation.BpmnValidationStatusLoader;
 import org.camunda.bpm.modeler.core.validation.ValidationStatusAdapter;
 import org.eclipse.core.resources.IMarker;
@@ -18,15 +19,32 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EValidator;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.gef.GraphicalViewer;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
+import org.eclipse.graphiti.mm.pictograms.PictogramElement;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.ui.IViewReference;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.part.IPage;
 import org.eclipse.ui.views.properties.PropertySheet;
 
+/**
+ * Updates the validation status of the model elements on marker changes.
+ *
+ * Objects whose status changed are collected and refreshed in a single UI update,
+ * which only refreshes the decorators of the pictogram elements linked to them.
+ */
 public class Bpmn2MarkerChangeListener implements IResourceChangeListener {
 
 	Bpmn2Editor editor;
 
+	/**
+	 * Objects whose validation status changed since the last UI update
+	 */
+	private final Set<EObject> pendingObjects = new LinkedHashSet<EObject>();
+
+	private boolean refreshScheduled = false;
+
 	public Bpmn2MarkerChangeListener(Bpmn2Editor editor) {
 		this.editor = editor;
 	}
@@ -77,30 +95,88 @@ public class Bpmn2MarkerChangeListener implements IResourceChangeListener {
 
 		BpmnValidationStatusLoader vsl = new BpmnValidationStatusLoader(editor);
 		updatedObjects.addAll(vsl.load(newMarkers));
+
+		scheduleRefresh(updatedObjects);
+	}
+
+	/**
+	 * Schedules a UI update for the given objects, unless one is pending already.
+	 * In that case the objects are refreshed along with the pending update.
+	 *
+	 * @param updatedObjects
+	 */
+	private void scheduleRefresh(Set<EObject> updatedObjects) {
+		if (updatedObjects.isEmpty()) {
+			return;
+		}
+
+		synchronized (pendingObjects) {
+			pendingObjects.addAll(updatedObjects);
+
+			if (refreshScheduled) {
+				return;
+			}
+
+			refreshScheduled = true;
+		}
+
 		editor.getEditorSite().getShell().getDisplay().asyncExec(new Runnable() {
 			public void run() {
-				// Refresh editor's graphical viewer...
-				editor.refresh();
-
-				// ...and property pages in case there are errors that
-				// do not appear as figure decorators on the canvas
-				IWorkbenchPage page = editor.getEditorSite().getPage();
-				String viewID = "org.eclipse.ui.views.PropertySheet";
-				try {
-					IViewReference[] views = page.getViewReferences();
-					for (IViewReference v : views) {
-						if (viewID.equals(v.getId())) {
-							PropertySheet ps = (PropertySheet) v.getView(true);
-							IPage pp = ps.getCurrentPage();
-							if (pp instanceof Bpmn2TabbedPropertySheetPage) {
-								((Bpmn2TabbedPropertySheetPage) pp).refresh();
-							}
-						}
-					}
-				} catch (Exception e) {
+				Set<EObject> objects;
+
+				synchronized (pendingObjects) {
+					objects = new LinkedHashSet<EObject>(pendingObjects);
+
+					pendingObjects.clear();
+					refreshScheduled = false;
 				}
+
+				refresh(objects);
 			}
 		});
 	}
 
+	private void refresh(Set<EObject> objects) {
+		GraphicalViewer viewer = editor.getGraphicalViewer();
+		if (viewer == null) {
+			return;
+		}
+
+		Control control = viewer.getControl();
+		if (control == null || control.isDisposed()) {
+			return;
+		}
+
+		// Refresh the decorators of the affected elements...
+		Diagram diagram = editor.getDiagramTypeProvider().getDiagram();
+		PictogramLinkIndexAdapter linkIndex = PictogramLinkIndexAdapter.get(diagram);
+
+		for (EObject object : objects) {
+			for (PictogramElement pictogramElement : linkIndex.getPictogramElements(object)) {
+				editor.refreshRenderingDecorators(pictogramElement);
+			}
+		}
+
+		// ...and property pages in case there are errors that
+		// do not appear as figure decorators on the canvas
+		IWorkbenchPage page = editor.getEditorSite().getPage();
+		String viewID = "org.eclipse.ui.views.PropertySheet";
+		try {
+			IViewReference[] views = page.getViewReferences();
+			for (IViewReference v : views) {
+				if (viewID.equals(v.getId())) {
+					PropertySheet ps = (PropertySheet) v.getView(false);
+					if (ps == null) {
+						continue;
+					}
+					IPage pp = ps.getCurrentPage();
+					if (pp instanceof Bpmn2TabbedPropertySheetPage) {
+						((Bpmn2TabbedPropertySheetPage) pp).refresh();
+					}
+				}
+			}
+		} catch (Exception e) {
+		}
+	}
+
 }
@@ -1,16 +1,43 @@
 package org.camunda.bpm.modeler.ui.diagram.editor;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.camunda.bpm.modeler.Messages;
+import org.camunda.bpm.modeler.core.Activator;
+import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
+import org.camunda.bpm.modeler.runtime.engine.util.DiagramExport;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
 import org.eclipse.graphiti.mm.pictograms.Diagram;
 import org.eclipse.graphiti.ui.editor.DefaultPersistencyBehavior;
 import org.eclipse.graphiti.ui.editor.DiagramEditor;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+import org.eclipse.jface.operation.ModalContext;
+import org.eclipse.swt.widgets.Display;
 
+/**
+ * Persistency behavior of the {@link Bpmn2Editor}.
+ *
+ * Serializes the resources on a worker thread under a read-only transaction,
+ * keeping the editor responsive and reporting progress while a large model is saved.
+ */
 public class Bpmn2PersistencyBehavior extends DefaultPersistencyBehavior {
 
 	Bpmn2Editor editor;
@@ -27,6 +54,18 @@ public class Bpmn2PersistencyBehavior extends DefaultPersistencyBehavior {
 		return diagram;
 	}
 
+	@Override
+	public void saveDiagram(IProgressMonitor monitor) {
+
+		// the image is rendered from the figures and
+		// must therefore be created on the ui thread
+		if (isGenerateDiagramImage()) {
+			exportDiagramImage();
+		}
+
+		super.saveDiagram(monitor);
+	}
+
 	@Override
 	protected Map<Resource, Map<?, ?>> createSaveOptions() {
 		// Save only resources that have actually changed.
@@ -45,4 +84,128 @@ public class Bpmn2PersistencyBehavior extends DefaultPersistencyBehavior {
 		return saveOptions;
 	}
 
+	@Override
+	protected IRunnableWithProgress createOperation(final Set<Resource> savedResources, final Map<Resource, Map<?, ?>> saveOptions) {
+
+		final TransactionalEditingDomain editingDomain = diagramEditor.getEditingDomain();
+
+		return new IRunnableWithProgress() {
+
+			@Override
+			public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+				final Map<Resource, Exception> failedSaves = new HashMap<Resource, Exception>();
+
+				IRunnableWithProgress save = new IRunnableWithProgress() {
+
+					@Override
+					public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+						try {
+							savedResources.addAll(saveResources(editingDomain, saveOptions, failedSaves, monitor));
+						} catch (CoreException e) {
+							throw new InvocationTargetException(e);
+						}
+					}
+				};
+
+				Display display = Display.getCurrent();
+				if (display != null) {
+					// serialize on a worker thread while the ui thread keeps dispatching events
+					ModalContext.run(save, true, monitor, display);
+				} else {
+					save.run(monitor);
+				}
+
+				if (!failedSaves.isEmpty()) {
+					throw new InvocationTargetException(new CoreException(createErrorStatus(failedSaves)));
+				}
+			}
+		};
+	}
+
+	/**
+	 * Saves the changed resources of the given editing domain
+	 * under a read-only transaction.
+	 *
+	 * @param editingDomain
+	 * @param saveOptions
+	 * @param failedSaves to which resources that could not be saved are added
+	 * @param monitor
+	 *
+	 * @return the saved resources
+	 *
+	 * @throws CoreException
+	 */
+	protected Set<Resource> saveResources(final TransactionalEditingDomain editingDomain, final Map<Resource, Map<?, ?>> saveOptions,
+			final Map<Resource, Exception> failedSaves, final IProgressMonitor monitor) throws CoreException {
+
+		final Set<Resource> savedResources = new HashSet<Resource>();
+
+		final Runnable save = new Runnable() {
+
+			@Override
+			public void run() {
+				List<Resource> resources = new ArrayList<Resource>(editingDomain.getResourceSet().getResources());
+
+				monitor.beginTask(Messages.Bpmn2PersistencyBehavior_0, resources.size());
+
+				for (Resource resource : resources) {
+					if (!resource.isTrackingModification() || resource.isModified()) {
+						monitor.subTask(resource.getURI().lastSegment());
+
+						try {
+							resource.save(saveOptions.get(resource));
+							savedResources.add(resource);
+						} catch (Exception e) {
+							failedSaves.put(resource, e);
+						}
+					}
+
+					monitor.worked(1);
+				}
+
+				monitor.done();
+			}
+		};
+
+		IWorkspaceRunnable workspaceRunnable = new IWorkspaceRunnable() {
+
+			@Override
+			public void run(IProgressMonitor workspaceMonitor) throws CoreException {
+				try {
+					editingDomain.runExclusive(save);
+				} catch (InterruptedException e) {
+					throw new OperationCanceledException();
+				}
+			}
+		};
+
+		ResourcesPlugin.getWorkspace().run(workspaceRunnable, null);
+
+		return savedResources;
+	}
+
+	private IStatus createErrorStatus(Map<Resource, Exception> failedSaves) {
+		MultiStatus status = new MultiStatus(Activator.PLUGIN_ID, 0, Messages.Bpmn2PersistencyBehavior_1, null);
+
+		for (Map.Entry<Resource, Exception> entry : failedSaves.entrySet()) {
+			Exception exception = entry.getValue();
+			status.add(new Status(IStatus.ERROR, Activator.PLUGIN_ID, entry.getKey().getURI() + ": " + exception.getMessage(), exception)); //$NON-NLS-1$
+		}
+
+		return status;
+	}
+
+	private void exportDiagramImage() {
+		try {
+			new DiagramExport(null).execute(null);
+		} catch (Exception e) {
+			Activator.logStatus(new Status(IStatus.WARNING, Activator.PLUGIN_ID,
+					"Failed to generate diagram", e)); //$NON-NLS-1$
+		}
+	}
+
+	private boolean isGenerateDiagramImage() {
+		return Bpmn2Preferences.getInstance().getBoolean(
+				Bpmn2Preferences.PREF_TOGGLE_DIAGRAM_GENERATION, false);
+	}
 }
@@ -13,18 +13,20 @@
 
 package org.camunda.bpm.modeler.ui.features;
 
+import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.rectangle;
+
 import java.util.ArrayList;
 import java.util.List;
 
 import org.camunda.bpm.modeler.core.ModelHandler;
 import org.camunda.bpm.modeler.core.features.AbstractBpmn2AddShapeFeature;
 import org.camunda.bpm.modeler.core.features.AbstractCreateFlowElementFeature;
+import org.camunda.bpm.modeler.core.layout.util.ChildrenSpatialIndex;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
 import org.camunda.bpm.modeler.core.preferences.Bpmn2Preferences;
 import org.camunda.bpm.modeler.core.runtime.ModelEnablementDescriptor;
 import org.camunda.bpm.modeler.core.runtime.TargetRuntime;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
-import org.camunda.bpm.modeler.core.utils.GraphicsUtil;
 import org.camunda.bpm.modeler.core.utils.ModelUtil;
 import org.camunda.bpm.modeler.ui.FeatureMap;
 import org.camunda.bpm.modeler.ui.diagram.Bpmn2FeatureProvider;
@@ -261,36 +263,19 @@ public abstract class AbstractAppendNodeNodeFeature<T extends FlowNode> extends
 		AbstractBpmn2AddShapeFeature af = (AbstractBpmn2AddShapeFeature)getFeatureProvider().getAddFeature(ac);
 		int w = af.getDefaultWidth();
 		int h = af.getDefaultHeight();
+		ChildrenSpatialIndex index = ChildrenSpatialIndex.get(containerShape);
 		if (horz) {
 			x += width + 50 + w/2;
 			y += height/2;
-			boolean done = false;
-			while (!done) {
-				done = true;
-				List<Shape> shapes = getFlowElementChildren(containerShape);
-				for (Shape s : shapes) {
-					if (GraphicsUtil.intersects(s, x-w/2, y-h/2, w, h)) {
-						y += 100;
-						done = false;
-						break;
-					}
-				}
+			while (intersectsFlowElementChild(index, x-w/2 - xOffset, y-h/2 - yOffset, w, h)) {
+				y += 100;
 			}
 		}
 		else {
 			x += width/2;
 			y += height + 50 + h/2;
-			boolean done = false;
-			while (!done) {
-				done = true;
-				List<Shape> shapes = getFlowElementChildren(containerShape);
-				for (Shape s : shapes) {
-					if (GraphicsUtil.intersects(s, x-w/2, y-h/2, w, h)) {
-						x += 100;
-						done = false;
-						break;
-					}
-				}
+			while (intersectsFlowElementChild(index, x-w/2 - xOffset, y-h/2 - yOffset, w, h)) {
+				x += 100;
 			}
 		}
 		ac.setX(x - xOffset);
@@ -303,13 +288,35 @@ public abstract class AbstractAppendNodeNodeFeature<T extends FlowNode> extends
 	protected List<Shape> getFlowElementChildren(final ContainerShape containerShape) {
 		List<Shape> children = new ArrayList<Shape>();
 		for (Shape s : containerShape.getChildren()) {
-			FlowElement bo = BusinessObjectUtil.getFirstElementOfType(s, FlowElement.class);
-			if (s instanceof ContainerShape && bo!=null) {
+			if (isFlowElementChild(s)) {
 				children.add(s);
 			}
 		}
 		return children;
 	}
+
+	/**
+	 * Returns true if a flow element child of the indexed container intersects with the given bounds
+	 * 
+	 * @param index
+	 * @param x relative to the indexed container
+	 * @param y relative to the indexed container
+	 * @param w
+	 * @param h
+	 * @return
+	 */
+	protected boolean intersectsFlowElementChild(final ChildrenSpatialIndex index, int x, int y, int w, int h) {
+		for (Shape s : index.getIntersecting(rectangle(x, y, w, h))) {
+			if (isFlowElementChild(s)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isFlowElementChild(final Shape shape) {
+		return shape instanceof ContainerShape && BusinessObjectUtil.getFirstElementOfType(shape, FlowElement.class) != null;
+	}
 	
 	protected Connection createNewConnection(final ModelHandler mh, final ContainerShape oldShape, final ContainerShape newShape) {
 		
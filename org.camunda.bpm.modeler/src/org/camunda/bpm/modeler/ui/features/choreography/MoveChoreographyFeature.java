@@ -14,6 +14,7 @@ package org.camunda.bpm.modeler.ui.features.choreography;
 
 import java.util.Collection;
 
+import org.camunda.bpm.modeler.core.di.DIUtils;
 import org.camunda.bpm.modeler.core.features.MoveFlowNodeFeature;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.eclipse.bpmn2.Participant;
@@ -34,6 +35,15 @@ public class MoveChoreographyFeature extends MoveFlowNodeFeature {
 		super(fp);
 	}
 
+	/**
+	 * Update di right away, as message links 
+	 * are positioned based on the di bounds
+	 */
+	@Override
+	protected void updateDi(Shape shape) {
+		DIUtils.updateDI(shape);
+	}
+
 	@Override
 	protected void postMoveShape(final IMoveShapeContext context) {
 		super.postMoveShape(context);
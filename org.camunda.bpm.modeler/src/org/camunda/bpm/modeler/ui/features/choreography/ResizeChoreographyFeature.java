@@ -15,6 +15,7 @@ package org.camunda.bpm.modeler.ui.features.choreography;
 import java.util.List;
 
 import org.camunda.bpm.modeler.core.Activator;
+import org.camunda.bpm.modeler.core.di.DIUtils;
 import org.camunda.bpm.modeler.core.features.DefaultBpmn2ResizeShapeFeature;
 import org.camunda.bpm.modeler.core.features.choreography.ChoreographyProperties;
 import org.camunda.bpm.modeler.core.utils.Tuple;
@@ -22,6 +23,7 @@ import org.eclipse.bpmn2.di.BPMNShape;
 import org.eclipse.graphiti.features.IFeatureProvider;
 import org.eclipse.graphiti.features.context.IResizeShapeContext;
 import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Shape;
 
 public class ResizeChoreographyFeature extends DefaultBpmn2ResizeShapeFeature {
 
@@ -60,4 +62,13 @@ public class ResizeChoreographyFeature extends DefaultBpmn2ResizeShapeFeature {
 		ChoreographyUtil.moveChoreographyMessageLinks((ContainerShape) context.getPictogramElement());
 	}
 
+	/**
+	 * Update di right away, as message links 
+	 * are positioned based on the di bounds
+	 */
+	@Override
+	protected void updateDi(Shape shape) {
+		DIUtils.updateDIShape(shape);
+	}
+
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package org.camunda.bpm.modeler.ui.features.label;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.camunda.bpm.modeler.core.utils.ConnectionLabelUtil;
 import org.camunda.bpm.modeler.core.utils.GraphicsUtil;
@@ -36,6 +36,6 @@ public class MoveConnectionLabelFeature extends MoveLabelFeature {
 	@Override
 	protected void updateDi(Shape labelShape) {
 		BPMNEdge bpmnEdge = BusinessObjectUtil.getFirstElementOfType(labelShape, BPMNEdge.class);
-		DIUtils.updateDILabel((ContainerShape) labelShape, bpmnEdge);
+		DISynchronizer.updateDILabel((ContainerShape) labelShape, bpmnEdge);
 	}
 }
@@ -3,7 +3,7 @@ package org.camunda.bpm.modeler.ui.features.label;
 import java.util.Arrays;
 import java.util.List;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.layout.util.LayoutUtil;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.camunda.bpm.modeler.core.utils.GraphicsUtil;
@@ -68,7 +68,7 @@ public class MoveLabelFeature extends DefaultMoveShapeFeature {
 
 	protected void updateDi(Shape labelShape) {
 		BPMNShape bpmnShape = BusinessObjectUtil.getFirstElementOfType(labelShape, BPMNShape.class);
-		DIUtils.updateDILabel((ContainerShape) labelShape, bpmnShape);
+		DISynchronizer.updateDILabel((ContainerShape) labelShape, bpmnShape);
 	}
 	
 	/**
@@ -1,6 +1,6 @@
 package org.camunda.bpm.modeler.ui.features.label;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.camunda.bpm.modeler.core.utils.ConnectionLabelUtil;
 import org.camunda.bpm.modeler.ui.features.context.IRepositionContext;
@@ -41,6 +41,6 @@ public class RepositionConnectionLabelFeature extends AbstractRepositionFeature
 	@Override
 	protected void updateDi(Shape labelShape) {
 		BPMNEdge bpmnShape = BusinessObjectUtil.getFirstElementOfType(labelShape, BPMNEdge.class);
-		DIUtils.updateDILabel((ContainerShape) labelShape, bpmnShape);
+		DISynchronizer.updateDILabel((ContainerShape) labelShape, bpmnShape);
 	}
 }
@@ -2,7 +2,7 @@ package org.camunda.bpm.modeler.ui.features.label;
 
 import static org.camunda.bpm.modeler.core.layout.util.ConversionUtil.point;
 
-import org.camunda.bpm.modeler.core.di.DIUtils;
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.utils.BusinessObjectUtil;
 import org.camunda.bpm.modeler.core.utils.LabelUtil;
 import org.camunda.bpm.modeler.ui.features.context.IRepositionContext;
@@ -33,6 +33,6 @@ public class RepositionShapeLabelFeature extends AbstractRepositionFeature {
 	@Override
 	protected void updateDi(Shape labelShape) {
 		BPMNShape bpmnShape = BusinessObjectUtil.getFirstElementOfType(labelShape, BPMNShape.class);
-		DIUtils.updateDILabel((ContainerShape) labelShape, bpmnShape);
+		DISynchronizer.updateDILabel((ContainerShape) labelShape, bpmnShape);
 	}
 }
@@ -1,5 +1,6 @@
 package org.camunda.bpm.modeler.ui.features.label;
 
+import org.camunda.bpm.modeler.core.di.DISynchronizer;
 import org.camunda.bpm.modeler.core.di.DIUtils;
 import org.camunda.bpm.modeler.core.features.DefaultBpmn2ResizeShapeFeature;
 import org.eclipse.graphiti.features.IFeatureProvider;
@@ -13,7 +14,7 @@ public class ResizeConnectionLabelFeature extends DefaultBpmn2ResizeShapeFeature
 
 	@Override
 	public void updateDi(final Shape shape) {
-		DIUtils.updateDILabel(shape, DIUtils.getShape(shape));
+		DISynchronizer.updateDILabel(shape, DIUtils.getShape(shape));
 	}
 	
 }
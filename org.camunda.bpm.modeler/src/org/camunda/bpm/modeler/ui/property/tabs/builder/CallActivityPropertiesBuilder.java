@@ -8,8 +8,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Stack;
+import java.util.TreeMap;
 
+import org.camunda.bpm.modeler.Messages;
+import org.camunda.bpm.modeler.core.project.ProcessDefinitionIndex;
+import org.camunda.bpm.modeler.core.project.ProcessDefinitionIndex.ProcessDefinition;
 import org.camunda.bpm.modeler.runtime.engine.model.InType;
 import org.camunda.bpm.modeler.runtime.engine.model.ModelFactory;
 import org.camunda.bpm.modeler.runtime.engine.model.ModelPackage;
@@ -42,11 +47,18 @@ import org.eclipse.emf.validation.model.ConstraintStatus;
 import org.eclipse.emf.validation.model.EvaluationMode;
 import org.eclipse.emf.validation.service.ModelValidationService;
 import org.eclipse.graphiti.ui.platform.GFPropertySection;
+import org.eclipse.jface.bindings.keys.KeyStroke;
+import org.eclipse.jface.fieldassist.ContentProposal;
+import org.eclipse.jface.fieldassist.ContentProposalAdapter;
 import org.eclipse.jface.fieldassist.ControlDecoration;
 import org.eclipse.jface.fieldassist.FieldDecoration;
 import org.eclipse.jface.fieldassist.FieldDecorationRegistry;
+import org.eclipse.jface.fieldassist.IContentProposal;
+import org.eclipse.jface.fieldassist.IContentProposalProvider;
+import org.eclipse.jface.fieldassist.TextContentAdapter;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.window.DefaultToolTip;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -97,7 +109,8 @@ public class CallActivityPropertiesBuilder extends
 	@Override
 	public void create() {
 
-		PropertyUtil.createText(section, parent, CALLED_ELEMENT, ModelPackage.eINSTANCE.getCallActivity_CalledElement(), bo);
+		Text calledElementText = PropertyUtil.createText(section, parent, CALLED_ELEMENT, ModelPackage.eINSTANCE.getCallActivity_CalledElement(), bo);
+		addCalledElementAssist(calledElementText);
 
 		final CCombo dropDown = PropertyUtil.createDropDown(section, parent, "Element Binding");
 		dropDown.add("latest");
@@ -150,6 +163,46 @@ public class CallActivityPropertiesBuilder extends
 		createCheckbox(section, parent, outTypeCls, outTypeFeature, OUT_TYPE_ALL_VARIABLES, "All Variables", HelpText.CALL_ACTIVITY_ALL_VARIABLES_OUT, VARIABLES_ALL);
 	}
 
+	/**
+	 * Proposes the ids of the processes defined in the workspace for the called element
+	 * and warns about called elements not defined in the workspace.
+	 *
+	 * @param calledElementText
+	 */
+	private void addCalledElementAssist(final Text calledElementText) {
+		final ProcessDefinitionIndex index = ProcessDefinitionIndex.getInstance();
+
+		ContentProposalAdapter proposalAdapter = new ContentProposalAdapter(
+				calledElementText, new TextContentAdapter(), new CalledElementProposalProvider(index),
+				KeyStroke.getInstance(SWT.CTRL, ' '), null);
+
+		proposalAdapter.setProposalAcceptanceStyle(ContentProposalAdapter.PROPOSAL_REPLACE);
+
+		final ControlDecoration warningDecoration = new ControlDecoration(calledElementText, SWT.TOP | SWT.LEFT);
+
+		FieldDecoration warningFieldIndicator = FieldDecorationRegistry.getDefault().getFieldDecoration(FieldDecorationRegistry.DEC_WARNING);
+		warningDecoration.setImage(warningFieldIndicator.getImage());
+		warningDecoration.hide();
+
+		Listener checkListener = new Listener() {
+
+			@Override
+			public void handleEvent(Event event) {
+				String calledElement = calledElementText.getText();
+
+				if (index.isUndefined(calledElement)) {
+					warningDecoration.setDescriptionText(NLS.bind(Messages.Bpmn2BatchValidationConstraint_38, calledElement));
+					warningDecoration.show();
+				} else {
+					warningDecoration.hide();
+				}
+			}
+		};
+
+		calledElementText.addListener(SWT.Modify, checkListener);
+		checkListener.handleEvent(null);
+	}
+
 	private <T extends EObject> void createMappingsTable(
 			GFPropertySection section, Composite parent,
 			final Class<T> typeCls, String label, final EClass typeECls,
@@ -347,6 +400,50 @@ public class CallActivityPropertiesBuilder extends
 		}
 	}
 
+	/**
+	 * Proposes the processes from the {@link ProcessDefinitionIndex}
+	 * whose id or name starts with the text typed so far
+	 */
+	private static class CalledElementProposalProvider implements IContentProposalProvider {
+
+		private final ProcessDefinitionIndex index;
+
+		public CalledElementProposalProvider(ProcessDefinitionIndex index) {
+			this.index = index;
+		}
+
+		@Override
+		public IContentProposal[] getProposals(String contents, int position) {
+			String prefix = contents.substring(0, position).toLowerCase();
+
+			Map<String, ProcessDefinition> matches = new TreeMap<String, ProcessDefinition>();
+
+			for (ProcessDefinition processDefinition : index.getProcessDefinitions()) {
+				String id = processDefinition.getId();
+				String name = processDefinition.getName();
+
+				if (id.toLowerCase().startsWith(prefix) || (name != null && name.toLowerCase().startsWith(prefix))) {
+					if (!matches.containsKey(id)) {
+						matches.put(id, processDefinition);
+					}
+				}
+			}
+
+			List<IContentProposal> proposals = new ArrayList<IContentProposal>();
+
+			for (ProcessDefinition processDefinition : matches.values()) {
+				String id = processDefinition.getId();
+				String name = processDefinition.getName();
+
+				String label = name == null || name.isEmpty() ? id : id + " - " + name;
+
+				proposals.add(new ContentProposal(id, label, processDefinition.getPath()));
+			}
+
+			return proposals.toArray(new IContentProposal[proposals.size()]);
+		}
+	}
+
 	private class CalledElementVersionTextBinding extends IntegerTextBinding {
 
 		List<Integer> checkedErrorCodes = new ArrayList<Integer>();